@@ -0,0 +1,73 @@
+package Apalabrazos.backend.AIQuestion;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Elección de las 4 respuestas de una letra: copia + {@code Collections.shuffle} de toda la lista
+ * (lo que hacía {@code buildCandidatesForBatch}) frente a {@link CandidateSampler} (Floyd sobre la
+ * lista compartida), con y sin restricción de longitud. N es el número de palabras de la letra.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CandidateSamplerBenchmark {
+
+    @Param({"500", "2000", "6000"})
+    public int words;
+
+    private List<String> letterWords;
+    private CandidateSampler plain;
+    private CandidateSampler constrained;
+    private SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        DictionaryIndex.Builder builder = DictionaryIndex.builder();
+        SplittableRandom lengths = new SplittableRandom(1);
+        for (int i = 0; i < words; i++) {
+            String word = ("c" + i + "abcdefghij").substring(0, 4 + lengths.nextInt(8));
+            builder.add("c", word, word);
+        }
+        letterWords = builder.build().words("c");
+        plain = new CandidateSampler(0, 0);
+        constrained = new CandidateSampler(32, 2);
+        random = new SplittableRandom(7);
+    }
+
+    @Benchmark
+    public List<String> copyAndShuffle() {
+        List<String> available = new ArrayList<>(letterWords);
+        Collections.shuffle(available);
+        return new ArrayList<>(available.subList(0, 4));
+    }
+
+    @Benchmark
+    public CandidateSampler.Sample floyd() {
+        return plain.sample("c", letterWords, 4, random);
+    }
+
+    @Benchmark
+    public CandidateSampler.Sample floydWithRecentAndLength() {
+        return constrained.sample("c", letterWords, 4, random);
+    }
+}
@@ -0,0 +1,56 @@
+package Apalabrazos.backend.events;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste del reparto de un evento a N listeners en {@link AsyncEventBus#publish}
+ * (un virtual thread por listener más el allOf final).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AsyncEventBusBenchmark {
+
+    @Param({"1", "4", "16"})
+    public int listeners;
+
+    private AsyncEventBus bus;
+    private TimerTickEvent event;
+
+    @Setup(Level.Trial)
+    public void setUp(Blackhole blackhole) {
+        bus = new AsyncEventBus();
+        for (int i = 0; i < listeners; i++) {
+            bus.addListener(blackhole::consume);
+        }
+        event = new TimerTickEvent(120, "bench-match");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        bus.shutdown();
+    }
+
+    @Benchmark
+    public void publishAndJoin() {
+        bus.publish(event).join();
+    }
+}
@@ -0,0 +1,84 @@
+package Apalabrazos.backend.network;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialización de mensajes salientes tal y como la hace {@link WebSocketMessageSender#send}.
+ * Se mide {@code encode}, el paso previo a {@code session.send}, porque un WsContext de
+ * Javalin no se puede construir fuera de un servidor.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WebSocketMessageSenderBenchmark {
+
+    private Map<String, Object> timerTick;
+    private Map<String, Object> gameFinished;
+    private String preEncoded;
+
+    @Setup(Level.Trial)
+    public void setUp() throws JsonProcessingException {
+        Map<String, Object> tickPayload = new LinkedHashMap<>();
+        tickPayload.put("remainingSeconds", 97);
+        tickPayload.put("matchId", "bench-match");
+        timerTick = envelope(WsMessageType.TIMER_TICK, tickPayload);
+
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("playerId", "player" + i + "-0001");
+            result.put("score", 120 - i * 15);
+            result.put("correct", 18 - i);
+            result.put("incorrect", 4 + i);
+            results.add(result);
+        }
+        Map<String, Object> finishedPayload = new LinkedHashMap<>();
+        finishedPayload.put("matchId", "bench-match");
+        finishedPayload.put("results", results);
+        gameFinished = envelope(WsMessageType.GAME_FINISHED, finishedPayload);
+
+        preEncoded = WebSocketMessageSender.encode(gameFinished);
+    }
+
+    @Benchmark
+    public String encodeTimerTick() throws JsonProcessingException {
+        return WebSocketMessageSender.encode(timerTick);
+    }
+
+    @Benchmark
+    public String encodeGameFinished() throws JsonProcessingException {
+        return WebSocketMessageSender.encode(gameFinished);
+    }
+
+    @Benchmark
+    public String encodePreEncodedString() throws JsonProcessingException {
+        return WebSocketMessageSender.encode(preEncoded);
+    }
+
+    private static Map<String, Object> envelope(String type, Object payload) {
+        Map<String, Object> message = new LinkedHashMap<>();
+        message.put("type", type);
+        message.put("payload", payload);
+        return message;
+    }
+}
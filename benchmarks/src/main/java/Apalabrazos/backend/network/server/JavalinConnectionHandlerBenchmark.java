@@ -0,0 +1,38 @@
+package Apalabrazos.backend.network.server;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decodificación de un mensaje entrante del frontend, el primer paso de
+ * {@link JavalinConnectionHandler#onMessage}. Como en el envío, el WsMessageContext de
+ * Javalin no se puede construir fuera del servidor, así que se mide {@code decodeMessage}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JavalinConnectionHandlerBenchmark {
+
+    private final String answerSubmitted =
+            "{\"type\":\"AnswerSubmitted\",\"data\":{\"questionIndex\":7,\"selectedOption\":2,"
+                    + "\"submittedAt\":1760000000000}}";
+
+    @Benchmark
+    public JsonNode decodeAnswerSubmitted() throws JsonProcessingException {
+        return JavalinConnectionHandler.decodeMessage(answerSubmitted);
+    }
+}
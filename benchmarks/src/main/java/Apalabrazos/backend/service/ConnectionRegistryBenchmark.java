@@ -0,0 +1,69 @@
+package Apalabrazos.backend.service;
+
+import Apalabrazos.backend.model.Player;
+import Apalabrazos.backend.simulation.BotMessageSender;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Búsquedas en {@link ConnectionRegistry} con N conexiones registradas: por sessionId
+ * (mapa) y por playerId (recorrido de todas las conexiones). Se busca el último jugador
+ * registrado para no depender del orden de iteración del mapa.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConnectionRegistryBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int connections;
+
+    private ConnectionRegistry registry;
+    private UUID targetSessionId;
+    private String targetPlayerId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        registry = ConnectionRegistry.getInstance();
+        registry.clearAllConnections();
+        BotMessageSender sender = new BotMessageSender(message -> { });
+        for (int i = 0; i < connections; i++) {
+            Player player = new Player(UUID.randomUUID(), "bench" + i, "cosmos-" + i, sender);
+            registry.registerConnection(player);
+            targetSessionId = player.getSessionId();
+            targetPlayerId = player.getPlayerID();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        registry.clearAllConnections();
+    }
+
+    @Benchmark
+    public Player getPlayerBySessionId() {
+        return registry.getPlayerBySessionId(targetSessionId);
+    }
+
+    @Benchmark
+    public Player findConnectedPlayerByPlayerId() {
+        return registry.findConnectedPlayerByPlayerId(targetPlayerId);
+    }
+}
@@ -0,0 +1,102 @@
+package Apalabrazos.backend.service;
+
+import Apalabrazos.backend.events.AnswerSubmittedEvent;
+import Apalabrazos.backend.events.StandingsEvent;
+import Apalabrazos.backend.model.GameGlobal;
+import Apalabrazos.backend.model.GameInstance;
+import Apalabrazos.backend.model.Question;
+import Apalabrazos.backend.model.QuestionLevel;
+import Apalabrazos.backend.model.QuestionList;
+import Apalabrazos.backend.model.QuestionStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caminos calientes de una partida: procesar una respuesta y construir el ranking.
+ * <p>
+ * La respuesta medida es un pase (-1) que entra por el buzón de la partida, como en producción.
+ * Un pase suma uno al contador de pases de la pregunta y mueve la pregunta actual, así que el
+ * estado del jugador se restaura antes de cada invocación para que todas midan lo mismo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GameServiceBenchmark {
+
+    private static final int QUESTIONS = 27;
+
+    @Param({"2", "8"})
+    public int players;
+
+    private GameService gameService;
+    private AnswerSubmittedEvent passEvent;
+    private GameInstance passingPlayer;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        gameService = new GameService();
+        GameGlobal global = gameService.getGameInstance();
+        global.setMaxPlayers(players);
+        for (int p = 0; p < players; p++) {
+            String playerId = "bench-" + p;
+            gameService.addPlayerToGame(playerId);
+            global.getPlayerInstance(playerId).setQuestionList(buildQuestions());
+            global.getPlayerInstance(playerId).addToTotalScore(p * 10);
+        }
+        passEvent = new AnswerSubmittedEvent("bench-0", 0, -1);
+        passingPlayer = global.getPlayerInstance("bench-0");
+    }
+
+    @Setup(Level.Invocation)
+    public void resetPassingPlayer() {
+        Question question = passingPlayer.getQuestionList().getQuestionAt(0);
+        question.setPassedCount(0);
+        question.setQuestionStatus(QuestionStatus.INIT);
+        question.setUserResponseRecorded(QuestionStatus.INIT.getValue());
+        passingPlayer.setNextCurrentQuestionIndex(0);
+        passingPlayer.setTotalScore(0);
+    }
+
+    @Benchmark
+    public void submitAnswerPass() {
+        gameService.submitAnswer(passEvent).join();
+    }
+
+    @Benchmark
+    public StandingsEvent buildStandingsEvent() {
+        return gameService.buildStandingsEvent();
+    }
+
+    private static QuestionList buildQuestions() {
+        QuestionList list = new QuestionList();
+        for (int i = 0; i < QUESTIONS; i++) {
+            String letter = String.valueOf((char) ('a' + i % 26));
+            Question question = new Question(
+                    "Pregunta " + letter,
+                    List.of("r1", "r2", "r3", "r4"),
+                    0,
+                    QuestionStatus.INIT,
+                    QuestionLevel.MEDIUM,
+                    letter,
+                    QuestionStatus.INIT.getValue());
+            list.addQuestion(question);
+        }
+        return list;
+    }
+}
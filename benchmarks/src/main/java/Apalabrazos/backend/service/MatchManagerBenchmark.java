@@ -0,0 +1,60 @@
+package Apalabrazos.backend.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Snapshot del lobby ({@link MatchManager#getActiveMatchesSummary()}) con N partidas
+ * activas de dos jugadores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MatchManagerBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int matches;
+
+    private MatchManager matchManager;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        matchManager = MatchManager.getInstance();
+        matchManager.clearAllMatches();
+        for (int i = 0; i < matches; i++) {
+            GameService gameService = new GameService();
+            gameService.setGameName("bench " + i);
+            gameService.addPlayerToGame("creator" + i + "-0001");
+            gameService.addPlayerToGame("guest" + i + "-0002");
+            matchManager.addMatch(gameService);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        matchManager.clearAllMatches();
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> getActiveMatchesSummary() {
+        return matchManager.getActiveMatchesSummary();
+    }
+}
@@ -0,0 +1,32 @@
+package Apalabrazos.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Punto de entrada de benchmarks.jar.
+ * <p>
+ * Acepta las mismas opciones que la línea de comandos de JMH (regex de benchmarks,
+ * -f, -wi, -i, -p listeners=4...) y añade siempre el perfilador de GC ({@code -prof gc})
+ * para que cada resultado venga con bytes asignados por operación. Los logs del backend
+ * se bajan a WARN con logback-bench.xml para no medir la consola.
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .jvmArgsAppend("-Dlogback.configurationFile=logback-bench.xml")
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,296 @@
+package Apalabrazos.loadtest;
+
+import Apalabrazos.backend.network.WsMessageType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.WebSocket;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Un usuario simulado de extremo a extremo: login HTTP, WebSocket autenticado y el
+ * mismo protocolo JSON que el frontend ({@code {type, data}} hacia el servidor,
+ * {@code {type, payload}} de vuelta).
+ * <p>
+ * Los callbacks del WebSocket corren en el executor de virtual threads del HttpClient;
+ * los envíos se encadenan porque java.net.http no admite dos envíos simultáneos.
+ */
+final class LoadClient implements WebSocket.Listener {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadClient.class);
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final int index;
+    private final LoadTestConfig config;
+    private final HttpClient http;
+    private final LoadMetrics metrics;
+    private final ScheduledExecutorService timer;
+    private final Random random;
+
+    // Esperas de mensajes concretos (respuesta a crear/unirse...), por tipo
+    private final Map<String, CompletableFuture<JsonNode>> waiters = new ConcurrentHashMap<>();
+    private final CompletableFuture<String> finished = new CompletableFuture<>();
+    private final StringBuilder partial = new StringBuilder();
+
+    private volatile WebSocket webSocket;
+    private CompletableFuture<?> sendChain = CompletableFuture.completedFuture(null);
+    private volatile String token;
+    private volatile String userId;
+    private volatile String roomId;
+    private volatile boolean playing;
+    private volatile long answerSentNanos;
+
+    LoadClient(int index, LoadTestConfig config, HttpClient http, LoadMetrics metrics,
+               ScheduledExecutorService timer) {
+        this.index = index;
+        this.config = config;
+        this.http = http;
+        this.metrics = metrics;
+        this.timer = timer;
+        this.random = new Random(config.seed + index);
+    }
+
+    /**
+     * POST /api/login y extracción del userId del JWT (claim "userId").
+     */
+    void login() throws IOException, InterruptedException {
+        String body = objectMapper.writeValueAsString(Map.of("email", config.email(index), "pass", config.password));
+        HttpRequest request = HttpRequest.newBuilder(config.loginUri())
+                .timeout(Duration.ofMillis(config.connectTimeoutMillis))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+
+        long start = System.nanoTime();
+        HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+        metrics.login.recordNanos(System.nanoTime() - start);
+        if (response.statusCode() != 200) {
+            throw new IOException("login HTTP " + response.statusCode());
+        }
+
+        token = objectMapper.readTree(response.body()).path("token").asText(null);
+        if (token == null) {
+            throw new IOException("login response without token");
+        }
+        String[] parts = token.split("\\.");
+        JsonNode claims = objectMapper.readTree(Base64.getUrlDecoder().decode(parts[1]));
+        userId = claims.path("userId").asText(null);
+        metrics.loginsOk.increment();
+    }
+
+    /**
+     * Abrir /ws/game/{userId}?token=... y esperar al handshake.
+     */
+    void connect() {
+        long start = System.nanoTime();
+        webSocket = http.newWebSocketBuilder()
+                .connectTimeout(Duration.ofMillis(config.connectTimeoutMillis))
+                .buildAsync(config.webSocketUri(userId, token), this)
+                .join();
+        metrics.connect.recordNanos(System.nanoTime() - start);
+        metrics.connectsOk.increment();
+        metrics.socketOpened();
+    }
+
+    /**
+     * Registrar la espera de cualquiera de los tipos indicados. Hay que llamarlo antes
+     * de enviar la petición para no perder la respuesta.
+     */
+    CompletableFuture<JsonNode> expect(String... types) {
+        CompletableFuture<JsonNode> future = new CompletableFuture<>();
+        for (String type : types) {
+            waiters.put(type, future);
+        }
+        return future;
+    }
+
+    void createMatch(String name) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("name", name);
+        data.put("players", config.playersPerMatch);
+        data.put("gameType", "HIGHER_POINTS_WINS");
+        data.put("time", config.timerSeconds / 60.0);
+        data.put("difficulty", config.difficulty);
+        data.put("requestedAt", System.currentTimeMillis());
+        send("GameCreationRequest", data);
+    }
+
+    void joinMatch(String matchId) {
+        send("JoinMatchRequest", Map.of("roomId", matchId));
+    }
+
+    void startMatch() {
+        send("StartMatchRequest", Map.of("roomId", roomId));
+    }
+
+    void leaveAndClose() {
+        if (webSocket == null) {
+            return;
+        }
+        if (roomId != null) {
+            send("LeaveMatchRequest", Map.of());
+        }
+        synchronized (this) {
+            sendChain = sendChain
+                    .exceptionally(e -> null)
+                    .thenCompose(v -> webSocket.sendClose(WebSocket.NORMAL_CLOSURE, "done"));
+        }
+    }
+
+    void setRoomId(String roomId) {
+        this.roomId = roomId;
+    }
+
+    /**
+     * Se completa con el tipo de mensaje que cerró la partida para este cliente.
+     */
+    CompletableFuture<String> finished() {
+        return finished;
+    }
+
+    private void send(String type, Map<String, Object> data) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(Map.of("type", type, "data", data));
+        } catch (IOException e) {
+            metrics.error("encode");
+            return;
+        }
+        synchronized (this) {
+            sendChain = sendChain
+                    .exceptionally(e -> null)
+                    .thenCompose(v -> webSocket.sendText(json, true))
+                    .whenComplete((ws, e) -> {
+                        if (e != null) {
+                            metrics.error("send");
+                        } else {
+                            metrics.messagesSent.increment();
+                        }
+                    });
+        }
+    }
+
+    // ── WebSocket.Listener ─────────────────────────────────────────────────
+
+    @Override
+    public CompletionStage<?> onText(WebSocket ws, CharSequence data, boolean last) {
+        String message = null;
+        synchronized (partial) {
+            partial.append(data);
+            if (last) {
+                message = partial.toString();
+                partial.setLength(0);
+            }
+        }
+        if (message != null) {
+            metrics.messagesReceived.increment();
+            metrics.bytesReceived.add(message.length());
+            try {
+                handle(objectMapper.readTree(message));
+            } catch (Exception e) {
+                metrics.error("handle");
+                log.debug("[LOADTEST] Client {} could not handle message: {}", index, e.getMessage());
+            }
+        }
+        ws.request(1);
+        return null;
+    }
+
+    @Override
+    public CompletionStage<?> onClose(WebSocket ws, int statusCode, String reason) {
+        metrics.socketClosed();
+        if (statusCode != WebSocket.NORMAL_CLOSURE) {
+            metrics.error("close-" + statusCode);
+        }
+        finished.complete("Closed");
+        return null;
+    }
+
+    @Override
+    public void onError(WebSocket ws, Throwable error) {
+        metrics.socketClosed();
+        metrics.error("ws-" + error.getClass().getSimpleName());
+        finished.complete("Error");
+    }
+
+    private void handle(JsonNode message) {
+        String type = message.path("type").asText("");
+        JsonNode payload = message.path("payload");
+
+        CompletableFuture<JsonNode> waiter = waiters.remove(type);
+        if (waiter != null) {
+            waiters.values().removeIf(other -> other == waiter);
+            waiter.complete(message);
+        }
+
+        switch (type) {
+            case WsMessageType.MATCH_STARTED:
+                playing = true;
+                send("GameControllerReady", Map.of("roomId", roomId));
+                break;
+            case WsMessageType.QUESTION_CHANGED:
+                onQuestionChanged(payload);
+                break;
+            case WsMessageType.GAME_FINISHED:
+            case WsMessageType.MATCH_CLOSED_BY_CREATOR:
+            case WsMessageType.QUESTION_LOAD_ERROR:
+            case WsMessageType.START_MATCH_REQUEST_INVALID:
+                playing = false;
+                finished.complete(type);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void onQuestionChanged(JsonNode payload) {
+        long sent = answerSentNanos;
+        if (sent != 0L) {
+            answerSentNanos = 0L;
+            metrics.answerRoundTrip.recordNanos(System.nanoTime() - sent);
+        }
+
+        JsonNode nextQuestion = payload.path("nextQuestion");
+        if (!playing || nextQuestion.isMissingNode() || nextQuestion.isNull()) {
+            return;
+        }
+
+        int questionIndex = payload.path("questionIndex").asInt(-1);
+        int options = Math.min(4, nextQuestion.path("questionResponsesList").size());
+        int selectedOption = options <= 0 || random.nextDouble() < config.passProbability
+                ? -1
+                : random.nextInt(options);
+        long delayMs = config.thinkTime.nextMillis(random);
+
+        timer.schedule(() -> {
+            if (!playing) {
+                return;
+            }
+            answerSentNanos = System.nanoTime();
+            metrics.answers.increment();
+            send("AnswerSubmitted", Map.of(
+                    "questionIndex", questionIndex,
+                    "selectedOption", selectedOption,
+                    "submittedAt", System.currentTimeMillis()));
+        }, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    String userId() {
+        return userId;
+    }
+}
@@ -0,0 +1,127 @@
+package Apalabrazos.loadtest;
+
+import Apalabrazos.backend.metrics.LatencyHistogram;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Métricas agregadas de todos los clientes de carga: histogramas por operación,
+ * contadores y una línea temporal muestreada para ver el efecto de la rampa.
+ */
+final class LoadMetrics {
+
+    final LatencyHistogram login = new LatencyHistogram();
+    final LatencyHistogram connect = new LatencyHistogram();
+    final LatencyHistogram matchCreate = new LatencyHistogram();
+    final LatencyHistogram matchJoin = new LatencyHistogram();
+    final LatencyHistogram answerRoundTrip = new LatencyHistogram();
+
+    final LongAdder loginsOk = new LongAdder();
+    final LongAdder connectsOk = new LongAdder();
+    final LongAdder messagesReceived = new LongAdder();
+    final LongAdder bytesReceived = new LongAdder();
+    final LongAdder messagesSent = new LongAdder();
+    final LongAdder answers = new LongAdder();
+    final LongAdder matchesStarted = new LongAdder();
+    final LongAdder matchesFinished = new LongAdder();
+    final LongAdder matchesFailed = new LongAdder();
+
+    private final AtomicLong openSockets = new AtomicLong();
+    private final AtomicLong peakOpenSockets = new AtomicLong();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+    private final List<Map<String, Object>> timeline = new ArrayList<>();
+
+    private long lastSampleNanos;
+    private long lastMessages;
+    private long lastAnswers;
+
+    void socketOpened() {
+        long open = openSockets.incrementAndGet();
+        peakOpenSockets.accumulateAndGet(open, Math::max);
+    }
+
+    void socketClosed() {
+        openSockets.decrementAndGet();
+    }
+
+    void error(String kind) {
+        errors.computeIfAbsent(kind, k -> new LongAdder()).increment();
+    }
+
+    long openSockets() {
+        return openSockets.get();
+    }
+
+    /**
+     * Añadir un punto a la línea temporal (segundos desde el inicio, sockets y ritmos).
+     */
+    synchronized void sample(long startNanos) {
+        long now = System.nanoTime();
+        long messages = messagesReceived.sum();
+        long answered = answers.sum();
+        double seconds = lastSampleNanos == 0 ? 0 : (now - lastSampleNanos) / 1_000_000_000.0;
+
+        Map<String, Object> point = new LinkedHashMap<>();
+        point.put("t", round((now - startNanos) / 1_000_000_000.0));
+        point.put("openSockets", openSockets.get());
+        point.put("messagesPerSecond", seconds > 0 ? round((messages - lastMessages) / seconds) : 0.0);
+        point.put("answersPerSecond", seconds > 0 ? round((answered - lastAnswers) / seconds) : 0.0);
+        timeline.add(point);
+
+        lastSampleNanos = now;
+        lastMessages = messages;
+        lastAnswers = answered;
+    }
+
+    synchronized Map<String, Object> report(LoadTestConfig config, long elapsedNanos) {
+        double seconds = elapsedNanos / 1_000_000_000.0;
+
+        Map<String, Object> counters = new LinkedHashMap<>();
+        counters.put("loginsOk", loginsOk.sum());
+        counters.put("connectsOk", connectsOk.sum());
+        counters.put("peakOpenSockets", peakOpenSockets.get());
+        counters.put("matchesStarted", matchesStarted.sum());
+        counters.put("matchesFinished", matchesFinished.sum());
+        counters.put("matchesFailed", matchesFailed.sum());
+        counters.put("answers", answers.sum());
+        counters.put("messagesSent", messagesSent.sum());
+        counters.put("messagesReceived", messagesReceived.sum());
+        counters.put("bytesReceived", bytesReceived.sum());
+
+        Map<String, Object> throughput = new LinkedHashMap<>();
+        throughput.put("elapsedMs", elapsedNanos / 1_000_000L);
+        throughput.put("loginsPerSecond", round(loginsOk.sum() / seconds));
+        throughput.put("answersPerSecond", round(answers.sum() / seconds));
+        throughput.put("messagesReceivedPerSecond", round(messagesReceived.sum() / seconds));
+
+        Map<String, Object> latency = new LinkedHashMap<>();
+        latency.put("login", login.snapshot());
+        latency.put("connect", connect.snapshot());
+        latency.put("matchCreate", matchCreate.snapshot());
+        latency.put("matchJoin", matchJoin.snapshot());
+        latency.put("answerRoundTrip", answerRoundTrip.snapshot());
+
+        Map<String, Long> errorCounts = new TreeMap<>();
+        errors.forEach((kind, count) -> errorCounts.put(kind, count.sum()));
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("config", config.toMap());
+        report.put("counters", counters);
+        report.put("throughput", throughput);
+        report.put("latency", latency);
+        report.put("errors", errorCounts);
+        report.put("timeline", new ArrayList<>(timeline));
+        return report;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+}
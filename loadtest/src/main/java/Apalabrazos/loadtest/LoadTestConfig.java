@@ -0,0 +1,109 @@
+package Apalabrazos.loadtest;
+
+import Apalabrazos.backend.simulation.ThinkTime;
+
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Parámetros de una ejecución del generador de carga (argumentos clave=valor).
+ * <p>
+ * Los usuarios se identifican por índice: {@code loadtest<i>@loadtest.local}, los mismos
+ * que siembra el servidor con USER_STORE=memory y USER_STORE_SEED_COUNT.
+ */
+final class LoadTestConfig {
+
+    final URI baseUri;
+    final int users;
+    final int userOffset;
+    final String password;
+    final int playersPerMatch;
+    final double lobbyOnlyRatio;
+    final long rampMillis;
+    final ThinkTime thinkTime;
+    final double passProbability;
+    final int timerSeconds;
+    final String difficulty;
+    final int httpClients;
+    final long connectTimeoutMillis;
+    final long timeoutSeconds;
+    final String reportPath;
+    final long seed;
+
+    private LoadTestConfig(Map<String, String> options) {
+        this.baseUri = URI.create(stripTrailingSlash(options.getOrDefault("url", "http://localhost:8080")));
+        this.users = Integer.parseInt(options.getOrDefault("users", "100"));
+        this.userOffset = Integer.parseInt(options.getOrDefault("offset", "0"));
+        this.password = options.getOrDefault("password", "loadtest123");
+        this.playersPerMatch = Integer.parseInt(options.getOrDefault("players", "4"));
+        this.lobbyOnlyRatio = Double.parseDouble(options.getOrDefault("lobbyOnly", "0.0"));
+        this.rampMillis = Long.parseLong(options.getOrDefault("ramp", "30")) * 1000L;
+        this.thinkTime = ThinkTime.parse(options.getOrDefault("think", "uniform:500-3000"));
+        this.passProbability = Double.parseDouble(options.getOrDefault("pass", "0.1"));
+        this.timerSeconds = Integer.parseInt(options.getOrDefault("timer", "120"));
+        this.difficulty = options.getOrDefault("difficulty", "medium");
+        this.httpClients = Integer.parseInt(options.getOrDefault("httpClients", "8"));
+        this.connectTimeoutMillis = Long.parseLong(options.getOrDefault("connectTimeout", "10")) * 1000L;
+        this.timeoutSeconds = Long.parseLong(options.getOrDefault("timeout",
+                String.valueOf(rampMillis / 1000L + timerSeconds + 120)));
+        this.reportPath = options.getOrDefault("report", "loadtest-report.json");
+        this.seed = Long.parseLong(options.getOrDefault("seed", "42"));
+
+        if (users < 1) {
+            throw new IllegalArgumentException("users must be >= 1");
+        }
+        if (playersPerMatch < 2 || playersPerMatch > 8) {
+            throw new IllegalArgumentException("players must be between 2 and 8 (MatchManager limit)");
+        }
+        if (lobbyOnlyRatio < 0.0 || lobbyOnlyRatio > 1.0) {
+            throw new IllegalArgumentException("lobbyOnly must be between 0 and 1");
+        }
+        if (httpClients < 1) {
+            throw new IllegalArgumentException("httpClients must be >= 1");
+        }
+    }
+
+    static LoadTestConfig parse(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq > 0) {
+                options.put(arg.substring(0, eq).replaceFirst("^-+", ""), arg.substring(eq + 1));
+            }
+        }
+        return new LoadTestConfig(options);
+    }
+
+    String email(int index) {
+        return "loadtest" + (userOffset + index) + "@loadtest.local";
+    }
+
+    URI loginUri() {
+        return baseUri.resolve("/api/login");
+    }
+
+    URI webSocketUri(String userId, String token) {
+        String scheme = "https".equalsIgnoreCase(baseUri.getScheme()) ? "wss" : "ws";
+        return URI.create(scheme + "://" + baseUri.getAuthority() + "/ws/game/" + userId + "?token=" + token);
+    }
+
+    Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("url", baseUri.toString());
+        map.put("users", users);
+        map.put("playersPerMatch", playersPerMatch);
+        map.put("lobbyOnlyRatio", lobbyOnlyRatio);
+        map.put("rampSeconds", rampMillis / 1000L);
+        map.put("think", thinkTime.toString());
+        map.put("pass", passProbability);
+        map.put("timerSeconds", timerSeconds);
+        map.put("difficulty", difficulty);
+        map.put("httpClients", httpClients);
+        return map;
+    }
+
+    private static String stripTrailingSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+}
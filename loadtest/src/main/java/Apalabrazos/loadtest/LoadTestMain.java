@@ -0,0 +1,239 @@
+package Apalabrazos.loadtest;
+
+import Apalabrazos.backend.network.WsMessageType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generador de carga WebSocket de extremo a extremo contra EmbeddedWebSocketServer.
+ * <p>
+ * Cada usuario es un {@link LoadClient} en su propio virtual thread: login en /api/login,
+ * WebSocket en /ws/game/{userId}?token=..., y después el protocolo real de lobby y partida
+ * (crear, unirse, empezar, GameControllerReady, responder, salir). Los usuarios se agrupan
+ * en mesas de {@code players}; una fracción {@code lobbyOnly} solo se conecta y se queda en
+ * el lobby recibiendo los broadcasts. Los arranques se reparten uniformemente en {@code ramp}
+ * segundos.
+ * <p>
+ * Servidor local sin Cosmos:
+ * <pre>
+ * USER_STORE=memory USER_STORE_SEED_COUNT=20000 AI_QUESTIONS_FALLBACK_ONLY=true \
+ *   JWT_SECRET=... mvn -q exec:java
+ * </pre>
+ * Opciones: url, users, offset, password, players, lobbyOnly, ramp, think, pass, timer,
+ * difficulty, httpClients, connectTimeout, timeout, report, seed.
+ */
+public final class LoadTestMain {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadTestMain.class);
+    private static final long SAMPLE_PERIOD_SECONDS = 5;
+
+    private LoadTestMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+        LoadMetrics metrics = new LoadMetrics();
+
+        ExecutorService virtualThreads = Executors.newVirtualThreadPerTaskExecutor();
+        ScheduledExecutorService timer = Executors.newScheduledThreadPool(2, r -> {
+            Thread thread = new Thread(r, "loadtest-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        // Varios HttpClient: cada uno tiene un único hilo selector para todos sus sockets
+        List<HttpClient> httpClients = new ArrayList<>();
+        for (int i = 0; i < config.httpClients; i++) {
+            httpClients.add(HttpClient.newBuilder()
+                    .executor(virtualThreads)
+                    .connectTimeout(Duration.ofMillis(config.connectTimeoutMillis))
+                    .build());
+        }
+
+        List<LoadClient> clients = new ArrayList<>(config.users);
+        for (int i = 0; i < config.users; i++) {
+            clients.add(new LoadClient(i, config, httpClients.get(i % httpClients.size()), metrics, timer));
+        }
+
+        int lobbyOnly = (int) Math.round(config.users * config.lobbyOnlyRatio);
+        int tables = (config.users - lobbyOnly) / config.playersPerMatch;
+        int playing = tables * config.playersPerMatch;
+        String runTag = UUID.randomUUID().toString().substring(0, 4);
+
+        log.info("[LOADTEST] {} users -> {} tables x {} players + {} lobby-only, ramp {} s, target {}",
+                config.users, tables, config.playersPerMatch, config.users - playing,
+                config.rampMillis / 1000L, config.baseUri);
+
+        long startNanos = System.nanoTime();
+        metrics.sample(startNanos);
+        timer.scheduleAtFixedRate(() -> metrics.sample(startNanos),
+                SAMPLE_PERIOD_SECONDS, SAMPLE_PERIOD_SECONDS, TimeUnit.SECONDS);
+
+        CompletableFuture<Void> allTablesDone = new CompletableFuture<>();
+        AtomicInteger pendingTables = new AtomicInteger(tables);
+        if (tables == 0) {
+            allTablesDone.complete(null);
+        }
+
+        List<CompletableFuture<?>> runs = new ArrayList<>();
+        for (int t = 0; t < tables; t++) {
+            List<LoadClient> table = clients.subList(t * config.playersPerMatch, (t + 1) * config.playersPerMatch);
+            long startAt = startOffsetMillis(config, t * config.playersPerMatch);
+            String gameName = "lt" + t + "-" + runTag;
+            runs.add(CompletableFuture.runAsync(() -> {
+                try {
+                    sleepUntil(startNanos, startAt);
+                    runTable(table, gameName, config, metrics);
+                } finally {
+                    if (pendingTables.decrementAndGet() == 0) {
+                        allTablesDone.complete(null);
+                    }
+                }
+            }, virtualThreads));
+        }
+        for (int i = playing; i < config.users; i++) {
+            LoadClient client = clients.get(i);
+            long startAt = startOffsetMillis(config, i);
+            runs.add(CompletableFuture.runAsync(() -> {
+                sleepUntil(startNanos, startAt);
+                runLobbyOnly(client, allTablesDone, metrics);
+            }, virtualThreads));
+        }
+
+        try {
+            CompletableFuture.allOf(runs.toArray(new CompletableFuture[0]))
+                    .get(config.timeoutSeconds, TimeUnit.SECONDS);
+        } catch (java.util.concurrent.TimeoutException e) {
+            log.warn("[LOADTEST] Global timeout ({} s) reached with {} tables still running",
+                    config.timeoutSeconds, pendingTables.get());
+            metrics.error("global-timeout");
+        }
+        long elapsedNanos = System.nanoTime() - startNanos;
+        metrics.sample(startNanos);
+
+        Map<String, Object> report = metrics.report(config, elapsedNanos);
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(new File(config.reportPath), report);
+        log.info("[LOADTEST] Finished in {} ms. Report written to {}", elapsedNanos / 1_000_000L, config.reportPath);
+        log.info("[LOADTEST] counters={} throughput={}", report.get("counters"), report.get("throughput"));
+
+        timer.shutdownNow();
+        virtualThreads.shutdownNow();
+        System.exit(0);
+    }
+
+    /**
+     * Una mesa completa: todos se conectan, el primero crea la partida, el resto se une,
+     * el creador la empieza y cada cliente juega hasta GameFinished.
+     */
+    private static void runTable(List<LoadClient> table, String gameName, LoadTestConfig config,
+                                 LoadMetrics metrics) {
+        try {
+            for (LoadClient client : table) {
+                client.login();
+                client.connect();
+            }
+
+            LoadClient creator = table.get(0);
+            CompletableFuture<JsonNode> created = creator.expect(
+                    WsMessageType.GAME_CREATION_REQUEST_VALID, WsMessageType.GAME_CREATION_REQUEST_INVALID);
+            long createStart = System.nanoTime();
+            creator.createMatch(gameName);
+            JsonNode createdMessage = created.get(30, TimeUnit.SECONDS);
+            metrics.matchCreate.recordNanos(System.nanoTime() - createStart);
+            if (!WsMessageType.GAME_CREATION_REQUEST_VALID.equals(createdMessage.path("type").asText())) {
+                throw new IllegalStateException("creation rejected: " + createdMessage.path("payload").path("cause").asText());
+            }
+            String roomId = createdMessage.path("payload").path("roomId").asText();
+            creator.setRoomId(roomId);
+
+            for (LoadClient client : table.subList(1, table.size())) {
+                CompletableFuture<JsonNode> joined = client.expect(
+                        WsMessageType.JOIN_MATCH_REQUEST_VALID, WsMessageType.JOIN_MATCH_REQUEST_INVALID);
+                long joinStart = System.nanoTime();
+                client.joinMatch(roomId);
+                JsonNode joinMessage = joined.get(30, TimeUnit.SECONDS);
+                metrics.matchJoin.recordNanos(System.nanoTime() - joinStart);
+                if (!WsMessageType.JOIN_MATCH_REQUEST_VALID.equals(joinMessage.path("type").asText())) {
+                    throw new IllegalStateException("join rejected: " + joinMessage.path("payload").path("cause").asText());
+                }
+                client.setRoomId(roomId);
+            }
+
+            creator.startMatch();
+            metrics.matchesStarted.increment();
+
+            long matchTimeout = config.timerSeconds + 60L;
+            boolean finishedOk = true;
+            for (LoadClient client : table) {
+                String outcome = client.finished().get(matchTimeout, TimeUnit.SECONDS);
+                if (!WsMessageType.GAME_FINISHED.equals(outcome)) {
+                    finishedOk = false;
+                    metrics.error("outcome-" + outcome);
+                }
+            }
+            if (finishedOk) {
+                metrics.matchesFinished.increment();
+            } else {
+                metrics.matchesFailed.increment();
+            }
+        } catch (java.util.concurrent.TimeoutException e) {
+            metrics.matchesFailed.increment();
+            metrics.error("table-timeout");
+        } catch (Exception e) {
+            metrics.matchesFailed.increment();
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            metrics.error("table-" + cause.getClass().getSimpleName());
+            log.warn("[LOADTEST] Table '{}' failed: {}", gameName, cause.getMessage());
+        } finally {
+            table.forEach(LoadClient::leaveAndClose);
+        }
+    }
+
+    /**
+     * Cliente que solo está en el lobby hasta que acaban todas las mesas.
+     */
+    private static void runLobbyOnly(LoadClient client, CompletableFuture<Void> allTablesDone, LoadMetrics metrics) {
+        try {
+            client.login();
+            client.connect();
+            allTablesDone.join();
+        } catch (Exception e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            metrics.error("lobby-" + cause.getClass().getSimpleName());
+        } finally {
+            client.leaveAndClose();
+        }
+    }
+
+    private static long startOffsetMillis(LoadTestConfig config, int userIndex) {
+        return config.users <= 1 ? 0L : config.rampMillis * userIndex / config.users;
+    }
+
+    private static void sleepUntil(long startNanos, long offsetMillis) {
+        long remaining = offsetMillis - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        if (remaining > 0) {
+            try {
+                Thread.sleep(remaining);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
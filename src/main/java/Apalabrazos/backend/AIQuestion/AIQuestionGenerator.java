@@ -1,6 +1,8 @@
 package Apalabrazos.backend.AIQuestion;
 
 import Apalabrazos.backend.config.AIQuestionConfig;
+import Apalabrazos.backend.metrics.LatencyHistogram;
+import Apalabrazos.backend.metrics.MetricsRegistry;
 import Apalabrazos.backend.model.AlphabetMap;
 import Apalabrazos.backend.model.Question;
 import Apalabrazos.backend.model.QuestionLevel;
@@ -14,7 +16,10 @@ import com.fasterxml.jackson.databind.SerializationFeature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
+import java.net.http.HttpTimeoutException;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
@@ -27,21 +32,62 @@ import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.Random;
 import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
 
 public class AIQuestionGenerator {
 
     private static final Logger log = LoggerFactory.getLogger(AIQuestionGenerator.class);
 
+    // Compartido por todos los generadores: las palabras recientes se evitan en todo el proceso
+    private static final CandidateSampler CANDIDATE_SAMPLER = new CandidateSampler(
+            AIQuestionConfig.getRecentWordsPerLetter(), AIQuestionConfig.getDistractorMaxLengthDiff());
+
+    // Peticiones al LLM en curso en todo el proceso, sumando lotes paralelos de todas las generaciones
+    private static final Semaphore LLM_CALLS = new Semaphore(Math.max(1, AIQuestionConfig.getMaxConcurrentCalls()), true);
+
+    // Un solo cliente para todo el proceso: las generaciones reutilizan conexiones (HTTP/2 o keep-alive)
+    private static final HttpClient HTTP_CLIENT = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .connectTimeout(Duration.ofSeconds(AIQuestionConfig.getHttpConnectTimeoutSeconds()))
+            .build();
+
+    // Cierra los streams que siguen abiertos al vencer el plazo de su generación
+    private static final ScheduledExecutorService STREAM_DEADLINES = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "ai-stream-deadline");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private static final MetricsRegistry.Family<LatencyHistogram> TIME_TO_FIRST_QUESTION =
+            MetricsRegistry.getInstance().histogramFamily("apalabrazos_ai_time_to_first_question_seconds",
+                    "Time from the start of a battery generation to its first accepted question, by response mode",
+                    "mode");
+
     private static final String ENYE = "ñ";
     private static final String ENYE_UPPER = "Ñ";
 
@@ -59,14 +105,19 @@ public class AIQuestionGenerator {
     private final int questionsToGeneratePerLetterInBatch;
     private final int lettersPerBatch;
     private final int maxAttemptsPerBatch;
+    private final int batchParallelism;
     private final int maxTokens;
+    private final boolean streamResponses;
+    private final Duration requestTimeout;
+    private final Duration generationDeadline;
     private final String appName;
     private final String appUrl;
     private final String wordDictionaryPath;
 
-    private final HttpClient httpClient;
     private final ObjectMapper mapper;
-    private Map<String, List<String>> wordsByLetterCache;
+
+    /** Fin del plazo de la generación en curso (System.nanoTime) */
+    private long deadlineNanos;
 
     public AIQuestionGenerator() {
         this.apiKey = AIQuestionConfig.getApiKey();
@@ -77,15 +128,16 @@ public class AIQuestionGenerator {
         this.questionsToGeneratePerLetterInBatch = AIQuestionConfig.getQuestionsToGeneratePerLetterInBatch();
         this.lettersPerBatch = AIQuestionConfig.getLettersPerBatch();
         this.maxAttemptsPerBatch = AIQuestionConfig.getMaxAttemptsPerBatch();
+        this.batchParallelism = Math.max(1, AIQuestionConfig.getBatchParallelism());
         this.maxTokens = AIQuestionConfig.getMaxTokens();
+        this.streamResponses = AIQuestionConfig.isStreamResponses();
+        this.requestTimeout = Duration.ofSeconds(AIQuestionConfig.getRequestTimeoutSeconds());
+        this.generationDeadline = Duration.ofSeconds(AIQuestionConfig.getGenerationDeadlineSeconds());
+        this.deadlineNanos = System.nanoTime() + generationDeadline.toNanos();
         this.appName = AIQuestionConfig.getAppName();
         this.appUrl = AIQuestionConfig.getAppUrl();
         this.wordDictionaryPath = AIQuestionConfig.getWordDictionaryPath();
 
-        this.httpClient = HttpClient.newBuilder()
-                .connectTimeout(Duration.ofSeconds(30))
-                .build();
-
         this.mapper = new ObjectMapper();
         this.mapper.enable(SerializationFeature.INDENT_OUTPUT);
 
@@ -117,18 +169,11 @@ public class AIQuestionGenerator {
 
             String requestBody = mapper.writeValueAsString(body);
 
-            HttpRequest.Builder requestBuilder = HttpRequest.newBuilder()
-                    .uri(URI.create(apiUrl))
-                    .header("Content-Type", "application/json")
-                    .header("Accept", "application/json")
-                    .POST(HttpRequest.BodyPublishers.ofString(requestBody, StandardCharsets.UTF_8))
-                    .timeout(Duration.ofSeconds(120));
-
-            if (apiKey != null && !apiKey.isBlank()) {
-                requestBuilder.header("Authorization", "Bearer " + apiKey);
-            }
+            HttpRequest request = newRequestBuilder("application/json", requestBody)
+                    .timeout(requestTimeout)
+                    .build();
 
-            httpClient.send(requestBuilder.build(), HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+            HTTP_CLIENT.send(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
             log.info("AI model warmup completed — model loaded in VRAM");
         } catch (Exception e) {
             log.warn("AI model warmup failed (non-fatal): {}", e.getMessage());
@@ -189,19 +234,70 @@ public class AIQuestionGenerator {
         }
 
         List<List<String>> batches = partitionLetters(normalizedTargetLetters, lettersPerBatch);
-        boolean quotaExceeded = false;
+        AtomicBoolean stop = new AtomicBoolean();
+        long startedNanos = System.nanoTime();
+        deadlineNanos = startedNanos + generationDeadline.toNanos();
 
-        for (List<String> batchLetters : batches) {
-            if (quotaExceeded) {
-                break;
-            }
+        if (batches.size() == 1 || batchParallelism == 1) {
+            for (List<String> batchLetters : batches) {
+                if (stop.get()) {
+                    break;
+                }
 
-            quotaExceeded = processBatch(batchLetters, acceptedByLetter);
+                processBatch(batchLetters, acceptedByLetter, stop, startedNanos);
+            }
+        } else {
+            processBatchesInParallel(batches, acceptedByLetter, stop, startedNanos);
         }
 
         return buildQuestionListResult(acceptedByLetter);
     }
 
+    /**
+     * Lanza los lotes a la vez en hilos virtuales, como mucho {@code batchParallelism} en curso. Los lotes
+     * tienen letras distintas y aceptan preguntas sobre el mapa compartido con su monitor. Un 429 en
+     * cualquiera marca {@code stop}: los lotes que aún no han empezado ya no llaman y los que están
+     * en curso paran tras su intento actual.
+     */
+    private void processBatchesInParallel(List<List<String>> batches, Map<String, List<Question>> acceptedByLetter,
+            AtomicBoolean stop, long startedNanos) throws InterruptedException {
+        log.info("Processing {} batches with parallelism {}", batches.size(), batchParallelism);
+        Semaphore slots = new Semaphore(batchParallelism);
+        List<Future<?>> futures = new ArrayList<>(batches.size());
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (List<String> batchLetters : batches) {
+                futures.add(executor.submit(() -> {
+                    slots.acquire();
+                    try {
+                        if (!stop.get()) {
+                            processBatch(batchLetters, acceptedByLetter, stop, startedNanos);
+                        }
+                    } finally {
+                        slots.release();
+                    }
+                    return null;
+                }));
+            }
+
+            try {
+                for (Future<?> future : futures) {
+                    try {
+                        future.get();
+                    } catch (ExecutionException e) {
+                        log.error("Batch failed unexpectedly: {}", e.getCause() != null ? e.getCause().getMessage()
+                                : e.getMessage(), e.getCause());
+                    }
+                }
+            } catch (InterruptedException e) {
+                // Quien esperaba la batería ya no la quiere: se interrumpen los lotes antes de cerrar el executor
+                stop.set(true);
+                futures.forEach(future -> future.cancel(true));
+                throw e;
+            }
+        }
+    }
+
     private List<String> normalizeTargetLetters(List<String> targetLetters) {
         return targetLetters.stream()
                 .map(this::normalizeLetter)
@@ -225,14 +321,18 @@ public class AIQuestionGenerator {
         return result;
     }
 
-    private boolean processBatch(List<String> batchLetters, Map<String, List<Question>> acceptedByLetter)
-            throws InterruptedException {
+    /**
+     * Con streaming, cada pregunta se valida y acepta en cuanto su objeto JSON llega completo; si el
+     * stream no trae ningún objeto reconocible se parsea el contenido entero como sin streaming.
+     */
+    private void processBatch(List<String> batchLetters, Map<String, List<Question>> acceptedByLetter,
+            AtomicBoolean stop, long startedNanos) throws InterruptedException {
         log.info("Processing pending letters batch: {}", batchLetters);
 
         int attempts = 0;
-        boolean quotaExceeded = false;
 
-        while (attempts < maxAttemptsPerBatch && !areBatchLettersComplete(batchLetters, acceptedByLetter)) {
+        while (attempts < maxAttemptsPerBatch && !stop.get() && remainingNanos() > 0
+                && !areBatchLettersComplete(batchLetters, acceptedByLetter)) {
             attempts++;
             try {
                 Map<String, CandidateQuestionData> candidatesByLetter = buildCandidatesForBatch(batchLetters);
@@ -243,33 +343,64 @@ public class AIQuestionGenerator {
                 }
 
                 log.info("Sending batch {} to AI with {} candidates", batchLetters, candidatesByLetter.size());
-                String responseBody = callAIForBatch(batchLetters, candidatesByLetter);
-                List<Question> parsed = parseAIResponse(responseBody, batchLetters, candidatesByLetter);
+                Set<String> expected = toLetterSet(batchLetters);
+                AtomicInteger streamedObjects = new AtomicInteger();
+                AtomicInteger acceptedThisAttempt = new AtomicInteger();
+
+                String content = callAIForBatch(batchLetters, candidatesByLetter, objectJson -> {
+                    streamedObjects.incrementAndGet();
+                    Question q = parseStreamedQuestion(objectJson, batchLetters, expected, candidatesByLetter);
+                    if (q != null) {
+                        acceptedThisAttempt.addAndGet(
+                                acceptParsedQuestions(List.of(q), acceptedByLetter, startedNanos));
+                    }
+                });
 
-                int acceptedThisAttempt = acceptParsedQuestions(parsed, acceptedByLetter);
+                if (streamedObjects.get() == 0) {
+                    List<Question> parsed = parseAIResponse(content, batchLetters, candidatesByLetter);
+                    acceptedThisAttempt.addAndGet(acceptParsedQuestions(parsed, acceptedByLetter, startedNanos));
+                }
 
                 log.info(
-                        "Pending batch {} attempt {}/{} -> accepted this attempt: {}",
+                        "Pending batch {} attempt {}/{} -> accepted this attempt: {} (streamed objects: {})",
                         batchLetters,
                         attempts,
                         maxAttemptsPerBatch,
-                        acceptedThisAttempt);
+                        acceptedThisAttempt.get(),
+                        streamedObjects.get());
 
             } catch (QuotaExceededException e) {
                 log.warn("Quota exceeded while processing pending letters. Stopping generation: {}",
                         e.getMessage());
-                quotaExceeded = true;
+                stop.set(true);
                 break;
+            } catch (InterruptedException e) {
+                throw e;
             } catch (Exception e) {
                 handleBatchAttemptFailure(batchLetters, attempts, e);
             }
         }
 
         logBatchStatus(batchLetters, acceptedByLetter);
-        return quotaExceeded;
     }
 
-    private int acceptParsedQuestions(List<Question> parsed, Map<String, List<Question>> acceptedByLetter) {
+    private int acceptParsedQuestions(List<Question> parsed, Map<String, List<Question>> acceptedByLetter,
+            long startedNanos) {
+        // Los lotes en paralelo comparten el mapa y la comprobación de duplicados lo recorre entero
+        synchronized (acceptedByLetter) {
+            boolean firstOfBattery = acceptedByLetter.values().stream().allMatch(List::isEmpty);
+            int accepted = acceptParsedQuestionsLocked(parsed, acceptedByLetter);
+            if (firstOfBattery && accepted > 0) {
+                long elapsedNanos = System.nanoTime() - startedNanos;
+                TIME_TO_FIRST_QUESTION.labels(streamResponses ? "stream" : "full").recordNanos(elapsedNanos);
+                log.info("First question of the battery accepted after {} ms (stream={})",
+                        elapsedNanos / 1_000_000, streamResponses);
+            }
+            return accepted;
+        }
+    }
+
+    private int acceptParsedQuestionsLocked(List<Question> parsed, Map<String, List<Question>> acceptedByLetter) {
         int acceptedThisAttempt = 0;
 
         for (Question q : parsed) {
@@ -333,22 +464,34 @@ public class AIQuestionGenerator {
                 waitMs = AIQuestionConfig.DEFAULT_429_WAIT_MS;
             }
 
+            if (TimeUnit.MILLISECONDS.toNanos(waitMs) >= remainingNanos()) {
+                log.warn("Not waiting {} ms to retry pending batch {}: generation deadline would pass", waitMs,
+                        batchLetters);
+                return;
+            }
+
             log.warn("Waiting {} ms before retrying pending batch {}", waitMs, batchLetters);
             Thread.sleep(waitMs);
         }
     }
 
+    /**
+     * @param onQuestionObject recibe cada objeto de pregunta en cuanto llega (solo con streaming)
+     * @return el texto generado por el modelo
+     */
     private String callAIForBatch(
             List<String> batchLetters,
-            Map<String, CandidateQuestionData> candidatesByLetter) throws Exception {
-        return callAIWithModel(batchLetters, candidatesByLetter, model, true);
+            Map<String, CandidateQuestionData> candidatesByLetter,
+            Consumer<String> onQuestionObject) throws Exception {
+        return callAIWithModel(batchLetters, candidatesByLetter, model, true, onQuestionObject);
     }
 
     private String callAIWithModel(
             List<String> batchLetters,
             Map<String, CandidateQuestionData> candidatesByLetter,
             String modelToUse,
-            boolean allowFallback) throws Exception {
+            boolean allowFallback,
+            Consumer<String> onQuestionObject) throws Exception {
         String prompt = buildBatchPrompt(batchLetters, candidatesByLetter);
         String requestBody = buildRequestBody(prompt, modelToUse);
 
@@ -357,11 +500,19 @@ public class AIQuestionGenerator {
 
         for (int attempt = 1; attempt <= AIQuestionConfig.MAX_RETRIES_ON_503 + 1; attempt++) {
             try {
-                return executeMessagesRequest(batchLetters, modelToUse, requestBody);
+                LLM_CALLS.acquire();
+                try {
+                    return executeMessagesRequest(batchLetters, modelToUse, requestBody, onQuestionObject);
+                } finally {
+                    LLM_CALLS.release();
+                }
+            } catch (InterruptedException e) {
+                throw e;
             } catch (Exception e) {
                 lastException = e;
 
-                if (!is503Exception(e) || attempt > AIQuestionConfig.MAX_RETRIES_ON_503) {
+                if (!is503Exception(e) || attempt > AIQuestionConfig.MAX_RETRIES_ON_503
+                        || TimeUnit.MILLISECONDS.toNanos(delayMs) >= remainingNanos()) {
                     break;
                 }
 
@@ -389,7 +540,7 @@ public class AIQuestionGenerator {
                     modelToUse,
                     fallbackModel);
 
-            return callAIWithModel(batchLetters, candidatesByLetter, fallbackModel, false);
+            return callAIWithModel(batchLetters, candidatesByLetter, fallbackModel, false, onQuestionObject);
         }
 
         if (lastException != null) {
@@ -407,7 +558,8 @@ public class AIQuestionGenerator {
     private String buildRequestBody(String prompt, String modelToUse) throws Exception {
         Map<String, Object> body = new LinkedHashMap<>();
         body.put("model", modelToUse);
-        body.put("stream", false);
+        // Ollama responde en NDJSON y la API OpenAI-compatible en SSE
+        body.put("stream", streamResponses);
 
         List<Map<String, Object>> messages = new ArrayList<>();
         Map<String, Object> userMessage = new LinkedHashMap<>();
@@ -429,22 +581,25 @@ public class AIQuestionGenerator {
         return mapper.writeValueAsString(body);
     }
 
-    private String executeMessagesRequest(List<String> batchLetters, String modelToUse, String requestBody)
-            throws Exception {
-        HttpRequest.Builder requestBuilder = HttpRequest.newBuilder()
-                .uri(URI.create(apiUrl))
-                .header("Content-Type", "application/json")
-                .header("Accept", "application/json")
-                .POST(HttpRequest.BodyPublishers.ofString(requestBody, StandardCharsets.UTF_8))
-                .timeout(Duration.ofSeconds(120));
+    private String executeMessagesRequest(List<String> batchLetters, String modelToUse, String requestBody,
+            Consumer<String> onQuestionObject) throws Exception {
+        long remaining = remainingNanos();
+        if (remaining <= 0) {
+            throw new HttpTimeoutException("Plazo de la generación agotado antes de llamar a la IA.");
+        }
 
-        if (apiKey != null && !apiKey.isBlank()) {
-            requestBuilder.header("Authorization", "Bearer " + apiKey);
+        String accept = !streamResponses ? "application/json"
+                : isOpenAiCompatibleEndpoint() ? "text/event-stream" : "application/x-ndjson";
+        HttpRequest request = newRequestBuilder(accept, requestBody)
+                .timeout(Duration.ofNanos(Math.min(requestTimeout.toNanos(), remaining)))
+                .build();
+
+        if (streamResponses) {
+            return executeStreamingRequest(batchLetters, modelToUse, request, onQuestionObject);
         }
 
-        HttpResponse<String> response = httpClient.send(
-                requestBuilder.build(),
-                HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+        HttpResponse<String> response = awaitResponse(
+                HTTP_CLIENT.sendAsync(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8)));
 
         int status = response.statusCode();
         String body = response.body();
@@ -455,9 +610,182 @@ public class AIQuestionGenerator {
             if (body == null || body.isBlank()) {
                 throw new RuntimeException("La API Anthropic-compatible devolvió HTTP 200 pero el cuerpo está vacío.");
             }
-            return body;
+            return extractTextContentFromResponse(body);
+        }
+
+        throw errorForStatus(status, body, batchLetters, modelToUse);
+    }
+
+    /**
+     * Lee la respuesta línea a línea según llega: cada trozo de texto pasa por el escáner y cada
+     * pregunta completa se entrega a {@code onQuestionObject} sin esperar al resto.
+     *
+     * @return el texto completo, por si hay que parsearlo entero
+     */
+    private String executeStreamingRequest(List<String> batchLetters, String modelToUse, HttpRequest request,
+            Consumer<String> onQuestionObject) throws Exception {
+        HttpResponse<Stream<String>> response = awaitResponse(
+                HTTP_CLIENT.sendAsync(request, HttpResponse.BodyHandlers.ofLines()));
+        int status = response.statusCode();
+
+        log.info("Ollama HTTP status for batch {} with model '{}' (stream): {}", batchLetters, modelToUse, status);
+
+        try (Stream<String> lines = response.body()) {
+            if (status != 200) {
+                throw errorForStatus(status, lines.collect(Collectors.joining("\n")), batchLetters, modelToUse);
+            }
+            return readStreamedContent(lines, deadlineNanos, onQuestionObject);
+        }
+    }
+
+    /**
+     * Consume el stream hasta el final o hasta {@code deadline} (System.nanoTime). El timeout de la
+     * petición solo cubre las cabeceras: si el LLM se queda callado a mitad de respuesta, la lectura
+     * bloquearía para siempre con el permiso de {@code LLM_CALLS}. Un temporizador cierra el stream al
+     * vencer el plazo, lo que desbloquea la lectura y cancela la petición.
+     */
+    String readStreamedContent(Stream<String> lines, long deadline, Consumer<String> onQuestionObject)
+            throws Exception {
+        AtomicBoolean expired = new AtomicBoolean();
+        ScheduledFuture<?> watchdog = STREAM_DEADLINES.schedule(() -> {
+            expired.set(true);
+            lines.close();
+        }, Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        try {
+            StreamingJsonObjectScanner scanner = new StreamingJsonObjectScanner();
+            StringBuilder content = new StringBuilder();
+            Iterator<String> iterator = lines.iterator();
+
+            while (hasNextLine(iterator)) {
+                if (deadline - System.nanoTime() <= 0) {
+                    throw new HttpTimeoutException("Plazo de la generación agotado leyendo el stream de la IA.");
+                }
+                String delta = extractStreamDelta(iterator.next());
+                if (delta == null) {
+                    break;
+                }
+                if (delta.isEmpty()) {
+                    continue;
+                }
+                content.append(delta);
+                for (String questionObject : scanner.feed(delta)) {
+                    onQuestionObject.accept(questionObject);
+                }
+            }
+
+            String text = content.toString().trim();
+            if (text.isBlank()) {
+                throw new RuntimeException("La IA terminó el stream sin contenido.");
+            }
+            return sanitizeContent(repairMojibakeIfNeeded(text));
+        } catch (UncheckedIOException e) {
+            if (expired.get()) {
+                HttpTimeoutException timeout = new HttpTimeoutException(
+                        "Plazo de la generación agotado: la IA dejó de enviar el stream.");
+                timeout.initCause(e);
+                throw timeout;
+            }
+            throw e;
+        } finally {
+            watchdog.cancel(false);
+        }
+    }
+
+    /**
+     * El cuerpo del stream se lee bloqueando; si se interrumpe el hilo, el JDK cierra el stream (cancela
+     * la petición) y lanza una IOException, que aquí vuelve a ser una interrupción.
+     */
+    private boolean hasNextLine(Iterator<String> iterator) throws InterruptedException {
+        try {
+            return iterator.hasNext();
+        } catch (UncheckedIOException e) {
+            if (Thread.interrupted()) {
+                InterruptedException interrupted = new InterruptedException("Lectura del stream de la IA interrumpida");
+                interrupted.initCause(e);
+                throw interrupted;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Espera la respuesta de una petición asíncrona sin pasar del plazo de la generación. Si el hilo se
+     * interrumpe (la precarga se canceló) o se acaba el plazo, se cancela la petición: el cliente
+     * cierra el stream HTTP/2 o la conexión y el LLM deja de generar para nadie.
+     */
+    private <T> HttpResponse<T> awaitResponse(CompletableFuture<HttpResponse<T>> call) throws Exception {
+        try {
+            return call.get(Math.max(0, remainingNanos()), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            call.cancel(true);
+            throw e;
+        } catch (TimeoutException e) {
+            call.cancel(true);
+            throw new HttpTimeoutException("Plazo de la generación agotado esperando a la IA.");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
         }
+    }
+
+    private HttpRequest.Builder newRequestBuilder(String accept, String requestBody) {
+        HttpRequest.Builder requestBuilder = HttpRequest.newBuilder()
+                .uri(URI.create(apiUrl))
+                .header("Content-Type", "application/json")
+                .header("Accept", accept)
+                .POST(HttpRequest.BodyPublishers.ofString(requestBody, StandardCharsets.UTF_8));
+
+        // Sin TLS no hay ALPN: HTTP/1.1 con keep-alive en vez de intentar el upgrade h2c en cada conexión
+        if (apiUrl.startsWith("http:")) {
+            requestBuilder.version(HttpClient.Version.HTTP_1_1);
+        }
+
+        if (apiKey != null && !apiKey.isBlank()) {
+            requestBuilder.header("Authorization", "Bearer " + apiKey);
+        }
+        return requestBuilder;
+    }
 
+    private long remainingNanos() {
+        return deadlineNanos - System.nanoTime();
+    }
+
+    /**
+     * Texto de una línea del stream: NDJSON de Ollama ({@code message.content}) o evento SSE
+     * OpenAI-compatible ({@code data: ... choices[0].delta.content}).
+     *
+     * @return "" si la línea no trae texto, null al final del stream SSE
+     */
+    private String extractStreamDelta(String line) throws Exception {
+        String payload = line.trim();
+        if (payload.isEmpty() || payload.startsWith(":")) {
+            return "";
+        }
+        if (payload.startsWith("data:")) {
+            payload = payload.substring(5).trim();
+            if ("[DONE]".equals(payload)) {
+                return null;
+            }
+        } else if (!payload.startsWith("{")) {
+            // Otros campos SSE (event:, id:, retry:)
+            return "";
+        }
+
+        JsonNode chunk = mapper.readTree(payload);
+        if (chunk.hasNonNull("error")) {
+            throw new RuntimeException("Error en el stream de la IA. Detalle: " + extractApiErrorMessage(payload));
+        }
+
+        JsonNode choicesNode = chunk.path("choices");
+        if (choicesNode.isArray() && !choicesNode.isEmpty()) {
+            return choicesNode.get(0).path("delta").path("content").asText("");
+        }
+        return chunk.path("message").path("content").asText("");
+    }
+
+    private RuntimeException errorForStatus(int status, String body, List<String> batchLetters, String modelToUse) {
         log.error(
                 "Anthropic-compatible API error (status {}) with model '{}' for batch {}: {}",
                 status,
@@ -468,30 +796,30 @@ public class AIQuestionGenerator {
         String detailedMessage = extractApiErrorMessage(body);
 
         if (status == 400) {
-            throw new RuntimeException("HTTP 400 INVALID_REQUEST. Detalle: " + detailedMessage);
+            return new RuntimeException("HTTP 400 INVALID_REQUEST. Detalle: " + detailedMessage);
         }
 
         if (status == 401 || status == 403) {
-            throw new RuntimeException("HTTP " + status + " auth/permiso. Detalle: " + detailedMessage);
+            return new RuntimeException("HTTP " + status + " auth/permiso. Detalle: " + detailedMessage);
         }
 
         if (status == 404) {
-            throw new RuntimeException("HTTP 404 endpoint/modelo no encontrado. Detalle: " + detailedMessage);
+            return new RuntimeException("HTTP 404 endpoint/modelo no encontrado. Detalle: " + detailedMessage);
         }
 
         if (status == 429) {
-            throw new QuotaExceededException("HTTP 429 cuota/rate limit. Detalle: " + detailedMessage);
+            return new QuotaExceededException("HTTP 429 cuota/rate limit. Detalle: " + detailedMessage);
         }
 
         if (status == 503) {
-            throw new RuntimeException("HTTP 503 UNAVAILABLE. Detalle: " + detailedMessage);
+            return new RuntimeException("HTTP 503 UNAVAILABLE. Detalle: " + detailedMessage);
         }
 
         if (status >= 500) {
-            throw new RuntimeException("HTTP " + status + " error interno del proveedor. Detalle: " + detailedMessage);
+            return new RuntimeException("HTTP " + status + " error interno del proveedor. Detalle: " + detailedMessage);
         }
 
-        throw new RuntimeException(
+        return new RuntimeException(
                 "Error llamando a la API Anthropic-compatible: HTTP " + status + ". Detalle: " + detailedMessage);
     }
 
@@ -544,11 +872,9 @@ public class AIQuestionGenerator {
     }
 
     private List<Question> parseAIResponse(
-            String responseBody,
+            String content,
             List<String> expectedLetters,
             Map<String, CandidateQuestionData> candidatesByLetter) throws Exception {
-        String content = extractTextContentFromResponse(responseBody);
-
         if (content.isBlank()) {
             throw new RuntimeException("La IA devolvió contenido vacío.");
         }
@@ -584,55 +910,94 @@ public class AIQuestionGenerator {
             throw new RuntimeException("La respuesta de la IA no contiene un array de preguntas válido.");
         }
 
-        Set<String> expected = expectedLetters.stream()
-                .map(this::normalizeLetter)
-                .collect(Collectors.toCollection(LinkedHashSet::new));
+        Set<String> expected = toLetterSet(expectedLetters);
 
         List<Question> questions = new ArrayList<>();
 
         for (JsonNode qNode : listNode) {
             try {
-                String rawLetter = repairAndTrim(qNode.path("questionLetter").asText(""));
-                String rawText = repairAndTrim(qNode.path("questionText").asText(""));
-
-                String letter = normalizeLetter(rawLetter);
-                String text = rawText;
-
-                if (!expected.contains(letter)) {
-                    continue;
+                Question q = toQuestion(qNode, expected, candidatesByLetter);
+                if (q != null) {
+                    questions.add(q);
                 }
+            } catch (Exception e) {
+                log.warn("Error parsing AI question for batch {}: {}", expectedLetters, e.getMessage());
+            }
+        }
 
-                CandidateQuestionData candidate = candidatesByLetter.get(letter);
+        log.info("Parsed {} candidate questions for batch {}", questions.size(), expectedLetters);
+        return questions;
+    }
 
-                if (candidate == null || text.isBlank()) {
-                    continue;
-                }
+    /**
+     * Pregunta de un objeto recibido por streaming, o null si no vale o no se puede parsear.
+     */
+    private Question parseStreamedQuestion(
+            String objectJson,
+            List<String> batchLetters,
+            Set<String> expected,
+            Map<String, CandidateQuestionData> candidatesByLetter) {
+        try {
+            JsonNode qNode;
+            try {
+                qNode = mapper.readTree(objectJson);
+            } catch (Exception e) {
+                qNode = mapper.readTree(escapeRawNewlinesInsideJsonStrings(objectJson));
+            }
+            return toQuestion(qNode, expected, candidatesByLetter);
+        } catch (Exception e) {
+            log.warn("Error parsing streamed AI question for batch {}: {} | Object: {}", batchLetters, e.getMessage(),
+                    preview(objectJson, 500));
+            return null;
+        }
+    }
 
-                String finalLetter = normalizeLetter(candidate.letter());
+    private Set<String> toLetterSet(List<String> letters) {
+        return letters.stream()
+                .map(this::normalizeLetter)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    /**
+     * Pregunta de un elemento de questionList con las respuestas del candidato de su letra, o null si
+     * la letra no es del lote o la pista está vacía.
+     */
+    private Question toQuestion(
+            JsonNode qNode,
+            Set<String> expected,
+            Map<String, CandidateQuestionData> candidatesByLetter) {
+        String rawLetter = repairAndTrim(qNode.path("questionLetter").asText(""));
+        String text = repairAndTrim(qNode.path("questionText").asText(""));
 
-                List<String> capitalizedResponses = candidate.responses().stream()
-                        .map(this::capitalizeWords)
-                        .collect(Collectors.toCollection(ArrayList::new));
+        String letter = normalizeLetter(rawLetter);
 
-                Question q = new Question(
-                        text,
-                        capitalizedResponses,
-                        candidate.correctIndex(),
-                        QuestionStatus.INIT,
-                        QuestionLevel.MEDIUM,
-                        finalLetter,
-                        "init");
+        if (!expected.contains(letter)) {
+            return null;
+        }
 
-                q.setQuestionLetter(finalLetter);
-                questions.add(q);
+        CandidateQuestionData candidate = candidatesByLetter.get(letter);
 
-            } catch (Exception e) {
-                log.warn("Error parsing AI question for batch {}: {}", expectedLetters, e.getMessage());
-            }
+        if (candidate == null || text.isBlank()) {
+            return null;
         }
 
-        log.info("Parsed {} candidate questions for batch {}", questions.size(), expectedLetters);
-        return questions;
+        String finalLetter = normalizeLetter(candidate.letter());
+
+        List<String> capitalizedResponses = candidate.responses().stream()
+                .map(this::capitalizeWords)
+                .collect(Collectors.toCollection(ArrayList::new));
+
+        Question q = new Question(
+                text,
+                capitalizedResponses,
+                candidate.correctIndex(),
+                QuestionStatus.INIT,
+                QuestionLevel.MEDIUM,
+                finalLetter,
+                "init");
+
+        q.setQuestionLetter(finalLetter);
+        return q;
     }
 
     private String extractTextContentFromResponse(String responseBody) throws Exception {
@@ -667,28 +1032,26 @@ public class AIQuestionGenerator {
     }
 
     private Map<String, CandidateQuestionData> buildCandidatesForBatch(List<String> batchLetters) throws Exception {
-        Map<String, List<String>> wordsByLetter = getWordsByLetter();
+        DictionaryIndex dictionary = getDictionary();
         Map<String, CandidateQuestionData> result = new LinkedHashMap<>();
-        Random random = new Random();
+        SplittableRandom random = new SplittableRandom();
 
         for (String rawLetter : batchLetters) {
             String letter = normalizeLetter(rawLetter);
-            List<String> availableWords = new ArrayList<>(wordsByLetter.getOrDefault(letter, Collections.emptyList()));
+            List<String> availableWords = dictionary.words(letter);
 
-            if (availableWords.size() < 4) {
+            CandidateSampler.Sample sample = CANDIDATE_SAMPLER.sample(letter, availableWords, 4, random);
+            if (sample == null) {
                 log.warn("Not enough words for letter '{}'. Available: {}", letter,
                         availableWords.size());
                 continue;
             }
 
-            Collections.shuffle(availableWords);
-
-            List<String> responses = availableWords.stream()
-                    .limit(4)
+            List<String> responses = sample.responses().stream()
                     .map(this::capitalizeWords)
                     .collect(Collectors.toCollection(ArrayList::new));
 
-            int correctIndex = random.nextInt(4);
+            int correctIndex = sample.correctIndex();
             String correctWord = responses.get(correctIndex);
 
             result.put(letter, new CandidateQuestionData(letter, responses, correctIndex, correctWord));
@@ -703,33 +1066,61 @@ public class AIQuestionGenerator {
         return result;
     }
 
-    private Map<String, List<String>> getWordsByLetter() throws Exception {
-        if (wordsByLetterCache != null) {
-            return wordsByLetterCache;
-        }
+    private DictionaryIndex getDictionary() throws Exception {
+        return DictionaryIndex.shared(wordDictionaryPath, this::loadDictionary);
+    }
 
-        Map<String, List<String>> result = new LinkedHashMap<>();
-        Map<String, Set<String>> seenByLetter = new LinkedHashMap<>();
+    /**
+     * Diccionario desde su copia binaria ya validada si corresponde al texto actual; si no, se valida
+     * el texto y se deja escrita la copia binaria para el siguiente arranque.
+     */
+    private DictionaryIndex loadDictionary(String dictionaryPath) throws Exception {
+        byte[] source = readDictionarySource(dictionaryPath);
+        CRC32 crc = new CRC32();
+        crc.update(source);
+        long fingerprint = ((long) source.length << 32) | crc.getValue();
 
-        long totalLines = 0;
-        long acceptedWords = 0;
+        Path indexPath = Path.of(AIQuestionConfig.getWordDictionaryIndexPath());
+        DictionaryIndex mapped = DictionaryIndexFile.open(indexPath, fingerprint);
+        if (mapped != null) {
+            log.info("Dictionary loaded from binary index {}", indexPath);
+            return mapped;
+        }
 
+        DictionaryIndex parsed = parseDictionary(dictionaryPath, source);
+        try {
+            DictionaryIndexFile.write(parsed, indexPath, fingerprint);
+            log.info("Binary dictionary index written to {}", indexPath);
+        } catch (IOException e) {
+            log.warn("Could not write binary dictionary index {}: {}", indexPath, e.getMessage());
+        }
+        return parsed;
+    }
+
+    private byte[] readDictionarySource(String dictionaryPath) throws IOException {
         // Intenta filesystem primero, luego classpath (Docker)
-        java.io.InputStream dictStream = null;
-        Path fsPath = Path.of(wordDictionaryPath).toAbsolutePath().normalize();
+        Path fsPath = Path.of(dictionaryPath).toAbsolutePath().normalize();
         if (Files.exists(fsPath)) {
             log.info("Loading dictionary from filesystem: {}", fsPath);
-            dictStream = Files.newInputStream(fsPath);
-        } else {
-            dictStream = getClass().getClassLoader().getResourceAsStream(wordDictionaryPath);
+            return Files.readAllBytes(fsPath);
+        }
+        try (java.io.InputStream dictStream = getClass().getClassLoader().getResourceAsStream(dictionaryPath)) {
             if (dictStream == null) {
-                throw new IllegalStateException("No existe el diccionario de palabras: " + wordDictionaryPath);
+                throw new IllegalStateException("No existe el diccionario de palabras: " + dictionaryPath);
             }
-            log.info("Loading dictionary from classpath: {}", wordDictionaryPath);
+            log.info("Loading dictionary from classpath: {}", dictionaryPath);
+            return dictStream.readAllBytes();
         }
+    }
+
+    private DictionaryIndex parseDictionary(String dictionaryPath, byte[] source) throws IOException {
+        DictionaryIndex.Builder builder = DictionaryIndex.builder();
+
+        long totalLines = 0;
+        long acceptedWords = 0;
 
         try (java.io.BufferedReader reader = new java.io.BufferedReader(
-                new java.io.InputStreamReader(dictStream, StandardCharsets.UTF_8));
+                new java.io.InputStreamReader(new java.io.ByteArrayInputStream(source), StandardCharsets.UTF_8));
                 java.util.stream.Stream<String> lines = reader.lines()) {
             for (String line : (Iterable<String>) lines::iterator) {
                 totalLines++;
@@ -746,27 +1137,21 @@ public class AIQuestionGenerator {
                     continue;
                 }
 
-                String normalizedWord = normalizeFreeText(word);
-
-                result.computeIfAbsent(firstLetter, k -> new ArrayList<>());
-                seenByLetter.computeIfAbsent(firstLetter, k -> new LinkedHashSet<>());
-
-                if (seenByLetter.get(firstLetter).add(normalizedWord)) {
-                    result.get(firstLetter).add(word);
+                if (builder.add(firstLetter, word, normalizeFreeText(word))) {
                     acceptedWords++;
                 }
             }
         }
 
-        wordsByLetterCache = result;
+        DictionaryIndex dictionary = builder.build();
 
-        log.info("Dictionary loaded from {}. Lines read: {}. Words accepted: {}", wordDictionaryPath,
+        log.info("Dictionary loaded from {}. Lines read: {}. Words accepted: {}", dictionaryPath,
                 totalLines, acceptedWords);
-        for (Map.Entry<String, List<String>> entry : wordsByLetterCache.entrySet()) {
-            log.info("Letter '{}' -> {} words available", entry.getKey(), entry.getValue().size());
+        for (String letter : dictionary.letters()) {
+            log.debug("Letter '{}' -> {} words available", letter, dictionary.words(letter).size());
         }
 
-        return wordsByLetterCache;
+        return dictionary;
     }
 
     private boolean looksReasonableDictionaryWord(String word) {
@@ -990,18 +1375,23 @@ public class AIQuestionGenerator {
     }
 
     private boolean areBatchLettersComplete(List<String> batchLetters, Map<String, List<Question>> acceptedByLetter) {
-        for (String letter : batchLetters) {
-            List<Question> list = acceptedByLetter.getOrDefault(letter, Collections.emptyList());
-            if (list.size() < questionsPerLetter) {
-                return false;
+        synchronized (acceptedByLetter) {
+            for (String letter : batchLetters) {
+                List<Question> list = acceptedByLetter.getOrDefault(letter, Collections.emptyList());
+                if (list.size() < questionsPerLetter) {
+                    return false;
+                }
             }
+            return true;
         }
-        return true;
     }
 
     private void logBatchStatus(List<String> batchLetters, Map<String, List<Question>> acceptedByLetter) {
         for (String letter : batchLetters) {
-            int count = acceptedByLetter.getOrDefault(letter, Collections.emptyList()).size();
+            int count;
+            synchronized (acceptedByLetter) {
+                count = acceptedByLetter.getOrDefault(letter, Collections.emptyList()).size();
+            }
             if (count < questionsPerLetter) {
                 log.warn("Letter '{}' incomplete: {}/{}", letter, count, questionsPerLetter);
             } else {
@@ -0,0 +1,192 @@
+package Apalabrazos.backend.AIQuestion;
+
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Elige las respuestas de una pregunta (la correcta y las distractoras) del diccionario compartido.
+ * <p>
+ * Saca índices distintos directamente de la lista de la letra con el algoritmo de Floyd, sin copiar
+ * ni barajar la lista entera. Opcionalmente:
+ * <ul>
+ *   <li>evita como respuesta correcta las últimas {@code recentPerLetter} palabras usadas en la letra
+ *       (en todo el proceso), para que partidas seguidas no repitan palabra;</li>
+ *   <li>cambia las distractoras cuya longitud se aleja más de {@code maxLengthDiff} letras de la
+ *       correcta, para que la correcta no se adivine por la longitud.</li>
+ * </ul>
+ * Las restricciones se intentan un número acotado de veces; si no se cumplen, se usa lo ya elegido.
+ */
+final class CandidateSampler {
+
+    /** Intentos por hueco al buscar una distractora de longitud parecida */
+    private static final int MAX_REDRAWS = 16;
+
+    private final int recentPerLetter;
+    private final int maxLengthDiff;
+    /** Letra -> últimas palabras correctas */
+    private final Map<String, RecentWords> recentByLetter = new ConcurrentHashMap<>();
+
+    /**
+     * @param recentPerLetter palabras correctas recientes a evitar por letra (0 = no se evitan)
+     * @param maxLengthDiff   diferencia máxima de longitud de las distractoras (0 = sin restricción)
+     */
+    CandidateSampler(int recentPerLetter, int maxLengthDiff) {
+        this.recentPerLetter = Math.max(0, recentPerLetter);
+        this.maxLengthDiff = Math.max(0, maxLengthDiff);
+    }
+
+    /**
+     * Respuestas distintas para una pregunta de la letra.
+     *
+     * @return null si la letra no tiene palabras suficientes
+     */
+    Sample sample(String letter, List<String> words, int responses, SplittableRandom random) {
+        int n = words.size();
+        if (n < responses) {
+            return null;
+        }
+        int[] picked = floyd(n, responses, random);
+
+        // La correcta: la primera elegida que no se haya usado hace poco
+        RecentWords recent = recentPerLetter > 0
+                ? recentByLetter.computeIfAbsent(letter, k -> new RecentWords(recentPerLetter))
+                : null;
+        int correctSlot = 0;
+        if (recent != null) {
+            for (int i = 0; i < picked.length; i++) {
+                if (!recent.contains(words.get(picked[i]))) {
+                    correctSlot = i;
+                    break;
+                }
+            }
+        }
+        String correctWord = words.get(picked[correctSlot]);
+
+        String[] chosen = new String[responses];
+        for (int i = 0; i < responses; i++) {
+            chosen[i] = words.get(picked[i]);
+        }
+        if (maxLengthDiff > 0) {
+            for (int i = 0; i < responses; i++) {
+                if (i != correctSlot && !similarLength(chosen[i], correctWord)) {
+                    replaceWithSimilarLength(words, picked, chosen, i, correctWord, random);
+                }
+            }
+        }
+
+        // Floyd no reparte las posiciones al azar: se barajan los huecos (solo k elementos)
+        int correctIndex = correctSlot;
+        for (int i = responses - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            String tmp = chosen[i];
+            chosen[i] = chosen[j];
+            chosen[j] = tmp;
+            if (correctIndex == i) {
+                correctIndex = j;
+            } else if (correctIndex == j) {
+                correctIndex = i;
+            }
+        }
+
+        if (recent != null) {
+            recent.add(correctWord);
+        }
+        return new Sample(List.of(chosen), correctIndex);
+    }
+
+    private boolean similarLength(String word, String correctWord) {
+        return Math.abs(word.length() - correctWord.length()) <= maxLengthDiff;
+    }
+
+    private void replaceWithSimilarLength(List<String> words, int[] picked, String[] chosen, int slot,
+            String correctWord, SplittableRandom random) {
+        for (int attempt = 0; attempt < MAX_REDRAWS; attempt++) {
+            int candidate = random.nextInt(words.size());
+            if (contains(picked, candidate)) {
+                continue;
+            }
+            String word = words.get(candidate);
+            if (similarLength(word, correctWord)) {
+                picked[slot] = candidate;
+                chosen[slot] = word;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Algoritmo de Floyd: {@code k} índices distintos de [0, n) con exactamente k números aleatorios.
+     */
+    static int[] floyd(int n, int k, SplittableRandom random) {
+        int[] result = new int[k];
+        int size = 0;
+        for (int j = n - k; j < n; j++) {
+            int t = random.nextInt(j + 1);
+            result[size] = contains(result, size, t) ? j : t;
+            size++;
+        }
+        return result;
+    }
+
+    private static boolean contains(int[] values, int value) {
+        return contains(values, values.length, value);
+    }
+
+    private static boolean contains(int[] values, int length, int value) {
+        for (int i = 0; i < length; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    int recentCount(String letter) {
+        RecentWords recent = recentByLetter.get(letter);
+        return recent == null ? 0 : recent.size();
+    }
+
+    /**
+     * Respuestas en orden de presentación y posición de la correcta.
+     */
+    record Sample(List<String> responses, int correctIndex) {
+
+        String correctWord() {
+            return responses.get(correctIndex);
+        }
+    }
+
+    /**
+     * Anillo de las últimas palabras correctas de una letra. Tamaño pequeño: la búsqueda lineal basta.
+     */
+    private static final class RecentWords {
+        private final String[] ring;
+        private int next;
+        private int size;
+
+        RecentWords(int capacity) {
+            this.ring = new String[capacity];
+        }
+
+        synchronized boolean contains(String word) {
+            for (int i = 0; i < size; i++) {
+                if (ring[i].equals(word)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        synchronized void add(String word) {
+            ring[next] = word;
+            next = (next + 1) % ring.length;
+            size = Math.min(size + 1, ring.length);
+        }
+
+        synchronized int size() {
+            return size;
+        }
+    }
+}
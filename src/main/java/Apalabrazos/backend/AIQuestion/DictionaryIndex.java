@@ -0,0 +1,179 @@
+package Apalabrazos.backend.AIQuestion;
+
+import Apalabrazos.backend.metrics.MetricsRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Palabras del diccionario ya validadas, agrupadas por letra del rosco.
+ * <p>
+ * Inmutable y compartido por todo el proceso: se carga una sola vez por ruta, la primera vez que
+ * un generador lo pide, en vez de releer y revalidar el fichero en cada precarga. Cada letra guarda
+ * sus palabras ordenadas, en un {@code String[]} si se ha validado el texto o directamente sobre el
+ * fichero binario mapeado en memoria ({@link DictionaryIndexFile}) si ya existía.
+ */
+final class DictionaryIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(DictionaryIndex.class);
+
+    /** Ruta del diccionario -> índice cargado */
+    private static final Map<String, DictionaryIndex> SHARED = new ConcurrentHashMap<>();
+
+    // Referencia (comprimida) a cada String en su array + cabeceras de String y de su byte[]
+    private static final int REFERENCE_BYTES = 4;
+    private static final int STRING_OVERHEAD_BYTES = 24 + 16;
+    private static final int ARRAY_OVERHEAD_BYTES = 16;
+
+    /**
+     * Lee y valida el diccionario de una ruta.
+     */
+    interface Loader {
+        DictionaryIndex load(String path) throws Exception;
+    }
+
+    private final Map<String, List<String>> wordsByLetter;
+    private final int wordCount;
+    private final long retainedBytes;
+    private final long mappedBytes;
+
+    private DictionaryIndex(Map<String, List<String>> wordsByLetter, long retainedBytes, long mappedBytes) {
+        this.wordsByLetter = Collections.unmodifiableMap(wordsByLetter);
+        int words = 0;
+        for (List<String> letterWords : wordsByLetter.values()) {
+            words += letterWords.size();
+        }
+        this.wordCount = words;
+        this.retainedBytes = retainedBytes;
+        this.mappedBytes = mappedBytes;
+    }
+
+    /**
+     * Índice sobre listas que leen de un fichero mapeado (fuera del heap).
+     */
+    static DictionaryIndex mapped(Map<String, List<String>> wordsByLetter, long mappedBytes) {
+        return new DictionaryIndex(wordsByLetter, 0, mappedBytes);
+    }
+
+    /**
+     * El índice compartido de la ruta; solo el primero que lo pide paga la carga.
+     */
+    static DictionaryIndex shared(String path, Loader loader) throws Exception {
+        DictionaryIndex index = SHARED.get(path);
+        if (index != null) {
+            return index;
+        }
+        synchronized (SHARED) {
+            index = SHARED.get(path);
+            if (index == null) {
+                long startNs = System.nanoTime();
+                index = loader.load(path);
+                long elapsedNs = System.nanoTime() - startNs;
+                SHARED.put(path, index);
+                report(path, index, elapsedNs);
+            }
+            return index;
+        }
+    }
+
+    private static void report(String path, DictionaryIndex index, long elapsedNs) {
+        log.info("[AI-DICT] Dictionary {} indexed in {} ms: {} words, {} letters, ~{} KiB retained, {} KiB mapped",
+                path, TimeUnit.NANOSECONDS.toMillis(elapsedNs), index.wordCount, index.wordsByLetter.size(),
+                index.retainedBytes / 1024, index.mappedBytes / 1024);
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        double loadSeconds = elapsedNs / 1e9;
+        metrics.gauge("apalabrazos_ai_dictionary_load_seconds",
+                "Time spent loading and validating the word dictionary", () -> loadSeconds);
+        metrics.gauge("apalabrazos_ai_dictionary_words",
+                "Words in the shared dictionary index", () -> index.wordCount);
+        metrics.gauge("apalabrazos_ai_dictionary_bytes",
+                "Estimated heap retained by the shared dictionary index", () -> index.retainedBytes);
+        metrics.gauge("apalabrazos_ai_dictionary_mapped_bytes",
+                "Size of the memory-mapped binary dictionary backing the index", () -> index.mappedBytes);
+    }
+
+    /**
+     * Palabras de la letra (vista de solo lectura, sin copia).
+     */
+    List<String> words(String letter) {
+        return wordsByLetter.getOrDefault(letter, Collections.emptyList());
+    }
+
+    Set<String> letters() {
+        return wordsByLetter.keySet();
+    }
+
+    int wordCount() {
+        return wordCount;
+    }
+
+    long retainedBytes() {
+        return retainedBytes;
+    }
+
+    long mappedBytes() {
+        return mappedBytes;
+    }
+
+    // Compact strings: Latin-1 ocupa un byte por carácter; si no, UTF-16
+    private static long textBytes(String word) {
+        for (int i = 0; i < word.length(); i++) {
+            if (word.charAt(i) > 0xFF) {
+                return ARRAY_OVERHEAD_BYTES + 2L * word.length();
+            }
+        }
+        return ARRAY_OVERHEAD_BYTES + word.length();
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+    static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Acumula palabras durante la carga; descarta repetidas por su clave normalizada.
+     */
+    static final class Builder {
+        private final Map<String, List<String>> words = new LinkedHashMap<>();
+        private final Map<String, Set<String>> seen = new LinkedHashMap<>();
+
+        /**
+         * @return true si la palabra es nueva en su letra
+         */
+        boolean add(String letter, String word, String dedupeKey) {
+            if (!seen.computeIfAbsent(letter, k -> new HashSet<>()).add(dedupeKey)) {
+                return false;
+            }
+            words.computeIfAbsent(letter, k -> new ArrayList<>()).add(word);
+            return true;
+        }
+
+        DictionaryIndex build() {
+            Map<String, List<String>> compact = new LinkedHashMap<>();
+            long bytes = 0;
+            for (Map.Entry<String, List<String>> entry : words.entrySet()) {
+                String[] letterWords = entry.getValue().toArray(new String[0]);
+                Arrays.sort(letterWords);
+                compact.put(entry.getKey(), Collections.unmodifiableList(Arrays.asList(letterWords)));
+                bytes += align(ARRAY_OVERHEAD_BYTES + (long) REFERENCE_BYTES * letterWords.length);
+                for (String word : letterWords) {
+                    bytes += STRING_OVERHEAD_BYTES + align(textBytes(word));
+                }
+            }
+            return new DictionaryIndex(compact, bytes, 0);
+        }
+    }
+}
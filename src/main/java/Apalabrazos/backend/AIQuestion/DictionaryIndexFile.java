@@ -0,0 +1,199 @@
+package Apalabrazos.backend.AIQuestion;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * Diccionario ya validado en formato binario, para no repetir la validación del texto en cada arranque.
+ * <p>
+ * Formato (big endian):
+ * <pre>
+ *   int   MAGIC, int VERSION, long huella del texto de origen
+ *   int   número de letras
+ *   por letra: short bytes de la letra, letra en UTF-8, int palabras, int índice de su primera palabra
+ *   int   número total de palabras
+ *   int[] inicio de cada palabra en el área de texto (una entrada más para el final de la última)
+ *   byte[] área de texto: las palabras en UTF-8, seguidas, en el orden del índice
+ * </pre>
+ * Se abre con {@link FileChannel#map} en solo lectura: solo se lee la cabecera y cada palabra se
+ * decodifica al pedirla, así que el diccionario vive fuera del heap. Si el fichero no existe, está
+ * corrupto o es de otro texto de origen (o de otra versión de las reglas), se ignora.
+ */
+final class DictionaryIndexFile {
+
+    private static final Logger log = LoggerFactory.getLogger(DictionaryIndexFile.class);
+
+    private static final int MAGIC = 0x41504458; // "APDX"
+    /** Subirla cuando cambien las reglas de validación: invalida los ficheros ya escritos */
+    static final int VERSION = 1;
+
+    private DictionaryIndexFile() {
+    }
+
+    /**
+     * Abrir el índice binario si corresponde al texto de origen con esa huella.
+     *
+     * @return el índice mapeado, o null si hay que validar el texto
+     */
+    static DictionaryIndex open(Path file, long sourceFingerprint) {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // El mapeo sigue siendo válido tras cerrar el canal
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return read(buffer, sourceFingerprint, channel.size());
+        } catch (IOException | RuntimeException e) {
+            log.warn("[AI-DICT] Ignoring unreadable binary dictionary {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    static DictionaryIndex read(ByteBuffer buffer, long sourceFingerprint, long size) {
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION || buffer.getLong(8) != sourceFingerprint) {
+            return null;
+        }
+        int pos = 16;
+        int letterCount = buffer.getInt(pos);
+        pos += 4;
+        String[] letters = new String[letterCount];
+        int[] counts = new int[letterCount];
+        int[] firsts = new int[letterCount];
+        for (int i = 0; i < letterCount; i++) {
+            byte[] letter = new byte[buffer.getShort(pos)];
+            buffer.get(pos + 2, letter);
+            pos += 2 + letter.length;
+            letters[i] = new String(letter, StandardCharsets.UTF_8);
+            counts[i] = buffer.getInt(pos);
+            firsts[i] = buffer.getInt(pos + 4);
+            pos += 8;
+        }
+        int totalWords = buffer.getInt(pos);
+        int offsetsPos = pos + 4;
+        int textPos = offsetsPos + 4 * (totalWords + 1);
+        if (textPos + (long) buffer.getInt(offsetsPos + 4 * totalWords) != size) {
+            throw new IllegalStateException("truncated binary dictionary");
+        }
+
+        Map<String, List<String>> wordsByLetter = new LinkedHashMap<>();
+        for (int i = 0; i < letterCount; i++) {
+            if (firsts[i] < 0 || counts[i] < 0 || firsts[i] + counts[i] > totalWords) {
+                throw new IllegalStateException("bad letter table");
+            }
+            wordsByLetter.put(letters[i], new MappedWords(buffer, offsetsPos, textPos, firsts[i], counts[i]));
+        }
+        return DictionaryIndex.mapped(wordsByLetter, size);
+    }
+
+    /**
+     * Escribir el índice para los próximos arranques (fichero temporal + renombrado).
+     */
+    static void write(DictionaryIndex index, Path file, long sourceFingerprint) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path tmp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream os = Files.newOutputStream(tmp);
+                    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os))) {
+                writeTo(index, out, sourceFingerprint);
+            }
+            try {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    static void writeTo(DictionaryIndex index, DataOutputStream out, long sourceFingerprint) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(sourceFingerprint);
+        out.writeInt(index.letters().size());
+        int first = 0;
+        for (String letter : index.letters()) {
+            byte[] bytes = letter.getBytes(StandardCharsets.UTF_8);
+            out.writeShort(bytes.length);
+            out.write(bytes);
+            int count = index.words(letter).size();
+            out.writeInt(count);
+            out.writeInt(first);
+            first += count;
+        }
+
+        out.writeInt(first);
+        int offset = 0;
+        out.writeInt(offset);
+        for (String letter : index.letters()) {
+            for (String word : index.words(letter)) {
+                offset += word.getBytes(StandardCharsets.UTF_8).length;
+                out.writeInt(offset);
+            }
+        }
+        for (String letter : index.letters()) {
+            for (String word : index.words(letter)) {
+                out.write(word.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+    /**
+     * Palabras de una letra leídas del buffer mapeado. Las lecturas absolutas no tocan la posición
+     * del buffer, así que se puede leer desde varios hilos a la vez.
+     */
+    private static final class MappedWords extends AbstractList<String> implements RandomAccess {
+        private final ByteBuffer buffer;
+        private final int offsetsPos;
+        private final int textPos;
+        private final int first;
+        private final int size;
+
+        MappedWords(ByteBuffer buffer, int offsetsPos, int textPos, int first, int size) {
+            this.buffer = buffer;
+            this.offsetsPos = offsetsPos;
+            this.textPos = textPos;
+            this.first = first;
+            this.size = size;
+        }
+
+        @Override
+        public String get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index out of bounds: " + index);
+            }
+            int entry = offsetsPos + 4 * (first + index);
+            int start = buffer.getInt(entry);
+            byte[] word = new byte[buffer.getInt(entry + 4) - start];
+            buffer.get(textPos + start, word);
+            return new String(word, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
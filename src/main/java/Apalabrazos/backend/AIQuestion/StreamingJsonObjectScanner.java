@@ -0,0 +1,81 @@
+package Apalabrazos.backend.AIQuestion;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Encuentra, según llega el texto del modelo a trozos, cada objeto JSON que es elemento de un array
+ * ({@code {"questionList":[{...},{...}]}} o directamente {@code [{...},{...}]}), sin esperar a que
+ * termine la respuesta.
+ * <p>
+ * Solo sigue anidamiento, cadenas y escapes; no valida el JSON (eso lo hace Jackson con cada objeto
+ * devuelto). Lo que hay fuera del JSON (vallas de markdown, texto suelto) se ignora. Solo guarda el
+ * texto desde el objeto abierto más externo, así que la memoria no crece con la respuesta.
+ * No es seguro entre hilos: un escáner por respuesta.
+ */
+final class StreamingJsonObjectScanner {
+
+    private final StringBuilder pending = new StringBuilder();
+    /** Contenedores abiertos: '{' o '[' */
+    private final StringBuilder stack = new StringBuilder();
+    private boolean inString;
+    private boolean escaped;
+    /** Hay un objeto elemento de array abierto, guardándose en {@code pending} */
+    private boolean inElement;
+    /** Profundidad del array que lo contiene */
+    private int elementDepth;
+
+    /**
+     * Añadir un trozo de texto.
+     *
+     * @return los objetos completados con este trozo, en orden
+     */
+    List<String> feed(CharSequence chunk) {
+        List<String> completed = null;
+        for (int i = 0; i < chunk.length(); i++) {
+            char c = chunk.charAt(i);
+            if (inElement) {
+                pending.append(c);
+            }
+            if (inString) {
+                if (escaped) {
+                    escaped = false;
+                } else if (c == '\\') {
+                    escaped = true;
+                } else if (c == '"') {
+                    inString = false;
+                }
+                continue;
+            }
+            switch (c) {
+                case '"' -> inString = !stack.isEmpty();
+                case '[' -> stack.append('[');
+                case '{' -> {
+                    if (!inElement && !stack.isEmpty() && stack.charAt(stack.length() - 1) == '[') {
+                        inElement = true;
+                        elementDepth = stack.length();
+                        pending.append('{');
+                    }
+                    stack.append('{');
+                }
+                case '}', ']' -> {
+                    if (stack.isEmpty()) {
+                        break;
+                    }
+                    stack.setLength(stack.length() - 1);
+                    if (c == '}' && inElement && stack.length() == elementDepth) {
+                        if (completed == null) {
+                            completed = new ArrayList<>();
+                        }
+                        completed.add(pending.toString());
+                        pending.setLength(0);
+                        inElement = false;
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+        return completed == null ? List.of() : completed;
+    }
+}
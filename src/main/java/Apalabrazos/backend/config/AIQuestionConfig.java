@@ -14,11 +14,20 @@ import org.slf4j.LoggerFactory;
  *   AI_MODEL                                — Primary model name
  *   AI_FALLBACK_MODEL                       — Fallback model used on 503 errors (optional)
  *   AI_WORD_DICTIONARY_PATH                 — Path to the word dictionary file
+ *   AI_WORD_DICTIONARY_INDEX_PATH           — Binary, pre-validated copy of the dictionary (written on first run)
+ *   AI_RECENT_WORDS_PER_LETTER              — Recent correct words avoided per letter (0 = off)
+ *   AI_DISTRACTOR_MAX_LENGTH_DIFF           — Max length difference between distractors and the answer (0 = off)
  *   AI_QUESTIONS_PER_LETTER                 — Questions kept per letter after generation
  *   AI_QUESTIONS_TO_GENERATE_PER_LETTER_IN_BATCH — Questions generated per letter per batch attempt
  *   AI_LETTERS_PER_BATCH                    — Letters grouped in a single LLM call
  *   AI_MAX_ATTEMPTS_PER_BATCH               — Maximum retry attempts per letter batch
+ *   AI_BATCH_PARALLELISM                    — Letter batches of one battery sent to the LLM at the same time
+ *   AI_MAX_CONCURRENT_CALLS                 — LLM requests in flight across the whole process
  *   AI_MAX_TOKENS                           — Max tokens requested from the model
+ *   AI_HTTP_CONNECT_TIMEOUT_SECONDS         — TCP/TLS connect timeout of the shared LLM HTTP client
+ *   AI_REQUEST_TIMEOUT_SECONDS              — Max wait for the response headers of one LLM request
+ *   AI_GENERATION_DEADLINE_SECONDS          — Budget of one battery generation; no LLM call outlives it
+ *   AI_STREAM_RESPONSES                     — Stream completions (NDJSON / SSE) and accept questions as they arrive
  *   AI_APP_NAME                             — Application name injected into prompts
  *   AI_APP_URL                              — Application URL injected into prompts
  */
@@ -32,12 +41,22 @@ public final class AIQuestionConfig {
     private static final String DEFAULT_MODEL      = "gemma4:e2b";
     private static final String DEFAULT_FALLBACK_MODEL = "";
     private static final String DEFAULT_WORD_DICTIONARY_PATH = "Apalabrazos/data/dictionary.txt";
+    private static final String DEFAULT_WORD_DICTIONARY_INDEX_PATH =
+            System.getProperty("java.io.tmpdir") + "/apalabrazos-dictionary.idx";
 
     private static final int  DEFAULT_QUESTIONS_PER_LETTER                     = 1;
     private static final int  DEFAULT_QUESTIONS_TO_GENERATE_PER_LETTER_IN_BATCH = 2;
     private static final int  DEFAULT_LETTERS_PER_BATCH                        = 25;
     private static final int  DEFAULT_MAX_ATTEMPTS_PER_BATCH                   = 1;
     private static final int  DEFAULT_MAX_TOKENS                               = 2000;
+    private static final int  DEFAULT_RECENT_WORDS_PER_LETTER                  = 32;
+    private static final int  DEFAULT_BATCH_PARALLELISM                        = 4;
+    private static final int  DEFAULT_MAX_CONCURRENT_CALLS                     = 4;
+    private static final int  DEFAULT_DISTRACTOR_MAX_LENGTH_DIFF               = 0;
+    private static final boolean DEFAULT_STREAM_RESPONSES                      = true;
+    private static final int  DEFAULT_HTTP_CONNECT_TIMEOUT_SECONDS             = 30;
+    private static final int  DEFAULT_REQUEST_TIMEOUT_SECONDS                  = 120;
+    private static final int  DEFAULT_GENERATION_DEADLINE_SECONDS              = 180;
 
     private static final String DEFAULT_APP_NAME = "Apalabrazos";
     private static final String DEFAULT_APP_URL  = "https://github.com/Apalabrazos";
@@ -54,12 +73,21 @@ public final class AIQuestionConfig {
     private static final String model;
     private static final String fallbackModel;
     private static final String wordDictionaryPath;
+    private static final String wordDictionaryIndexPath;
 
     private static final int questionsPerLetter;
     private static final int questionsToGeneratePerLetterInBatch;
     private static final int lettersPerBatch;
     private static final int maxAttemptsPerBatch;
     private static final int maxTokens;
+    private static final int recentWordsPerLetter;
+    private static final int distractorMaxLengthDiff;
+    private static final int batchParallelism;
+    private static final int maxConcurrentCalls;
+    private static final boolean streamResponses;
+    private static final int httpConnectTimeoutSeconds;
+    private static final int requestTimeoutSeconds;
+    private static final int generationDeadlineSeconds;
 
     private static final String appName;
     private static final String appUrl;
@@ -74,12 +102,21 @@ public final class AIQuestionConfig {
         wordDictionaryPath = (rawDictPath == null || rawDictPath.isBlank())
                 ? DEFAULT_WORD_DICTIONARY_PATH
                 : rawDictPath.trim();
+        wordDictionaryIndexPath = readEnv("AI_WORD_DICTIONARY_INDEX_PATH", DEFAULT_WORD_DICTIONARY_INDEX_PATH);
 
         questionsPerLetter                     = readEnvInt("AI_QUESTIONS_PER_LETTER", DEFAULT_QUESTIONS_PER_LETTER);
         questionsToGeneratePerLetterInBatch    = readEnvInt("AI_QUESTIONS_TO_GENERATE_PER_LETTER_IN_BATCH", DEFAULT_QUESTIONS_TO_GENERATE_PER_LETTER_IN_BATCH);
         lettersPerBatch                        = readEnvInt("AI_LETTERS_PER_BATCH",    DEFAULT_LETTERS_PER_BATCH);
         maxAttemptsPerBatch                    = readEnvInt("AI_MAX_ATTEMPTS_PER_BATCH", DEFAULT_MAX_ATTEMPTS_PER_BATCH);
         maxTokens                              = readEnvInt("AI_MAX_TOKENS",           DEFAULT_MAX_TOKENS);
+        recentWordsPerLetter                   = readEnvInt("AI_RECENT_WORDS_PER_LETTER", DEFAULT_RECENT_WORDS_PER_LETTER);
+        distractorMaxLengthDiff                = readEnvInt("AI_DISTRACTOR_MAX_LENGTH_DIFF", DEFAULT_DISTRACTOR_MAX_LENGTH_DIFF);
+        batchParallelism                       = readEnvInt("AI_BATCH_PARALLELISM",    DEFAULT_BATCH_PARALLELISM);
+        maxConcurrentCalls                     = readEnvInt("AI_MAX_CONCURRENT_CALLS", DEFAULT_MAX_CONCURRENT_CALLS);
+        streamResponses                        = readEnvBoolean("AI_STREAM_RESPONSES", DEFAULT_STREAM_RESPONSES);
+        httpConnectTimeoutSeconds              = readEnvInt("AI_HTTP_CONNECT_TIMEOUT_SECONDS", DEFAULT_HTTP_CONNECT_TIMEOUT_SECONDS);
+        requestTimeoutSeconds                  = readEnvInt("AI_REQUEST_TIMEOUT_SECONDS", DEFAULT_REQUEST_TIMEOUT_SECONDS);
+        generationDeadlineSeconds              = readEnvInt("AI_GENERATION_DEADLINE_SECONDS", DEFAULT_GENERATION_DEADLINE_SECONDS);
 
         appName = readEnv("AI_APP_NAME", DEFAULT_APP_NAME);
         appUrl  = readEnv("AI_APP_URL",  DEFAULT_APP_URL);
@@ -87,10 +124,14 @@ public final class AIQuestionConfig {
         log.info(
                 "AIQuestionConfig loaded -- apiUrl={}, model={}, fallbackModel={}, questionsPerLetter={}, " +
                 "questionsToGeneratePerLetterInBatch={}, lettersPerBatch={}, maxAttemptsPerBatch={}, " +
-                "maxTokens={}, appName={}, appUrl={}, wordDictionaryPath={}",
+                "batchParallelism={}, maxConcurrentCalls={}, streamResponses={}, " +
+                "requestTimeoutSeconds={}, generationDeadlineSeconds={}, " +
+                "maxTokens={}, appName={}, appUrl={}, wordDictionaryPath={}, wordDictionaryIndexPath={}",
                 apiUrl, model, fallbackModel, questionsPerLetter,
                 questionsToGeneratePerLetterInBatch, lettersPerBatch, maxAttemptsPerBatch,
-                maxTokens, appName, appUrl, wordDictionaryPath);
+                batchParallelism, maxConcurrentCalls, streamResponses,
+                requestTimeoutSeconds, generationDeadlineSeconds,
+                maxTokens, appName, appUrl, wordDictionaryPath, wordDictionaryIndexPath);
     }
 
     private AIQuestionConfig() {
@@ -103,12 +144,21 @@ public final class AIQuestionConfig {
     public static String getModel()        { return model; }
     public static String getFallbackModel(){ return fallbackModel; }
     public static String getWordDictionaryPath() { return wordDictionaryPath; }
+    public static String getWordDictionaryIndexPath() { return wordDictionaryIndexPath; }
 
     public static int getQuestionsPerLetter()                   { return questionsPerLetter; }
     public static int getQuestionsToGeneratePerLetterInBatch()  { return questionsToGeneratePerLetterInBatch; }
     public static int getLettersPerBatch()                      { return lettersPerBatch; }
     public static int getMaxAttemptsPerBatch()                  { return maxAttemptsPerBatch; }
     public static int getMaxTokens()                            { return maxTokens; }
+    public static int getRecentWordsPerLetter()                 { return recentWordsPerLetter; }
+    public static int getDistractorMaxLengthDiff()              { return distractorMaxLengthDiff; }
+    public static int getBatchParallelism()                     { return batchParallelism; }
+    public static int getMaxConcurrentCalls()                   { return maxConcurrentCalls; }
+    public static boolean isStreamResponses()                   { return streamResponses; }
+    public static int getHttpConnectTimeoutSeconds()            { return httpConnectTimeoutSeconds; }
+    public static int getRequestTimeoutSeconds()                { return requestTimeoutSeconds; }
+    public static int getGenerationDeadlineSeconds()            { return generationDeadlineSeconds; }
 
     public static String getAppName() { return appName; }
     public static String getAppUrl()  { return appUrl; }
@@ -132,4 +182,12 @@ public final class AIQuestionConfig {
             return defaultValue;
         }
     }
+
+    private static boolean readEnvBoolean(String key, boolean defaultValue) {
+        String value = System.getenv(key);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        return Boolean.parseBoolean(value.trim());
+    }
 }
@@ -1,5 +1,8 @@
 package Apalabrazos.backend.events;
 
+import Apalabrazos.backend.metrics.LatencyHistogram;
+import Apalabrazos.backend.metrics.MetricsRegistry;
+import Apalabrazos.backend.metrics.jfr.BusDispatchEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -17,6 +20,11 @@ public class AsyncEventBus {
 
     private static final Logger log = LoggerFactory.getLogger(AsyncEventBus.class);
 
+    // Desde publish() hasta que cada listener termina, por clase de evento
+    private static final MetricsRegistry.Family<LatencyHistogram> DISPATCH_LATENCY =
+            MetricsRegistry.getInstance().histogramFamily("apalabrazos_bus_dispatch_seconds",
+                    "Time from publish to listener completion, by event class", "event");
+
     // Thread-safe: permite agregar/quitar listeners durante la ejecución
     private final List<EventListener> listeners = new CopyOnWriteArrayList<>();
 
@@ -58,9 +66,15 @@ public class AsyncEventBus {
                  event.getClass().getSimpleName(),
                  listeners.size());
 
+        long publishedNanos = System.nanoTime();
+        LatencyHistogram dispatchLatency = DISPATCH_LATENCY.labels(event.getClass().getSimpleName());
+
         // Crear un CompletableFuture por cada listener
         List<CompletableFuture<Void>> futures = listeners.stream()
             .map(listener -> CompletableFuture.runAsync(() -> {
+                BusDispatchEvent dispatch = new BusDispatchEvent();
+                long startedNanos = System.nanoTime();
+                dispatch.begin();
                 try {
                     // Se ejecuta en un virtual thread separado
                     listener.onEvent(event);
@@ -69,6 +83,9 @@ public class AsyncEventBus {
                              event.getClass().getSimpleName(),
                              listener.getClass().getSimpleName(),
                              e.getMessage(), e);
+                } finally {
+                    dispatchLatency.recordNanos(System.nanoTime() - publishedNanos);
+                    commitDispatch(dispatch, event, listener, startedNanos - publishedNanos);
                 }
             }, executor))
             .toList();
@@ -78,6 +95,22 @@ public class AsyncEventBus {
         return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
     }
 
+    /**
+     * Evento JFR del reparto; los campos solo se rellenan si hay una grabación que lo pide.
+     */
+    private static void commitDispatch(BusDispatchEvent dispatch, GameEvent event, EventListener listener,
+                                       long queueDelayNanos) {
+        dispatch.end();
+        if (dispatch.shouldCommit()) {
+            dispatch.eventType = event.getClass().getSimpleName();
+            dispatch.listener = listener.getClass().getName();
+            dispatch.matchId = event.getMatchId();
+            dispatch.playerId = event.getPlayerId();
+            dispatch.queueDelay = queueDelayNanos;
+            dispatch.commit();
+        }
+    }
+
     /**
      * Publicar evento y esperar a que todos los listeners terminen (fire-and-forget)
      * Útil cuando no te importa el resultado
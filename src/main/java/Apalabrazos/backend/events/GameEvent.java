@@ -1,11 +1,14 @@
 package Apalabrazos.backend.events;
 
+import Apalabrazos.backend.metrics.TraceContext;
+
 /**
  * Base class for all game events.
  * Events are immutable data objects that represent something that happened.
  */
 public abstract class GameEvent {
     private final long timestamp;
+    private volatile TraceContext traceContext;
 
     protected GameEvent() {
         this.timestamp = System.currentTimeMillis();
@@ -14,4 +17,29 @@ public abstract class GameEvent {
     public long getTimestamp() {
         return timestamp;
     }
+
+    /**
+     * Partida a la que se refiere el evento, si la lleva (para trazas y perfiles).
+     */
+    public String getMatchId() {
+        return null;
+    }
+
+    /**
+     * Jugador al que se refiere el evento, si lo lleva (para trazas y perfiles).
+     */
+    public String getPlayerId() {
+        return null;
+    }
+
+    /**
+     * Traza del mensaje que originó el evento, o null si no se está trazando.
+     */
+    public TraceContext getTraceContext() {
+        return traceContext;
+    }
+
+    public void setTraceContext(TraceContext traceContext) {
+        this.traceContext = traceContext;
+    }
 }
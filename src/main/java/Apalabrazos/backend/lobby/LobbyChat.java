@@ -0,0 +1,222 @@
+package Apalabrazos.backend.lobby;
+
+import Apalabrazos.backend.network.WsMessageType;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Chat del lobby: historial reciente, mensajes pendientes de difundir y cupo de envío por usuario.
+ * <p>
+ * Los últimos mensajes se guardan en un anillo de tamaño fijo; su frame {@code chat_history} se
+ * codifica una vez por cambio y se envía entero a quien entra en el lobby. Los mensajes aceptados
+ * se acumulan hasta el siguiente tick de {@link LobbyRoom}, que los difunde juntos en un único
+ * {@code chat_messages}. Cada usuario tiene un cubo de fichas (ráfaga + ritmo de recarga): el
+ * mensaje que llega sin ficha se descarta.
+ */
+final class LobbyChat {
+
+    private static final Logger log = LoggerFactory.getLogger(LobbyChat.class);
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final LongSupplier nanoClock;
+    private final int maxLength;
+    private final int burst;
+    private final double refillPerNano;
+
+    /** Anillo de los últimos mensajes difundidos (protegido por this) */
+    private final Entry[] ring;
+    private int ringStart;
+    private int ringSize;
+    /** Aceptados y aún sin difundir (protegido por this) */
+    private List<Entry> pending = new ArrayList<>();
+    private long sequence;
+
+    /** Frame del historial actual; null hasta que alguien lo pide tras un tick */
+    private volatile String historyFrame;
+
+    /** username -> cupo de envío */
+    private final Map<String, Quota> quotas = new ConcurrentHashMap<>();
+
+    LobbyChat(int historySize, int maxLength, int burst, double messagesPerSecond, LongSupplier nanoClock) {
+        this.ring = new Entry[Math.max(1, historySize)];
+        this.maxLength = Math.max(1, maxLength);
+        this.burst = Math.max(1, burst);
+        this.refillPerNano = Math.max(0.0, messagesPerSecond) / NANOS_PER_SECOND;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Aceptar un mensaje si el usuario tiene cupo; el texto se recorta a la longitud máxima.
+     *
+     * @return false si el texto está vacío o el usuario ha agotado su cupo
+     */
+    boolean post(String username, String text) {
+        if (text == null || text.isBlank()) {
+            return false;
+        }
+        long now = nanoClock.getAsLong();
+        Quota quota = quotas.computeIfAbsent(username, k -> new Quota(burst, now));
+        if (!quota.tryAcquire(now)) {
+            return false;
+        }
+        String trimmed = text.length() > maxLength ? text.substring(0, maxLength) : text;
+        synchronized (this) {
+            pending.add(new Entry(++sequence, username, trimmed, System.currentTimeMillis()));
+        }
+        return true;
+    }
+
+    /**
+     * Pasar los mensajes pendientes al historial.
+     *
+     * @return el frame {@code chat_messages} con todos ellos, o null si no había ninguno
+     */
+    String drain() {
+        List<Entry> batch;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return null;
+            }
+            batch = pending;
+            pending = new ArrayList<>();
+            for (Entry entry : batch) {
+                append(entry);
+            }
+            historyFrame = null;
+        }
+        return encode(WsMessageType.CHAT_MESSAGES, batch);
+    }
+
+    private void append(Entry entry) {
+        if (ringSize < ring.length) {
+            ring[(ringStart + ringSize) % ring.length] = entry;
+            ringSize++;
+        } else {
+            ring[ringStart] = entry;
+            ringStart = (ringStart + 1) % ring.length;
+        }
+    }
+
+    /**
+     * Frame {@code chat_history} con los mensajes del anillo, del más antiguo al más reciente.
+     */
+    String historyFrame() {
+        String frame = historyFrame;
+        if (frame != null) {
+            return frame;
+        }
+        synchronized (this) {
+            if (historyFrame == null) {
+                List<Entry> entries = new ArrayList<>(ringSize);
+                for (int i = 0; i < ringSize; i++) {
+                    entries.add(ring[(ringStart + i) % ring.length]);
+                }
+                historyFrame = encode(WsMessageType.CHAT_HISTORY, entries);
+            }
+            return historyFrame;
+        }
+    }
+
+    /**
+     * Olvidar los cupos ya recargados del todo: equivalen a uno nuevo.
+     */
+    void pruneQuotas() {
+        long now = nanoClock.getAsLong();
+        for (Iterator<Quota> it = quotas.values().iterator(); it.hasNext(); ) {
+            if (it.next().isFull(now)) {
+                it.remove();
+            }
+        }
+    }
+
+    synchronized int historySize() {
+        return ringSize;
+    }
+
+    synchronized int pendingSize() {
+        return pending.size();
+    }
+
+    int quotaCount() {
+        return quotas.size();
+    }
+
+    private String encode(String type, List<Entry> entries) {
+        List<Map<String, Object>> messages = new ArrayList<>(entries.size());
+        for (Entry entry : entries) {
+            messages.add(entry.toMap());
+        }
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("messages", messages);
+        Map<String, Object> message = new LinkedHashMap<>();
+        message.put("type", type);
+        message.put("payload", payload);
+        try {
+            return mapper.writeValueAsString(message);
+        } catch (JsonProcessingException e) {
+            log.error("[LOBBY-CHAT] Error encoding {}: {}", type, e.getMessage(), e);
+            return "{\"type\":\"" + type + "\",\"payload\":{\"messages\":[]}}";
+        }
+    }
+
+    /**
+     * Un mensaje del chat. {@code seq} es creciente dentro del arranque del servidor.
+     */
+    record Entry(long seq, String username, String text, long sentAt) {
+
+        Map<String, Object> toMap() {
+            Map<String, Object> out = new LinkedHashMap<>();
+            out.put("seq", seq);
+            out.put("text", text);
+            out.put("username_originator", username);
+            out.put("sentAt", sentAt);
+            return out;
+        }
+    }
+
+    /**
+     * Cubo de fichas de un usuario: empieza lleno con {@code burst} y recarga al ritmo configurado.
+     */
+    private final class Quota {
+        private double tokens;
+        private long lastRefillNanos;
+
+        private Quota(double tokens, long now) {
+            this.tokens = tokens;
+            this.lastRefillNanos = now;
+        }
+
+        synchronized boolean tryAcquire(long now) {
+            refill(now);
+            if (tokens < 1.0) {
+                return false;
+            }
+            tokens -= 1.0;
+            return true;
+        }
+
+        synchronized boolean isFull(long now) {
+            refill(now);
+            return tokens >= burst;
+        }
+
+        private void refill(long now) {
+            long elapsed = now - lastRefillNanos;
+            if (elapsed > 0) {
+                tokens = Math.min(burst, tokens + elapsed * refillPerNano);
+                lastRefillNanos = now;
+            }
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package Apalabrazos.backend.lobby;
+
+import Apalabrazos.backend.network.WsMessageType;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Estado versionado de las partidas visibles en el lobby.
+ * <p>
+ * Cada alta, cambio o baja incrementa la versión y queda en un historial acotado de cambios.
+ * El frame {@code LobbyMatchesSnapshot} se codifica una sola vez por versión y se reutiliza
+ * para todas las conexiones; un cliente que reconecta con su última versión recibe solo un
+ * {@code LobbyMatchesDelta} con lo que ha cambiado desde entonces. Si la versión es de otro
+ * arranque del servidor (epoch distinto) o ya no está en el historial, recibe el snapshot.
+ */
+public class LobbyMatchesState {
+
+    public static final String OP_UPSERT = "UPSERT";
+    public static final String OP_REMOVE = "REMOVE";
+
+    private static final Logger log = LoggerFactory.getLogger(LobbyMatchesState.class);
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final String epoch = UUID.randomUUID().toString();
+    private final int historyCapacity;
+
+    /** roomId -> último resumen publicado, en orden de alta */
+    private final Map<String, Map<String, Object>> matches = new LinkedHashMap<>();
+    private final ArrayDeque<Change> history = new ArrayDeque<>();
+    private long version;
+
+    /** Frame del snapshot de la versión actual; null hasta que alguien lo pide tras un cambio */
+    private volatile String snapshotFrame;
+
+    public LobbyMatchesState(int historyCapacity) {
+        this.historyCapacity = Math.max(1, historyCapacity);
+    }
+
+    /**
+     * Alta o actualización de una partida.
+     *
+     * @return la nueva versión, o -1 si el resumen no trae roomId
+     */
+    public synchronized long upsert(Map<String, Object> summary) {
+        String roomId = roomIdOf(summary);
+        if (roomId == null) {
+            return -1;
+        }
+        Map<String, Object> copy = new LinkedHashMap<>(summary);
+        Map<String, Object> previous = matches.put(roomId, copy);
+        return record(OP_UPSERT, roomId, copy, previous);
+    }
+
+    /**
+     * Baja de una partida.
+     *
+     * @return la nueva versión, o -1 si la partida no estaba en el lobby
+     */
+    public synchronized long remove(String roomId) {
+        Map<String, Object> previous = roomId != null ? matches.remove(roomId) : null;
+        if (previous == null) {
+            return -1;
+        }
+        return record(OP_REMOVE, roomId, null, previous);
+    }
+
+    private long record(String op, String roomId, Map<String, Object> match, Map<String, Object> previous) {
+        version++;
+        history.addLast(new Change(version, op, roomId, match, previous));
+        while (history.size() > historyCapacity) {
+            history.removeFirst();
+        }
+        snapshotFrame = null;
+        return version;
+    }
+
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    public String getEpoch() {
+        return epoch;
+    }
+
+    public synchronized int size() {
+        return matches.size();
+    }
+
+    /**
+     * Frame {@code LobbyMatchesSnapshot} de la versión actual (codificado una vez por versión).
+     */
+    public String snapshotFrame() {
+        String frame = snapshotFrame;
+        if (frame != null) {
+            return frame;
+        }
+        synchronized (this) {
+            if (snapshotFrame == null) {
+                Map<String, Object> payload = new LinkedHashMap<>();
+                payload.put("epoch", epoch);
+                payload.put("version", version);
+                payload.put("matches", new ArrayList<>(matches.values()));
+                snapshotFrame = encode(WsMessageType.LOBBY_MATCHES_SNAPSHOT, payload);
+            }
+            return snapshotFrame;
+        }
+    }
+
+    /**
+     * Frame para un cliente que dice tener la versión {@code sinceVersion} del arranque
+     * {@code clientEpoch}: delta si el historial lo cubre, snapshot completo si no.
+     */
+    public String syncFrame(String clientEpoch, long sinceVersion) {
+        synchronized (this) {
+            boolean sameEpoch = epoch.equals(clientEpoch);
+            boolean covered = !history.isEmpty() && history.peekFirst().version <= sinceVersion + 1;
+            if (sameEpoch && sinceVersion >= 0 && sinceVersion <= version
+                    && (sinceVersion == version || covered)) {
+                return encode(WsMessageType.LOBBY_MATCHES_DELTA, deltaPayload(sinceVersion));
+            }
+        }
+        return snapshotFrame();
+    }
+
+    /**
+     * Cambios posteriores a {@code sinceVersion} listos para difundir: un LobbyMatchesDelta, o el
+     * snapshot si ya no están todos en el historial. Null si no ha cambiado nada.
+     */
+    public synchronized Batch changesSince(long sinceVersion) {
+        if (sinceVersion >= version) {
+            return null;
+        }
+        boolean covered = !history.isEmpty() && history.peekFirst().version <= sinceVersion + 1;
+        String frame = covered
+                ? encode(WsMessageType.LOBBY_MATCHES_DELTA, deltaPayload(sinceVersion))
+                : snapshotFrame();
+        return new Batch(version, frame);
+    }
+
+    /**
+     * Resúmenes afectados por los cambios posteriores a {@code sinceVersion}: el anterior y el
+     * nuevo de cada cambio. Una vista cuyo filtro no acepta ninguno conserva su página.
+     *
+     * @return los resúmenes, o null si el historial ya no cubre esos cambios
+     */
+    public synchronized List<Map<String, Object>> summariesChangedSince(long sinceVersion) {
+        List<Map<String, Object>> changed = new ArrayList<>();
+        if (sinceVersion >= version) {
+            return changed;
+        }
+        boolean covered = !history.isEmpty() && history.peekFirst().version <= sinceVersion + 1;
+        if (!covered) {
+            return null;
+        }
+        for (Change change : history) {
+            if (change.version > sinceVersion) {
+                if (change.previous != null) {
+                    changed.add(change.previous);
+                }
+                if (change.match != null) {
+                    changed.add(change.match);
+                }
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Página de las partidas que pasan el filtro de la vista, en orden de alta.
+     */
+    public synchronized Page page(LobbyView view) {
+        List<Map<String, Object>> filtered = new ArrayList<>();
+        for (Map<String, Object> match : matches.values()) {
+            if (view.matches(match)) {
+                filtered.add(match);
+            }
+        }
+        int from = (int) Math.min((long) view.getPage() * view.getPageSize(), filtered.size());
+        int to = Math.min(from + view.getPageSize(), filtered.size());
+        return new Page(version, filtered.size(), new ArrayList<>(filtered.subList(from, to)));
+    }
+
+    /**
+     * Frame {@code LobbyMatchesPage} de una página ya calculada.
+     */
+    public String pageFrame(LobbyView view, Page page) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("epoch", epoch);
+        payload.put("version", page.version());
+        payload.put("total", page.total());
+        payload.put("filter", view.toMap());
+        payload.put("matches", page.matches());
+        return encode(WsMessageType.LOBBY_MATCHES_PAGE, payload);
+    }
+
+    private Map<String, Object> deltaPayload(long sinceVersion) {
+        // Solo el último cambio de cada partida
+        Map<String, Change> latest = new LinkedHashMap<>();
+        for (Change change : history) {
+            if (change.version > sinceVersion) {
+                latest.remove(change.roomId);
+                latest.put(change.roomId, change);
+            }
+        }
+        List<Map<String, Object>> changes = new ArrayList<>(latest.size());
+        for (Change change : latest.values()) {
+            changes.add(change.toMap());
+        }
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("epoch", epoch);
+        payload.put("fromVersion", sinceVersion);
+        payload.put("version", version);
+        payload.put("changes", changes);
+        return payload;
+    }
+
+    private String encode(String type, Map<String, Object> payload) {
+        Map<String, Object> message = new LinkedHashMap<>();
+        message.put("type", type);
+        message.put("payload", payload);
+        try {
+            return mapper.writeValueAsString(message);
+        } catch (JsonProcessingException e) {
+            log.error("[LOBBY-STATE] Error encoding {}: {}", type, e.getMessage(), e);
+            return "{\"type\":\"" + type + "\",\"payload\":{}}";
+        }
+    }
+
+    private static String roomIdOf(Map<String, Object> summary) {
+        if (summary == null) {
+            return null;
+        }
+        Object roomId = summary.get("roomId");
+        return roomId != null && !roomId.toString().isBlank() ? roomId.toString() : null;
+    }
+
+    /**
+     * Frame pre-codificado con los cambios hasta {@code version}.
+     */
+    public record Batch(long version, String frame) {
+    }
+
+    /**
+     * Una página de partidas. Los resúmenes no se modifican tras guardarse, así que dos páginas
+     * con los mismos objetos en el mismo orden muestran lo mismo.
+     */
+    public record Page(long version, int total, List<Map<String, Object>> matches) {
+
+        public boolean sameContentAs(Page other) {
+            if (other == null || other.total != total || other.matches.size() != matches.size()) {
+                return false;
+            }
+            for (int i = 0; i < matches.size(); i++) {
+                if (matches.get(i) != other.matches.get(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Un cambio del historial: alta/actualización con su resumen o baja. Guarda también el
+     * resumen al que sustituye (no se envía) para saber qué vistas afecta.
+     */
+    static final class Change {
+        final long version;
+        final String op;
+        final String roomId;
+        final Map<String, Object> match;
+        final Map<String, Object> previous;
+
+        Change(long version, String op, String roomId, Map<String, Object> match, Map<String, Object> previous) {
+            this.version = version;
+            this.op = op;
+            this.roomId = roomId;
+            this.match = match;
+            this.previous = previous;
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> out = new LinkedHashMap<>();
+            out.put("op", op);
+            out.put("roomId", roomId);
+            if (match != null) {
+                out.put("match", match);
+            }
+            return out;
+        }
+    }
+}
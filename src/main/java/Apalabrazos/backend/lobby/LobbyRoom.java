@@ -1,23 +1,36 @@
 package Apalabrazos.backend.lobby;
 
-import Apalabrazos.backend.model.Player;
+import Apalabrazos.backend.metrics.MetricsRegistry;
 import Apalabrazos.backend.network.WsMessageType;
 import Apalabrazos.backend.service.MatchManager;
-import Apalabrazos.backend.service.ConnectionRegistry;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Singleton representing the global Lobby Room.
  * All connected players are automatically part of the lobby.
  * Has a fixed ID: "lobby-main".
+ * <p>
+ * Las sesiones se reparten en LOBBY_SHARDS {@link LobbyShard} por hash del sessionId; cada
+ * difusión se encola en todos los shards y cada uno envía a sus sesiones en su propio hilo.
+ * El chat ({@link LobbyChat}) se difunde por ticks y quien entra recibe su historial reciente.
  */
 public class LobbyRoom {
 
@@ -26,12 +39,64 @@ public class LobbyRoom {
     private static final Logger log = LoggerFactory.getLogger(LobbyRoom.class);
     private static volatile LobbyRoom instance;
 
-    /** Session IDs currently in this lobby */
-    private final Set<UUID> sessions = ConcurrentHashMap.newKeySet();
+    private static final MetricsRegistry.Family<LongAdder> CHAT_MESSAGES =
+            MetricsRegistry.getInstance().counterFamily("apalabrazos_lobby_chat_messages_total",
+                    "Lobby chat messages by outcome (accepted, throttled)", "outcome");
+    private static final LongAdder CHAT_ACCEPTED = CHAT_MESSAGES.labels("accepted");
+    private static final LongAdder CHAT_THROTTLED = CHAT_MESSAGES.labels("throttled");
+
+    /** Session IDs currently in this lobby, split by hash (LOBBY_SHARDS, one per core by default) */
+    private final LobbyShard[] shards;
 
     private final ObjectMapper mapper = new ObjectMapper();
 
+    /** Partidas visibles en el lobby, versionadas (LOBBY_DELTA_HISTORY cambios de historial) */
+    private final LobbyMatchesState matchesState = new LobbyMatchesState(readEnvInt("LOBBY_DELTA_HISTORY", 512));
+
+    /**
+     * Ventana de agrupación de cambios de partidas (LOBBY_BROADCAST_WINDOW_MS). Los cambios de
+     * la ventana se envían juntos en un único LobbyMatchesDelta; con 0 cada cambio se envía al
+     * momento como LobbyMatchCreated/Updated/Removed.
+     */
+    private final long broadcastWindowMillis = readEnvInt("LOBBY_BROADCAST_WINDOW_MS", 150);
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    /** Vista filtrada y paginada de cada sesión suscrita; el resto recibe todos los cambios */
+    private final Map<UUID, LobbyView> views = new ConcurrentHashMap<>();
+    /** Última página difundida por vista y versión a la que corresponden (solo las toca el flusher) */
+    private Map<LobbyView, LobbyMatchesState.Page> lastPages = new HashMap<>();
+    private long lastPagesVersion;
+    private final ScheduledExecutorService flusher;
+    /** Última versión ya enviada a las sesiones del lobby (solo la toca el hilo del flusher) */
+    private long lastBroadcastVersion;
+
+    /**
+     * Historial (LOBBY_CHAT_HISTORY mensajes), longitud máxima (LOBBY_CHAT_MAX_LENGTH) y cupo por
+     * usuario: ráfaga de LOBBY_CHAT_BURST mensajes que se recarga a LOBBY_CHAT_PER_MINUTE.
+     */
+    private final LobbyChat chat = new LobbyChat(
+            readEnvInt("LOBBY_CHAT_HISTORY", 50),
+            readEnvInt("LOBBY_CHAT_MAX_LENGTH", 500),
+            readEnvInt("LOBBY_CHAT_BURST", 5),
+            readEnvInt("LOBBY_CHAT_PER_MINUTE", 30) / 60.0,
+            System::nanoTime);
+    /** Tick del chat (LOBBY_CHAT_FLUSH_MS); con 0 cada mensaje se difunde al momento */
+    private final long chatFlushMillis = readEnvInt("LOBBY_CHAT_FLUSH_MS", 100);
+    private final AtomicBoolean chatFlushScheduled = new AtomicBoolean();
+
     private LobbyRoom() {
+        int shardCount = Math.max(1, readEnvInt("LOBBY_SHARDS", Runtime.getRuntime().availableProcessors()));
+        this.shards = new LobbyShard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new LobbyShard(i);
+        }
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "lobby-broadcast-flusher");
+            t.setDaemon(true);
+            return t;
+        });
+        // Los cupos llenos se pueden olvidar: sin esto el mapa crece con cada usuario que escribe
+        flusher.scheduleWithFixedDelay(chat::pruneQuotas, 1, 1, TimeUnit.MINUTES);
     }
 
     public static LobbyRoom getInstance() {
@@ -39,7 +104,8 @@ public class LobbyRoom {
             synchronized (LobbyRoom.class) {
                 if (instance == null) {
                     instance = new LobbyRoom();
-                    log.info("[LOBBY] LobbyRoom singleton created (id={})", LOBBY_ROOM_ID);
+                    log.info("[LOBBY] LobbyRoom singleton created (id={}, shards={})", LOBBY_ROOM_ID,
+                            instance.shards.length);
                 }
             }
         }
@@ -48,54 +114,65 @@ public class LobbyRoom {
 
     /** Register a player session in the lobby. */
     public void join(UUID sessionId) {
-        sessions.add(sessionId);
-        log.info("[LOBBY] Player {} joined lobby '{}'. Total in lobby: {}", sessionId, LOBBY_ROOM_ID, sessions.size());
+        shardFor(sessionId).add(sessionId);
+        log.info("[LOBBY] Player {} joined lobby '{}'. Total in lobby: {}", sessionId, LOBBY_ROOM_ID, getPlayerCount());
     }
 
     /** Remove a player session from the lobby. */
     public void leave(UUID sessionId) {
-        sessions.remove(sessionId);
-        log.info("[LOBBY] Player {} left lobby '{}'. Total in lobby: {}", sessionId, LOBBY_ROOM_ID, sessions.size());
+        shardFor(sessionId).remove(sessionId);
+        views.remove(sessionId);
+        log.info("[LOBBY] Player {} left lobby '{}'. Total in lobby: {}", sessionId, LOBBY_ROOM_ID, getPlayerCount());
     }
 
     /**
-     * Broadcast a chat message to every player currently in the lobby.
+     * Queue a chat message for every player currently in the lobby. Messages are broadcast
+     * together on the next chat tick as one {@code chat_messages} frame.
      *
      * @param usernameOriginator The username of the player who sent the message.
      * @param text               The message text.
      * @param matchManager     The MatchManager (not used, kept for compatibility)
+     * @return false si el mensaje se descarta porque el usuario ha agotado su cupo
      */
-    public void broadcastChat(String usernameOriginator, String text, MatchManager matchManager) {
-        try {
-            ConnectionRegistry connectionRegistry = ConnectionRegistry.getInstance();
-
-            // Build: { "type": "chat_message", "payload": { "text": "...",
-            // "username_originator": "..." } }
-            ObjectNode payload = mapper.createObjectNode();
-            payload.put("text", text);
-            payload.put("username_originator", usernameOriginator);
-
-            ObjectNode message = mapper.createObjectNode();
-            message.put("type", WsMessageType.CHAT_MESSAGE);
-            message.set("payload", payload);
+    public boolean broadcastChat(String usernameOriginator, String text, MatchManager matchManager) {
+        if (!chat.post(usernameOriginator, text)) {
+            CHAT_THROTTLED.increment();
+            log.warn("[LOBBY-CHAT] Message from '{}' dropped: send quota exceeded", usernameOriginator);
+            return false;
+        }
+        CHAT_ACCEPTED.increment();
+        if (chatFlushMillis <= 0) {
+            flushChat();
+        } else if (chatFlushScheduled.compareAndSet(false, true)) {
+            flusher.schedule(this::flushChat, chatFlushMillis, TimeUnit.MILLISECONDS);
+        }
+        return true;
+    }
 
-            String json = mapper.writeValueAsString(message);
-            log.info("[LOBBY-CHAT] Broadcasting from '{}': {} -> {} recipients", usernameOriginator, text,
-                    sessions.size());
-
-            for (UUID sessionId : sessions) {
-                Player player = connectionRegistry.getPlayerBySessionId(sessionId);
-                if (player != null && player.isConnected()) {
-                    player.sendMessage(json);
-                } else {
-                    log.warn("[LOBBY-CHAT] Session {} not found or disconnected, skipping", sessionId);
-                }
+    /**
+     * Difunde en un único frame los mensajes de chat aceptados desde el último tick.
+     */
+    void flushChat() {
+        chatFlushScheduled.set(false);
+        try {
+            String frame = chat.drain();
+            if (frame != null) {
+                log.debug("[LOBBY-CHAT] Broadcasting chat batch to {} lobby recipients", getPlayerCount());
+                sendToLobby(frame, "LOBBY-CHAT");
             }
         } catch (Exception e) {
-            log.error("[LOBBY-CHAT] Error broadcasting chat message: {}", e.getMessage(), e);
+            log.error("[LOBBY-CHAT] Error broadcasting chat messages: {}", e.getMessage(), e);
         }
     }
 
+    /**
+     * Envía a una sesión del lobby el historial reciente del chat en un solo frame, por su shard
+     * para que llegue antes que los mensajes difundidos después.
+     */
+    public void sendChatHistory(UUID sessionId) {
+        sendTo(sessionId, chat.historyFrame(), "LOBBY-CHAT");
+    }
+
     /**
      * Broadcasts a newly created match to all players currently in the lobby.
      *
@@ -103,21 +180,125 @@ public class LobbyRoom {
      * @param sessionManager The MatchManager used to resolve sessions -> Players.
      */
     public void broadcastMatchCreated(Map<String, Object> matchSummary, MatchManager sessionManager) {
-        broadcastMatchEvent(WsMessageType.LOBBY_MATCH_CREATED, matchSummary, sessionManager);
+        long version = matchesState.upsert(matchSummary);
+        if (isCoalescing()) {
+            scheduleMatchesFlush(version);
+            return;
+        }
+        broadcastMatchEvent(WsMessageType.LOBBY_MATCH_CREATED, withVersion(matchSummary, version), sessionManager);
     }
 
     /**
      * Broadcasts an updated match summary to all players currently in the lobby.
      */
     public void broadcastMatchUpdated(Map<String, Object> matchSummary, MatchManager sessionManager) {
-        broadcastMatchEvent(WsMessageType.LOBBY_MATCH_UPDATED, matchSummary, sessionManager);
+        long version = matchesState.upsert(matchSummary);
+        if (isCoalescing()) {
+            scheduleMatchesFlush(version);
+            return;
+        }
+        broadcastMatchEvent(WsMessageType.LOBBY_MATCH_UPDATED, withVersion(matchSummary, version), sessionManager);
     }
 
     /**
      * Broadcasts that a match was removed from the lobby.
      */
     public void broadcastMatchRemoved(Map<String, Object> matchSummary, MatchManager sessionManager) {
-        broadcastMatchEvent(WsMessageType.LOBBY_MATCH_REMOVED, matchSummary, sessionManager);
+        long version = matchesState.remove(roomIdOf(matchSummary));
+        if (isCoalescing()) {
+            // Una partida que nunca llegó al lobby no genera cambio que enviar
+            scheduleMatchesFlush(version);
+            return;
+        }
+        broadcastMatchEvent(WsMessageType.LOBBY_MATCH_REMOVED, withVersion(matchSummary, version), sessionManager);
+    }
+
+    /**
+     * Igual que {@link #broadcastMatchRemoved} pero solo si la partida llegó a anunciarse en el lobby.
+     */
+    public void broadcastMatchRemovedIfListed(Map<String, Object> matchSummary, MatchManager sessionManager) {
+        long version = matchesState.remove(roomIdOf(matchSummary));
+        if (isCoalescing()) {
+            scheduleMatchesFlush(version);
+        } else if (version >= 0) {
+            broadcastMatchEvent(WsMessageType.LOBBY_MATCH_REMOVED, withVersion(matchSummary, version), sessionManager);
+        }
+    }
+
+    /**
+     * Frame de sincronización para un cliente que entra al lobby: el snapshot cacheado o, si
+     * reconecta con una versión conocida de este arranque, solo los cambios desde ella.
+     *
+     * @param clientEpoch  epoch que el cliente recibió en su último snapshot (null si no tiene)
+     * @param sinceVersion última versión aplicada por el cliente (-1 si no tiene)
+     */
+    public String matchesSyncFrame(String clientEpoch, long sinceVersion) {
+        if (clientEpoch == null || sinceVersion < 0) {
+            return matchesState.snapshotFrame();
+        }
+        return matchesState.syncFrame(clientEpoch, sinceVersion);
+    }
+
+    private boolean isCoalescing() {
+        return broadcastWindowMillis > 0;
+    }
+
+    private void scheduleMatchesFlush(long version) {
+        if (version >= 0 && flushScheduled.compareAndSet(false, true)) {
+            flusher.schedule(this::flushMatchChanges, broadcastWindowMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Envía a todo el lobby un único LobbyMatchesDelta con los cambios acumulados en la ventana
+     * (el último de cada partida). Se ejecuta en el hilo del flusher.
+     */
+    void flushMatchChanges() {
+        // Lo que llegue mientras se envía programa la siguiente ventana
+        flushScheduled.set(false);
+        try {
+            LobbyMatchesState.Batch batch = matchesState.changesSince(lastBroadcastVersion);
+            if (batch == null) {
+                return;
+            }
+            lastBroadcastVersion = batch.version();
+            log.info("[LOBBY-MATCH] Broadcasting lobby changes up to version {} to {} lobby recipients",
+                    batch.version(), getPlayerCount());
+            sendToUnfiltered(batch.frame());
+            refreshSubscribedPages();
+        } catch (Exception e) {
+            log.error("[LOBBY-MATCH] Error broadcasting lobby changes: {}", e.getMessage(), e);
+        }
+    }
+
+    public LobbyMatchesState getMatchesState() {
+        return matchesState;
+    }
+
+    private static Map<String, Object> withVersion(Map<String, Object> matchSummary, long version) {
+        if (matchSummary == null || matchSummary.isEmpty() || version < 0) {
+            return matchSummary;
+        }
+        Map<String, Object> payload = new LinkedHashMap<>(matchSummary);
+        payload.put("lobbyVersion", version);
+        return payload;
+    }
+
+    private static String roomIdOf(Map<String, Object> matchSummary) {
+        Object roomId = matchSummary != null ? matchSummary.get("roomId") : null;
+        return roomId != null ? roomId.toString() : null;
+    }
+
+    private static int readEnvInt(String key, int defaultValue) {
+        String value = System.getenv(key);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
     }
 
     private void broadcastMatchEvent(String type, Map<String, Object> matchSummary, MatchManager sessionManager) {
@@ -126,34 +307,163 @@ public class LobbyRoom {
         }
 
         try {
-            ConnectionRegistry connectionRegistry = ConnectionRegistry.getInstance();
-
             ObjectNode message = mapper.createObjectNode();
             message.put("type", type);
             message.set("payload", mapper.valueToTree(matchSummary));
 
             String json = mapper.writeValueAsString(message);
             log.info("[LOBBY-MATCH] Broadcasting event {} for match '{}' to {} lobby recipients",
-                    type, matchSummary.getOrDefault("roomId", "unknown"), sessions.size());
-
-            for (UUID sessionId : sessions) {
-                Player player = connectionRegistry.getPlayerBySessionId(sessionId);
-                if (player != null && player.isConnected()) {
-                    player.sendMessage(json);
-                } else {
-                    log.warn("[LOBBY-MATCH] Session {} not found or disconnected, skipping", sessionId);
-                }
+                    type, matchSummary.getOrDefault("roomId", "unknown"), getPlayerCount());
+
+            sendToUnfiltered(json);
+            if (!views.isEmpty()) {
+                flusher.execute(this::refreshSubscribedPages);
             }
         } catch (Exception e) {
             log.error("[LOBBY-MATCH] Error broadcasting match event {}: {}", type, e.getMessage(), e);
         }
     }
 
+    /**
+     * Suscribir una sesión a una vista filtrada y paginada del lobby. Recibe la página en cuanto
+     * la procesa el flusher y, a partir de ahí, solo cuando cambia su contenido; deja de recibir
+     * los cambios del resto.
+     */
+    public void subscribe(UUID sessionId, LobbyView view) {
+        if (sessionId == null || view == null || !shardFor(sessionId).contains(sessionId)) {
+            return;
+        }
+        views.put(sessionId, view);
+        flusher.execute(() -> sendFirstPage(sessionId, view));
+    }
+
+    /**
+     * Primera página de una suscripción, en el hilo del flusher para que llegue en orden con las
+     * siguientes. Antes se ponen al día todas las vistas: así la página queda anotada en lastPages
+     * a la versión actual y la sesión no la recibe dos veces.
+     */
+    void sendFirstPage(UUID sessionId, LobbyView view) {
+        if (views.get(sessionId) != view) {
+            // Cambió de vista o se dio de baja antes de llegar aquí
+            return;
+        }
+        Set<LobbyView> sent = refreshSubscribedPages();
+        LobbyMatchesState.Page page = lastPages.get(view);
+        if (!sent.contains(view) && page != null) {
+            sendTo(sessionId, matchesState.pageFrame(view, page), "LOBBY-VIEW");
+        }
+        log.info("[LOBBY-VIEW] Session {} subscribed to {} (page {} of {} matches)",
+                sessionId, view.toMap(), view.getPage(), page != null ? page.total() : 0);
+    }
+
+    /**
+     * Volver a la lista completa: la sesión recibe el snapshot y de nuevo todos los cambios.
+     */
+    public void unsubscribe(UUID sessionId) {
+        if (sessionId != null && views.remove(sessionId) != null) {
+            sendTo(sessionId, matchesState.snapshotFrame(), "LOBBY-VIEW");
+            log.info("[LOBBY-VIEW] Session {} back to the full lobby list", sessionId);
+        }
+    }
+
+    public int getSubscribedCount() {
+        return views.size();
+    }
+
+    /**
+     * Recalcula, en el hilo del flusher, la página de las vistas afectadas por los cambios desde
+     * la última pasada (una vez por vista, no por sesión) y la envía solo a las sesiones de las
+     * vistas cuya página ha cambiado. Una vista cuyo filtro no acepta ninguna de las partidas
+     * cambiadas conserva su página sin recorrer el lobby.
+     *
+     * @return las vistas cuya página se ha enviado en esta pasada
+     */
+    Set<LobbyView> refreshSubscribedPages() {
+        long version = matchesState.getVersion();
+        List<Map<String, Object>> changed = matchesState.summariesChangedSince(lastPagesVersion);
+        lastPagesVersion = version;
+        Set<LobbyView> sent = new HashSet<>();
+        if (views.isEmpty()) {
+            lastPages.clear();
+            return sent;
+        }
+        Map<LobbyView, List<UUID>> sessionsByView = new HashMap<>();
+        views.forEach((sessionId, view) -> sessionsByView.computeIfAbsent(view, v -> new ArrayList<>()).add(sessionId));
+
+        Map<LobbyView, LobbyMatchesState.Page> current = new HashMap<>();
+        int recomputed = 0;
+        int recipients = 0;
+        for (Map.Entry<LobbyView, List<UUID>> entry : sessionsByView.entrySet()) {
+            LobbyView view = entry.getKey();
+            LobbyMatchesState.Page previous = lastPages.get(view);
+            if (previous != null && changed != null && !affects(view, changed)) {
+                current.put(view, previous);
+                continue;
+            }
+            LobbyMatchesState.Page page = matchesState.page(view);
+            recomputed++;
+            current.put(view, page);
+            if (page.sameContentAs(previous)) {
+                continue;
+            }
+            String frame = matchesState.pageFrame(view, page);
+            Map<LobbyShard, List<UUID>> byShard = new HashMap<>();
+            for (UUID sessionId : entry.getValue()) {
+                byShard.computeIfAbsent(shardFor(sessionId), k -> new ArrayList<>()).add(sessionId);
+            }
+            byShard.forEach((shard, targets) -> shard.sendTo(targets, frame, "LOBBY-VIEW"));
+            recipients += entry.getValue().size();
+            sent.add(view);
+        }
+        lastPages = current;
+        log.debug("[LOBBY-VIEW] {} of {} views recomputed, page sent to {} of {} subscribed sessions",
+                recomputed, sessionsByView.size(), recipients, views.size());
+        return sent;
+    }
+
+    private static boolean affects(LobbyView view, List<Map<String, Object>> changed) {
+        for (Map<String, Object> summary : changed) {
+            if (view.matches(summary)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Enviar a las sesiones del lobby sin vista filtrada. */
+    private void sendToUnfiltered(String json) {
+        for (LobbyShard shard : shards) {
+            shard.broadcast(json, sessionId -> !views.containsKey(sessionId), "LOBBY-MATCH");
+        }
+    }
+
+    private void sendTo(UUID sessionId, String json, String tag) {
+        shardFor(sessionId).sendTo(List.of(sessionId), json, tag);
+    }
+
+    private void sendToLobby(String json, String tag) {
+        for (LobbyShard shard : shards) {
+            shard.broadcast(json, null, tag);
+        }
+    }
+
+    private LobbyShard shardFor(UUID sessionId) {
+        return shards[Math.floorMod(sessionId.hashCode(), shards.length)];
+    }
+
+    public int getShardCount() {
+        return shards.length;
+    }
+
     public String getId() {
         return LOBBY_ROOM_ID;
     }
 
     public int getPlayerCount() {
-        return sessions.size();
+        int total = 0;
+        for (LobbyShard shard : shards) {
+            total += shard.size();
+        }
+        return total;
     }
 }
@@ -0,0 +1,117 @@
+package Apalabrazos.backend.lobby;
+
+import Apalabrazos.backend.metrics.LatencyHistogram;
+import Apalabrazos.backend.metrics.MetricsRegistry;
+import Apalabrazos.backend.model.Player;
+import Apalabrazos.backend.service.ConnectionRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Predicate;
+
+/**
+ * Una porción del lobby: sus sesiones y un hilo propio de envío.
+ * <p>
+ * {@link LobbyRoom} reparte las sesiones entre los shards por hash del sessionId. Cada shard
+ * envía en su hilo, así que una difusión a todo el lobby se reparte en paralelo entre los N
+ * shards sin bloquear a quien la lanza, y cada sesión recibe los frames del lobby en el mismo
+ * orden en que se difundieron.
+ */
+final class LobbyShard {
+
+    private static final Logger log = LoggerFactory.getLogger(LobbyShard.class);
+
+    // Desde que se encola la difusión hasta el último envío del shard
+    private static final MetricsRegistry.Family<LatencyHistogram> FANOUT_LATENCY =
+            MetricsRegistry.getInstance().histogramFamily("apalabrazos_lobby_fanout_seconds",
+                    "Time from a lobby broadcast to the last send of each shard", "shard");
+
+    private final int index;
+    private final Set<UUID> sessions = ConcurrentHashMap.newKeySet();
+    private final ExecutorService fanout;
+    private final LatencyHistogram fanoutLatency;
+
+    LobbyShard(int index) {
+        this.index = index;
+        this.fanout = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "lobby-shard-" + index);
+            t.setDaemon(true);
+            return t;
+        });
+        this.fanoutLatency = FANOUT_LATENCY.labels(Integer.toString(index));
+    }
+
+    boolean add(UUID sessionId) {
+        return sessions.add(sessionId);
+    }
+
+    boolean remove(UUID sessionId) {
+        return sessions.remove(sessionId);
+    }
+
+    boolean contains(UUID sessionId) {
+        return sessions.contains(sessionId);
+    }
+
+    int size() {
+        return sessions.size();
+    }
+
+    int getIndex() {
+        return index;
+    }
+
+    /**
+     * Encolar el envío de un frame a las sesiones del shard que cumplan {@code filter}.
+     */
+    void broadcast(String json, Predicate<UUID> filter, String tag) {
+        if (sessions.isEmpty()) {
+            return;
+        }
+        long enqueuedNanos = System.nanoTime();
+        fanout.execute(() -> {
+            for (UUID sessionId : sessions) {
+                if (filter == null || filter.test(sessionId)) {
+                    deliver(sessionId, json, tag);
+                }
+            }
+            fanoutLatency.recordNanos(System.nanoTime() - enqueuedNanos);
+        });
+    }
+
+    /**
+     * Encolar el envío de un frame a sesiones concretas de este shard.
+     */
+    void sendTo(Collection<UUID> targets, String json, String tag) {
+        if (targets.isEmpty()) {
+            return;
+        }
+        long enqueuedNanos = System.nanoTime();
+        fanout.execute(() -> {
+            for (UUID sessionId : targets) {
+                deliver(sessionId, json, tag);
+            }
+            fanoutLatency.recordNanos(System.nanoTime() - enqueuedNanos);
+        });
+    }
+
+    private void deliver(UUID sessionId, String json, String tag) {
+        try {
+            Player player = ConnectionRegistry.getInstance().getPlayerBySessionId(sessionId);
+            if (player != null && player.isConnected()) {
+                player.sendMessage(json);
+            } else {
+                log.warn("[{}] Session {} not found or disconnected, skipping", tag, sessionId);
+            }
+        } catch (Exception e) {
+            // Un cliente que falla no corta la difusión al resto del shard
+            log.error("[{}] Error sending to session {}: {}", tag, sessionId, e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package Apalabrazos.backend.lobby;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Vista del lobby a la que se suscribe un cliente: filtro (dificultad, tipo de juego, huecos
+ * libres, prefijo del nombre) y página. Es inmutable y comparable para que las sesiones con la
+ * misma vista compartan el cálculo y la codificación de la página.
+ */
+public final class LobbyView {
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 50;
+
+    private final String difficulty;
+    private final String gameType;
+    private final String namePrefix;
+    private final int minFreeSlots;
+    private final int page;
+    private final int pageSize;
+
+    public LobbyView(String difficulty, String gameType, String namePrefix, int minFreeSlots, int page, int pageSize) {
+        this.difficulty = normalize(difficulty);
+        this.gameType = normalize(gameType);
+        this.namePrefix = namePrefix == null || namePrefix.isBlank() ? null : namePrefix.trim().toLowerCase(Locale.ROOT);
+        this.minFreeSlots = Math.max(0, minFreeSlots);
+        this.page = Math.max(0, page);
+        this.pageSize = pageSize <= 0 ? DEFAULT_PAGE_SIZE : Math.min(pageSize, MAX_PAGE_SIZE);
+    }
+
+    /**
+     * Vista a partir del payload de {@code LobbySubscribe}; los campos ausentes no filtran.
+     */
+    public static LobbyView fromJson(JsonNode data) {
+        return new LobbyView(
+                data.path("difficulty").asText(null),
+                data.path("gameType").asText(null),
+                data.path("namePrefix").asText(null),
+                data.path("freeSlots").asInt(0),
+                data.path("page").asInt(0),
+                data.path("pageSize").asInt(DEFAULT_PAGE_SIZE));
+    }
+
+    /**
+     * Si el resumen de partida del lobby pasa el filtro.
+     */
+    public boolean matches(Map<String, Object> summary) {
+        if (difficulty != null && !difficulty.equals(upper(summary.get("difficulty")))) {
+            return false;
+        }
+        if (gameType != null && !gameType.equals(upper(summary.get("gameType")))) {
+            return false;
+        }
+        if (namePrefix != null) {
+            Object name = summary.get("name");
+            if (name == null || !name.toString().toLowerCase(Locale.ROOT).startsWith(namePrefix)) {
+                return false;
+            }
+        }
+        if (minFreeSlots > 0) {
+            int free = intValue(summary.get("maxPlayers")) - intValue(summary.get("players"));
+            return free >= minFreeSlots;
+        }
+        return true;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * Filtro normalizado, tal como se devuelve al cliente en {@code LobbyMatchesPage}.
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("difficulty", difficulty);
+        out.put("gameType", gameType);
+        out.put("namePrefix", namePrefix);
+        out.put("freeSlots", minFreeSlots);
+        out.put("page", page);
+        out.put("pageSize", pageSize);
+        return out;
+    }
+
+    private static String normalize(String value) {
+        return value == null || value.isBlank() ? null : value.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private static String upper(Object value) {
+        return value != null ? value.toString().toUpperCase(Locale.ROOT) : null;
+    }
+
+    private static int intValue(Object value) {
+        return value instanceof Number ? ((Number) value).intValue() : 0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof LobbyView)) {
+            return false;
+        }
+        LobbyView other = (LobbyView) o;
+        return minFreeSlots == other.minFreeSlots
+                && page == other.page
+                && pageSize == other.pageSize
+                && Objects.equals(difficulty, other.difficulty)
+                && Objects.equals(gameType, other.gameType)
+                && Objects.equals(namePrefix, other.namePrefix);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(difficulty, gameType, namePrefix, minFreeSlots, page, pageSize);
+    }
+}
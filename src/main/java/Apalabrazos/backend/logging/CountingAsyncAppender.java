@@ -0,0 +1,62 @@
+package Apalabrazos.backend.logging;
+
+import Apalabrazos.backend.metrics.MetricsRegistry;
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * AsyncAppender de logback que cuenta lo que pierde.
+ * <p>
+ * Los eventos van a una cola acotada (buffer circular de {@code queueSize}) que vacía un
+ * único hilo hacia el appender real, así que los hilos de juego no esperan a la consola
+ * ni al fichero. Con {@code neverBlock=true} la cola nunca bloquea al productor:
+ * <ul>
+ *   <li>por debajo de {@code discardingThreshold} de hueco libre se descartan INFO/DEBUG/TRACE
+ *       ({@code apalabrazos_log_events_discarded_total{appender}});</li>
+ *   <li>con la cola llena se descarta cualquier evento
+ *       ({@code apalabrazos_log_events_dropped_total{appender}}).</li>
+ * </ul>
+ * WARN y ERROR solo se pierden en el segundo caso.
+ */
+public class CountingAsyncAppender extends AsyncAppender {
+
+    private static final MetricsRegistry.Family<LongAdder> DISCARDED =
+            MetricsRegistry.getInstance().counterFamily("apalabrazos_log_events_discarded_total",
+                    "INFO and lower log events discarded by a nearly full async log queue", "appender");
+    private static final MetricsRegistry.Family<LongAdder> DROPPED =
+            MetricsRegistry.getInstance().counterFamily("apalabrazos_log_events_dropped_total",
+                    "Log events dropped because the async log queue was full", "appender");
+
+    private LongAdder discarded = new LongAdder();
+    private LongAdder dropped = new LongAdder();
+
+    @Override
+    public void start() {
+        discarded = DISCARDED.labels(getName());
+        dropped = DROPPED.labels(getName());
+        super.start();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        // Con neverBlock el offer a una cola llena se pierde sin aviso; se cuenta aquí
+        // (aproximado: otro hilo puede llenar la cola entre la comprobación y el offer)
+        if (isNeverBlock() && getRemainingCapacity() == 0) {
+            dropped.increment();
+            return;
+        }
+        super.append(event);
+    }
+
+    @Override
+    protected boolean isDiscardable(ILoggingEvent event) {
+        // Solo se consulta cuando la cola ya está por debajo del umbral de descarte
+        boolean discardable = super.isDiscardable(event);
+        if (discardable) {
+            discarded.increment();
+        }
+        return discardable;
+    }
+}
@@ -0,0 +1,160 @@
+package Apalabrazos.backend.logging;
+
+import Apalabrazos.backend.metrics.MetricsRegistry;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Muestreo por categoría de las trazas de los caminos calientes.
+ * <p>
+ * La categoría es la primera etiqueta del mensaje ({@code "[WS-BUS][FE->BE] ..."} → WS-BUS).
+ * Cada categoría tiene una regla:
+ * <ul>
+ *   <li>{@code N/s}: como mucho N trazas por segundo (ventana fija de un segundo).</li>
+ *   <li>{@code 1/N}: una de cada N trazas.</li>
+ * </ul>
+ * Ejemplo: {@code ASYNC-BUS=200/s,WS-BUS=200/s,QUESTION-PUBLISH=1/10}.
+ * <p>
+ * Solo se muestrean INFO, DEBUG y TRACE; WARN y ERROR pasan siempre. Al ser un TurboFilter
+ * se decide antes de crear el evento, así que lo descartado no se formatea ni se encola.
+ * Lo descartado se cuenta en {@code apalabrazos_log_events_sampled_out_total{category}}.
+ */
+public class TagSamplingTurboFilter extends TurboFilter {
+
+    private static final MetricsRegistry.Family<LongAdder> SAMPLED_OUT =
+            MetricsRegistry.getInstance().counterFamily("apalabrazos_log_events_sampled_out_total",
+                    "Log events dropped by per-category sampling", "category");
+
+    private final Map<String, Rule> rules = new ConcurrentHashMap<>();
+    private String rulesSpec = "";
+    private LongSupplier nanoClock = System::nanoTime;
+
+    /**
+     * Reglas en formato {@code CATEGORIA=N/s|1/N,...}; se leen al arrancar el filtro.
+     */
+    public void setRules(String rulesSpec) {
+        this.rulesSpec = rulesSpec == null ? "" : rulesSpec;
+    }
+
+    public String getRules() {
+        return rulesSpec;
+    }
+
+    // Reloj inyectable para los tests
+    void setNanoClock(LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+    }
+
+    @Override
+    public void start() {
+        rules.clear();
+        for (String entry : rulesSpec.split(",")) {
+            String trimmed = entry.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            try {
+                int eq = trimmed.indexOf('=');
+                if (eq <= 0) {
+                    throw new IllegalArgumentException("expected CATEGORY=rule");
+                }
+                String category = trimmed.substring(0, eq).trim();
+                rules.put(category, Rule.parse(trimmed.substring(eq + 1).trim(), SAMPLED_OUT.labels(category)));
+            } catch (IllegalArgumentException e) {
+                addError("Invalid log sampling rule '" + trimmed + "': " + e.getMessage());
+            }
+        }
+        super.start();
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params,
+                              Throwable t) {
+        if (!isStarted() || format == null || level == null || rules.isEmpty()
+                || level.isGreaterOrEqual(Level.WARN) || format.isEmpty() || format.charAt(0) != '[') {
+            return FilterReply.NEUTRAL;
+        }
+        // Lo que el nivel del logger ya descarta no gasta cupo
+        if (!level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+        int end = format.indexOf(']');
+        if (end <= 1) {
+            return FilterReply.NEUTRAL;
+        }
+        Rule rule = rules.get(format.substring(1, end));
+        if (rule == null || rule.allow(nanoClock.getAsLong())) {
+            return FilterReply.NEUTRAL;
+        }
+        return FilterReply.DENY;
+    }
+
+    /**
+     * Regla de una categoría: límite por segundo o una de cada N.
+     */
+    static final class Rule {
+
+        private final long perSecond;
+        private final long everyN;
+        private final LongAdder sampledOut;
+        private final AtomicLong windowSecond = new AtomicLong(Long.MIN_VALUE);
+        private final AtomicLong counter = new AtomicLong();
+
+        private Rule(long perSecond, long everyN, LongAdder sampledOut) {
+            this.perSecond = perSecond;
+            this.everyN = everyN;
+            this.sampledOut = sampledOut;
+        }
+
+        static Rule parse(String spec, LongAdder sampledOut) {
+            int slash = spec.indexOf('/');
+            if (slash <= 0) {
+                throw new IllegalArgumentException("expected N/s or 1/N");
+            }
+            String left = spec.substring(0, slash).trim();
+            String right = spec.substring(slash + 1).trim();
+            if ("s".equals(right)) {
+                long perSecond = Long.parseLong(left);
+                if (perSecond < 0) {
+                    throw new IllegalArgumentException("rate must be >= 0");
+                }
+                return new Rule(perSecond, 0, sampledOut);
+            }
+            if (!"1".equals(left)) {
+                throw new IllegalArgumentException("sampling must be 1/N");
+            }
+            long everyN = Long.parseLong(right);
+            if (everyN < 1) {
+                throw new IllegalArgumentException("N must be >= 1");
+            }
+            return new Rule(0, everyN, sampledOut);
+        }
+
+        boolean allow(long nowNanos) {
+            boolean allowed;
+            if (everyN > 0) {
+                allowed = counter.getAndIncrement() % everyN == 0;
+            } else {
+                long second = nowNanos / 1_000_000_000L;
+                long window = windowSecond.get();
+                if (window != second && windowSecond.compareAndSet(window, second)) {
+                    counter.set(0);
+                }
+                allowed = counter.incrementAndGet() <= perSecond;
+            }
+            if (!allowed) {
+                sampledOut.increment();
+            }
+            return allowed;
+        }
+    }
+}
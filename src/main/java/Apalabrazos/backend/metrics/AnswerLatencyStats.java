@@ -0,0 +1,87 @@
+package Apalabrazos.backend.metrics;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Histogramas por etapa del pipeline de respuestas de una partida, calculados a partir de las
+ * marcas de la {@link TraceContext} de cada respuesta.
+ * <p>
+ * Etapas:
+ * <ul>
+ *   <li>{@code clientToServer}: recepción (reloj del servidor) - submittedAt (reloj del cliente).
+ *       Incluye red y desfase de reloj; puede ser negativo.</li>
+ *   <li>{@code receiveToValidated}: recepción - AnswerValidated entregado.</li>
+ *   <li>{@code validatedToNextQuestion}: AnswerValidated - QUESTION_CHANGED enviado.</li>
+ *   <li>{@code receiveToNextQuestion}: total en servidor.</li>
+ * </ul>
+ */
+public class AnswerLatencyStats {
+
+    /** Marca que anota GameService cuando AnswerValidated ya se ha entregado */
+    public static final String VALIDATED_HOP = "answer-validated.delivered";
+
+    public enum Stage {
+        CLIENT_TO_SERVER("clientToServer"),
+        RECEIVE_TO_VALIDATED("receiveToValidated"),
+        VALIDATED_TO_NEXT_QUESTION("validatedToNextQuestion"),
+        RECEIVE_TO_NEXT_QUESTION("receiveToNextQuestion");
+
+        private final String key;
+
+        Stage(String key) {
+            this.key = key;
+        }
+
+        public String getKey() {
+            return key;
+        }
+    }
+
+    private final Map<Stage, LatencyHistogram> histograms = new EnumMap<>(Stage.class);
+
+    public AnswerLatencyStats() {
+        for (Stage stage : Stage.values()) {
+            histograms.put(stage, new LatencyHistogram());
+        }
+    }
+
+    /**
+     * Registrar todas las etapas de una respuesta cuya siguiente pregunta acaba de enviarse.
+     *
+     * @param trace     Traza de la respuesta, empezada al recibirla
+     * @param sentNanos System.nanoTime() tras enviar QUESTION_CHANGED
+     */
+    public void recordAnswer(TraceContext trace, long sentNanos) {
+        if (trace == null) {
+            return;
+        }
+        if (trace.getClientSentAtMillis() > 0) {
+            histograms.get(Stage.CLIENT_TO_SERVER)
+                    .recordMillis(trace.getStartedAtMillis() - trace.getClientSentAtMillis());
+        }
+        long sentOffset = sentNanos - trace.getStartNanos();
+        long validatedOffset = trace.spanOffsetNanos(VALIDATED_HOP);
+        if (validatedOffset >= 0) {
+            histograms.get(Stage.RECEIVE_TO_VALIDATED).recordNanos(validatedOffset);
+            histograms.get(Stage.VALIDATED_TO_NEXT_QUESTION).recordNanos(sentOffset - validatedOffset);
+        }
+        histograms.get(Stage.RECEIVE_TO_NEXT_QUESTION).recordNanos(sentOffset);
+    }
+
+    public LatencyHistogram getHistogram(Stage stage) {
+        return histograms.get(stage);
+    }
+
+    /**
+     * Resumen por etapa (clave de etapa -> percentiles en ms).
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        for (Stage stage : Stage.values()) {
+            out.put(stage.getKey(), histograms.get(stage).snapshot());
+        }
+        return out;
+    }
+}
@@ -0,0 +1,149 @@
+package Apalabrazos.backend.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latencias sin bloqueos, con buckets log-lineales (estilo HDR).
+ * <p>
+ * Cada potencia de dos se divide en 32 sub-buckets, lo que da un error relativo
+ * máximo de ~3% en los percentiles con un array fijo de 1024 contadores.
+ * Los valores se registran en microsegundos. Los valores negativos (p.ej. desfase
+ * de reloj del cliente) cuentan en el bucket 0 pero sí afectan a min y media.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS; // 32
+    private static final int BUCKET_COUNT = 1024;
+    private static final long MAX_TRACKABLE = bucketUpperBound(BUCKET_COUNT - 1);
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong max = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * Registrar un valor en microsegundos.
+     */
+    public void recordMicros(long micros) {
+        buckets.incrementAndGet(bucketIndex(micros));
+        count.increment();
+        sum.add(micros);
+        min.accumulateAndGet(micros, Math::min);
+        max.accumulateAndGet(micros, Math::max);
+    }
+
+    /**
+     * Registrar una duración medida con {@link System#nanoTime()}.
+     */
+    public void recordNanos(long nanos) {
+        recordMicros(nanos / 1_000L);
+    }
+
+    /**
+     * Registrar una duración en milisegundos.
+     */
+    public void recordMillis(long millis) {
+        recordMicros(millis * 1_000L);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Suma de todos los valores registrados, en microsegundos.
+     */
+    public long getSumMicros() {
+        return sum.sum();
+    }
+
+    /**
+     * Percentil aproximado (límite superior del bucket) en microsegundos.
+     *
+     * @param percentile valor entre 0 y 100
+     */
+    public long percentileMicros(double percentile) {
+        long total = count.sum();
+        if (total == 0) {
+            return 0;
+        }
+        long target = (long) Math.ceil((percentile / 100.0) * total);
+        if (target < 1) {
+            target = 1;
+        }
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += buckets.get(i);
+            if (seen >= target) {
+                return Math.min(bucketUpperBound(i), Math.max(max.get(), 0));
+            }
+        }
+        return Math.max(max.get(), 0);
+    }
+
+    /**
+     * Vaciar el histograma.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets.set(i, 0);
+        }
+        count.reset();
+        sum.reset();
+        min.set(Long.MAX_VALUE);
+        max.set(Long.MIN_VALUE);
+    }
+
+    /**
+     * Resumen en milisegundos listo para serializar a JSON.
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        long total = count.sum();
+        out.put("count", total);
+        if (total == 0) {
+            return out;
+        }
+        out.put("minMs", toMillis(min.get()));
+        out.put("meanMs", toMillis(sum.sum() / total));
+        out.put("p50Ms", toMillis(percentileMicros(50)));
+        out.put("p90Ms", toMillis(percentileMicros(90)));
+        out.put("p99Ms", toMillis(percentileMicros(99)));
+        out.put("p999Ms", toMillis(percentileMicros(99.9)));
+        out.put("maxMs", toMillis(max.get()));
+        return out;
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return value < 0 ? 0 : (int) value;
+        }
+        if (value > MAX_TRACKABLE) {
+            return BUCKET_COUNT - 1;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(value);
+        int shift = magnitude - SUB_BUCKET_BITS;
+        int sub = (int) (value >>> shift) - SUB_BUCKET_COUNT;
+        return SUB_BUCKET_COUNT + shift * SUB_BUCKET_COUNT + sub;
+    }
+
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_COUNT;
+        int sub = (index - SUB_BUCKET_COUNT) % SUB_BUCKET_COUNT;
+        long lower = ((long) (SUB_BUCKET_COUNT + sub)) << shift;
+        return lower + (1L << shift) - 1;
+    }
+
+    private static double toMillis(long micros) {
+        return Math.round(micros / 10.0) / 100.0;
+    }
+}
@@ -0,0 +1,195 @@
+package Apalabrazos.backend.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Registro de métricas del servidor (contadores, gauges e histogramas) con salida en
+ * formato de texto de Prometheus para GET /metrics.
+ * <p>
+ * Las familias se crean una vez (normalmente en un campo {@code static final}) y en el
+ * camino caliente solo se hace {@code labels(valor)}: dos búsquedas en mapas concurrentes
+ * y ninguna asignación salvo la primera vez que aparece un valor. Cada familia admite una
+ * etiqueta como mucho; a partir de {@link #MAX_LABEL_VALUES} valores distintos el resto
+ * se agrupa en {@code other} para que un cliente no pueda disparar la cardinalidad.
+ * <p>
+ * Los histogramas son {@link LatencyHistogram} y se exportan como {@code summary}
+ * (cuantiles 0.5/0.9/0.99/0.999, _sum y _count) en segundos.
+ */
+public final class MetricsRegistry {
+
+    public static final int MAX_LABEL_VALUES = 64;
+    public static final String OVERFLOW_LABEL_VALUE = "other";
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+    private static final MetricsRegistry INSTANCE = new MetricsRegistry();
+
+    private final Map<String, Family<?>> families = new ConcurrentHashMap<>();
+
+    // De paquete para que los tests usen un registro propio
+    MetricsRegistry() {
+    }
+
+    public static MetricsRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Contador sin etiquetas. Por convención el nombre termina en {@code _total}.
+     */
+    public LongAdder counter(String name, String help) {
+        return counterFamily(name, help, null).get();
+    }
+
+    public Family<LongAdder> counterFamily(String name, String help, String labelName) {
+        return family(name, help, Type.COUNTER, labelName, LongAdder::new);
+    }
+
+    /**
+     * Histograma sin etiquetas. Por convención el nombre termina en {@code _seconds}.
+     */
+    public LatencyHistogram histogram(String name, String help) {
+        return histogramFamily(name, help, null).get();
+    }
+
+    public Family<LatencyHistogram> histogramFamily(String name, String help, String labelName) {
+        return family(name, help, Type.SUMMARY, labelName, LatencyHistogram::new);
+    }
+
+    /**
+     * Exponer un histograma que ya existe (p.ej. los de {@link AnswerLatencyStats}).
+     */
+    public void registerHistogram(String name, String help, String labelName, String labelValue,
+                                  LatencyHistogram histogram) {
+        histogramFamily(name, help, labelName).children.put(labelValue == null ? "" : labelValue, histogram);
+    }
+
+    /**
+     * Gauge leído en cada scrape. Registrar dos veces el mismo nombre sustituye la función.
+     */
+    public void gauge(String name, String help, DoubleSupplier supplier) {
+        family(name, help, Type.GAUGE, null, () -> supplier).children.put("", supplier);
+    }
+
+    /**
+     * Todas las métricas en formato de texto de Prometheus (versión 0.0.4), por nombre.
+     */
+    public String scrape() {
+        StringBuilder out = new StringBuilder(4096);
+        for (Family<?> family : new TreeMap<>(families).values()) {
+            family.writeTo(out);
+        }
+        return out.toString();
+    }
+
+
+    @SuppressWarnings("unchecked")
+    private <T> Family<T> family(String name, String help, Type type, String labelName, Supplier<T> factory) {
+        Family<?> family = families.computeIfAbsent(name, n -> new Family<>(n, help, type, labelName, factory));
+        if (family.type != type) {
+            throw new IllegalArgumentException("Metric " + name + " already registered as " + family.type);
+        }
+        return (Family<T>) family;
+    }
+
+    private enum Type {
+        COUNTER("counter"),
+        GAUGE("gauge"),
+        SUMMARY("summary");
+
+        private final String text;
+
+        Type(String text) {
+            this.text = text;
+        }
+    }
+
+    /**
+     * Métrica con (como mucho) una etiqueta; cada valor de la etiqueta tiene su instancia.
+     */
+    public static final class Family<T> {
+
+        private final String name;
+        private final String help;
+        private final Type type;
+        private final String labelName;
+        private final Supplier<T> factory;
+        private final Map<String, T> children = new ConcurrentHashMap<>();
+
+        private Family(String name, String help, Type type, String labelName, Supplier<T> factory) {
+            this.name = name;
+            this.help = help;
+            this.type = type;
+            this.labelName = labelName;
+            this.factory = factory;
+        }
+
+        /**
+         * Instancia sin etiqueta.
+         */
+        public T get() {
+            return labels("");
+        }
+
+        /**
+         * Instancia para un valor de la etiqueta; {@code null} o vacío cuentan como {@code other}.
+         */
+        public T labels(String value) {
+            String key = value == null || (labelName != null && value.isEmpty()) ? OVERFLOW_LABEL_VALUE : value;
+            T child = children.get(key);
+            if (child != null) {
+                return child;
+            }
+            if (children.size() >= MAX_LABEL_VALUES) {
+                key = OVERFLOW_LABEL_VALUE;
+            }
+            return children.computeIfAbsent(key, k -> factory.get());
+        }
+
+        private void writeTo(StringBuilder out) {
+            out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+            out.append("# TYPE ").append(name).append(' ').append(type.text).append('\n');
+            for (Map.Entry<String, T> entry : new TreeMap<>(children).entrySet()) {
+                String label = labelName == null || entry.getKey().isEmpty()
+                        ? ""
+                        : labelName + "=\"" + escape(entry.getKey()) + "\"";
+                Object metric = entry.getValue();
+                if (metric instanceof LongAdder counter) {
+                    sample(out, name, label, counter.sum());
+                } else if (metric instanceof DoubleSupplier gauge) {
+                    sample(out, name, label, gauge.getAsDouble());
+                } else if (metric instanceof LatencyHistogram histogram) {
+                    String separator = label.isEmpty() ? "" : ",";
+                    for (double quantile : QUANTILES) {
+                        sample(out, name, label + separator + "quantile=\"" + quantile + "\"",
+                                histogram.percentileMicros(quantile * 100.0) / 1_000_000.0);
+                    }
+                    sample(out, name + "_sum", label, histogram.getSumMicros() / 1_000_000.0);
+                    sample(out, name + "_count", label, histogram.getCount());
+                }
+            }
+        }
+
+        private static void sample(StringBuilder out, String name, String label, double value) {
+            out.append(name);
+            if (!label.isEmpty()) {
+                out.append('{').append(label).append('}');
+            }
+            out.append(' ');
+            if (value == Math.rint(value) && !Double.isInfinite(value)) {
+                out.append((long) value);
+            } else {
+                out.append(value);
+            }
+            out.append('\n');
+        }
+
+        private static String escape(String value) {
+            return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+        }
+    }
+}
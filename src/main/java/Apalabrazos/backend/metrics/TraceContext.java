@@ -0,0 +1,179 @@
+package Apalabrazos.backend.metrics;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Traza ligera de un mensaje entrante a lo largo de sus saltos internos.
+ * <p>
+ * Se crea al recibir el frame, viaja en los {@link Apalabrazos.backend.events.GameEvent}
+ * que genera y cada salto anota una marca con {@link #span(String)} (nanoTime relativo al
+ * inicio). Al enviar la última respuesta al socket se llama a {@link #finish()} y la traza
+ * pasa al {@link TraceRecorder}. La diferencia entre marcas consecutivas es el coste de
+ * cada salto. Las mismas marcas alimentan los histogramas por etapa de
+ * {@link AnswerLatencyStats}.
+ */
+public final class TraceContext {
+
+    static final int MAX_SPANS = 16;
+
+    private final String traceId;
+    private final String name;
+    private final long startedAtMillis;
+    private final long startNanos;
+    private final String[] spanNames = new String[MAX_SPANS];
+    private final long[] spanOffsets = new long[MAX_SPANS];
+    private final AtomicBoolean finished = new AtomicBoolean();
+    private int spanCount;
+    private volatile String matchId;
+    private final String playerId;
+    // Instante de envío según el cliente (epoch ms), 0 si no llega
+    private volatile long clientSentAtMillis;
+    private volatile long durationNanos = -1;
+
+    private TraceContext(String name, String playerId, String firstSpan) {
+        this.traceId = Long.toHexString(ThreadLocalRandom.current().nextLong());
+        this.name = name;
+        this.playerId = playerId;
+        this.startedAtMillis = System.currentTimeMillis();
+        this.startNanos = System.nanoTime();
+        span(firstSpan);
+    }
+
+    /**
+     * Empezar una traza; la primera marca ({@code firstSpan}) queda en 0.
+     */
+    public static TraceContext start(String name, String playerId, String firstSpan) {
+        return new TraceContext(name, playerId, firstSpan);
+    }
+
+    /**
+     * Anotar que la traza pasa por un salto. A partir de {@link #MAX_SPANS} marcas o una vez
+     * terminada se ignoran.
+     */
+    public void span(String hop) {
+        long offset = System.nanoTime() - startNanos;
+        synchronized (this) {
+            if (spanCount < MAX_SPANS && !finished.get()) {
+                spanNames[spanCount] = hop;
+                spanOffsets[spanCount] = offset;
+                spanCount++;
+            }
+        }
+    }
+
+    /**
+     * Anotar el último salto y cerrar la traza (solo cuenta la primera llamada).
+     */
+    public void finish(String lastHop) {
+        span(lastHop);
+        finishInto(TraceRecorder.getInstance());
+    }
+
+    public void finish() {
+        finishInto(TraceRecorder.getInstance());
+    }
+
+    void finishInto(TraceRecorder recorder) {
+        if (finished.compareAndSet(false, true)) {
+            durationNanos = System.nanoTime() - startNanos;
+            recorder.record(this);
+        }
+    }
+
+    /**
+     * Desfase respecto al inicio de la traza de la primera marca {@code hop}, o -1 si no se anotó.
+     */
+    public synchronized long spanOffsetNanos(String hop) {
+        for (int i = 0; i < spanCount; i++) {
+            if (spanNames[i].equals(hop)) {
+                return spanOffsets[i];
+            }
+        }
+        return -1;
+    }
+
+    public void setClientSentAtMillis(long clientSentAtMillis) {
+        this.clientSentAtMillis = clientSentAtMillis;
+    }
+
+    public long getClientSentAtMillis() {
+        return clientSentAtMillis;
+    }
+
+    /**
+     * Reloj de pared del servidor al empezar la traza.
+     */
+    public long getStartedAtMillis() {
+        return startedAtMillis;
+    }
+
+    /**
+     * System.nanoTime() al empezar la traza.
+     */
+    public long getStartNanos() {
+        return startNanos;
+    }
+
+    public void setMatchId(String matchId) {
+        this.matchId = matchId;
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getMatchId() {
+        return matchId;
+    }
+
+    public String getPlayerId() {
+        return playerId;
+    }
+
+    /**
+     * Duración total en nanosegundos, o -1 si la traza sigue abierta.
+     */
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    /**
+     * Resumen serializable: marcas con su instante y su coste respecto a la anterior.
+     */
+    public Map<String, Object> toMap() {
+        List<Map<String, Object>> spans = new ArrayList<>();
+        synchronized (this) {
+            long previous = 0;
+            for (int i = 0; i < spanCount; i++) {
+                Map<String, Object> span = new LinkedHashMap<>();
+                span.put("hop", spanNames[i]);
+                span.put("atMs", toMillis(spanOffsets[i]));
+                span.put("deltaMs", toMillis(spanOffsets[i] - previous));
+                spans.add(span);
+                previous = spanOffsets[i];
+            }
+        }
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("traceId", traceId);
+        out.put("name", name);
+        out.put("matchId", matchId);
+        out.put("playerId", playerId);
+        out.put("startedAt", startedAtMillis);
+        out.put("totalMs", durationNanos < 0 ? null : toMillis(durationNanos));
+        out.put("spans", spans);
+        return out;
+    }
+
+    private static double toMillis(long nanos) {
+        return Math.round(nanos / 1_000.0) / 1_000.0;
+    }
+}
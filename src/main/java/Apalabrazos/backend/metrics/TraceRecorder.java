@@ -0,0 +1,86 @@
+package Apalabrazos.backend.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Buffer circular con las últimas trazas terminadas (TRACE_BUFFER_SIZE, 1024 por defecto).
+ * <p>
+ * Registrar es un incremento atómico y una escritura en el array; el coste de ordenar se
+ * paga solo al consultar las más lentas desde el endpoint de administración.
+ */
+public final class TraceRecorder {
+
+    private static final int DEFAULT_CAPACITY = 1024;
+    private static final TraceRecorder INSTANCE = new TraceRecorder(readEnvInt("TRACE_BUFFER_SIZE", DEFAULT_CAPACITY));
+
+    private final AtomicReferenceArray<TraceContext> ring;
+    private final AtomicLong recorded = new AtomicLong();
+
+    // De paquete para que los tests usen un buffer propio
+    TraceRecorder(int capacity) {
+        this.ring = new AtomicReferenceArray<>(Math.max(1, capacity));
+    }
+
+    public static TraceRecorder getInstance() {
+        return INSTANCE;
+    }
+
+    void record(TraceContext trace) {
+        long slot = recorded.getAndIncrement();
+        ring.set((int) (slot % ring.length()), trace);
+    }
+
+    /**
+     * Trazas registradas desde el arranque (incluidas las que ya se han sobrescrito).
+     */
+    public long getRecordedCount() {
+        return recorded.get();
+    }
+
+    public int getCapacity() {
+        return ring.length();
+    }
+
+    /**
+     * Las {@code limit} trazas más lentas de las que siguen en el buffer.
+     */
+    public List<TraceContext> slowest(int limit) {
+        List<TraceContext> traces = new ArrayList<>(ring.length());
+        for (int i = 0; i < ring.length(); i++) {
+            TraceContext trace = ring.get(i);
+            if (trace != null) {
+                traces.add(trace);
+            }
+        }
+        traces.sort(Comparator.comparingLong(TraceContext::getDurationNanos).reversed());
+        return traces.size() > limit ? new ArrayList<>(traces.subList(0, Math.max(0, limit))) : traces;
+    }
+
+    /**
+     * Resumen serializable de las más lentas para /api/admin/traces/slowest.
+     */
+    public List<Map<String, Object>> slowestSnapshot(int limit) {
+        List<Map<String, Object>> out = new ArrayList<>();
+        for (TraceContext trace : slowest(limit)) {
+            out.add(trace.toMap());
+        }
+        return out;
+    }
+
+    private static int readEnvInt(String key, int defaultValue) {
+        String value = System.getenv(key);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package Apalabrazos.backend.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Procesado de una respuesta en el buzón de la partida (GameService.handleAnswerSubmitted),
+ * desde la validación hasta publicar la siguiente pregunta.
+ */
+@Name("apalabrazos.AnswerHandled")
+@Label("Answer Handled")
+@Category({"Apalabrazos", "Match"})
+@Description("Answer validated, scored and next question published by a match")
+@Enabled(false)
+@StackTrace(false)
+public class AnswerHandledEvent extends Event {
+
+    @Label("Match Id")
+    public String matchId;
+
+    @Label("Player Id")
+    public String playerId;
+
+    @Label("Question Index")
+    public int questionIndex;
+
+    @Label("Selected Option")
+    public int selectedOption;
+
+    @Label("Result")
+    @Description("PASSED, RESPONDED_OK, RESPONDED_FAIL or REJECTED when the answer was ignored")
+    public String result;
+}
@@ -0,0 +1,40 @@
+package Apalabrazos.backend.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Un listener procesando un evento publicado en un AsyncEventBus.
+ * La duración del evento JFR es la del {@code onEvent}; {@code queueDelay} es la espera
+ * desde {@code publish} hasta que el virtual thread empezó a ejecutarlo.
+ */
+@Name("apalabrazos.BusDispatch")
+@Label("Bus Dispatch")
+@Category({"Apalabrazos", "Event Bus"})
+@Description("One listener handling one event published on an AsyncEventBus")
+@Enabled(false)
+@StackTrace(false)
+public class BusDispatchEvent extends Event {
+
+    @Label("Event Type")
+    public String eventType;
+
+    @Label("Listener")
+    public String listener;
+
+    @Label("Match Id")
+    public String matchId;
+
+    @Label("Player Id")
+    public String playerId;
+
+    @Label("Queue Delay")
+    @Timespan(Timespan.NANOSECONDS)
+    public long queueDelay;
+}
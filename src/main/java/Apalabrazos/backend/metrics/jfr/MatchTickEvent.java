@@ -0,0 +1,30 @@
+package Apalabrazos.backend.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Procesado de un tick de reloj de una partida (GameService.handleTimerTick).
+ */
+@Name("apalabrazos.MatchTick")
+@Label("Match Tick")
+@Category({"Apalabrazos", "Match"})
+@Description("Timer tick handled by a match: countdown, TimerTick and standings publication")
+@Enabled(false)
+@StackTrace(false)
+public class MatchTickEvent extends Event {
+
+    @Label("Match Id")
+    public String matchId;
+
+    @Label("Remaining Seconds")
+    public int remainingSeconds;
+
+    @Label("Players")
+    public int players;
+}
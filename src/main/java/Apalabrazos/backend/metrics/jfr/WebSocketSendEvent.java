@@ -0,0 +1,41 @@
+package Apalabrazos.backend.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Envío de un mensaje a un cliente (WebSocketMessageSender.send): serialización y escritura.
+ */
+@Name("apalabrazos.WebSocketSend")
+@Label("WebSocket Send")
+@Category({"Apalabrazos", "Network"})
+@Description("Message serialized and written to a client WebSocket session")
+@Enabled(false)
+@StackTrace(false)
+public class WebSocketSendEvent extends Event {
+
+    @Label("Session Id")
+    public String sessionId;
+
+    @Label("Match Id")
+    @Description("Match the player was joined to when the message was sent, if any")
+    public String matchId;
+
+    @Label("Player Id")
+    public String playerId;
+
+    @Label("Message Type")
+    public String messageType;
+
+    @Label("Length")
+    @Description("Encoded JSON length in characters")
+    public int length;
+
+    @Label("Failed")
+    public boolean failed;
+}
@@ -1,10 +1,10 @@
 package Apalabrazos.backend.model;
 
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -30,14 +30,15 @@ public class GameGlobal {
         POST
     }
 
+    // Las mutaciones pasan por el MatchMailbox de la partida; las lecturas (lobby, bridge) llegan desde otros hilos
     private Map<String, GameInstance> playerInstances; // playerID -> GameInstance
-    private GameGlobalState state;
+    private volatile GameGlobalState state;
     private GameType gameType; // Tipo de juego (del modelo)
     private QuestionLevel difficulty;
     private int maxPlayers;
     private int numberOfQuestions;
     private int gameDuration; // Duration in seconds
-    private int remainingSeconds; // Tiempo restante en la partida
+    private volatile int remainingSeconds; // Tiempo restante en la partida
     private Set<String> controllerReadyPlayers; // Jugadores que han enviado GameControllerReady
     private int controllerReadyTimeoutSeconds; // Segundos máximos esperando confirmaciones (default 30)
 
@@ -45,7 +46,7 @@ public class GameGlobal {
      * Default constructor
      */
     public GameGlobal() {
-        this.playerInstances = new HashMap<>();
+        this.playerInstances = new ConcurrentHashMap<>();
         this.state = GameGlobalState.IDLE;
         this.gameType = GameType.HIGHER_POINTS_WINS;
         this.difficulty = QuestionLevel.MEDIUM;
@@ -63,7 +64,7 @@ public class GameGlobal {
      * @param config The player configuration containing game settings
      */
     public GameGlobal(GamePlayerConfig config) {
-        this.playerInstances = new HashMap<>();
+        this.playerInstances = new ConcurrentHashMap<>();
         this.state = GameGlobalState.IDLE;
         this.gameType = config.getGameType() != null ? config.getGameType() : GameType.HIGHER_POINTS_WINS;
         this.difficulty = config.getDifficultyLevel() != null ? config.getDifficultyLevel() : QuestionLevel.MEDIUM;
@@ -139,7 +140,7 @@ public class GameGlobal {
      * @param playerInstances Map of playerID -> GameInstance
      */
     public void setPlayerInstances(Map<String, GameInstance> playerInstances) {
-        this.playerInstances = playerInstances != null ? playerInstances : new HashMap<>();
+        this.playerInstances = playerInstances != null ? new ConcurrentHashMap<>(playerInstances) : new ConcurrentHashMap<>();
     }
 
     /**
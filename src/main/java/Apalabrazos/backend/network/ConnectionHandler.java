@@ -3,6 +3,7 @@ package Apalabrazos.backend.network;
 import Apalabrazos.backend.lobby.LobbyRoom;
 import Apalabrazos.backend.model.Player;
 import Apalabrazos.backend.service.MatchManager;
+import Apalabrazos.backend.service.MatchmakingService;
 import Apalabrazos.backend.service.ConnectionRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -39,6 +40,19 @@ public abstract class ConnectionHandler {
      * @param cosmosUserId El ID del usuario en Cosmos DB (viene del JWT)
      */
     public void onClientConnect(Object session, String username, String cosmosUserId) {
+        onClientConnect(session, username, cosmosUserId, null, -1);
+    }
+
+    /**
+     * Igual que {@link #onClientConnect(Object, String, String)} para un cliente que reconecta
+     * conociendo ya una versión del lobby: recibe solo los cambios desde ella si siguen en el
+     * historial.
+     *
+     * @param lobbyEpoch   epoch del último snapshot recibido por el cliente (null si no tiene)
+     * @param lobbyVersion última versión del lobby aplicada por el cliente (-1 si no tiene)
+     */
+    public void onClientConnect(Object session, String username, String cosmosUserId,
+                                String lobbyEpoch, long lobbyVersion) {
         try {
             log.info("[CLIENT-CONNECT] Starting connection process for: {} (CosmosUserId: {})", username,
                     cosmosUserId);
@@ -56,11 +70,13 @@ public abstract class ConnectionHandler {
             }
 
                 log.debug("[CLIENT-CONNECT] Creating WebSocketMessageSender for client: {}", sessionId);
-            WebSocketMessageSender messageSender = new WebSocketMessageSender(session, sessionId.toString());
+            WebSocketMessageSender messageSender = new WebSocketMessageSender(session, sessionId.toString(),
+                    matchManager::peekJoinedMatchId);
 
             // 2. Nivel 2: Crear el Player (el ancla) — linked to Cosmos DB user
             log.debug("[CLIENT-CONNECT] Creating Player for user: {} (CosmosUserId: {})", username, cosmosUserId);
             Player player = new Player(sessionId, username, cosmosUserId, messageSender);
+            messageSender.setOwner(player);
 
             // 3. Registrar en ConnectionRegistry
             log.debug("[CLIENT-CONNECT] Registering connection in ConnectionRegistry");
@@ -75,8 +91,9 @@ public abstract class ConnectionHandler {
                         + username
                         + "! Conexión establecida.\"}";
                 player.sendMessage(welcomeMessage);
-                sendLobbyMatchesSnapshot(player);
-                log.debug("[CLIENT-CONNECT] Welcome message and lobby snapshot sent");
+                sendLobbyMatchesSnapshot(player, lobbyEpoch, lobbyVersion);
+                LobbyRoom.getInstance().sendChatHistory(sessionId);
+                log.debug("[CLIENT-CONNECT] Welcome message, lobby snapshot and chat history sent");
             } else {
                 log.error("[CLIENT-CONNECT] ❌ Failed to register player: {} in GameSessionManager", username);
                 messageSender.close();
@@ -130,6 +147,7 @@ public abstract class ConnectionHandler {
 
             // Remove player from any active match
             if (player != null) {
+                MatchmakingService.getInstance().cancel(player.getPlayerID());
                 String leftMatchId = matchManager.leavePlayerFromCurrentMatch(player);
                 if (leftMatchId != null) {
                     log.info("[CLIENT-DISCONNECT] Player {} removed from match {} during disconnect",
@@ -176,24 +194,20 @@ public abstract class ConnectionHandler {
     }
 
     /**
-     * Envía al cliente recién autenticado el snapshot actual de partidas activas del lobby.
+     * Envía al cliente recién autenticado el snapshot de partidas activas del lobby (frame
+     * pre-codificado compartido por todas las conexiones) o, si reconecta con una versión
+     * conocida, solo el delta desde ella.
      */
-    private void sendLobbyMatchesSnapshot(Player player) {
+    private void sendLobbyMatchesSnapshot(Player player, String lobbyEpoch, long lobbyVersion) {
         if (player == null) {
             return;
         }
 
         try {
-            java.util.Map<String, Object> payload = new java.util.LinkedHashMap<>();
-            payload.put("matches", matchManager.getActiveMatchesSummary());
-
-            java.util.Map<String, Object> message = new java.util.LinkedHashMap<>();
-            message.put("type", WsMessageType.LOBBY_MATCHES_SNAPSHOT);
-            message.put("payload", payload);
-
-            player.sendMessage(message);
-            log.info("[WS-BUS][BE->FE][SEND] LobbyMatchesSnapshot -> {} ({} active matches)",
-                    player.getName(), matchManager.getActiveMatchCount());
+            LobbyRoom lobby = LobbyRoom.getInstance();
+            player.sendMessage(lobby.matchesSyncFrame(lobbyEpoch, lobbyVersion));
+            log.info("[WS-BUS][BE->FE][SEND] LobbyMatches sync -> {} (lobby version {}, client version {})",
+                    player.getName(), lobby.getMatchesState().getVersion(), lobbyVersion);
         } catch (Exception e) {
             log.error("[CLIENT-CONNECT] ❌ Error sending lobby snapshot to {}: {}",
                     player.getName(), e.getMessage(), e);
@@ -0,0 +1,120 @@
+package Apalabrazos.backend.network;
+
+import Apalabrazos.backend.model.Question;
+import Apalabrazos.backend.model.QuestionList;
+import Apalabrazos.backend.model.QuestionStatus;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Caché de fragmentos JSON pre-codificados para {@link WsMessageType#QUESTION_CHANGED}.
+ * <p>
+ * La batería de preguntas de una partida no cambia una vez empieza, así que la parte
+ * inmutable que ve el cliente (texto, respuestas, letra y nivel) se serializa una sola vez
+ * por pregunta. Cada mensaje por jugador se monta concatenando ese fragmento con los pocos
+ * campos dinámicos (índice, estado y contadores), sin volver a pasar por Jackson.
+ * <p>
+ * Los índices coinciden con los de la {@link QuestionList} que recibe cada jugador.
+ */
+public final class QuestionPayloadCache {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static final String MESSAGE_PREFIX =
+            "{\"type\":\"" + WsMessageType.QUESTION_CHANGED + "\",\"payload\":{\"roomId\":";
+
+    private final String encodedRoomId;
+    private final String[] fragments;
+
+    private QuestionPayloadCache(String encodedRoomId, String[] fragments) {
+        this.encodedRoomId = encodedRoomId;
+        this.fragments = fragments;
+    }
+
+    /**
+     * Codificar todas las preguntas de la batería de una partida.
+     *
+     * @param matchId   ID de la partida (roomId en el payload)
+     * @param questions Batería tal y como se reparte a los jugadores
+     */
+    public static QuestionPayloadCache build(String matchId, QuestionList questions) {
+        int size = questions != null ? questions.getCurrentLength() : 0;
+        String[] fragments = new String[size];
+        for (int i = 0; i < size; i++) {
+            Question q = questions.getQuestionAt(i);
+            fragments[i] = q != null ? encodeQuestion(q) : null;
+        }
+        return new QuestionPayloadCache(writeJson(matchId), fragments);
+    }
+
+    /**
+     * Fragmento JSON de la pregunta en el índice dado, o null si no está en la caché.
+     */
+    public String fragmentAt(int questionIndex) {
+        if (questionIndex < 0 || questionIndex >= fragments.length) {
+            return null;
+        }
+        return fragments[questionIndex];
+    }
+
+    /**
+     * Número de preguntas codificadas.
+     */
+    public int size() {
+        return fragments.length;
+    }
+
+    /**
+     * Montar el mensaje QUESTION_CHANGED completo como String listo para enviar.
+     * Si la pregunta no está en la caché (índice fuera de rango) se codifica al vuelo.
+     *
+     * @param nextQuestion Pregunta a mostrar, o null cuando el jugador ya no tiene más
+     */
+    public String buildQuestionChangedMessage(int questionIndex, QuestionStatus status, Question nextQuestion,
+                                              int totalCorrect, int totalIncorrect) {
+        String fragment = "null";
+        if (nextQuestion != null) {
+            String cached = fragmentAt(questionIndex);
+            fragment = cached != null ? cached : encodeQuestion(nextQuestion);
+        }
+
+        StringBuilder sb = new StringBuilder(MESSAGE_PREFIX.length() + encodedRoomId.length() + fragment.length() + 96);
+        sb.append(MESSAGE_PREFIX).append(encodedRoomId)
+          .append(",\"questionIndex\":").append(questionIndex)
+          .append(",\"status\":");
+        if (status != null) {
+            sb.append('"').append(status.name()).append('"');
+        } else {
+            sb.append("null");
+        }
+        sb.append(",\"nextQuestion\":").append(fragment)
+          .append(",\"totalCorrect\":").append(totalCorrect)
+          .append(",\"totalIncorrect\":").append(totalIncorrect)
+          .append("}}");
+        return sb.toString();
+    }
+
+    /**
+     * Vista de cliente de una pregunta: solo lo que el frontend necesita para pintarla.
+     * No incluye el índice correcto ni el estado de respuesta del jugador.
+     */
+    static String encodeQuestion(Question question) {
+        Map<String, Object> view = new LinkedHashMap<>();
+        view.put("questionText", question.getQuestionText());
+        view.put("questionResponsesList", question.getQuestionResponsesList());
+        view.put("questionLetter", question.getQuestionLetter());
+        view.put("questionLevel", question.getQuestionLevel());
+        return writeJson(view);
+    }
+
+    private static String writeJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not encode QUESTION_CHANGED fragment: " + e.getMessage(), e);
+        }
+    }
+}
@@ -1,11 +1,19 @@
 package Apalabrazos.backend.network;
 
+import Apalabrazos.backend.metrics.MetricsRegistry;
+import Apalabrazos.backend.metrics.jfr.WebSocketSendEvent;
+import Apalabrazos.backend.model.Player;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Map;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
 
 /**
  * Implementación de MessageSender para WebSocket.
@@ -18,11 +26,19 @@ public class WebSocketMessageSender implements MessageSender {
 
     private static final Logger log = LoggerFactory.getLogger(WebSocketMessageSender.class);
     private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final String TYPE_PREFIX = "{\"type\":\"";
+    private static final MetricsRegistry.Family<LongAdder> MESSAGES_SENT =
+            MetricsRegistry.getInstance().counterFamily("apalabrazos_ws_messages_sent_total",
+                    "WebSocket messages sent to clients, by message type", "type");
 
     // La sesión WebSocket de Javalin
     private final io.javalin.websocket.WsContext session;
     private boolean connected = true;
     private final String clientId;
+    // Jugador dueño de la conexión; se asigna tras crear el Player
+    private volatile Player owner;
+    // playerId -> partida actual, solo para etiquetar eventos; lo aporta quien crea el sender
+    private final Function<String, String> matchIdResolver;
 
     // Cola de mensajes para casos de desconexión temporal
     private final Queue<Object> messageQueue = new ConcurrentLinkedQueue<>();
@@ -33,11 +49,22 @@ public class WebSocketMessageSender implements MessageSender {
      * @param clientId Identificador del cliente (IP, sessionId, etc)
      */
     public WebSocketMessageSender(Object session, String clientId) {
+        this(session, clientId, playerId -> null);
+    }
+
+    /**
+     * Constructor que además recibe cómo resolver la partida actual de un jugador
+     * @param session La sesión WebSocket (WsContext)
+     * @param clientId Identificador del cliente (IP, sessionId, etc)
+     * @param matchIdResolver playerId -> matchId (o null), usado solo al registrar eventos de envío
+     */
+    public WebSocketMessageSender(Object session, String clientId, Function<String, String> matchIdResolver) {
         if (!(session instanceof io.javalin.websocket.WsContext)) {
              throw new IllegalArgumentException("Se esperaba una sesión de tipo WsContext");
         }
         this.session = (io.javalin.websocket.WsContext) session;
         this.clientId = clientId;
+        this.matchIdResolver = matchIdResolver != null ? matchIdResolver : playerId -> null;
         log.info("WebSocketMessageSender created for client: {}", clientId);
     }
 
@@ -50,27 +77,68 @@ public class WebSocketMessageSender implements MessageSender {
             return;
         }
 
+        WebSocketSendEvent sendEvent = new WebSocketSendEvent();
+        sendEvent.begin();
+        String messageStr = null;
         try {
             // Convertir a JSON usando Jackson
-            String messageStr;
-            if (message instanceof String) {
-                messageStr = (String) message;
-            } else {
-                messageStr = objectMapper.writeValueAsString(message);
-            }
+            messageStr = encode(message);
 
             log.debug("[WS-BUS][BE->FE][SEND] Sending message to {}: {}", clientId, messageStr);
 
             // Enviar usando Javalin
             session.send(messageStr);
+            MESSAGES_SENT.labels(messageType(message)).increment();
             log.debug("[WS-BUS][BE->FE][SENT] Message sent successfully to: {}", clientId);
 
         } catch (Exception e) {
+            sendEvent.failed = true;
             log.error("[WS-BUS][BE->FE] ❌ Error sending message to {}: {}", clientId, e.getMessage(), e);
             this.connected = false;
             log.warn("[WS-BUS][BE->FE] Connection marked as disconnected. Queuing message");
             messageQueue.offer(message); // Encolar para luego
+        } finally {
+            sendEvent.end();
+            if (sendEvent.shouldCommit()) {
+                sendEvent.sessionId = clientId;
+                Player player = owner;
+                if (player != null) {
+                    sendEvent.playerId = player.getPlayerID();
+                    sendEvent.matchId = matchIdResolver.apply(sendEvent.playerId);
+                }
+                sendEvent.messageType = messageType(message);
+                sendEvent.length = messageStr != null ? messageStr.length() : 0;
+                sendEvent.commit();
+            }
+        }
+    }
+
+    /**
+     * Serializar un mensaje saliente: los String (p.ej. QUESTION_CHANGED pre-codificado)
+     * se envían tal cual y el resto pasa por Jackson.
+     */
+    static String encode(Object message) throws JsonProcessingException {
+        if (message instanceof String) {
+            return (String) message;
         }
+        return objectMapper.writeValueAsString(message);
+    }
+
+    /**
+     * Tipo del mensaje para las métricas, sin volver a parsear el JSON: los mensajes del
+     * servidor son mapas o nodos con "type", y los pre-codificados empiezan por {"type":"...".
+     */
+    static String messageType(Object message) {
+        Object type = null;
+        if (message instanceof Map<?, ?> map) {
+            type = map.get("type");
+        } else if (message instanceof JsonNode node) {
+            type = node.path("type").asText(null);
+        } else if (message instanceof String text && text.startsWith(TYPE_PREFIX)) {
+            int end = text.indexOf('"', TYPE_PREFIX.length());
+            type = end > 0 ? text.substring(TYPE_PREFIX.length(), end) : null;
+        }
+        return type != null ? type.toString() : MetricsRegistry.OVERFLOW_LABEL_VALUE;
     }
 
     @Override
@@ -114,6 +182,14 @@ public class WebSocketMessageSender implements MessageSender {
         }
     }
 
+    /**
+     * Asociar el jugador de esta conexión, para etiquetar los eventos de envío.
+     * Se guarda el Player y no su id porque el id cambia al unirse a una partida.
+     */
+    public void setOwner(Player owner) {
+        this.owner = owner;
+    }
+
     /**
      * Obtener el ID del cliente
      */
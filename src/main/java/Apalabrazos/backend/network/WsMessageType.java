@@ -26,9 +26,24 @@ public final class WsMessageType {
     /** Broadcast to all lobby players when a match is removed. */
     public static final String LOBBY_MATCH_REMOVED        = "LobbyMatchRemoved";
 
+    /** Sent to a reconnecting player with only the lobby changes since its last known version. */
+    public static final String LOBBY_MATCHES_DELTA        = "LobbyMatchesDelta";
+
+    /** Sent to a player subscribed to a filtered lobby view when its current page changes. */
+    public static final String LOBBY_MATCHES_PAGE         = "LobbyMatchesPage";
+
     /** Broadcast chat message to all lobby players. */
     public static final String CHAT_MESSAGE               = "chat_message";
 
+    /** Broadcast to all lobby players with every chat message accepted in one flush tick. */
+    public static final String CHAT_MESSAGES              = "chat_messages";
+
+    /** Sent to a player joining the lobby with the most recent chat messages. */
+    public static final String CHAT_HISTORY               = "chat_history";
+
+    /** Sent to a player whose chat message was dropped because they exceeded their send quota. */
+    public static final String CHAT_THROTTLED             = "chat_throttled";
+
     // ── Match lifecycle events ─────────────────────────────────────────────────
 
     /** Sent to the creator when a game creation request is accepted. */
@@ -43,6 +58,15 @@ public final class WsMessageType {
     /** Sent to the joining player when a join-match request is rejected. */
     public static final String JOIN_MATCH_REQUEST_INVALID    = "JoinMatchRequestInvalid";
 
+    /** Sent to a player whose quick-match request was accepted and is now waiting in the queue. */
+    public static final String QUICK_MATCH_QUEUED            = "QuickMatchQueued";
+
+    /** Sent to a player whose quick-match request was rejected. */
+    public static final String QUICK_MATCH_INVALID           = "QuickMatchInvalid";
+
+    /** Sent to a player who left the quick-match queue without being placed in a match. */
+    public static final String QUICK_MATCH_CANCELLED         = "QuickMatchCancelled";
+
     /** Sent to the leaving player when a leave-match request is accepted. */
     public static final String LEAVE_MATCH_REQUEST_VALID     = "LeaveMatchRequestValid";
 
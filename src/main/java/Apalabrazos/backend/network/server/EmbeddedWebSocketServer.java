@@ -2,9 +2,14 @@ package Apalabrazos.backend.network.server;
 
 import Apalabrazos.backend.dto.LoginRequest;
 import Apalabrazos.backend.dto.RegisterRequest;
+import Apalabrazos.backend.lobby.LobbyRoom;
+import Apalabrazos.backend.metrics.MetricsRegistry;
+import Apalabrazos.backend.metrics.TraceRecorder;
 import Apalabrazos.backend.model.User;
 import Apalabrazos.backend.repository.UserRepository;
 import Apalabrazos.backend.service.AIQuestionService;
+import Apalabrazos.backend.service.ConnectionRegistry;
+import Apalabrazos.backend.service.MatchManager;
 import Apalabrazos.backend.tools.JwtService;
 import Apalabrazos.backend.tools.PasswordHasher;
 import io.javalin.Javalin;
@@ -38,7 +43,7 @@ public class EmbeddedWebSocketServer {
     private final int port;
     private Javalin app;
     private final JavalinConnectionHandler connectionHandler = new JavalinConnectionHandler();
-    private final UserRepository userRepository = new UserRepository();
+    private final UserRepository userRepository = UserRepository.fromEnvironment();
     private final JwtService jwtService = new JwtService();
 
     /**
@@ -92,6 +97,7 @@ public class EmbeddedWebSocketServer {
         registerLoginEndpoint();
         registerRegisterEndpoint();
         registerAdminEndpoints();
+        registerMetricsEndpoint();
     }
 
     /**
@@ -269,6 +275,51 @@ public class EmbeddedWebSocketServer {
                 }
             });
         });
+
+        // Latencias por etapa del pipeline de respuestas (cliente, recepción, validación, siguiente pregunta)
+        app.unsafe.routes.get("/api/admin/answer-latency", ctx -> {
+            ctx.json(MatchManager.getInstance().getAnswerLatencySummary());
+        });
+
+        // Trazas más lentas del buffer circular, con el coste de cada salto (?limit=N, 20 por defecto)
+        app.unsafe.routes.get("/api/admin/traces/slowest", ctx -> {
+            int limit = 20;
+            String limitParam = ctx.queryParam("limit");
+            if (limitParam != null) {
+                try {
+                    limit = Math.max(1, Math.min(Integer.parseInt(limitParam.trim()), 500));
+                } catch (NumberFormatException e) {
+                    ctx.status(400).json(java.util.Map.of("error", "limit must be a number"));
+                    return;
+                }
+            }
+            TraceRecorder recorder = TraceRecorder.getInstance();
+            java.util.Map<String, Object> body = new java.util.LinkedHashMap<>();
+            body.put("recorded", recorder.getRecordedCount());
+            body.put("capacity", recorder.getCapacity());
+            body.put("traces", recorder.slowestSnapshot(limit));
+            ctx.json(body);
+        });
+    }
+
+    /**
+     * Registers GET /metrics in Prometheus text format.
+     * Responsibility: server-level gauges and metrics exposition; counters and
+     * histograms are registered by the classes that update them.
+     */
+    private void registerMetricsEndpoint() {
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        metrics.gauge("apalabrazos_ws_connections", "Open WebSocket connections",
+                () -> ConnectionRegistry.getInstance().getActiveConnectionCount());
+        metrics.gauge("apalabrazos_matches_active", "Matches currently registered in MatchManager",
+                () -> MatchManager.getInstance().getActiveMatchCount());
+        metrics.gauge("apalabrazos_lobby_sessions", "Sessions currently in the lobby room",
+                () -> LobbyRoom.getInstance().getPlayerCount());
+
+        app.unsafe.routes.get("/metrics", ctx -> {
+            ctx.contentType("text/plain; version=0.0.4; charset=utf-8");
+            ctx.result(metrics.scrape());
+        });
     }
 
     /**
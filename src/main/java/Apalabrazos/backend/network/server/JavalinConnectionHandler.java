@@ -1,8 +1,11 @@
 package Apalabrazos.backend.network.server;
 
 import Apalabrazos.backend.lobby.LobbyRoom;
+import Apalabrazos.backend.lobby.LobbyView;
+import Apalabrazos.backend.metrics.MetricsRegistry;
 import Apalabrazos.backend.network.ConnectionHandler;
 import Apalabrazos.backend.network.WsMessageType;
+import Apalabrazos.backend.service.MatchmakingService;
 import Apalabrazos.backend.tools.JwtService;
 import com.auth0.jwt.interfaces.DecodedJWT;
 import io.javalin.websocket.WsCloseContext;
@@ -13,6 +16,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Adaptador de ConnectionHandler para Javalin.
@@ -20,6 +24,9 @@ import java.util.UUID;
 public class JavalinConnectionHandler extends ConnectionHandler {
 
     private static final Logger log = LoggerFactory.getLogger(JavalinConnectionHandler.class);
+    private static final MetricsRegistry.Family<LongAdder> MESSAGES_RECEIVED =
+            MetricsRegistry.getInstance().counterFamily("apalabrazos_ws_messages_received_total",
+                    "WebSocket messages received from clients, by message type", "type");
     private final JwtService jwtService = new JwtService();
 
     public void onConnect(WsConnectContext ctx) {
@@ -63,7 +70,10 @@ public class JavalinConnectionHandler extends ConnectionHandler {
 
             log.info("[CONNECT] Connection authenticated for user: {} (CosmosUserId: {})", tokenUsername,
                     tokenUserId);
-            onClientConnect(ctx, tokenUsername, tokenUserId); // Pass username and userId
+            // Versión del lobby que el cliente ya tiene (reconexión): se le envía solo el delta
+            String lobbyEpoch = ctx.queryParam("lobbyEpoch");
+            long lobbyVersion = parseLobbyVersion(ctx.queryParam("lobbyVersion"));
+            onClientConnect(ctx, tokenUsername, tokenUserId, lobbyEpoch, lobbyVersion); // Pass username and userId
         } catch (Exception e) {
             log.error("[CONNECT] ❌ Error in connection authentication: {}", e.getMessage(), e);
             try {
@@ -87,9 +97,9 @@ public class JavalinConnectionHandler extends ConnectionHandler {
             log.debug("[WS-BUS][FE->BE] Message received from session {}: {}", sessionId, message);
 
             try {
-                com.fasterxml.jackson.databind.ObjectMapper mapper = new com.fasterxml.jackson.databind.ObjectMapper();
-                com.fasterxml.jackson.databind.JsonNode node = mapper.readTree(message);
+                com.fasterxml.jackson.databind.JsonNode node = decodeMessage(message);
                 String type = node.has("type") ? node.get("type").asText() : "";
+                MESSAGES_RECEIVED.labels(type).increment();
                 log.info("[WS-BUS][FE->BE] session={} parsedType={}", sessionId, type);
 
                 // ── CHAT ────────────────────────────────────────────────────
@@ -114,12 +124,21 @@ public class JavalinConnectionHandler extends ConnectionHandler {
                     }
 
                     if (!text.isEmpty()) {
-                        log.info("[CHAT] Message from '{}' (session {}): {}", username, sessionId, text);
-                        LobbyRoom.getInstance().broadcastChat(username, text, matchManager);
+                        log.debug("[CHAT] Message from '{}' (session {}): {}", username, sessionId, text);
+                        if (!LobbyRoom.getInstance().broadcastChat(username, text, matchManager) && player != null) {
+                            player.sendMessage("{\"type\":\"" + WsMessageType.CHAT_THROTTLED + "\",\"payload\":{}}");
+                        }
                     } else {
                         log.warn("[CHAT] Empty text received from '{}', ignoring", username);
                     }
 
+                    // ── LOBBY VIEW ──────────────────────────────────────────────
+                } else if ("LobbySubscribe".equalsIgnoreCase(type)) {
+                    LobbyRoom.getInstance().subscribe(sessionId, LobbyView.fromJson(extractPayload(node)));
+
+                } else if ("LobbyUnsubscribe".equalsIgnoreCase(type)) {
+                    LobbyRoom.getInstance().unsubscribe(sessionId);
+
                     // ── GAME CREATION REQUEST ────────────────────────────────────
                 } else if ("GameCreationRequest".equalsIgnoreCase(type)) {
                     Apalabrazos.backend.model.Player player = connectionRegistry.getPlayerBySessionId(sessionId);
@@ -205,6 +224,49 @@ public class JavalinConnectionHandler extends ConnectionHandler {
                         }
                     }
 
+                    // ── QUICK MATCH ─────────────────────────────────────────────
+                } else if ("QuickMatchRequest".equalsIgnoreCase(type)) {
+                    Apalabrazos.backend.model.Player player = connectionRegistry.getPlayerBySessionId(sessionId);
+                    if (player == null) {
+                        log.warn("[QUICKMATCH] QuickMatchRequest received but player was not found for session {}", sessionId);
+                        return;
+                    }
+
+                    com.fasterxml.jackson.databind.JsonNode data = extractPayload(node);
+                    Apalabrazos.backend.model.QuestionLevel qLevel;
+                    try {
+                        qLevel = Apalabrazos.backend.model.QuestionLevel.fromValue(data.path("difficulty").asText("MEDIUM"));
+                    } catch (Exception e) {
+                        qLevel = Apalabrazos.backend.model.QuestionLevel.MEDIUM; // Fallback
+                    }
+                    int timerSeconds = (int) (data.path("time").asDouble(0) * 60);
+                    Apalabrazos.backend.model.GamePlayerConfig preferences = new Apalabrazos.backend.model.GamePlayerConfig(
+                            player, timerSeconds, qLevel, data.path("players").asInt(0), 27);
+                    preferences.setGameType(Apalabrazos.backend.model.GameType.HIGHER_POINTS_WINS);
+
+                    String cause = MatchmakingService.getInstance().enqueue(player, preferences);
+                    if (cause == null) {
+                        player.sendMessage(java.util.Map.of(
+                                "type", WsMessageType.QUICK_MATCH_QUEUED,
+                                "payload", java.util.Map.of(
+                                        "players", preferences.getMaxPlayers(),
+                                        "time", timerSeconds / 60,
+                                        "difficulty", qLevel.name())));
+                    } else {
+                        log.info("[QUICKMATCH] Request from '{}' rejected: {}", player.getName(), cause);
+                        player.sendMessage(java.util.Map.of(
+                                "type", WsMessageType.QUICK_MATCH_INVALID,
+                                "payload", java.util.Map.of("cause", cause)));
+                    }
+
+                } else if ("QuickMatchCancel".equalsIgnoreCase(type)) {
+                    Apalabrazos.backend.model.Player player = connectionRegistry.getPlayerBySessionId(sessionId);
+                    if (player != null && MatchmakingService.getInstance().cancel(player.getPlayerID())) {
+                        player.sendMessage(java.util.Map.of(
+                                "type", WsMessageType.QUICK_MATCH_CANCELLED,
+                                "payload", java.util.Map.of("cause", "Has salido de la cola.")));
+                    }
+
                     // ── LEAVE MATCH REQUEST ──────────────────────────────────────
                 } else if ("LeaveMatchRequest".equalsIgnoreCase(type)) {
                     Apalabrazos.backend.model.Player player = connectionRegistry.getPlayerBySessionId(sessionId);
@@ -308,7 +370,15 @@ public class JavalinConnectionHandler extends ConnectionHandler {
                         return;
                     }
 
-                    boolean accepted = matchManager.submitAnswerForPlayer(player.getPlayerID(), questionIndex, selectedOption);
+                    // La traza empieza tras validar: las respuestas descartadas aquí no llegan a ningún hop
+                    Apalabrazos.backend.metrics.TraceContext trace =
+                            Apalabrazos.backend.metrics.TraceContext.start("AnswerSubmitted", player.getPlayerID(), "ws.received");
+                    trace.setClientSentAtMillis(submittedAt);
+                    boolean accepted = matchManager.submitAnswerForPlayer(player.getPlayerID(), questionIndex, selectedOption,
+                            trace);
+                    if (!accepted) {
+                        trace.finish("route.rejected");
+                    }
                     log.info("[GAME-ANSWER] AnswerSubmitted from '{}' q={} option={} => {}",
                             player.getName(), questionIndex, selectedOption, accepted ? "accepted" : "ignored");
 
@@ -328,6 +398,26 @@ public class JavalinConnectionHandler extends ConnectionHandler {
         }
     }
 
+    static long parseLobbyVersion(String value) {
+        if (value == null || value.isBlank()) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Parsear el JSON de un mensaje entrante del frontend.
+     */
+    static com.fasterxml.jackson.databind.JsonNode decodeMessage(String message)
+            throws com.fasterxml.jackson.core.JsonProcessingException {
+        com.fasterxml.jackson.databind.ObjectMapper mapper = new com.fasterxml.jackson.databind.ObjectMapper();
+        return mapper.readTree(message);
+    }
+
     private static com.fasterxml.jackson.databind.JsonNode extractPayload(com.fasterxml.jackson.databind.JsonNode node) {
         return node.path("data");
     }
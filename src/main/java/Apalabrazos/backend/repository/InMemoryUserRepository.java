@@ -0,0 +1,103 @@
+package Apalabrazos.backend.repository;
+
+import Apalabrazos.backend.model.User;
+import Apalabrazos.backend.tools.PasswordHasher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Repositorio de usuarios en memoria, sin Cosmos DB.
+ * <p>
+ * Pensado para ejecutar el servidor en local y lanzar pruebas de carga contra
+ * /api/login y /ws/game/{userId}. Con USER_STORE_SEED_COUNT se pre-crean usuarios
+ * {@code loadtest<i>} / {@code loadtest<i>@loadtest.local}, todos con la misma
+ * contraseña (USER_STORE_SEED_PASSWORD) para que el sembrado no tenga que hashear
+ * miles de veces.
+ */
+public class InMemoryUserRepository extends UserRepository {
+
+    private static final Logger log = LoggerFactory.getLogger(InMemoryUserRepository.class);
+
+    public static final String SEED_USERNAME_PREFIX = "loadtest";
+    public static final String SEED_EMAIL_DOMAIN = "@loadtest.local";
+    private static final String DEFAULT_SEED_PASSWORD = "loadtest123";
+
+    // email normalizado -> usuario
+    private final Map<String, User> usersByEmail = new ConcurrentHashMap<>();
+
+    /**
+     * Crear el repositorio sembrando los usuarios indicados en el entorno.
+     */
+    static InMemoryUserRepository seededFromEnvironment() {
+        InMemoryUserRepository repository = new InMemoryUserRepository();
+        int seedCount = readEnvInt("USER_STORE_SEED_COUNT", 0);
+        if (seedCount > 0) {
+            String password = System.getenv("USER_STORE_SEED_PASSWORD");
+            repository.seed(seedCount, password == null || password.isBlank() ? DEFAULT_SEED_PASSWORD : password);
+        }
+        log.info("In-memory user store enabled ({} users)", repository.size());
+        return repository;
+    }
+
+    /**
+     * Crear {@code count} usuarios de carga que comparten contraseña.
+     */
+    public void seed(int count, String password) {
+        String salt = PasswordHasher.generateSalt();
+        String hashedPassword = PasswordHasher.hashPassword(password, salt);
+        for (int i = 0; i < count; i++) {
+            User user = new User(SEED_USERNAME_PREFIX + i, SEED_USERNAME_PREFIX + i + SEED_EMAIL_DOMAIN,
+                    hashedPassword, salt);
+            save(user);
+        }
+        log.info("Seeded {} load test users", count);
+    }
+
+    @Override
+    public void save(User user) {
+        if (user == null) {
+            throw new IllegalArgumentException("User must not be null");
+        }
+        normalizeIdentity(user);
+        ensureIds(user);
+        if (user.email == null) {
+            throw new IllegalArgumentException("User email must not be null");
+        }
+        usersByEmail.put(user.email, user);
+        log.debug("User {} saved to in-memory store", user.username);
+    }
+
+    @Override
+    public List<User> findByEmailCandidates(String email) {
+        List<User> users = new ArrayList<>(1);
+        if (email == null || email.isBlank()) {
+            return users;
+        }
+        User user = usersByEmail.get(email.trim().toLowerCase());
+        if (user != null) {
+            users.add(user);
+        }
+        return users;
+    }
+
+    public int size() {
+        return usersByEmail.size();
+    }
+
+    private static int readEnvInt(String key, int defaultValue) {
+        String value = System.getenv(key);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package Apalabrazos.backend.repository;
 
 import Apalabrazos.backend.config.CosmosDBConfig;
+import Apalabrazos.backend.metrics.LatencyHistogram;
+import Apalabrazos.backend.metrics.MetricsRegistry;
 import Apalabrazos.backend.model.User;
 import com.azure.cosmos.CosmosContainer;
 import com.azure.cosmos.CosmosException;
@@ -11,10 +13,32 @@ import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
 
 public class UserRepository {
     private static final Logger log = LoggerFactory.getLogger(UserRepository.class);
 
+    private static final MetricsRegistry.Family<LatencyHistogram> COSMOS_LATENCY =
+            MetricsRegistry.getInstance().histogramFamily("apalabrazos_cosmos_call_seconds",
+                    "Cosmos DB call latency, by operation", "operation");
+    private static final MetricsRegistry.Family<LongAdder> COSMOS_ERRORS =
+            MetricsRegistry.getInstance().counterFamily("apalabrazos_cosmos_errors_total",
+                    "Failed Cosmos DB calls, by operation", "operation");
+    private static final String OP_CREATE_USER = "createUser";
+    private static final String OP_QUERY_USERS_BY_EMAIL = "queryUsersByEmail";
+
+    /**
+     * Repositorio configurado por entorno: Cosmos DB por defecto, o en memoria con
+     * USER_STORE=memory (pruebas de carga y ejecución local sin Cosmos).
+     */
+    public static UserRepository fromEnvironment() {
+        String store = System.getenv("USER_STORE");
+        if (store != null && "memory".equalsIgnoreCase(store.trim())) {
+            return InMemoryUserRepository.seededFromEnvironment();
+        }
+        return new UserRepository();
+    }
+
     public void save(User user) {
         try {
             if (user == null) {
@@ -26,13 +50,19 @@ public class UserRepository {
 
             CosmosContainer container = CosmosDBConfig.getUserContainer();
             if (container != null) {
-                container.createItem(user);
+                long startNs = System.nanoTime();
+                try {
+                    container.createItem(user);
+                } finally {
+                    COSMOS_LATENCY.labels(OP_CREATE_USER).recordNanos(System.nanoTime() - startNs);
+                }
                 log.info("User {} saved to Cosmos DB", user.username);
             } else {
                 log.warn("Cosmos DB container not initialized, skipping save for user {}", user.username);
                 // In production, we might want to throw an exception if DB is critical
             }
         } catch (CosmosException e) {
+            COSMOS_ERRORS.labels(OP_CREATE_USER).increment();
             log.error("Failed to save user {}: {}", user.username, e.getMessage());
             throw e;
         } catch (Exception e) {
@@ -86,13 +116,21 @@ public class UserRepository {
             String query = "SELECT * FROM c WHERE LOWER(c.email) = @email ORDER BY c._ts DESC";
             CosmosQueryRequestOptions options = new CosmosQueryRequestOptions();
 
-            CosmosPagedIterable<User> results = container.queryItems(
-                    query.replace("@email", "'" + normalizedEmail + "'"),
-                    options,
-                    User.class);
-
-            for (User user : results) {
-                users.add(user);
+            long startNs = System.nanoTime();
+            try {
+                CosmosPagedIterable<User> results = container.queryItems(
+                        query.replace("@email", "'" + normalizedEmail + "'"),
+                        options,
+                        User.class);
+
+                for (User user : results) {
+                    users.add(user);
+                }
+            } catch (CosmosException e) {
+                COSMOS_ERRORS.labels(OP_QUERY_USERS_BY_EMAIL).increment();
+                throw e;
+            } finally {
+                COSMOS_LATENCY.labels(OP_QUERY_USERS_BY_EMAIL).recordNanos(System.nanoTime() - startNs);
             }
 
             log.debug("Users found by email {}: {}", normalizedEmail, users.size());
@@ -103,7 +141,7 @@ public class UserRepository {
         }
     }
 
-    private void normalizeIdentity(User user) {
+    protected void normalizeIdentity(User user) {
         if (user.username != null) {
             user.username = user.username.trim().toLowerCase();
         }
@@ -112,7 +150,7 @@ public class UserRepository {
         }
     }
 
-    private void ensureIds(User user) {
+    protected void ensureIds(User user) {
         String generated = java.util.UUID.randomUUID().toString();
 
         String canonicalId;
@@ -9,9 +9,12 @@ import Apalabrazos.backend.events.GlobalAsyncEventBus;
 import Apalabrazos.backend.events.GlobalBusEventCatalog;
 import Apalabrazos.backend.model.AlphabetMap;
 import Apalabrazos.backend.model.Question;
+import Apalabrazos.backend.model.QuestionLevel;
 import Apalabrazos.backend.model.QuestionList;
 import Apalabrazos.backend.AIQuestion.AIQuestionGenerator;
 import Apalabrazos.backend.AIQuestion.QuestionFileLoader;
+import Apalabrazos.backend.metrics.LatencyHistogram;
+import Apalabrazos.backend.metrics.MetricsRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -28,11 +31,15 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 
 /**
@@ -43,6 +50,9 @@ import java.util.stream.Collectors;
  * - Handle fallback to local JSON when configured.
  * - Receive preload commands through the global bus and emit completion/failure events.
  * - Manage optional scheduled generation and manual trigger for admin flows.
+ * - Keep a background-refilled pool of ready batteries per difficulty, so a new match
+ *   normally gets its questions without waiting for the LLM.
+ * - Cap concurrent LLM generations and let live preloads that overlap share one generation.
  */
 public class AIQuestionService implements EventListener {
 
@@ -50,13 +60,50 @@ public class AIQuestionService implements EventListener {
 
     private static final String SOURCE_AI = "AI";
     private static final String SOURCE_FALLBACK = "FALLBACK_JSON";
+    private static final String SOURCE_POOL = "POOL";
     private static final int MAX_PRELOAD_ATTEMPTS = 3;
 
+    // Duración de las precargas por origen de las preguntas (AI / FALLBACK_JSON)
+    private static final MetricsRegistry.Family<LatencyHistogram> PRELOAD_DURATION =
+            MetricsRegistry.getInstance().histogramFamily("apalabrazos_ai_preload_seconds",
+                    "Question preload duration, by question source", "source");
+    private static final LongAdder PRELOAD_FAILURES =
+            MetricsRegistry.getInstance().counter("apalabrazos_ai_preload_failures_total",
+                    "Question preloads that failed without questions");
+    private static final LongAdder PRELOAD_CANCELLED =
+            MetricsRegistry.getInstance().counter("apalabrazos_ai_preload_cancelled_total",
+                    "Question preloads cancelled by their match before finishing");
+
     private static final AIQuestionService INSTANCE = new AIQuestionService();
 
     private final QuestionFileLoader fallbackLoader = new QuestionFileLoader();
     private final ExecutorService preloadExecutor = Executors.newVirtualThreadPerTaskExecutor();
 
+    /**
+     * Todas las generaciones con IA pasan por aquí: como mucho AI_MAX_CONCURRENT_GENERATIONS a la vez
+     * (las llamadas al LLM se limitan aparte, con AI_MAX_CONCURRENT_CALLS). Compartir generación
+     * entre precargas que coinciden esperando turno (hasta AI_COALESCE_MAX_WAITERS) hace que esas
+     * partidas jueguen el mismo rosco, así que solo se hace con AI_COALESCE_SHARE_BATTERY=true; por
+     * defecto cada precarga espera su propia generación.
+     */
+    private final QuestionGenerationCoordinator generationCoordinator = new QuestionGenerationCoordinator(
+            readEnvInt("AI_MAX_CONCURRENT_GENERATIONS", 2),
+            readEnvBool("AI_COALESCE_SHARE_BATTERY", false) ? readEnvInt("AI_COALESCE_MAX_WAITERS", 8) : 1,
+            preloadExecutor,
+            this::generateAiBattery);
+
+    /**
+     * Baterías listas, un solo pool para todas las dificultades: se reponen en segundo plano al bajar de AI_POOL_MIN hasta
+     * AI_POOL_MAX, con como mucho AI_POOL_REFILL_CONCURRENCY generaciones a la vez (AI_POOL_MAX=0
+     * lo desactiva).
+     */
+    private final QuestionBatteryPool batteryPool = new QuestionBatteryPool(
+            readEnvInt("AI_POOL_MIN", 2),
+            readEnvInt("AI_POOL_MAX", 4),
+            readEnvInt("AI_POOL_REFILL_CONCURRENCY", 1),
+            preloadExecutor,
+            this::generatePoolBattery);
+
     private final ScheduledExecutorService scheduler;
     private volatile ScheduledFuture<?> scheduledTask;
     private volatile boolean schedulerStarted;
@@ -70,6 +117,9 @@ public class AIQuestionService implements EventListener {
     private final String schedulerOutputDir;
     private final String schedulerFilename;
 
+    // Sin LLM: las precargas salen directamente del JSON local (simulaciones de carga, entornos offline)
+    private volatile boolean fallbackOnly;
+
     private AIQuestionService() {
         this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
             Thread t = new Thread(r, "ai-question-service-scheduler");
@@ -83,18 +133,29 @@ public class AIQuestionService implements EventListener {
         this.schedulerZone = ZoneId.of(readEnv("AI_GENERATOR_TIMEZONE", "Europe/Madrid"));
         this.schedulerOutputDir = readEnv("AI_GENERATOR_OUTPUT_DIR", "src/main/resources/Apalabrazos/data");
         this.schedulerFilename = readEnv("AI_GENERATOR_FILENAME", "questions2.json");
+        this.fallbackOnly = readEnvBool("AI_QUESTIONS_FALLBACK_ONLY", false);
 
         GlobalAsyncEventBus.addListener(this);
+        MetricsRegistry.getInstance().gauge("apalabrazos_ai_pool_ready_batteries",
+                "Question batteries ready in the pool, all difficulties", batteryPool::readyCount);
+        MetricsRegistry.getInstance().gauge("apalabrazos_ai_generations_in_flight",
+                "AI question generations currently calling the LLM", generationCoordinator::inFlight);
         log.info("AIQuestionService initialized. schedulerEnabled={}, schedule={}:{}, zone={}",
                 schedulerEnabled, schedulerHour, schedulerMinute, schedulerZone);
 
         // Precarga el modelo en VRAM al arrancar la app para eliminar el cold start de la primera partida.
+        if (fallbackOnly) {
+            log.info("AI question generation disabled (AI_QUESTIONS_FALLBACK_ONLY=true). Using local JSON questions.");
+            return;
+        }
         preloadExecutor.submit(() -> {
             try {
                 new AIQuestionGenerator().warmup();
             } catch (Exception e) {
                 log.warn("Startup warmup failed (non-fatal): {}", e.getMessage());
             }
+            // Con el modelo ya cargado, llenar el pool antes de que lleguen las primeras partidas
+            batteryPool.fill();
         });
     }
 
@@ -117,6 +178,19 @@ public class AIQuestionService implements EventListener {
         preloadExecutor.submit(() -> processPreloadRequest(requested));
     }
 
+    /**
+     * Activa o desactiva el modo sin LLM: las precargas usan solo el JSON local.
+     * Lo usan los bots de capacidad para no depender de (ni saturar) el proveedor de IA.
+     */
+    public void setFallbackOnly(boolean fallbackOnly) {
+        this.fallbackOnly = fallbackOnly;
+        log.info("AIQuestionService fallbackOnly={}", fallbackOnly);
+    }
+
+    public boolean isFallbackOnly() {
+        return fallbackOnly;
+    }
+
     public QuestionList generateQuestionsForNewGame(int numberOfQuestions) throws Exception {
         return generateQuestionsForNewGame(numberOfQuestions, true);
     }
@@ -126,15 +200,57 @@ public class AIQuestionService implements EventListener {
      * Returns a CompletableFuture that completes when questions are ready (or fails after MAX_PRELOAD_ATTEMPTS).
      */
     public CompletableFuture<QuestionList> startPreload(String matchId, int numberOfQuestions) {
+        return startPreload(matchId, numberOfQuestions, QuestionLevel.MEDIUM);
+    }
+
+    /**
+     * Preload de preguntas para una partida de la dificultad indicada. Si el pool tiene una batería
+     * lista del nivel, el future sale ya completado; si no, se genera en vivo como siempre.
+     * <p>
+     * Cancelar el future devuelto interrumpe la precarga en curso, y con ella la generación que espera
+     * (si ninguna otra partida la comparte) y sus peticiones HTTP al LLM.
+     */
+    public CompletableFuture<QuestionList> startPreload(String matchId, int numberOfQuestions, QuestionLevel level) {
         CompletableFuture<QuestionList> future = new CompletableFuture<>();
-        preloadExecutor.submit(() -> executePreloadWithRetry(matchId, numberOfQuestions, 1, future));
+        QuestionList pooled = fallbackOnly ? null : batteryPool.take();
+        if (pooled != null) {
+            long startNs = System.nanoTime();
+            QuestionList questions = normalizeAndLimit(pooled, normalizeQuestionCount(numberOfQuestions));
+            PRELOAD_DURATION.labels(SOURCE_POOL).recordNanos(System.nanoTime() - startNs);
+            log.info("[AI-PRELOAD] Match {} ({}) served from the pool (count={})",
+                    matchId, level, questions.getCurrentLength());
+            GlobalAsyncEventBus.publishAndForget(
+                    new AIQuestionPreloadCompletedEvent(matchId, questions, SOURCE_POOL));
+            future.complete(questions);
+            return future;
+        }
+        AtomicReference<Future<?>> running = new AtomicReference<>();
+        future.whenComplete((questions, error) -> {
+            if (future.isCancelled()) {
+                Future<?> task = running.get();
+                if (task != null) {
+                    task.cancel(true);
+                }
+            }
+        });
+        submitPreloadAttempt(matchId, numberOfQuestions, 1, future, running);
         log.info("[AI-PRELOAD] Preload scheduled for match {} (questions={}, maxAttempts={})",
                 matchId, numberOfQuestions, MAX_PRELOAD_ATTEMPTS);
         return future;
     }
 
+    private void submitPreloadAttempt(String matchId, int numberOfQuestions, int attempt,
+            CompletableFuture<QuestionList> future, AtomicReference<Future<?>> running) {
+        running.set(preloadExecutor.submit(
+                () -> executePreloadWithRetry(matchId, numberOfQuestions, attempt, future, running)));
+        // Cancelado mientras se encolaba: el hook ya no vería esta tarea
+        if (future.isCancelled()) {
+            running.get().cancel(true);
+        }
+    }
+
     private void executePreloadWithRetry(String matchId, int numberOfQuestions, int attempt,
-            CompletableFuture<QuestionList> future) {
+            CompletableFuture<QuestionList> future, AtomicReference<Future<?>> running) {
         if (future.isDone()) {
             return;
         }
@@ -145,6 +261,10 @@ public class AIQuestionService implements EventListener {
             // Keep fallback for the final attempt only, so retries are real AI retries.
             boolean allowFallbackThisAttempt = (attempt >= MAX_PRELOAD_ATTEMPTS);
             GenerationResult result = generateQuestionsForNewGameWithSource(numberOfQuestions, allowFallbackThisAttempt);
+            if (future.isCancelled()) {
+                return;
+            }
+            PRELOAD_DURATION.labels(result.source()).recordNanos(System.nanoTime() - startNs);
             long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNs);
             log.info("[AI-PRELOAD] Completed preload for match {} in {} ms. count={}, source={}, attempt={}/{}",
                     matchId, elapsedMs, result.questions().getCurrentLength(), result.source(),
@@ -154,13 +274,20 @@ public class AIQuestionService implements EventListener {
             future.complete(result.questions());
         } catch (Exception e) {
             long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNs);
+            if (future.isCancelled()) {
+                PRELOAD_CANCELLED.increment();
+                log.info("[AI-PRELOAD] Preload for match {} cancelled after {} ms (attempt {}/{})",
+                        matchId, elapsedMs, attempt, MAX_PRELOAD_ATTEMPTS);
+                return;
+            }
             if (attempt < MAX_PRELOAD_ATTEMPTS) {
                 log.warn("[AI-PRELOAD] Failed preload for match {} in {} ms (attempt {}/{}): {}. Retrying...",
                         matchId, elapsedMs, attempt, MAX_PRELOAD_ATTEMPTS, e.getMessage());
-                preloadExecutor.submit(() -> executePreloadWithRetry(matchId, numberOfQuestions, attempt + 1, future));
+                submitPreloadAttempt(matchId, numberOfQuestions, attempt + 1, future, running);
             } else {
                 log.error("[AI-PRELOAD] Failed preload for match {} after {} attempts in {} ms: {}",
                         matchId, MAX_PRELOAD_ATTEMPTS, elapsedMs, e.getMessage(), e);
+                PRELOAD_FAILURES.increment();
                 GlobalAsyncEventBus.publishAndForget(
                         new AIQuestionPreloadFailedEvent(matchId, e.getMessage(), "LOAD_FAILED"));
                 future.completeExceptionally(new IllegalStateException(e.getMessage()));
@@ -184,8 +311,9 @@ public class AIQuestionService implements EventListener {
         }
 
         try {
-            AIQuestionGenerator generator = new AIQuestionGenerator();
-            QuestionList generated = generator.generateBatteryForMissingLetters(normalizedLetters);
+            List<String> targetLetters = normalizedLetters;
+            QuestionList generated = generationCoordinator.withPermit(
+                    () -> new AIQuestionGenerator().generateBatteryForMissingLetters(targetLetters));
             return normalizeAndLimit(generated, normalizedLetters.size());
         } catch (Exception e) {
             log.warn("Could not generate questions by AI for letters {}: {}", normalizedLetters, e.getMessage(), e);
@@ -261,6 +389,7 @@ public class AIQuestionService implements EventListener {
         long startNs = System.nanoTime();
         try {
             GenerationResult result = generateQuestionsForNewGameWithSource(requested, request.isAllowFallback());
+            PRELOAD_DURATION.labels(result.source()).recordNanos(System.nanoTime() - startNs);
             long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNs);
 
             log.info("[AI-PRELOAD] Completed preload for match {} in {} ms. count={}, source={}",
@@ -277,6 +406,7 @@ public class AIQuestionService implements EventListener {
             long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNs);
             log.error("[AI-PRELOAD] Failed preload for match {} in {} ms: {}",
                     matchId, elapsedMs, e.getMessage(), e);
+            PRELOAD_FAILURES.increment();
 
             log.warn("[ASYNC-BUS][SEND][AIQuestionService->GameService] Publishing AIQuestionPreloadFailedEvent matchId={} reason=LOAD_FAILED",
                     matchId);
@@ -289,18 +419,17 @@ public class AIQuestionService implements EventListener {
             throws Exception {
         int safeCount = normalizeQuestionCount(numberOfQuestions);
 
-        try {
-            AIQuestionGenerator generator = new AIQuestionGenerator();
-            QuestionList generated = generator.generateBatteryForMissingLetters(buildSpanishAlphabet().subList(0, safeCount));
-            QuestionList normalized = normalizeAndLimit(generated, safeCount);
-
-            if (normalized.getCurrentLength() < safeCount) {
-                throw new IllegalStateException("AI generated only " + normalized.getCurrentLength()
-                        + " questions out of " + safeCount + " requested.");
-            }
+        if (fallbackOnly) {
+            return new GenerationResult(loadFallbackQuestions(safeCount), SOURCE_FALLBACK);
+        }
 
+        try {
+            QuestionList normalized = awaitSharedGeneration(safeCount);
             log.info("Generated {} questions by AI for new match", normalized.getCurrentLength());
             return new GenerationResult(normalized, SOURCE_AI);
+        } catch (InterruptedException e) {
+            // Precarga cancelada: nada de JSON local para una partida que ya no lo quiere
+            throw e;
         } catch (Exception e) {
             log.warn("Could not generate questions by AI: {}", e.getMessage(), e);
             if (!allowFallback) {
@@ -312,6 +441,50 @@ public class AIQuestionService implements EventListener {
         }
     }
 
+    private QuestionList awaitSharedGeneration(int count) throws Exception {
+        CompletableFuture<QuestionList> shared = generationCoordinator.request(count);
+        try {
+            return shared.get();
+        } catch (InterruptedException e) {
+            // Sale de la generación compartida; si era la última que la esperaba, se corta
+            shared.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Una generación real con IA de las primeras {@code count} letras del rosco.
+     */
+    private QuestionList generateAiBattery(int count) throws Exception {
+        AIQuestionGenerator generator = new AIQuestionGenerator();
+        QuestionList generated = generator.generateBatteryForMissingLetters(buildSpanishAlphabet().subList(0, count));
+        QuestionList normalized = normalizeAndLimit(generated, count);
+
+        if (normalized.getCurrentLength() < count) {
+            throw new IllegalStateException("AI generated only " + normalized.getCurrentLength()
+                    + " questions out of " + count + " requested.");
+        }
+        return normalized;
+    }
+
+    /**
+     * Batería completa para el pool; solo de IA (el JSON local ya es instantáneo).
+     */
+    private QuestionList generatePoolBattery() throws Exception {
+        if (fallbackOnly) {
+            return null;
+        }
+        // Sin compartir generación: cada batería del pool debe ser distinta
+        QuestionList battery = generationCoordinator.withPermit(() -> generateAiBattery(AlphabetMap.MAP.size()));
+        log.info("[AI-POOL] Battery ready ({} questions)", battery.getCurrentLength());
+        return battery;
+    }
+
     private void generateAndSaveScheduled() {
         if (schedulerRunning) {
             log.warn("AI scheduled generation already running, skipping this trigger");
@@ -325,7 +498,7 @@ public class AIQuestionService implements EventListener {
             log.info("[AI-SCHEDULED] Starting scheduled generation [{}]", dateTag);
 
             AIQuestionGenerator generator = new AIQuestionGenerator();
-            QuestionList questions = generator.generateFullBattery();
+            QuestionList questions = generationCoordinator.withPermit(generator::generateFullBattery);
             int count = questions.getCurrentLength();
 
             if (count == 0) {
@@ -3,6 +3,11 @@ package Apalabrazos.backend.service;
 import Apalabrazos.backend.events.*;
 import Apalabrazos.backend.model.*;
 import Apalabrazos.backend.config.ScoresConfig;
+import Apalabrazos.backend.metrics.AnswerLatencyStats;
+import Apalabrazos.backend.metrics.TraceContext;
+import Apalabrazos.backend.metrics.jfr.AnswerHandledEvent;
+import Apalabrazos.backend.metrics.jfr.MatchTickEvent;
+import Apalabrazos.backend.network.QuestionPayloadCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import java.util.ArrayList;
@@ -13,12 +18,9 @@ import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
 
 /**
  * Service that manages the game logic and publishes events.
@@ -36,12 +38,21 @@ public class GameService implements EventListener {
     // Controla que el evento de inicio para el controlador se publique una sola vez
     private boolean creatorInitEventSent = false;
 
+    // Reloj/planificador de la partida (real o virtual); lo comparten TimeService y los timeouts
+    private final MatchClock clock;
+
     // Timeout de espera de GameControllerReady de todos los jugadores
-    private final ScheduledExecutorService controllerReadyScheduler = Executors.newSingleThreadScheduledExecutor();
     private ScheduledFuture<?> controllerReadyTimeout;
 
     private volatile CompletableFuture<QuestionList> questionLoadFuture;
     private volatile boolean questionPreloadStarted = false;
+    // Timeout de la carga de preguntas y si ya se resolvió (solo se tocan desde el mailbox)
+    private ScheduledFuture<?> questionLoadTimeout;
+    private boolean questionLoadSettled = false;
+    // Fragmentos JSON de la batería, codificados una vez al empezar la partida
+    private volatile QuestionPayloadCache questionPayloadCache;
+    // Histogramas por etapa del pipeline de respuestas de esta partida
+    private final AnswerLatencyStats answerLatencyStats = new AnswerLatencyStats();
 
     // Listeners separados para evitar rebotes entre buses
     private final EventListener globalListener = this::onGlobalEvent;
@@ -49,6 +60,9 @@ public class GameService implements EventListener {
     private final Set<String> playersWithExtraTimeAwarded = ConcurrentHashMap.newKeySet();
 
 
+    // Buzón serie de la partida: todas las mutaciones de estado se ejecutan aquí, de una en una
+    private MatchMailbox mailbox;
+
     private TimeService timeService;
     private String matchId; // UUID único para la partida
     private String creatorPlayerId; // ID del jugador que creó esta partida
@@ -57,17 +71,24 @@ public class GameService implements EventListener {
     public GameService() {
         this.GlobalGameInstance = new GameGlobal();
         this.externalBus = new AsyncEventBus();
+        this.clock = MatchClock.system();
         init();
     }
 
     public GameService(GamePlayerConfig playerConfig) {
+        this(playerConfig, MatchClock.system());
+    }
+
+    public GameService(GamePlayerConfig playerConfig, MatchClock clock) {
         this.GlobalGameInstance = new GameGlobal(playerConfig);
         this.externalBus = new AsyncEventBus();
+        this.clock = clock != null ? clock : MatchClock.system();
         init();
     }
 
     private void init() {
         this.matchId = generateMatchId();
+        this.mailbox = new MatchMailbox(matchId);
         GlobalAsyncEventBus.addListener(globalListener);
         externalBus.addListener(externalListener);
     }
@@ -108,6 +129,13 @@ public class GameService implements EventListener {
         return gameName;
     }
 
+    /**
+     * Reloj de la partida (real o virtual)
+     */
+    public MatchClock getClock() {
+        return clock;
+    }
+
     /**
      * Add a listener to the external bus (e.g., GameController)
      */
@@ -127,22 +155,25 @@ public class GameService implements EventListener {
      * This method will be invoked only after validating that the requester is the creator
      */
     public void GameStartedValid() {
-        // Transicionar a START_VALIDATED en la máquina de estados
-        GlobalGameInstance.transitionStartValidated();
-        // Arrancar el timeout: si no todos confirman en N segundos, cancelar la partida
-        int timeoutSecs = GlobalGameInstance.getControllerReadyTimeoutSeconds();
-        controllerReadyTimeout = controllerReadyScheduler.schedule(() -> {
-            if (!GlobalGameInstance.isGameInitialized()
-                    && GlobalGameInstance.getState() != GameGlobal.GameGlobalState.PLAYING) {
-                log.warn("Timeout ({} s) waiting for GameControllerReady from all players. Cancelling match {}.", timeoutSecs, matchId);
-                cancelGameDueToTimeout();
-            }
-        }, timeoutSecs, TimeUnit.SECONDS);
-        checkAndInitialize();
+        mailbox.runAndWait(() -> {
+            // Transicionar a START_VALIDATED en la máquina de estados
+            GlobalGameInstance.transitionStartValidated();
+            // Arrancar el timeout: si no todos confirman en N segundos, cancelar la partida
+            int timeoutSecs = GlobalGameInstance.getControllerReadyTimeoutSeconds();
+            controllerReadyTimeout = clock.schedule(() -> mailbox.submit(() -> {
+                if (!GlobalGameInstance.isGameInitialized()
+                        && GlobalGameInstance.getState() != GameGlobal.GameGlobalState.PLAYING) {
+                    log.warn("Timeout ({} s) waiting for GameControllerReady from all players. Cancelling match {}.", timeoutSecs, matchId);
+                    cancelGameDueToTimeout();
+                }
+            }), timeoutSecs, TimeUnit.SECONDS);
+            checkAndInitialize();
+        });
     }
 
     private void cancelGameDueToTimeout() {
         GlobalGameInstance.setState(GameGlobal.GameGlobalState.POST);
+        cancelQuestionPreload();
         log.info("[EXTERNAL-BUS][SEND][GameService->GameController] Publishing GameFinishedEvent (timeout) matchId={}", matchId);
         externalBus.publish(new GameFinishedEvent(null, null, matchId));
         log.info("Match {} cancelled due to GameControllerReady timeout.", matchId);
@@ -159,13 +190,14 @@ public class GameService implements EventListener {
     }
 
     /**
-     * Initialize a new game - starts the timer and changes state to PLAYING
+     * Initialize a new game - starts the timer and changes state to PLAYING.
+     * No espera a las preguntas: se reparten en el mailbox cuando termina la precarga (o vence el timeout).
      */
     public void initGame() {
         log.info("[SEQ][BACKEND] initGame() entered for match {}", matchId);
         // Inicializar y arrancar el TimeService
         if (this.timeService == null) {
-            this.timeService = new TimeService(matchId);
+            this.timeService = new TimeService(matchId, clock);
         }
         this.timeService.start();
 
@@ -174,69 +206,117 @@ public class GameService implements EventListener {
             this.GlobalGameInstance.setState(GameGlobal.GameGlobalState.PLAYING);
         }
 
-        // Cargar preguntas para todos con timeout - BLOQUEANTE hasta 30 segundos
+        if (!questionPreloadStarted) {
+            startQuestionPreload();
+        }
+        CompletableFuture<QuestionList> future = questionLoadFuture;
+        if (future == null) {
+            onQuestionsLoaded(null, new IllegalStateException(
+                    "Question preload future was not initialized for match " + matchId));
+            return;
+        }
+
+        // Timeout y resultado llegan como tareas del mailbox: el primero que se ejecute decide
+        questionLoadTimeout = clock.schedule(() -> mailbox.submit(this::onQuestionLoadTimeout),
+                QUESTION_LOAD_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        future.whenComplete((loaded, error) -> mailbox.submit(() -> onQuestionsLoaded(loaded, error)));
+    }
+
+    /**
+     * Resultado de la precarga, ya en el mailbox: repartir las preguntas y publicar la primera,
+     * o terminar la partida si la carga falló.
+     */
+    private void onQuestionsLoaded(QuestionList loaded, Throwable error) {
+        if (questionLoadSettled) {
+            // Ya venció el timeout (la cancelación de la precarga también llega por aquí)
+            return;
+        }
+        questionLoadSettled = true;
+        if (questionLoadTimeout != null) {
+            questionLoadTimeout.cancel(false);
+        }
+        if (GlobalGameInstance.getState() != GameGlobal.GameGlobalState.PLAYING) {
+            log.info("Questions loaded for match {} but it is no longer playing; ignoring", matchId);
+            return;
+        }
+
         try {
-            loadQuestionsForAllPlayersWithTimeout();
-            log.info("[SEQ][BACKEND] Questions ready for match {}. Publishing first question now.", matchId);
-            // Solo publicar preguntas si la carga fue exitosa
-            publishQuestionForAllPlayers(0, QuestionStatus.INIT);
-            log.info("Game started. TimeService started");
-        } catch (TimeoutException e) {
-            log.error("Timeout esperando carga de preguntas ({}s). Cancelando partida {}", QUESTION_LOAD_TIMEOUT_SECONDS, matchId);
-            publishExternal(new QuestionLoadErrorEvent(matchId, "Timeout loading questions", "TIMEOUT"));
-            finishGameDueToQuestionLoadError("Timeout loading questions");
-        } catch (Exception e) {
+            if (error != null) {
+                throw error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            }
+            assignQuestionsToPlayers(loaded);
+        } catch (Throwable e) {
             log.error("Error cargando preguntas. Cancelando partida {}: {}", matchId, e.getMessage(), e);
             publishExternal(new QuestionLoadErrorEvent(matchId, e.getMessage(), "LOAD_FAILED"));
             finishGameDueToQuestionLoadError(e.getMessage());
+            return;
+        }
+        log.info("[SEQ][BACKEND] Questions ready for match {}. Publishing first question now.", matchId);
+        publishQuestionForAllPlayers(0, QuestionStatus.INIT);
+        log.info("Game started. TimeService started");
+    }
+
+    private void onQuestionLoadTimeout() {
+        if (questionLoadSettled) {
+            return;
         }
+        questionLoadSettled = true;
+        log.error("Timeout esperando carga de preguntas ({}s). Cancelando partida {}", QUESTION_LOAD_TIMEOUT_SECONDS, matchId);
+        cancelQuestionPreload();
+        publishExternal(new QuestionLoadErrorEvent(matchId, "Timeout loading questions", "TIMEOUT"));
+        finishGameDueToQuestionLoadError("Timeout loading questions");
     }
 
     /**
-     * Carga las preguntas y las asigna a cada instancia de jugador.
-     * BLOQUEANTE: espera hasta 30 segundos. Si expira el tiempo, lanza TimeoutException.
+     * Asigna las preguntas cargadas a cada instancia de jugador.
      */
-    private void loadQuestionsForAllPlayersWithTimeout() throws TimeoutException, Exception {
-        if (!questionPreloadStarted) {
-            startQuestionPreload();
+    private void assignQuestionsToPlayers(QuestionList loaded) {
+        if (loaded == null || loaded.getCurrentLength() <= 0) {
+            throw new IllegalStateException("No se pudieron cargar preguntas para la partida " + matchId);
         }
 
-        try {
-            CompletableFuture<QuestionList> future = questionLoadFuture;
-            if (future == null) {
-                throw new IllegalStateException("Question preload future was not initialized for match " + matchId);
-            }
+        // La batería es la misma para todos: codificar su parte inmutable una sola vez.
+        questionPayloadCache = QuestionPayloadCache.build(matchId, cloneQuestionList(loaded));
 
-            QuestionList loaded = future.get(QUESTION_LOAD_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        // Asignar a cada instancia de jugador solo cuando realmente empieza la partida.
+        for (GameInstance instance : GlobalGameInstance.getAllPlayerInstances()) {
+            instance.setQuestionList(cloneQuestionList(loaded));
+            instance.start();
+        }
 
-            if (loaded == null || loaded.getCurrentLength() <= 0) {
-                throw new IllegalStateException("No se pudieron cargar preguntas para la partida " + matchId);
-            }
+        log.info("Questions assigned to players for match {}", matchId);
+    }
 
-            // Asignar a cada instancia de jugador solo cuando realmente empieza la partida.
-            for (GameInstance instance : GlobalGameInstance.getAllPlayerInstances()) {
-                instance.setQuestionList(cloneQuestionList(loaded));
-                instance.start();
-            }
+    /**
+     * La partida ya no va a usar las preguntas: cancelar la precarga corta también su generación y
+     * las peticiones al LLM en curso (salvo que otra partida comparta la generación).
+     */
+    private void cancelQuestionPreload() {
+        CompletableFuture<QuestionList> future = questionLoadFuture;
+        if (future != null && future.cancel(true)) {
+            log.info("Question preload cancelled for match {}", matchId);
+        }
+    }
 
-            log.info("Questions assigned to players for match {}", matchId);
-        } catch (TimeoutException e) {
-            CompletableFuture<QuestionList> future = questionLoadFuture;
-            if (future != null) {
-                future.cancel(true);
+    /**
+     * La partida se retira del registro sin haber terminado (sale el creador o el último jugador, o
+     * se descarta): cancelar la precarga y lo que quede programado. No bloquea; vale desde cualquier hilo.
+     */
+    public void abandon() {
+        cancelQuestionPreload();
+        mailbox.submit(() -> {
+            questionLoadSettled = true;
+            if (controllerReadyTimeout != null) {
+                controllerReadyTimeout.cancel(false);
             }
-            throw e;
-        } catch (ExecutionException e) {
-            // La tarea lanzó una excepción
-            Throwable cause = e.getCause();
-            if (cause instanceof Exception) {
-                throw (Exception) cause;
+            if (questionLoadTimeout != null) {
+                questionLoadTimeout.cancel(false);
             }
-            throw new Exception(cause);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new Exception("Question loading interrupted", e);
-        }
+            if (timeService != null) {
+                timeService.stop();
+            }
+            log.info("Match {} abandoned", matchId);
+        });
     }
 
     /**
@@ -250,7 +330,8 @@ public class GameService implements EventListener {
 
         questionPreloadStarted = true;
         int numberOfQuestions = GlobalGameInstance.getNumberOfQuestions();
-        questionLoadFuture = AIQuestionService.getInstance().startPreload(matchId, numberOfQuestions);
+        questionLoadFuture = AIQuestionService.getInstance().startPreload(matchId, numberOfQuestions,
+                GlobalGameInstance.getDifficulty());
         log.info("Question preload started for match {}", matchId);
     }
 
@@ -282,6 +363,11 @@ public class GameService implements EventListener {
      * Publica un QuestionChangedEvent para un jugador y pregunta concretos, incluyendo la siguiente pregunta
      */
     public void publishQuestionForPlayer(String playerId, int questionIndex, QuestionStatus status, Question nextQuestion) {
+        publishQuestionForPlayer(playerId, questionIndex, status, nextQuestion, null);
+    }
+
+    private void publishQuestionForPlayer(String playerId, int questionIndex, QuestionStatus status, Question nextQuestion,
+                                          TraceContext trace) {
         GameInstance instance = GlobalGameInstance.getPlayerInstance(playerId);
         if (instance == null) {
             log.warn("No GameInstance for player {}", playerId);
@@ -293,7 +379,9 @@ public class GameService implements EventListener {
         int totalCorrect = totals[0];
         int totalIncorrect = totals[1];
 
-        QuestionChangedEvent event = new QuestionChangedEvent(questionIndex, status, playerId, nextQuestion, totalCorrect, totalIncorrect);
+        QuestionChangedEvent event = new QuestionChangedEvent(questionIndex, status, playerId, nextQuestion,
+                totalCorrect, totalIncorrect);
+        event.setTraceContext(trace);
         log.info("Publishing question result for player {} questionIndex={} (nextQuestion: {}, correct: {}, incorrect: {})",
             playerId, questionIndex, nextQuestion != null ? "yes" : "no", totalCorrect, totalIncorrect);
         if (nextQuestion == null) {
@@ -312,6 +400,9 @@ public class GameService implements EventListener {
         }
         log.info("[EXTERNAL-BUS][SEND][GameService->GameController] Publishing QuestionChangedEvent playerId={} questionIndex={}",
                 playerId, questionIndex);
+        if (trace != null) {
+            trace.span("question-changed.published");
+        }
         externalBus.publish(event);
     }
 
@@ -322,6 +413,22 @@ public class GameService implements EventListener {
         return GlobalGameInstance;
     }
 
+    /**
+     * Caché de fragmentos JSON de las preguntas de la partida.
+     *
+     * @return la caché, o null si las preguntas aún no se han repartido
+     */
+    public QuestionPayloadCache getQuestionPayloadCache() {
+        return questionPayloadCache;
+    }
+
+    /**
+     * Histogramas de latencia por etapa de las respuestas de esta partida.
+     */
+    public AnswerLatencyStats getAnswerLatencyStats() {
+        return answerLatencyStats;
+    }
+
     /**
      * Obtener segundos restantes en la partida
      */
@@ -368,6 +475,10 @@ public class GameService implements EventListener {
      * el nombre explícito recibido en el flujo de join.
      */
     public boolean addPlayerToGame(String playerId, String explicitPlayerName) {
+        return mailbox.callAndWait(() -> addPlayerToGameInMailbox(playerId, explicitPlayerName));
+    }
+
+    private boolean addPlayerToGameInMailbox(String playerId, String explicitPlayerName) {
         if (playerId == null || playerId.isEmpty()) {
             log.warn("addPlayerToGame: invalid playerId");
             return false;
@@ -411,6 +522,44 @@ public class GameService implements EventListener {
         return true;
     }
 
+    /**
+     * Quitar un jugador de la partida pasando por el buzón de la partida.
+     *
+     * @param playerId ID único del jugador
+     * @return true si el jugador estaba en la partida
+     */
+    public boolean removePlayerFromGame(String playerId) {
+        if (playerId == null || playerId.isBlank()) {
+            return false;
+        }
+        return mailbox.callAndWait(() -> {
+            GameGlobal global = this.GlobalGameInstance;
+            if (global == null || !global.hasPlayer(playerId)) {
+                return false;
+            }
+            global.removePlayer(playerId);
+            log.info("Player removed: {} (total: {})", playerId, global.getPlayerCount());
+            return true;
+        });
+    }
+
+    /**
+     * Vaciar la partida y devolver su estado a IDLE (limpieza tras finalizar).
+     * Se encola en el mailbox sin esperar: lo llama el reloj de partidas, que no debe bloquearse.
+     */
+    public CompletableFuture<Void> clearPlayersAndReset() {
+        return mailbox.submit(() -> {
+            GameGlobal global = this.GlobalGameInstance;
+            if (global == null) {
+                return;
+            }
+            for (String playerId : new ArrayList<>(global.getAllPlayerIds())) {
+                global.removePlayer(playerId);
+            }
+            global.reset();
+        });
+    }
+
     /**
      * Publicar un evento hacia los listeners del GameService (como GameController)
      * mediante el bus externo
@@ -487,21 +636,25 @@ public class GameService implements EventListener {
 
         if (event instanceof TimerTickEvent tick) {
             if (matchId != null && matchId.equals(tick.getMatchId())) {
-                handleTimerTick(tick);
+                mailbox.runAndWait(() -> handleTimerTick(tick));
             }
             return;
         }
 
     }
 
-    // Handles events from the external bus (published by GameController)
+    // Handles events from the external bus (published by GameController).
+    // Solo los eventos que mutan estado entran en el buzón; el resto (AnswerValidated, QuestionChanged...)
+    // se ignoran aquí, lo que evita bloquear el buzón en publishExternalAndWait.
     private void onExternalEvent(GameEvent event) {
         if (event instanceof GameControllerReady) {
             GameControllerReady ready = (GameControllerReady) event;
             log.info("[EXTERNAL-BUS][RECV][GameController->GameService] Received GameControllerReady playerId={}", ready.getPlayerId());
             log.info("[SEQ][BACKEND] GameControllerReady received. match={}, playerId={}", matchId, ready.getPlayerId());
-            GlobalGameInstance.transitionControllerReady(ready.getPlayerId());
-            checkAndInitialize();
+            mailbox.runAndWait(() -> {
+                GlobalGameInstance.transitionControllerReady(ready.getPlayerId());
+                checkAndInitialize();
+            });
         } else if (event instanceof TimerTickEvent) {
             // Do not forward TimerTickEvent to the same bus to avoid loops
             return;
@@ -509,7 +662,10 @@ public class GameService implements EventListener {
             AnswerSubmittedEvent answerEvent = (AnswerSubmittedEvent) event;
             log.info("[EXTERNAL-BUS][RECV][GameController->GameService] Received AnswerSubmittedEvent playerId={} questionIndex={}",
                     answerEvent.getPlayerId(), answerEvent.getQuestionIndex());
-            handleAnswerSubmitted(answerEvent);
+            if (answerEvent.getTraceContext() != null) {
+                answerEvent.getTraceContext().span("bus.delivered");
+            }
+            mailbox.runAndWait(() -> handleAnswerSubmitted(answerEvent));
         }
     }
 
@@ -518,6 +674,8 @@ public class GameService implements EventListener {
      */
     private void handleTimerTick(TimerTickEvent event) {
         if (GlobalGameInstance != null && GlobalGameInstance.getState() == GameGlobal.GameGlobalState.PLAYING) {
+            MatchTickEvent tick = new MatchTickEvent();
+            tick.begin();
             GlobalGameInstance.decrementTime();
             int remaining = GlobalGameInstance.getRemainingSeconds();
 
@@ -531,10 +689,19 @@ public class GameService implements EventListener {
                 log.info("Time is up. Finishing game...");
                 finishGame();
             }
+
+            tick.end();
+            if (tick.shouldCommit()) {
+                tick.matchId = matchId;
+                tick.remainingSeconds = remaining;
+                tick.players = GlobalGameInstance.getPlayerCount();
+                tick.commit();
+            }
         }
     }
 
-    private StandingsEvent buildStandingsEvent() {
+    // Visibilidad de paquete para los microbenchmarks (benchmarks/)
+    StandingsEvent buildStandingsEvent() {
         List<StandingsEvent.StandingEntry> topEntries = new ArrayList<>();
         if (GlobalGameInstance != null) {
             Map<String, GameInstance> instances = GlobalGameInstance.getPlayerInstancesMap();
@@ -621,9 +788,50 @@ public class GameService implements EventListener {
     }
 
     /**
-     * Procesar la respuesta enviada por un jugador
+     * Encolar en el buzón de la partida el procesado de una respuesta, el mismo salto que da
+     * una respuesta recibida por el bus externo.
+     *
+     * @return CompletableFuture que completa cuando la respuesta se ha procesado
+     */
+    CompletableFuture<Void> submitAnswer(AnswerSubmittedEvent event) {
+        return mailbox.submit(() -> handleAnswerSubmitted(event));
+    }
+
+    /**
+     * Procesar la respuesta enviada por un jugador.
+     * Debe ejecutarse en el buzón de la partida.
+     */
+    void handleAnswerSubmitted(AnswerSubmittedEvent event) {
+        AnswerHandledEvent handled = new AnswerHandledEvent();
+        handled.begin();
+        QuestionStatus result = null;
+        TraceContext trace = event.getTraceContext();
+        if (trace != null) {
+            trace.span("mailbox.started");
+        }
+        try {
+            result = processAnswerSubmitted(event);
+        } finally {
+            // Respuesta ignorada: no habrá envío que cierre la traza
+            if (trace != null && result == null) {
+                trace.finish("answer.rejected");
+            }
+            handled.end();
+            if (handled.shouldCommit()) {
+                handled.matchId = matchId;
+                handled.playerId = event.getPlayerId();
+                handled.questionIndex = event.getQuestionIndex();
+                handled.selectedOption = event.getSelectedOption();
+                handled.result = result != null ? result.name() : "REJECTED";
+                handled.commit();
+            }
+        }
+    }
+
+    /**
+     * @return el estado registrado para la pregunta, o null si la respuesta se ignoró
      */
-    private void handleAnswerSubmitted(AnswerSubmittedEvent event) {
+    private QuestionStatus processAnswerSubmitted(AnswerSubmittedEvent event) {
         String playerId = event.getPlayerId();
         int questionIndex = event.getQuestionIndex();
         int selectedOption = event.getSelectedOption();
@@ -635,14 +843,14 @@ public class GameService implements EventListener {
         GameInstance playerInstance = GlobalGameInstance.getPlayerInstance(playerId);
         if (playerInstance == null) {
             log.warn("No GameInstance found for player: {}", playerId);
-            return;
+            return null;
         }
 
         // Obtener la pregunta
         QuestionList questionList = playerInstance.getQuestionList();
         if (questionList == null || questionIndex < 0 || questionIndex >= questionList.getCurrentLength()) {
             log.warn("Invalid question index: {} for player: {}", questionIndex, playerId);
-            return;
+            return null;
         }
 
         Question question = questionList.getQuestionAt(questionIndex);
@@ -685,7 +893,8 @@ public class GameService implements EventListener {
         String questionLetter = question.getQuestionLetter();
         String correctAnswer = question.getCorrectResponse();
 
-        publishExternalAndWait(new AnswerValidatedEvent(
+        TraceContext trace = event.getTraceContext();
+        AnswerValidatedEvent validated = new AnswerValidatedEvent(
             playerId,
             questionIndex,
             questionLetter,
@@ -695,7 +904,15 @@ public class GameService implements EventListener {
             questionScore,
             totalScore,
             totalCorrect,
-            totalIncorrect));
+            totalIncorrect);
+        validated.setTraceContext(trace);
+        if (trace != null) {
+            trace.span("answer.validated");
+        }
+        publishExternalAndWait(validated);
+        if (trace != null) {
+            trace.span(AnswerLatencyStats.VALIDATED_HOP);
+        }
 
         // Siguiente pregunta circular: buscar siempre la siguiente NO respondida.
         int nextQuestionIndex = findNextUnansweredIndexCircular(questionList, questionIndex);
@@ -708,13 +925,14 @@ public class GameService implements EventListener {
         }
 
         QuestionStatus nextQuestionStatus = nextQuestion != null ? QuestionStatus.INIT : null;
-        publishQuestionForPlayer(playerId, publishQuestionIndex, nextQuestionStatus, nextQuestion);
+        publishQuestionForPlayer(playerId, publishQuestionIndex, nextQuestionStatus, nextQuestion, trace);
 
         // Check if all players have answered all questions
         if (GlobalGameInstance != null && GlobalGameInstance.areAllPlayersQuestionsDone()) {
             log.info("All players have answered all questions. Finishing game.");
             finishGame();
         }
+        return newStatus;
     }
 
     private QuestionList cloneQuestionList(QuestionList source) {
@@ -0,0 +1,50 @@
+package Apalabrazos.backend.service;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reloj y planificador de la pila de partidas (TimeService, timeouts de GameService,
+ * limpieza en MatchManager).
+ * <p>
+ * En producción se usa {@link #system()}, respaldado por el reloj de pared. Para
+ * simulaciones y tests existe {@link VirtualMatchClock}, cuyo tiempo solo avanza
+ * cuando se le pide, de modo que una partida de 10 minutos se simula en milisegundos.
+ */
+public interface MatchClock {
+
+    /**
+     * Tiempo actual en milisegundos desde epoch.
+     */
+    long currentTimeMillis();
+
+    /**
+     * Fuente monótona de nanosegundos para medir duraciones.
+     */
+    long nanoTime();
+
+    /**
+     * Ejecutar una tarea una vez tras el retardo indicado.
+     */
+    ScheduledFuture<?> schedule(Runnable task, long delay, TimeUnit unit);
+
+    /**
+     * Ejecutar una tarea periódicamente con periodo fijo.
+     */
+    ScheduledFuture<?> scheduleAtFixedRate(Runnable task, long initialDelay, long period, TimeUnit unit);
+
+    /**
+     * Indica si el tiempo es simulado. En ese caso quien publica eventos desde una tarea
+     * del reloj debe esperar a que se procesen antes de que el reloj siga avanzando.
+     */
+    default boolean isSimulated() {
+        return false;
+    }
+
+    /**
+     * Reloj de pared compartido por todas las partidas.
+     */
+    static MatchClock system() {
+        return SystemMatchClock.INSTANCE;
+    }
+}
@@ -0,0 +1,145 @@
+package Apalabrazos.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Buzón serie (estilo actor) para el estado de una partida.
+ *
+ * Todas las mutaciones del GameGlobal / GameInstance de una partida se encolan aquí
+ * y se ejecutan de una en una, en orden FIFO, por un único consumidor a la vez.
+ * El consumidor es un virtual thread del executor compartido que solo existe mientras
+ * hay trabajo pendiente: una partida inactiva no ocupa ningún hilo y partidas
+ * distintas se procesan en paralelo.
+ */
+public class MatchMailbox {
+
+    private static final Logger log = LoggerFactory.getLogger(MatchMailbox.class);
+
+    // Executor compartido por todos los buzones: un virtual thread por drenado
+    private static final ExecutorService DRAIN_EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final String name;
+    private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean draining = new AtomicBoolean(false);
+
+    // Hilo que está drenando el buzón en este momento (null si está parado)
+    private volatile Thread owner;
+
+    public MatchMailbox(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Encolar una tarea sin esperar a que termine.
+     *
+     * @return CompletableFuture que completa cuando la tarea se ha ejecutado
+     */
+    public CompletableFuture<Void> submit(Runnable task) {
+        return call(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Encolar una tarea con resultado.
+     *
+     * @return CompletableFuture con el resultado (o la excepción) de la tarea
+     */
+    public <T> CompletableFuture<T> call(Callable<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        queue.add(() -> {
+            try {
+                result.complete(task.call());
+            } catch (Throwable e) {
+                log.error("[MATCH-MAILBOX] ❌ Error processing task in mailbox {}: {}", name, e.getMessage(), e);
+                result.completeExceptionally(e);
+            }
+        });
+        scheduleDrain();
+        return result;
+    }
+
+    /**
+     * Ejecutar una tarea en el buzón y esperar a que termine.
+     * Si ya estamos dentro del buzón se ejecuta en línea para no bloquearnos a nosotros mismos.
+     */
+    public void runAndWait(Runnable task) {
+        callAndWait(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Ejecutar una tarea con resultado en el buzón y esperar a que termine.
+     * Si ya estamos dentro del buzón se ejecuta en línea.
+     */
+    public <T> T callAndWait(Callable<T> task) {
+        if (isMailboxThread()) {
+            try {
+                return task.call();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }
+
+        try {
+            return call(task).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Indica si el hilo actual es el que está drenando este buzón.
+     */
+    public boolean isMailboxThread() {
+        return owner == Thread.currentThread();
+    }
+
+    /**
+     * Número de tareas pendientes de ejecutar.
+     */
+    public int pendingTasks() {
+        return queue.size();
+    }
+
+    private void scheduleDrain() {
+        if (draining.compareAndSet(false, true)) {
+            DRAIN_EXECUTOR.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        owner = Thread.currentThread();
+        try {
+            Runnable next;
+            while ((next = queue.poll()) != null) {
+                next.run();
+            }
+        } finally {
+            owner = null;
+            draining.set(false);
+        }
+        // Una tarea pudo llegar entre el último poll() y la liberación del flag
+        if (!queue.isEmpty()) {
+            scheduleDrain();
+        }
+    }
+}
@@ -2,19 +2,22 @@ package Apalabrazos.backend.service;
 
 import Apalabrazos.backend.events.*;
 import Apalabrazos.backend.lobby.LobbyRoom;
+import Apalabrazos.backend.metrics.AnswerLatencyStats;
+import Apalabrazos.backend.metrics.MetricsRegistry;
+import Apalabrazos.backend.metrics.TraceContext;
 import Apalabrazos.backend.model.GameGlobal;
 import Apalabrazos.backend.model.GameRecord;
 import Apalabrazos.backend.model.Player;
+import Apalabrazos.backend.network.QuestionPayloadCache;
 import Apalabrazos.backend.network.WsMessageType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -53,7 +56,16 @@ public class MatchManager implements EventListener {
     // Stores the current list of player names for each active match.
     private final Map<String, List<String>> matchPlayerNames;
 
-    private final ScheduledExecutorService matchCleanupScheduler;
+    // Índice playerId -> matchId para no recorrer todas las partidas en cada consulta de pertenencia.
+    // Se actualiza al refrescar los jugadores de una partida y al salir o retirarla; GameGlobal sigue
+    // siendo la fuente de verdad y las entradas obsoletas se descartan al consultarlas.
+    private final Map<String, String> playerMatchIds;
+
+    // Reloj con el que se crean las partidas nuevas (virtual en simulaciones)
+    private volatile MatchClock matchClock = MatchClock.system();
+
+    // Latencias del pipeline de respuestas acumuladas de todas las partidas (sobrevive a su limpieza)
+    private final AnswerLatencyStats answerLatencyTotals = new AnswerLatencyStats();
 
     /**
      * Private constructor to prevent direct instantiation
@@ -62,14 +74,15 @@ public class MatchManager implements EventListener {
         this.connectionRegistry = ConnectionRegistry.getInstance();
         this.activeMatches = new ConcurrentHashMap<>();
         this.matchPlayerNames = new ConcurrentHashMap<>();
-        this.matchCleanupScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
-            Thread thread = new Thread(r, "match-cleanup-scheduler");
-            thread.setDaemon(true);
-            return thread;
-        });
+        this.playerMatchIds = new ConcurrentHashMap<>();
         // Registrarse como listener de eventos
         GlobalAsyncEventBus.addListener(this);
         AIQuestionService.getInstance().startScheduledGeneration();
+        for (AnswerLatencyStats.Stage stage : AnswerLatencyStats.Stage.values()) {
+            MetricsRegistry.getInstance().registerHistogram("apalabrazos_answer_latency_seconds",
+                    "Answer pipeline latency across all matches, by stage", "stage", stage.getKey(),
+                    answerLatencyTotals.getHistogram(stage));
+        }
         log.info("MatchManager singleton initialized");
     }
 
@@ -196,6 +209,17 @@ public class MatchManager implements EventListener {
             return "El nombre del match ya está en uso. Por favor, elige otro nombre.";
         }
 
+        return validateMatchSettings(config);
+    }
+
+    /**
+     * Valida jugadores, tiempo, dificultad y tipo de juego (todo salvo el nombre).
+     * También la usa el emparejamiento rápido, cuyas partidas no tienen nombre elegido.
+     */
+    String validateMatchSettings(Apalabrazos.backend.model.GamePlayerConfig config) {
+        if (config == null)
+            return "Config is null";
+
         // 2. Validar número de jugadores (2 a 8)
         if (config.getMaxPlayers() < 2 || config.getMaxPlayers() > 8) {
             log.warn("Invalid max players: {}", config.getMaxPlayers());
@@ -298,16 +322,34 @@ public class MatchManager implements EventListener {
             return null;
         }
 
-        for (Map.Entry<String, GameService> entry : activeMatches.entrySet()) {
-            GameService service = entry.getValue();
-            GameGlobal gameInstance = service != null ? service.getGameInstance() : null;
-            if (gameInstance != null && gameInstance.hasPlayer(playerId)) {
-                return entry.getKey();
-            }
+        String matchId = playerMatchIds.get(playerId);
+        if (matchId == null) {
+            return null;
+        }
+        GameService service = activeMatches.get(matchId);
+        GameGlobal gameInstance = service != null ? service.getGameInstance() : null;
+        if (gameInstance != null && gameInstance.hasPlayer(playerId)) {
+            return matchId;
         }
+        playerMatchIds.remove(playerId, matchId);
         return null;
     }
 
+    /**
+     * Partida a la que el índice asocia al jugador, sin comprobarla contra la partida.
+     * Pensado para etiquetar métricas; para decidir usar {@link #isPlayerInMatch(String)}.
+     */
+    public String peekJoinedMatchId(String playerId) {
+        return playerId != null ? playerMatchIds.get(playerId) : null;
+    }
+
+    /**
+     * Si el jugador está ya dentro de alguna partida activa.
+     */
+    public boolean isPlayerInMatch(String playerId) {
+        return findJoinedMatchIdForPlayer(playerId) != null;
+    }
+
     private Map<String, Object> buildMatchRemovedSummary(String matchId, GameService gameService) {
         Map<String, Object> payload = new LinkedHashMap<>();
         payload.put("roomId", matchId);
@@ -504,6 +546,9 @@ public class MatchManager implements EventListener {
                 "payload", Map.of(
                         "roomId", matchId,
                         "answerResult", answerResult)));
+        if (event.getTraceContext() != null) {
+            event.getTraceContext().span("answer-validated.sent");
+        }
     }
 
     /**
@@ -515,30 +560,39 @@ public class MatchManager implements EventListener {
         GameGlobal gi = service.getGameInstance();
         if (gi == null) return;
 
-        Map<String, Object> payload = new LinkedHashMap<>();
-        payload.put("roomId", matchId);
-        payload.put("questionIndex", event.getQuestionIndex());
-        payload.put("status", event.getStatus() != null ? event.getStatus().name() : null);
-        payload.put("nextQuestion", event.getNextQuestion());
-        payload.put("totalCorrect", event.getTotalCorrect());
-        payload.put("totalIncorrect", event.getTotalIncorrect());
+        // Mensaje montado sobre el fragmento pre-codificado de la pregunta; si la batería
+        // todavía no se ha repartido, la pregunta se codifica al vuelo.
+        QuestionPayloadCache cache = service.getQuestionPayloadCache();
+        if (cache == null) {
+            cache = QuestionPayloadCache.build(matchId, null);
+        }
+        String msg = cache.buildQuestionChangedMessage(
+                event.getQuestionIndex(),
+                event.getStatus(),
+                event.getNextQuestion(),
+                event.getTotalCorrect(),
+                event.getTotalIncorrect());
+        TraceContext trace = event.getTraceContext();
+        if (trace != null) {
+            trace.span("question-changed.encoded");
+        }
 
         String targetPlayerId = event.getPlayerId();
         if (targetPlayerId != null && !targetPlayerId.isBlank()) {
             // Unicast to the targeted player
             Player target = connectionRegistry.findConnectedPlayerByPlayerId(targetPlayerId);
-            if (target != null && target.isConnected()) {
-                target.sendMessage(Map.of(
-                        "type", WsMessageType.QUESTION_CHANGED,
-                        "payload", payload));
+            boolean sent = target != null && target.isConnected();
+            if (sent) {
+                target.sendMessage(msg);
+                recordAnswerLatency(event, service);
+            }
+            if (trace != null) {
+                trace.finish(sent ? "question-changed.sent" : "player.disconnected");
             }
             return;
         }
 
         // Broadcast to all players in the match
-        Map<String, Object> msg = Map.of(
-                "type", WsMessageType.QUESTION_CHANGED,
-                "payload", payload);
         for (String pid : new ArrayList<>(gi.getAllPlayerIds())) {
             Player p = connectionRegistry.findConnectedPlayerByPlayerId(pid);
             if (p != null && p.isConnected()) {
@@ -547,6 +601,17 @@ public class MatchManager implements EventListener {
         }
     }
 
+    /**
+     * Records the answer pipeline stages once the next question has been handed to the socket.
+     */
+    private void recordAnswerLatency(QuestionChangedEvent event, GameService service) {
+        TraceContext trace = event.getTraceContext();
+        if (trace == null) return;
+        long sentNanos = System.nanoTime();
+        service.getAnswerLatencyStats().recordAnswer(trace, sentNanos);
+        answerLatencyTotals.recordAnswer(trace, sentNanos);
+    }
+
     /**
      * Sends a {@link WsMessageType#QUESTION_LOAD_ERROR} message to every player in
      * the match when question preload fails.
@@ -652,7 +717,7 @@ public class MatchManager implements EventListener {
             return;
         }
 
-        matchCleanupScheduler.schedule(() -> cleanupFinishedMatch(matchId, service), 11, TimeUnit.SECONDS);
+        service.getClock().schedule(() -> cleanupFinishedMatch(matchId, service), 11, TimeUnit.SECONDS);
         log.info("Scheduled cleanup for finished match {}", matchId);
     }
 
@@ -661,15 +726,11 @@ public class MatchManager implements EventListener {
             return;
         }
 
-        GameGlobal gameInstance = service.getGameInstance();
-        if (gameInstance != null) {
-            for (String playerId : new ArrayList<>(gameInstance.getAllPlayerIds())) {
-                gameInstance.removePlayer(playerId);
-            }
-            gameInstance.reset();
-        }
+        // Antes del reset: los ids del índice se sacan de los jugadores que aún tiene la partida
+        forgetMatchPlayers(matchId, service);
 
-        matchPlayerNames.remove(matchId);
+        // Corre en el planificador compartido del reloj: el reset va al mailbox de la partida sin esperarlo
+        service.clearPlayersAndReset();
 
         if (activeMatches.remove(matchId) != null) {
             log.info("Match {} finished and removed from backend registry", matchId);
@@ -690,7 +751,8 @@ public class MatchManager implements EventListener {
             refreshMatchPlayerNames(matchId, service);
 
             if (players <= 0 && matchId != null && activeMatches.remove(matchId) != null) {
-                matchPlayerNames.remove(matchId);
+                service.abandon();
+                forgetMatchPlayers(matchId, service);
                 removedMatches.add(buildMatchRemovedSummary(matchId, service));
                 log.info("Match {} removed from lobby after player state recalculation", matchId);
             }
@@ -737,9 +799,9 @@ public class MatchManager implements EventListener {
             affectedPlayerIds.removeIf(id -> id == null || id.isBlank() || id.equals(playerId));
 
             for (String affectedPlayerId : affectedPlayerIds) {
-                gameInstance.removePlayer(affectedPlayerId);
+                service.removePlayerFromGame(affectedPlayerId);
             }
-            gameInstance.removePlayer(playerId);
+            service.removePlayerFromGame(playerId);
 
             for (String affectedPlayerId : affectedPlayerIds) {
                 Player affectedPlayer = connectionRegistry.findConnectedPlayerByPlayerId(affectedPlayerId);
@@ -752,8 +814,11 @@ public class MatchManager implements EventListener {
                 }
             }
 
-            matchPlayerNames.remove(currentMatchId);
+            // Los jugadores ya salieron de la partida: se olvidan por la lista tomada antes
+            affectedPlayerIds.add(playerId);
+            forgetMatchPlayers(currentMatchId, affectedPlayerIds);
             if (activeMatches.remove(currentMatchId) != null) {
+                service.abandon();
                 LobbyRoom.getInstance().broadcastMatchRemoved(buildMatchRemovedSummary(currentMatchId, service), this);
             }
 
@@ -762,7 +827,8 @@ public class MatchManager implements EventListener {
             return currentMatchId;
         }
 
-        gameInstance.removePlayer(playerId);
+        service.removePlayerFromGame(playerId);
+        playerMatchIds.remove(playerId, currentMatchId);
         refreshMatchPlayerNames(currentMatchId, service);
         log.info("Player {} left match {}", playerId, currentMatchId);
 
@@ -790,6 +856,14 @@ public class MatchManager implements EventListener {
     }
 
     public boolean submitAnswerForPlayer(String playerId, int questionIndex, int selectedOption) {
+        return submitAnswerForPlayer(playerId, questionIndex, selectedOption, null);
+    }
+
+    /**
+     * Igual que {@link #submitAnswerForPlayer(String, int, int)} pero propagando en el evento la
+     * traza del frame entrante, de la que salen también las latencias por etapa.
+     */
+    public boolean submitAnswerForPlayer(String playerId, int questionIndex, int selectedOption, TraceContext trace) {
         if (playerId == null || playerId.isBlank()) {
             log.warn("[ANSWER-ROUTE] Empty playerId. qIndex={}, option={}", questionIndex, selectedOption);
             return false;
@@ -810,7 +884,13 @@ public class MatchManager implements EventListener {
 
         log.info("[ANSWER-ROUTE] Enviando respuesta al GameService. matchId={}, playerId={}, qIndex={}, option={}",
                 currentMatchId, playerId, questionIndex, selectedOption);
-        service.publishExternal(new AnswerSubmittedEvent(playerId, questionIndex, selectedOption));
+        AnswerSubmittedEvent event = new AnswerSubmittedEvent(playerId, questionIndex, selectedOption);
+        if (trace != null) {
+            trace.setMatchId(currentMatchId);
+            trace.span("match-manager.routed");
+            event.setTraceContext(trace);
+        }
+        service.publishExternal(event);
         return true;
     }
 
@@ -906,7 +986,7 @@ public class MatchManager implements EventListener {
 
         log.info("Game creation requested by {}", player.getName());
         AIQuestionService.getInstance().startScheduledGeneration();
-        GameService gameService = new GameService(event.getConfig());
+        GameService gameService = new GameService(event.getConfig(), matchClock);
         gameService.startQuestionPreload();
         // Asignar creador y nombre de partida antes de agregar a registro
         gameService.setCreatorPlayerId(player.getPlayerID());
@@ -970,6 +1050,59 @@ public class MatchManager implements EventListener {
         }
     }
 
+    /**
+     * Crea en un solo paso una partida de emparejamiento rápido: une a todos los jugadores del grupo
+     * antes de registrarla, la anuncia en el lobby una sola vez ya completa y la arranca con su
+     * precarga de preguntas ya lanzada. Cada jugador recibe JoinMatchRequestValid seguido de
+     * MatchStarted, igual que si se hubiera unido desde el lobby.
+     *
+     * @param config  Configuración común del grupo; su jugador hace de creador
+     * @param players Jugadores emparejados, en orden de llegada a la cola
+     * @return el matchId, o null si algún jugador no pudo unirse (la partida se descarta sin
+     *         que el lobby llegue a verla)
+     */
+    public String createQuickMatch(Apalabrazos.backend.model.GamePlayerConfig config, List<Player> players) {
+        if (config == null || players == null || players.isEmpty()) {
+            return null;
+        }
+
+        AIQuestionService.getInstance().startScheduledGeneration();
+        GameService gameService = new GameService(config, matchClock);
+        gameService.startQuestionPreload();
+        gameService.setCreatorPlayerId(players.get(0).getPlayerID());
+        gameService.setGameName("Rapida " + gameService.getMatchId().substring(0, 8));
+        String matchId = gameService.getMatchId();
+
+        // Sin registrar todavía: ni el lobby ni el índice de jugadores la ven hasta que está completa
+        for (Player player : players) {
+            String currentMatchId = findJoinedMatchIdForPlayer(player.getPlayerID());
+            if (currentMatchId != null || !gameService.addPlayerToGame(player.getPlayerID(), player.getName())) {
+                log.warn("[QUICKMATCH] Player {} could not join quick match {} (current match: {}); discarding it",
+                        player.getPlayerID(), matchId, currentMatchId);
+                gameService.abandon();
+                return null;
+            }
+        }
+        addMatch(gameService);
+
+        Map<String, Object> payload = new LinkedHashMap<>(buildMatchSummary(gameService));
+        payload.put("roomId", matchId);
+        payload.put("joined", true);
+        payload.put("quickMatch", true);
+        for (Player player : players) {
+            player.sendMessage(Map.of(
+                    "type", WsMessageType.JOIN_MATCH_REQUEST_VALID,
+                    "payload", payload));
+        }
+        LobbyRoom.getInstance().broadcastMatchCreated(buildMatchSummary(gameService), this);
+
+        registerMatchNetworkBridge(matchId, gameService);
+        gameService.GameStartedValid();
+        broadcastMatchStarted(matchId, gameService);
+        log.info("[QUICKMATCH] Quick match {} created and started with {} player(s)", matchId, players.size());
+        return matchId;
+    }
+
     /**
      * Send match information back to listeners when requested from the lobby
      */
@@ -1132,8 +1265,10 @@ public class MatchManager implements EventListener {
         if (gameService != null) {
             String matchId = gameService.getMatchId();
             if (activeMatches.remove(matchId) != null) {
-                matchPlayerNames.remove(matchId);
+                gameService.abandon();
+                forgetMatchPlayers(matchId, gameService);
                 log.info("Match removed with ID: {}. Active matches: {}", matchId, activeMatches.size());
+                LobbyRoom.getInstance().broadcastMatchRemovedIfListed(buildMatchRemovedSummary(matchId, gameService), this);
             }
         }
     }
@@ -1144,9 +1279,12 @@ public class MatchManager implements EventListener {
      * @param matchId The unique match ID
      */
     public void removeMatchById(String matchId) {
-        if (matchId != null && activeMatches.remove(matchId) != null) {
-            matchPlayerNames.remove(matchId);
+        GameService removed = matchId != null ? activeMatches.remove(matchId) : null;
+        if (removed != null) {
+            removed.abandon();
+            forgetMatchPlayers(matchId, removed);
             log.info("Match removed with ID: {}. Active matches: {}", matchId, activeMatches.size());
+            LobbyRoom.getInstance().broadcastMatchRemovedIfListed(buildMatchRemovedSummary(matchId, removed), this);
         }
     }
 
@@ -1159,6 +1297,18 @@ public class MatchManager implements EventListener {
         return new ArrayList<>(activeMatches.values());
     }
 
+    /**
+     * Cambiar el reloj de las partidas que se creen a partir de ahora.
+     * Las simulaciones headless usan un {@link VirtualMatchClock}.
+     */
+    public void setMatchClock(MatchClock clock) {
+        this.matchClock = clock != null ? clock : MatchClock.system();
+    }
+
+    public MatchClock getMatchClock() {
+        return matchClock;
+    }
+
     /**
      * Get the number of active matches
      *
@@ -1168,6 +1318,21 @@ public class MatchManager implements EventListener {
         return activeMatches.size();
     }
 
+    /**
+     * Resumen de latencias del pipeline de respuestas: acumulado global y por partida activa.
+     */
+    public Map<String, Object> getAnswerLatencySummary() {
+        Map<String, Object> matches = new LinkedHashMap<>();
+        for (Map.Entry<String, GameService> entry : activeMatches.entrySet()) {
+            matches.put(entry.getKey(), entry.getValue().getAnswerLatencyStats().snapshot());
+        }
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("all", answerLatencyTotals.snapshot());
+        summary.put("matches", matches);
+        return summary;
+    }
+
     /**
      * Get a specific match by its ID
      *
@@ -1192,8 +1357,14 @@ public class MatchManager implements EventListener {
      * Clear all active matches
      */
     public void clearAllMatches() {
+        for (Map.Entry<String, GameService> entry : new ArrayList<>(activeMatches.entrySet())) {
+            LobbyRoom.getInstance().broadcastMatchRemovedIfListed(
+                    buildMatchRemovedSummary(entry.getKey(), entry.getValue()), this);
+            entry.getValue().abandon();
+        }
         activeMatches.clear();
         matchPlayerNames.clear();
+        playerMatchIds.clear();
         log.info("All matches cleared");
     }
 
@@ -1218,6 +1389,28 @@ public class MatchManager implements EventListener {
         }
 
         matchPlayerNames.put(matchId, buildPlayerNamesSnapshot(service));
+        GameGlobal game = service.getGameInstance();
+        if (game != null) {
+            for (String playerId : game.getAllPlayerIds()) {
+                playerMatchIds.put(playerId, matchId);
+            }
+        }
+    }
+
+    private void forgetMatchPlayers(String matchId, GameService service) {
+        GameGlobal game = service != null ? service.getGameInstance() : null;
+        forgetMatchPlayers(matchId, game != null ? game.getAllPlayerIds() : List.of());
+    }
+
+    /**
+     * Olvidar los nombres de la partida y las entradas del índice de sus jugadores. Solo se tocan
+     * los ids dados; una entrada que se escape la descarta findJoinedMatchIdForPlayer al consultarla.
+     */
+    private void forgetMatchPlayers(String matchId, Collection<String> playerIds) {
+        matchPlayerNames.remove(matchId);
+        for (String playerId : playerIds) {
+            playerMatchIds.remove(playerId, matchId);
+        }
     }
 
     private List<String> buildPlayerNamesSnapshot(GameService service) {
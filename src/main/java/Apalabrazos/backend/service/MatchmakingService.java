@@ -0,0 +1,337 @@
+package Apalabrazos.backend.service;
+
+import Apalabrazos.backend.metrics.LatencyHistogram;
+import Apalabrazos.backend.metrics.MetricsRegistry;
+import Apalabrazos.backend.model.GamePlayerConfig;
+import Apalabrazos.backend.model.GameType;
+import Apalabrazos.backend.model.Player;
+import Apalabrazos.backend.model.QuestionLevel;
+import Apalabrazos.backend.network.WsMessageType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * Cola de emparejamiento rápido.
+ * <p>
+ * Cada jugador se encola con sus preferencias (dificultad, tiempo, jugadores) en el cubo de las
+ * configuraciones compatibles ({@link BucketKey}). Encolar y cancelar son O(1): la cancelación solo
+ * marca el ticket, que se descarta al sacarlo. En cada tick (QUICKMATCH_TICK_MS) cada cubo con
+ * jugadores suficientes se reparte en grupos de {@code maxPlayers} en orden de llegada, y cada grupo
+ * se convierte en una partida ya creada, con la precarga de preguntas lanzada y arrancada
+ * ({@link MatchManager#createQuickMatch}).
+ */
+public class MatchmakingService {
+
+    private static final Logger log = LoggerFactory.getLogger(MatchmakingService.class);
+
+    // Desde que el jugador se encola hasta que entra en una partida
+    private static final LatencyHistogram WAIT_TIME =
+            MetricsRegistry.getInstance().histogram("apalabrazos_quickmatch_wait_seconds",
+                    "Time from joining the quick-match queue to being placed in a match");
+
+    private static volatile MatchmakingService instance;
+
+    private final MatchStarter starter;
+    /** Preferencias compatibles -> jugadores en espera, en orden de llegada */
+    private final Map<BucketKey, Bucket> buckets = new ConcurrentHashMap<>();
+    /** playerId -> su ticket en cola */
+    private final Map<String, Ticket> tickets = new ConcurrentHashMap<>();
+
+    MatchmakingService(MatchStarter starter) {
+        this.starter = starter;
+    }
+
+    public static MatchmakingService getInstance() {
+        if (instance == null) {
+            synchronized (MatchmakingService.class) {
+                if (instance == null) {
+                    MatchmakingService service = new MatchmakingService(new MatchManagerStarter());
+                    service.startTicker(readEnvInt("QUICKMATCH_TICK_MS", 500));
+                    instance = service;
+                }
+            }
+        }
+        return instance;
+    }
+
+    private void startTicker(long tickMillis) {
+        ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "quickmatch-ticker");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(10, tickMillis);
+        ticker.scheduleWithFixedDelay(() -> {
+            try {
+                tick();
+            } catch (Exception e) {
+                log.error("[QUICKMATCH] Error on matchmaking tick: {}", e.getMessage(), e);
+            }
+        }, period, period, TimeUnit.MILLISECONDS);
+        MetricsRegistry.getInstance().gauge("apalabrazos_quickmatch_waiting_players",
+                "Players waiting in the quick-match queue", this::getWaitingCount);
+        log.info("[QUICKMATCH] Matchmaking ticker started (every {} ms)", period);
+    }
+
+    /**
+     * Encolar a un jugador con sus preferencias.
+     *
+     * @return null si queda en cola, o la causa por la que se rechaza
+     */
+    public String enqueue(Player player, GamePlayerConfig preferences) {
+        if (player == null || preferences == null) {
+            return "Jugador o preferencias no válidos.";
+        }
+        String invalid = starter.validate(preferences);
+        if (invalid != null) {
+            return invalid;
+        }
+        if (starter.isInMatch(player.getPlayerID())) {
+            return "Ya estás dentro de una partida. Debes salir antes de buscar otra.";
+        }
+        BucketKey key = BucketKey.of(preferences);
+        Bucket bucket = buckets.computeIfAbsent(key, k -> new Bucket());
+        Ticket ticket = new Ticket(player, bucket, System.nanoTime());
+        Ticket previous = tickets.put(player.getPlayerID(), ticket);
+        if (previous != null) {
+            // Volver a buscar sustituye las preferencias anteriores
+            previous.bucket.cancel(previous);
+        }
+        bucket.offer(ticket);
+        log.info("[QUICKMATCH] Player {} queued for {} ({} waiting)", player.getPlayerID(), key, bucket.size());
+        return null;
+    }
+
+    /**
+     * Sacar a un jugador de la cola.
+     *
+     * @return true si estaba esperando
+     */
+    public boolean cancel(String playerId) {
+        Ticket ticket = playerId != null ? tickets.remove(playerId) : null;
+        return ticket != null && ticket.bucket.cancel(ticket);
+    }
+
+    /**
+     * Formar las partidas de los cubos con jugadores suficientes.
+     *
+     * @return el número de partidas creadas
+     */
+    int tick() {
+        int created = 0;
+        for (Map.Entry<BucketKey, Bucket> entry : buckets.entrySet()) {
+            BucketKey key = entry.getKey();
+            Bucket bucket = entry.getValue();
+            while (bucket.size() >= key.maxPlayers()) {
+                List<Ticket> group = bucket.takeGroup(key.maxPlayers(), this::isEligible, this::isStillQueued);
+                if (group == null) {
+                    break;
+                }
+                if (startMatch(key, group)) {
+                    created++;
+                }
+            }
+        }
+        return created;
+    }
+
+    // Quien se ha desconectado o ya ha entrado en otra partida sale de la cola
+    private boolean isEligible(Ticket ticket) {
+        Player player = ticket.player;
+        if (player.isConnected() && !starter.isInMatch(player.getPlayerID())) {
+            return true;
+        }
+        tickets.remove(player.getPlayerID(), ticket);
+        return false;
+    }
+
+    // Sigue siendo el ticket vigente del jugador (no canceló ni volvió a encolar)
+    private boolean isStillQueued(Ticket ticket) {
+        return tickets.get(ticket.player.getPlayerID()) == ticket;
+    }
+
+    private boolean startMatch(BucketKey key, List<Ticket> group) {
+        List<Player> players = new ArrayList<>(group.size());
+        long now = System.nanoTime();
+        for (Ticket ticket : group) {
+            tickets.remove(ticket.player.getPlayerID(), ticket);
+            players.add(ticket.player);
+        }
+        String matchId = starter.start(key.toConfig(players.get(0)), players);
+        if (matchId == null) {
+            log.warn("[QUICKMATCH] Could not start a {} match for {} players", key, players.size());
+            for (Player player : players) {
+                player.sendMessage(Map.of(
+                        "type", WsMessageType.QUICK_MATCH_CANCELLED,
+                        "payload", Map.of("cause", "No se pudo crear la partida. Vuelve a intentarlo.")));
+            }
+            return false;
+        }
+        for (Ticket ticket : group) {
+            WAIT_TIME.recordNanos(now - ticket.enqueuedNanos);
+        }
+        log.info("[QUICKMATCH] Match {} started for {} players ({})", matchId, players.size(), key);
+        return true;
+    }
+
+    public int getWaitingCount() {
+        int total = 0;
+        for (Bucket bucket : buckets.values()) {
+            total += bucket.size();
+        }
+        return total;
+    }
+
+    public boolean isQueued(String playerId) {
+        return playerId != null && tickets.containsKey(playerId);
+    }
+
+    private static int readEnvInt(String key, int defaultValue) {
+        String value = System.getenv(key);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Preferencias que deben coincidir para jugar juntos.
+     */
+    public record BucketKey(QuestionLevel difficulty, int timerSeconds, int maxPlayers, GameType gameType,
+            int questionNumber) {
+
+        static BucketKey of(GamePlayerConfig config) {
+            return new BucketKey(config.getDifficultyLevel(), config.getTimerSeconds(), config.getMaxPlayers(),
+                    config.getGameType(), config.getQuestionNumber());
+        }
+
+        GamePlayerConfig toConfig(Player creator) {
+            GamePlayerConfig config = new GamePlayerConfig(creator, timerSeconds, difficulty, maxPlayers, questionNumber);
+            config.setGameType(gameType);
+            return config;
+        }
+    }
+
+    /**
+     * Jugadores en espera de un cubo. Encolan muchos hilos; solo el tick saca, así que puede
+     * devolver a la cabeza los tickets de un grupo incompleto sin perder el orden de llegada.
+     */
+    private static final class Bucket {
+        private final ConcurrentLinkedDeque<Ticket> queue = new ConcurrentLinkedDeque<>();
+        /** Tickets vivos (sin cancelar ni emparejar) */
+        private final AtomicInteger waiting = new AtomicInteger();
+
+        void offer(Ticket ticket) {
+            waiting.incrementAndGet();
+            queue.offerLast(ticket);
+        }
+
+        boolean cancel(Ticket ticket) {
+            if (ticket.claimed.compareAndSet(false, true)) {
+                waiting.decrementAndGet();
+                return true;
+            }
+            return false;
+        }
+
+        int size() {
+            return waiting.get();
+        }
+
+        /**
+         * Sacar {@code groupSize} tickets vivos y elegibles; los no elegibles se descartan.
+         * Null si no se completa el grupo (los sacados vuelven a la cabeza, en su orden, salvo los
+         * que dejaron de estar en cola mientras estaban sacados).
+         */
+        List<Ticket> takeGroup(int groupSize, Predicate<Ticket> eligible, Predicate<Ticket> stillQueued) {
+            List<Ticket> group = new ArrayList<>(groupSize);
+            Ticket ticket;
+            while (group.size() < groupSize && (ticket = queue.pollFirst()) != null) {
+                if (!ticket.claimed.compareAndSet(false, true)) {
+                    continue; // cancelado
+                }
+                waiting.decrementAndGet();
+                if (eligible.test(ticket)) {
+                    group.add(ticket);
+                }
+            }
+            if (group.size() < groupSize) {
+                for (int i = group.size() - 1; i >= 0; i--) {
+                    Ticket member = group.get(i);
+                    member.claimed.set(false);
+                    waiting.incrementAndGet();
+                    // Un cancel() que llegó con el ticket sacado no pudo marcarlo: se descarta aquí.
+                    // Se libera antes de comprobar para que un cancel() posterior sí lo marque.
+                    if (!stillQueued.test(member)) {
+                        cancel(member);
+                        continue;
+                    }
+                    queue.offerFirst(member);
+                }
+                return null;
+            }
+            return group;
+        }
+    }
+
+    private static final class Ticket {
+        final Player player;
+        final Bucket bucket;
+        final long enqueuedNanos;
+        final AtomicBoolean claimed = new AtomicBoolean();
+
+        Ticket(Player player, Bucket bucket, long enqueuedNanos) {
+            this.player = player;
+            this.bucket = bucket;
+            this.enqueuedNanos = enqueuedNanos;
+        }
+    }
+
+    /**
+     * Lo que el emparejamiento necesita de {@link MatchManager}; sustituible en los tests.
+     */
+    interface MatchStarter {
+
+        /** Causa por la que las preferencias no son válidas, o null. */
+        String validate(GamePlayerConfig preferences);
+
+        boolean isInMatch(String playerId);
+
+        /** Crear, unir y arrancar la partida; devuelve su matchId o null si falla. */
+        String start(GamePlayerConfig config, List<Player> players);
+    }
+
+    private static final class MatchManagerStarter implements MatchStarter {
+
+        @Override
+        public String validate(GamePlayerConfig preferences) {
+            return MatchManager.getInstance().validateMatchSettings(preferences);
+        }
+
+        @Override
+        public boolean isInMatch(String playerId) {
+            return MatchManager.getInstance().isPlayerInMatch(playerId);
+        }
+
+        @Override
+        public String start(GamePlayerConfig config, List<Player> players) {
+            return MatchManager.getInstance().createQuickMatch(config, players);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package Apalabrazos.backend.service;
+
+import Apalabrazos.backend.model.QuestionList;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Baterías de preguntas ya generadas, listas para entregar a una partida nueva.
+ * <p>
+ * Cuando las baterías listas más las que se están generando bajan de la marca mínima, se encargan
+ * en segundo plano las que faltan hasta la máxima, con como mucho {@code refillConcurrency}
+ * generaciones en curso. Cada batería se entrega una sola vez.
+ * <p>
+ * Hay un único pool para todas las dificultades: el generador todavía no distingue niveles, así
+ * que un pool por nivel solo multiplicaría la carga de arranque con baterías equivalentes.
+ */
+final class QuestionBatteryPool {
+
+    private static final Logger log = LoggerFactory.getLogger(QuestionBatteryPool.class);
+
+    /**
+     * Genera una batería completa.
+     */
+    interface BatterySource {
+        QuestionList generate() throws Exception;
+    }
+
+    private final int minReady;
+    private final int maxReady;
+    private final Semaphore refillPermits;
+    private final Executor executor;
+    private final BatterySource source;
+    private final ConcurrentLinkedQueue<QuestionList> ready = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger readyCount = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    QuestionBatteryPool(int minReady, int maxReady, int refillConcurrency, Executor executor, BatterySource source) {
+        // Con máximo 0 el pool queda desactivado; si no, se repone como tarde al vaciarse
+        this.maxReady = Math.max(0, maxReady);
+        this.minReady = Math.min(Math.max(1, minReady), this.maxReady);
+        this.refillPermits = new Semaphore(Math.max(1, refillConcurrency));
+        this.executor = executor;
+        this.source = source;
+    }
+
+    boolean isEnabled() {
+        return maxReady > 0;
+    }
+
+    /**
+     * Sacar una batería lista y, si hace falta, encargar reposición.
+     *
+     * @return la batería, o null si no queda ninguna (la partida tendrá que generarla en vivo)
+     */
+    QuestionList take() {
+        if (!isEnabled()) {
+            return null;
+        }
+        QuestionList battery = ready.poll();
+        if (battery != null) {
+            readyCount.decrementAndGet();
+        }
+        refillIfLow();
+        return battery;
+    }
+
+    /**
+     * Encargar las baterías que falten (arranque).
+     */
+    void fill() {
+        refillIfLow();
+    }
+
+    private void refillIfLow() {
+        if (!isEnabled()) {
+            return;
+        }
+        while (true) {
+            int pending = inFlight.get();
+            int total = readyCount.get() + pending;
+            if (total >= minReady) {
+                return;
+            }
+            int missing = maxReady - total;
+            if (inFlight.compareAndSet(pending, pending + missing)) {
+                log.info("[AI-POOL] Refilling {} batteries (ready={}, in flight={})",
+                        missing, readyCount.get(), pending);
+                for (int i = 0; i < missing; i++) {
+                    executor.execute(this::refillOne);
+                }
+                return;
+            }
+        }
+    }
+
+    private void refillOne() {
+        boolean acquired = false;
+        try {
+            refillPermits.acquire();
+            acquired = true;
+            QuestionList battery = source.generate();
+            if (battery != null && battery.getCurrentLength() > 0) {
+                ready.offer(battery);
+                readyCount.incrementAndGet();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            // Sin reintento inmediato: la siguiente partida que encuentre el pool bajo lo vuelve a pedir
+            log.warn("[AI-POOL] Could not refill a battery: {}", e.getMessage());
+        } finally {
+            if (acquired) {
+                refillPermits.release();
+            }
+            inFlight.decrementAndGet();
+        }
+    }
+
+    int readyCount() {
+        return readyCount.get();
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,235 @@
+package Apalabrazos.backend.service;
+
+import Apalabrazos.backend.metrics.MetricsRegistry;
+import Apalabrazos.backend.model.Question;
+import Apalabrazos.backend.model.QuestionList;
+import Apalabrazos.backend.model.QuestionStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Generaciones de baterías con IA compartidas entre precargas simultáneas.
+ * <p>
+ * Una petición se une al vuelo abierto (el que aún espera turno para llamar al LLM) o abre uno
+ * nuevo. Cuando el vuelo consigue permiso genera una sola batería, del tamaño de la mayor petición,
+ * y cada petición recibe su propia copia recortada a las preguntas que pidió. Todo lo que llama al
+ * LLM pasa por el mismo semáforo, así que nunca hay más de {@code maxConcurrent} generaciones en
+ * curso; con el endpoint saturado las peticiones que llegan se acumulan en el vuelo abierto en vez
+ * de encolar generaciones repetidas.
+ * <p>
+ * Las peticiones de un mismo vuelo reciben las mismas preguntas (instancias distintas, mismo
+ * contenido): las partidas que coinciden juegan el mismo rosco. Con {@code maxWaiters} = 1 cada
+ * petición tiene su propia generación y no se comparte nada.
+ * <p>
+ * Cancelar el future de una petición la saca del vuelo. Si se cancelan todas, el vuelo se abandona:
+ * no llega a generar o, si ya está generando, se interrumpe su hilo para que corte las llamadas al LLM.
+ */
+final class QuestionGenerationCoordinator {
+
+    private static final Logger log = LoggerFactory.getLogger(QuestionGenerationCoordinator.class);
+
+    // Peticiones que lanzaron la generación (leader) o se sumaron a otra (coalesced)
+    private static final MetricsRegistry.Family<LongAdder> REQUESTS =
+            MetricsRegistry.getInstance().counterFamily("apalabrazos_ai_generation_requests_total",
+                    "Live question generation requests, by whether they started or joined a generation", "mode");
+
+    /**
+     * Genera una batería con al menos las preguntas pedidas (en orden de rosco).
+     */
+    interface BatterySource {
+        QuestionList generate(int questions) throws Exception;
+    }
+
+    private final int maxConcurrent;
+    private final int maxWaiters;
+    private final Semaphore permits;
+    private final Executor executor;
+    private final BatterySource source;
+
+    /** Vuelo que todavía admite peticiones; guarded by this */
+    private Flight open;
+
+    QuestionGenerationCoordinator(int maxConcurrent, int maxWaiters, Executor executor, BatterySource source) {
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.maxWaiters = Math.max(1, maxWaiters);
+        this.permits = new Semaphore(this.maxConcurrent, true);
+        this.executor = executor;
+        this.source = source;
+    }
+
+    /**
+     * Pedir una batería de {@code questions} preguntas, compartiendo generación si hay una esperando turno.
+     */
+    CompletableFuture<QuestionList> request(int questions) {
+        CompletableFuture<QuestionList> future = new CompletableFuture<>();
+        Flight flight;
+        boolean leader = false;
+        synchronized (this) {
+            if (open == null || open.waiters.size() >= maxWaiters) {
+                open = new Flight();
+                leader = true;
+            }
+            flight = open;
+            flight.waiters.add(new Waiter(questions, future));
+            flight.maxQuestions = Math.max(flight.maxQuestions, questions);
+        }
+        future.whenComplete((battery, error) -> {
+            if (future.isCancelled()) {
+                abandonIfUnwanted(flight);
+            }
+        });
+        REQUESTS.labels(leader ? "leader" : "coalesced").increment();
+        if (leader) {
+            executor.execute(() -> run(flight));
+        }
+        return future;
+    }
+
+    /**
+     * Ejecutar otra llamada al LLM (pool, letras sueltas, generación programada) dentro del mismo límite.
+     */
+    <T> T withPermit(Callable<T> call) throws Exception {
+        permits.acquire();
+        try {
+            return call.call();
+        } finally {
+            permits.release();
+        }
+    }
+
+    int inFlight() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    private void run(Flight flight) {
+        synchronized (this) {
+            if (flight.abandoned) {
+                return;
+            }
+            flight.runner = Thread.currentThread();
+        }
+        try {
+            runWithPermit(flight);
+        } finally {
+            boolean abandoned;
+            synchronized (this) {
+                flight.runner = null;
+                abandoned = flight.abandoned;
+            }
+            if (abandoned) {
+                // La interrupción era para esta generación, no para quien ejecute la siguiente tarea
+                Thread.interrupted();
+            }
+        }
+    }
+
+    private void runWithPermit(Flight flight) {
+        List<Waiter> waiters;
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fail(close(flight), e);
+            return;
+        }
+        try {
+            waiters = close(flight);
+            if (isAbandoned(flight)) {
+                log.info("[AI-COALESCE] Every preload waiting for this generation was cancelled; skipping it");
+                return;
+            }
+            int questions = flight.maxQuestions;
+            if (waiters.size() > 1) {
+                log.info("[AI-COALESCE] One generation of {} questions for {} waiting preloads", questions, waiters.size());
+            }
+            QuestionList battery;
+            try {
+                battery = source.generate(questions);
+            } catch (Exception e) {
+                fail(waiters, e);
+                return;
+            }
+            for (Waiter waiter : waiters) {
+                if (battery == null || battery.getCurrentLength() < waiter.questions) {
+                    waiter.future.completeExceptionally(new IllegalStateException("AI generated only "
+                            + (battery == null ? 0 : battery.getCurrentLength()) + " questions out of "
+                            + waiter.questions + " requested."));
+                } else {
+                    waiter.future.complete(copyOf(battery, waiter.questions));
+                }
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    // A partir de aquí las peticiones nuevas abren otro vuelo
+    private synchronized List<Waiter> close(Flight flight) {
+        if (open == flight) {
+            open = null;
+        }
+        return new ArrayList<>(flight.waiters);
+    }
+
+    private synchronized boolean isAbandoned(Flight flight) {
+        return flight.abandoned;
+    }
+
+    /**
+     * Si ya nadie espera el vuelo, abandonarlo e interrumpir la generación en curso.
+     */
+    private synchronized void abandonIfUnwanted(Flight flight) {
+        if (flight.abandoned || !flight.waiters.stream().allMatch(waiter -> waiter.future.isCancelled())) {
+            return;
+        }
+        flight.abandoned = true;
+        if (open == flight) {
+            open = null;
+        }
+        if (flight.runner != null) {
+            log.info("[AI-COALESCE] Every preload waiting for this generation was cancelled; interrupting it");
+            flight.runner.interrupt();
+        }
+    }
+
+    private static void fail(List<Waiter> waiters, Exception cause) {
+        for (Waiter waiter : waiters) {
+            waiter.future.completeExceptionally(cause);
+        }
+    }
+
+    /**
+     * Cada partida juega con sus propias instancias: el estado de las preguntas cambia durante el juego.
+     */
+    static QuestionList copyOf(QuestionList battery, int questions) {
+        List<Question> source = battery.getQuestionList();
+        int count = Math.min(questions, source.size());
+        List<Question> copy = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Question q = source.get(i);
+            copy.add(new Question(q.getQuestionText(), q.getQuestionResponsesList(), q.getCorrectQuestionIndex(),
+                    QuestionStatus.INIT, q.getQuestionLevel(), q.getQuestionLetter(), "init"));
+        }
+        return new QuestionList(copy, questions);
+    }
+
+    private static final class Flight {
+        private final List<Waiter> waiters = new ArrayList<>();
+        private int maxQuestions;
+        /** Hilo que ejecuta el vuelo; guarded by the coordinator */
+        private Thread runner;
+        /** Todas sus peticiones se cancelaron; guarded by the coordinator */
+        private boolean abandoned;
+    }
+
+    private record Waiter(int questions, CompletableFuture<QuestionList> future) {
+    }
+}
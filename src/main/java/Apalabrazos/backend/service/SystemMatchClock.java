@@ -0,0 +1,50 @@
+package Apalabrazos.backend.service;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link MatchClock} de reloj de pared.
+ * Un único planificador compartido (hilos daemon) sustituye al hilo dormido por partida:
+ * las tareas solo publican eventos o encolan trabajo en el buzón de la partida, así que
+ * dos hilos bastan para cualquier número de partidas.
+ */
+final class SystemMatchClock implements MatchClock {
+
+    static final SystemMatchClock INSTANCE = new SystemMatchClock();
+
+    private final ScheduledThreadPoolExecutor scheduler;
+
+    private SystemMatchClock() {
+        AtomicInteger counter = new AtomicInteger();
+        this.scheduler = new ScheduledThreadPoolExecutor(2, r -> {
+            Thread thread = new Thread(r, "match-clock-" + counter.incrementAndGet());
+            thread.setDaemon(true); // No bloquea salida de la app
+            return thread;
+        });
+        // Los timeouts cancelados (lo normal) no se quedan en la cola hasta vencer
+        this.scheduler.setRemoveOnCancelPolicy(true);
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    @Override
+    public long nanoTime() {
+        return System.nanoTime();
+    }
+
+    @Override
+    public ScheduledFuture<?> schedule(Runnable task, long delay, TimeUnit unit) {
+        return scheduler.schedule(task, delay, unit);
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable task, long initialDelay, long period, TimeUnit unit) {
+        return scheduler.scheduleAtFixedRate(task, initialDelay, period, unit);
+    }
+}
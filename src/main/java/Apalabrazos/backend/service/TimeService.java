@@ -5,15 +5,23 @@ import Apalabrazos.backend.events.TimerTickEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
 /**
- * Usa un único Thread con un bucle y sleep de 1 segundo.
+ * Publica un TimerTickEvent por segundo para una partida.
+ * El ritmo lo marca el {@link MatchClock} de la partida: reloj de pared en producción
+ * o {@link VirtualMatchClock} en simulaciones, donde el tick espera a que GameService
+ * lo procese antes de que el reloj siga avanzando.
  */
 public class TimeService {
 
     private static final Logger log = LoggerFactory.getLogger(TimeService.class);
 
     private final String matchId;
-    private Thread worker;
+    private final MatchClock clock;
+    private ScheduledFuture<?> ticker;
     private volatile boolean running = false;
 
     public TimeService() {
@@ -21,40 +29,41 @@ public class TimeService {
     }
 
     public TimeService(String matchId) {
+        this(matchId, MatchClock.system());
+    }
+
+    public TimeService(String matchId, MatchClock clock) {
         this.matchId = matchId;
+        this.clock = clock != null ? clock : MatchClock.system();
     }
 
-    // Inicia el hilo si aún no está iniciado
+    // Inicia el tick periódico si aún no está iniciado
     public synchronized void start() {
         if (running) return;
         running = true;
         log.info("TimeService started");
-        worker = new Thread(() -> {
-            while (running) {
-                try {
-                    Thread.sleep(1000);
-                } catch (InterruptedException e) {
-                    // Si interrumpen el hilo, salimos del bucle
-                    break;
-                }
-
-                if (!running)
-                    break;
-                log.debug("[ASYNC-BUS][SEND][TimeService->GameService] Publishing TimerTickEvent matchId={}", matchId);
+        ticker = clock.scheduleAtFixedRate(this::tick, 1, 1, TimeUnit.SECONDS);
+    }
+
+    private void tick() {
+        if (!running)
+            return;
+        log.debug("[ASYNC-BUS][SEND][TimeService->GameService] Publishing TimerTickEvent matchId={}", matchId);
+        CompletableFuture<Void> delivered =
                 GlobalAsyncEventBus.publish(new TimerTickEvent(0, matchId)); // GameService manages the real value
-            }
-        }, "TimeService_Thread");
-        worker.setDaemon(true); // No bloquea salida de la app
-        worker.start();
+        if (clock.isSimulated()) {
+            // En tiempo virtual el siguiente tick no puede adelantarse al procesamiento de este
+            delivered.join();
+        }
     }
 
-    // Detiene el hilo
+    // Detiene el tick
     public synchronized void stop() {
         if (!running)
             return;
         running = false;
-        if (worker != null) {
-            worker.interrupt();
+        if (ticker != null) {
+            ticker.cancel(false);
         }
         log.info("TimeService stopped");
     }
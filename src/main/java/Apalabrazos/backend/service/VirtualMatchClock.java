@@ -0,0 +1,229 @@
+package Apalabrazos.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * {@link MatchClock} de tiempo virtual para simulaciones headless y tests.
+ * <p>
+ * El tiempo está parado hasta que se llama a {@link #advance(long, TimeUnit)} o
+ * {@link #advanceUntilIdle(long, TimeUnit)}: entonces se ejecutan, en el hilo que avanza
+ * y en orden de vencimiento, todas las tareas que caen dentro del intervalo. Así miles
+ * de partidas completas (ticks, timeouts de GameControllerReady, limpieza) se simulan
+ * en segundos y de forma reproducible.
+ */
+public class VirtualMatchClock implements MatchClock {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualMatchClock.class);
+
+    private final PriorityQueue<VirtualTask> tasks = new PriorityQueue<>();
+    private final long startEpochMillis;
+    private long nowNanos;
+    private long sequence;
+
+    public VirtualMatchClock() {
+        this(0L);
+    }
+
+    /**
+     * @param startEpochMillis valor de {@link #currentTimeMillis()} en el instante cero
+     */
+    public VirtualMatchClock(long startEpochMillis) {
+        this.startEpochMillis = startEpochMillis;
+    }
+
+    @Override
+    public synchronized long currentTimeMillis() {
+        return startEpochMillis + TimeUnit.NANOSECONDS.toMillis(nowNanos);
+    }
+
+    @Override
+    public synchronized long nanoTime() {
+        return nowNanos;
+    }
+
+    @Override
+    public ScheduledFuture<?> schedule(Runnable task, long delay, TimeUnit unit) {
+        return enqueue(task, unit.toNanos(Math.max(0, delay)), 0L);
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable task, long initialDelay, long period, TimeUnit unit) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("period must be > 0");
+        }
+        return enqueue(task, unit.toNanos(Math.max(0, initialDelay)), unit.toNanos(period));
+    }
+
+    @Override
+    public boolean isSimulated() {
+        return true;
+    }
+
+    /**
+     * Avanzar el reloj ejecutando todas las tareas que vencen en el intervalo.
+     * Las tareas que programan otras tareas dentro del intervalo también se ejecutan.
+     *
+     * @return número de tareas ejecutadas
+     */
+    public int advance(long amount, TimeUnit unit) {
+        long target;
+        synchronized (this) {
+            target = nowNanos + unit.toNanos(amount);
+        }
+        int executed = runDueTasks(target);
+        synchronized (this) {
+            if (nowNanos < target) {
+                nowNanos = target;
+            }
+        }
+        return executed;
+    }
+
+    /**
+     * Avanzar hasta que no queden tareas pendientes o se alcance el límite indicado
+     * (las tareas periódicas nunca se agotan solas).
+     *
+     * @return número de tareas ejecutadas
+     */
+    public int advanceUntilIdle(long limit, TimeUnit unit) {
+        long target;
+        synchronized (this) {
+            target = nowNanos + unit.toNanos(limit);
+        }
+        return runDueTasks(target);
+    }
+
+    /**
+     * Número de tareas programadas (incluidas las periódicas).
+     */
+    public synchronized int pendingTasks() {
+        return tasks.size();
+    }
+
+    private synchronized VirtualTask enqueue(Runnable task, long delayNanos, long periodNanos) {
+        VirtualTask scheduled = new VirtualTask(task, nowNanos + delayNanos, periodNanos, sequence++);
+        tasks.add(scheduled);
+        return scheduled;
+    }
+
+    private int runDueTasks(long targetNanos) {
+        int executed = 0;
+        while (true) {
+            VirtualTask next;
+            synchronized (this) {
+                next = tasks.peek();
+                if (next == null || next.dueNanos > targetNanos) {
+                    return executed;
+                }
+                tasks.poll();
+                nowNanos = Math.max(nowNanos, next.dueNanos);
+            }
+            // Se ejecuta fuera del lock: la tarea puede programar o cancelar otras
+            next.runOnce();
+            executed++;
+        }
+    }
+
+    private synchronized void reschedule(VirtualTask task) {
+        task.dueNanos += task.periodNanos;
+        task.order = sequence++;
+        tasks.add(task);
+    }
+
+    private synchronized void remove(VirtualTask task) {
+        tasks.remove(task);
+    }
+
+    /**
+     * Tarea programada en tiempo virtual.
+     */
+    private final class VirtualTask implements ScheduledFuture<Object> {
+
+        private final Runnable task;
+        private final long periodNanos;
+        private final CompletableFuture<Object> completion = new CompletableFuture<>();
+        private long dueNanos;
+        private long order;
+
+        private VirtualTask(Runnable task, long dueNanos, long periodNanos, long order) {
+            this.task = task;
+            this.dueNanos = dueNanos;
+            this.periodNanos = periodNanos;
+            this.order = order;
+        }
+
+        private void runOnce() {
+            if (completion.isDone()) {
+                return;
+            }
+            try {
+                task.run();
+            } catch (Throwable e) {
+                // Igual que ScheduledExecutorService: una tarea periódica que falla no se repite
+                log.error("[VIRTUAL-CLOCK] ❌ Error running scheduled task: {}", e.getMessage(), e);
+                completion.completeExceptionally(e);
+                return;
+            }
+            if (periodNanos > 0) {
+                if (!completion.isDone()) {
+                    reschedule(this);
+                }
+            } else {
+                completion.complete(null);
+            }
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueNanos - nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            if (other instanceof VirtualTask that) {
+                int byDue = Long.compare(this.dueNanos, that.dueNanos);
+                return byDue != 0 ? byDue : Long.compare(this.order, that.order);
+            }
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = completion.cancel(false);
+            if (cancelled) {
+                remove(this);
+            }
+            return cancelled;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return completion.isCancelled();
+        }
+
+        @Override
+        public boolean isDone() {
+            return completion.isDone();
+        }
+
+        @Override
+        public Object get() throws InterruptedException, ExecutionException {
+            return completion.get();
+        }
+
+        @Override
+        public Object get(long timeout, TimeUnit unit)
+                throws InterruptedException, ExecutionException, TimeoutException {
+            return completion.get(timeout, unit);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package Apalabrazos.backend.simulation;
+
+import Apalabrazos.backend.network.MessageSender;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * MessageSender en memoria para bots de carga.
+ * <p>
+ * Igual que {@link Apalabrazos.backend.network.MockMessageSender} no toca la red, pero en
+ * vez de acumular los mensajes en una lista se los entrega al bot en el momento, y es
+ * seguro frente a envíos concurrentes (el backend envía desde varios hilos a la vez).
+ * Así miles de bots no retienen en memoria todo el tráfico de una partida.
+ */
+public class BotMessageSender implements MessageSender {
+
+    private static final Logger log = LoggerFactory.getLogger(BotMessageSender.class);
+
+    private final Consumer<Object> onMessage;
+    private final LongAdder messagesReceived = new LongAdder();
+    private volatile boolean connected = true;
+
+    public BotMessageSender(Consumer<Object> onMessage) {
+        this.onMessage = onMessage;
+    }
+
+    @Override
+    public void send(Object message) {
+        if (!connected || message == null) {
+            return;
+        }
+        messagesReceived.increment();
+        try {
+            onMessage.accept(message);
+        } catch (Exception e) {
+            // Un bot que falla no debe romper el hilo del backend que le envía
+            log.warn("[BOT] Error handling message: {}", e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public boolean isConnected() {
+        return connected;
+    }
+
+    @Override
+    public void close() {
+        this.connected = false;
+    }
+
+    /**
+     * Número de mensajes recibidos desde que se creó el sender
+     */
+    public long getMessageCount() {
+        return messagesReceived.sum();
+    }
+}
@@ -0,0 +1,233 @@
+package Apalabrazos.backend.simulation;
+
+import Apalabrazos.backend.events.GameCreationRequestedEvent;
+import Apalabrazos.backend.events.GameStartedRequestEvent;
+import Apalabrazos.backend.events.GlobalAsyncEventBus;
+import Apalabrazos.backend.metrics.LatencyHistogram;
+import Apalabrazos.backend.model.GamePlayerConfig;
+import Apalabrazos.backend.model.Player;
+import Apalabrazos.backend.model.QuestionLevel;
+import Apalabrazos.backend.network.WsMessageType;
+import Apalabrazos.backend.service.ConnectionRegistry;
+import Apalabrazos.backend.service.MatchClock;
+import Apalabrazos.backend.service.MatchManager;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Jugador simulado que habla con {@link MatchManager} igual que lo haría
+ * JavalinConnectionHandler, pero sin red: los mensajes del servidor llegan por un
+ * {@link BotMessageSender} y las acciones (crear, unirse, empezar, responder, salir)
+ * se invocan directamente.
+ * <p>
+ * Las esperas del bot (tiempo de pensar) se programan en el {@link MatchClock}
+ * de las partidas, así que con un {@link Apalabrazos.backend.service.VirtualMatchClock}
+ * el tiempo de pensar también es virtual.
+ */
+public class BotPlayer {
+
+    private static final Logger log = LoggerFactory.getLogger(BotPlayer.class);
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Player player;
+    private final BotMessageSender sender;
+    private final ThinkTime thinkTime;
+    private final double passProbability;
+    private final Random random;
+    private final MatchClock clock;
+    private final LatencyHistogram roundTripHistogram;
+    private final MatchManager matchManager = MatchManager.getInstance();
+
+    private final CompletableFuture<String> roomCreated = new CompletableFuture<>();
+    // Se completa con el tipo de mensaje que termina la partida para este bot
+    private final CompletableFuture<String> outcome = new CompletableFuture<>();
+    private final AtomicInteger answersSubmitted = new AtomicInteger();
+
+    private volatile String roomId;
+    // Momento (nanoTime real) en que se envió la respuesta pendiente; 0 si no hay ninguna
+    private volatile long answerSentNanos;
+
+    /**
+     * @param name               nombre del jugador (base de su playerId)
+     * @param thinkTime          distribución del tiempo de respuesta
+     * @param passProbability    probabilidad de pasar palabra en vez de responder
+     * @param seed               semilla del generador aleatorio del bot
+     * @param clock              reloj en el que se programan las esperas
+     * @param roundTripHistogram histograma compartido de respuesta → siguiente pregunta
+     */
+    public BotPlayer(String name, ThinkTime thinkTime, double passProbability, long seed,
+                     MatchClock clock, LatencyHistogram roundTripHistogram) {
+        this.sender = new BotMessageSender(this::onMessage);
+        this.player = new Player(UUID.randomUUID(), name, null, sender);
+        this.thinkTime = thinkTime;
+        this.passProbability = passProbability;
+        this.random = new Random(seed);
+        this.clock = clock != null ? clock : MatchClock.system();
+        this.roundTripHistogram = roundTripHistogram;
+    }
+
+    /**
+     * Registrar la "conexión" del bot, como hace el servidor al abrir el WebSocket.
+     */
+    public void connect() {
+        ConnectionRegistry.getInstance().registerConnection(player);
+    }
+
+    /**
+     * Pedir la creación de una partida. El futuro se completa con el roomId cuando
+     * llega GameCreationRequestValid, o falla con la causa de GameCreationRequestInvalid.
+     */
+    public CompletableFuture<String> createMatch(String gameName, int timerSeconds, QuestionLevel level,
+                                                 int maxPlayers, int questionNumber) {
+        GamePlayerConfig config = new GamePlayerConfig(player, timerSeconds, level, maxPlayers, questionNumber);
+        log.debug("[BOT] {} requesting match '{}'", player.getPlayerID(), gameName);
+        GlobalAsyncEventBus.publish(new GameCreationRequestedEvent(config, gameName));
+        return roomCreated;
+    }
+
+    public boolean join(String matchId) {
+        boolean joined = matchManager.joinPlayerToMatch(player, matchId);
+        if (joined) {
+            this.roomId = matchId;
+        }
+        return joined;
+    }
+
+    public void requestStart() {
+        GlobalAsyncEventBus.publish(new GameStartedRequestEvent(roomId, player.getPlayerID()));
+    }
+
+    /**
+     * Salir de la partida (si sigue en alguna) y cerrar la "conexión".
+     */
+    public void disconnect() {
+        matchManager.leavePlayerFromCurrentMatch(player);
+        ConnectionRegistry.getInstance().unregisterConnection(player.getSessionId());
+        outcome.complete("Disconnected");
+    }
+
+    private void onMessage(Object message) {
+        String type;
+        JsonNode payload;
+        if (message instanceof String json) {
+            // QUESTION_CHANGED llega ya serializado (QuestionPayloadCache)
+            try {
+                JsonNode root = objectMapper.readTree(json);
+                type = root.path("type").asText(null);
+                payload = root.path("payload");
+            } catch (Exception e) {
+                log.warn("[BOT] {} received invalid JSON: {}", player.getPlayerID(), e.getMessage());
+                return;
+            }
+        } else if (message instanceof Map<?, ?> map) {
+            Object rawType = map.get("type");
+            type = rawType != null ? rawType.toString() : null;
+            payload = null; // solo se convierte cuando el bot necesita leerlo
+            if (WsMessageType.GAME_CREATION_REQUEST_VALID.equals(type)
+                    || WsMessageType.GAME_CREATION_REQUEST_INVALID.equals(type)) {
+                Object rawPayload = map.get("payload");
+                payload = rawPayload != null ? objectMapper.valueToTree(rawPayload) : MissingNode.getInstance();
+            }
+        } else {
+            return;
+        }
+        if (type == null) {
+            return;
+        }
+
+        switch (type) {
+            case WsMessageType.GAME_CREATION_REQUEST_VALID:
+                roomId = payload.path("roomId").asText(null);
+                roomCreated.complete(roomId);
+                break;
+            case WsMessageType.GAME_CREATION_REQUEST_INVALID:
+                roomCreated.completeExceptionally(
+                        new IllegalStateException(payload.path("cause").asText("creation rejected")));
+                break;
+            case WsMessageType.MATCH_STARTED:
+                // El cliente real confirma el controlador al cargar la pantalla de juego
+                clock.schedule(() -> matchManager.markMatchControllerReady(roomId, player.getPlayerID()),
+                        0, TimeUnit.MILLISECONDS);
+                break;
+            case WsMessageType.QUESTION_CHANGED:
+                if (payload != null) {
+                    onQuestionChanged(payload);
+                }
+                break;
+            case WsMessageType.GAME_FINISHED:
+            case WsMessageType.MATCH_CLOSED_BY_CREATOR:
+            case WsMessageType.QUESTION_LOAD_ERROR:
+            case WsMessageType.START_MATCH_REQUEST_INVALID:
+                outcome.complete(type);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void onQuestionChanged(JsonNode payload) {
+        long sent = answerSentNanos;
+        if (sent != 0L) {
+            answerSentNanos = 0L;
+            if (roundTripHistogram != null) {
+                roundTripHistogram.recordNanos(System.nanoTime() - sent);
+            }
+        }
+
+        JsonNode nextQuestion = payload.path("nextQuestion");
+        if (outcome.isDone() || nextQuestion.isMissingNode() || nextQuestion.isNull()) {
+            return; // Rosco terminado: el bot espera a GameFinished
+        }
+
+        int questionIndex = payload.path("questionIndex").asInt(-1);
+        int options = nextQuestion.path("questionResponsesList").size();
+        int selectedOption = options <= 0 || random.nextDouble() < passProbability ? -1 : random.nextInt(options);
+        long delayMs = thinkTime.nextMillis(random);
+
+        clock.schedule(() -> {
+            if (outcome.isDone()) {
+                return;
+            }
+            answerSentNanos = System.nanoTime();
+            if (matchManager.submitAnswerForPlayer(player.getPlayerID(), questionIndex, selectedOption)) {
+                answersSubmitted.incrementAndGet();
+            } else {
+                answerSentNanos = 0L;
+            }
+        }, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    public Player getPlayer() {
+        return player;
+    }
+
+    public String getRoomId() {
+        return roomId;
+    }
+
+    /**
+     * Futuro que se completa con el mensaje que terminó la partida para este bot
+     * (GameFinished, MatchClosedByCreator, QuestionLoadError...).
+     */
+    public CompletableFuture<String> getOutcome() {
+        return outcome;
+    }
+
+    public int getAnswersSubmitted() {
+        return answersSubmitted.get();
+    }
+
+    public long getMessagesReceived() {
+        return sender.getMessageCount();
+    }
+}
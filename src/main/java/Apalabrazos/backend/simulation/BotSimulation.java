@@ -0,0 +1,281 @@
+package Apalabrazos.backend.simulation;
+
+import Apalabrazos.backend.metrics.LatencyHistogram;
+import Apalabrazos.backend.model.QuestionLevel;
+import Apalabrazos.backend.service.AIQuestionService;
+import Apalabrazos.backend.service.MatchClock;
+import Apalabrazos.backend.service.MatchManager;
+import Apalabrazos.backend.service.VirtualMatchClock;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Simulación de capacidad en proceso: N partidas × M bots contra el MatchManager real,
+ * sin WebSocket ni LLM (las preguntas salen del JSON local).
+ * <p>
+ * Al terminar imprime un informe JSON con throughput, latencias de respuesta (vistas por
+ * el bot y por el servidor), GC y heap. Ejemplo:
+ * <pre>
+ * mvn -q compile exec:java -Dexec.mainClass=Apalabrazos.backend.simulation.BotSimulation \
+ *     -Dexec.args="matches=200 players=4 think=uniform:500-3000 timer=120"
+ * </pre>
+ * Opciones (clave=valor): matches, players (2-8), think, pass (probabilidad de pasar palabra),
+ * timer (segundos válidos de partida), level, questions, seed, virtual (true para tiempo virtual),
+ * step (ms de tiempo virtual por paso), timeout (segundos reales máximos), ai (true para usar el LLM).
+ */
+public class BotSimulation {
+
+    private static final Logger log = LoggerFactory.getLogger(BotSimulation.class);
+
+    private final int matches;
+    private final int playersPerMatch;
+    private final ThinkTime thinkTime;
+    private final double passProbability;
+    private final int timerSeconds;
+    private final QuestionLevel level;
+    private final int questionNumber;
+    private final long seed;
+    private final boolean virtualTime;
+    private final long virtualStepMillis;
+    private final long timeoutSeconds;
+    private final boolean useAi;
+
+    private final LatencyHistogram roundTrip = new LatencyHistogram();
+    private final List<BotPlayer> bots = new ArrayList<>();
+    private final List<List<BotPlayer>> tables = new ArrayList<>();
+    private final AtomicLong peakHeapUsed = new AtomicLong();
+
+    public BotSimulation(Map<String, String> options) {
+        this.matches = Integer.parseInt(options.getOrDefault("matches", "10"));
+        this.playersPerMatch = Integer.parseInt(options.getOrDefault("players", "2"));
+        this.thinkTime = ThinkTime.parse(options.getOrDefault("think", "uniform:500-3000"));
+        this.passProbability = Double.parseDouble(options.getOrDefault("pass", "0.1"));
+        this.timerSeconds = Integer.parseInt(options.getOrDefault("timer", "120"));
+        this.level = QuestionLevel.valueOf(options.getOrDefault("level", "MEDIUM").toUpperCase(Locale.ROOT));
+        this.questionNumber = Integer.parseInt(options.getOrDefault("questions", "27"));
+        this.seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        this.virtualTime = Boolean.parseBoolean(options.getOrDefault("virtual", "false"));
+        this.virtualStepMillis = Long.parseLong(options.getOrDefault("step", "100"));
+        this.timeoutSeconds = Long.parseLong(options.getOrDefault("timeout", String.valueOf(timerSeconds + 120)));
+        this.useAi = Boolean.parseBoolean(options.getOrDefault("ai", "false"));
+
+        if (matches < 1) {
+            throw new IllegalArgumentException("matches must be >= 1");
+        }
+        if (playersPerMatch < 2 || playersPerMatch > 8) {
+            throw new IllegalArgumentException("players must be between 2 and 8 (MatchManager limit)");
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq > 0) {
+                options.put(arg.substring(0, eq).replaceFirst("^-+", ""), arg.substring(eq + 1));
+            }
+        }
+
+        Map<String, Object> report = new BotSimulation(options).run();
+        System.out.println(new ObjectMapper().writerWithDefaultPrettyPrinter().writeValueAsString(report));
+        System.exit(((Number) report.get("matchesFailed")).intValue() == 0 ? 0 : 1);
+    }
+
+    /**
+     * Ejecutar la simulación completa y devolver el informe.
+     */
+    public Map<String, Object> run() throws InterruptedException {
+        MatchManager matchManager = MatchManager.getInstance();
+        if (!useAi) {
+            AIQuestionService.getInstance().setFallbackOnly(true);
+        }
+        MatchClock clock = virtualTime ? new VirtualMatchClock(System.currentTimeMillis()) : MatchClock.system();
+        MatchClock previousClock = matchManager.getMatchClock();
+        matchManager.setMatchClock(clock);
+
+        String runTag = UUID.randomUUID().toString().substring(0, 4);
+        for (int m = 0; m < matches; m++) {
+            List<BotPlayer> table = new ArrayList<>();
+            for (int p = 0; p < playersPerMatch; p++) {
+                BotPlayer bot = new BotPlayer("bot" + m + "x" + p, thinkTime, passProbability,
+                        seed + (long) m * playersPerMatch + p, clock, roundTrip);
+                bot.connect();
+                table.add(bot);
+                bots.add(bot);
+            }
+            tables.add(table);
+        }
+
+        log.info("[BOT-SIM] Starting {} matches x {} players (think={}, timer={}s, virtual={})",
+                matches, playersPerMatch, thinkTime, timerSeconds, virtualTime);
+
+        Thread heapSampler = Thread.ofPlatform().daemon().name("bot-sim-heap-sampler").start(this::sampleHeap);
+        Map<String, long[]> gcBefore = gcSnapshot();
+        MemoryUsage heapBefore = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        long startNanos = System.nanoTime();
+
+        List<CompletableFuture<String>> outcomes = new ArrayList<>();
+        try (ExecutorService starters = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int m = 0; m < matches; m++) {
+                List<BotPlayer> table = tables.get(m);
+                String gameName = "sim" + m + "-" + runTag;
+                starters.submit(() -> startTable(table, gameName));
+                table.forEach(bot -> outcomes.add(bot.getOutcome()));
+            }
+        }
+
+        CompletableFuture<Void> allDone = CompletableFuture.allOf(outcomes.toArray(new CompletableFuture[0]));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+        while (!allDone.isDone() && System.nanoTime() < deadline) {
+            if (virtualTime) {
+                ((VirtualMatchClock) clock).advance(virtualStepMillis, TimeUnit.MILLISECONDS);
+                // Deja a los hilos virtuales del bus entregar lo que ha producido el paso
+                Thread.sleep(1);
+            } else {
+                Thread.sleep(100);
+            }
+        }
+        long elapsedNanos = System.nanoTime() - startNanos;
+
+        Map<String, Object> report = buildReport(outcomes, elapsedNanos, gcBefore, heapBefore);
+        heapSampler.interrupt();
+
+        for (BotPlayer bot : bots) {
+            bot.disconnect();
+        }
+        matchManager.setMatchClock(previousClock);
+        log.info("[BOT-SIM] Finished in {} ms", TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        return report;
+    }
+
+    private void startTable(List<BotPlayer> table, String gameName) {
+        BotPlayer creator = table.get(0);
+        try {
+            String roomId = creator.createMatch(gameName, timerSeconds, level, playersPerMatch, questionNumber)
+                    .get(30, TimeUnit.SECONDS);
+            for (BotPlayer bot : table.subList(1, table.size())) {
+                if (!bot.join(roomId)) {
+                    log.warn("[BOT-SIM] {} could not join {}", bot.getPlayer().getPlayerID(), roomId);
+                }
+            }
+            creator.requestStart();
+        } catch (Exception e) {
+            log.error("[BOT-SIM] Match '{}' could not be started: {}", gameName, e.getMessage());
+            table.forEach(bot -> bot.getOutcome().complete("StartFailed"));
+        }
+    }
+
+    private Map<String, Object> buildReport(List<CompletableFuture<String>> outcomes, long elapsedNanos,
+                                            Map<String, long[]> gcBefore, MemoryUsage heapBefore) {
+        double elapsedSeconds = elapsedNanos / 1_000_000_000.0;
+
+        Map<String, Integer> outcomeCounts = new LinkedHashMap<>();
+        for (CompletableFuture<String> outcome : outcomes) {
+            outcomeCounts.merge(outcome.getNow("Timeout"), 1, Integer::sum);
+        }
+        int finishedMatches = 0;
+        for (List<BotPlayer> table : tables) {
+            if ("GameFinished".equals(table.get(0).getOutcome().getNow(null))) {
+                finishedMatches++;
+            }
+        }
+
+        long answers = 0;
+        long messages = 0;
+        for (BotPlayer bot : bots) {
+            answers += bot.getAnswersSubmitted();
+            messages += bot.getMessagesReceived();
+        }
+
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("matches", matches);
+        config.put("playersPerMatch", playersPerMatch);
+        config.put("think", thinkTime.toString());
+        config.put("pass", passProbability);
+        config.put("timerSeconds", timerSeconds);
+        config.put("level", level.name());
+        config.put("virtualTime", virtualTime);
+        config.put("questionSource", useAi ? "AI" : "FALLBACK_JSON");
+
+        Map<String, Object> throughput = new LinkedHashMap<>();
+        throughput.put("elapsedMs", TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        throughput.put("answers", answers);
+        throughput.put("answersPerSecond", round(answers / elapsedSeconds));
+        throughput.put("messages", messages);
+        throughput.put("messagesPerSecond", round(messages / elapsedSeconds));
+        throughput.put("matchesPerMinute", round(finishedMatches / elapsedSeconds * 60.0));
+
+        Map<String, Object> gc = new LinkedHashMap<>();
+        for (Map.Entry<String, long[]> entry : gcSnapshot().entrySet()) {
+            long[] before = gcBefore.getOrDefault(entry.getKey(), new long[] { 0, 0 });
+            gc.put(entry.getKey(), Map.of(
+                    "collections", entry.getValue()[0] - before[0],
+                    "timeMs", entry.getValue()[1] - before[1]));
+        }
+
+        MemoryUsage heapAfter = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        Map<String, Object> heap = new LinkedHashMap<>();
+        heap.put("usedBeforeMb", toMb(heapBefore.getUsed()));
+        heap.put("usedAfterMb", toMb(heapAfter.getUsed()));
+        heap.put("peakUsedMb", toMb(Math.max(peakHeapUsed.get(), heapAfter.getUsed())));
+        heap.put("committedMb", toMb(heapAfter.getCommitted()));
+        heap.put("maxMb", toMb(heapAfter.getMax()));
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("config", config);
+        report.put("matchesFinished", finishedMatches);
+        report.put("matchesFailed", matches - finishedMatches);
+        report.put("outcomes", outcomeCounts);
+        report.put("throughput", throughput);
+        report.put("botAnswerRoundTrip", roundTrip.snapshot());
+        report.put("serverAnswerLatency", MatchManager.getInstance().getAnswerLatencySummary().get("all"));
+        report.put("gc", gc);
+        report.put("heap", heap);
+        return report;
+    }
+
+    private void sampleHeap() {
+        while (!Thread.currentThread().isInterrupted()) {
+            long used = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+            peakHeapUsed.accumulateAndGet(used, Math::max);
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private static Map<String, long[]> gcSnapshot() {
+        Map<String, long[]> snapshot = new LinkedHashMap<>();
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            snapshot.put(bean.getName(), new long[] { bean.getCollectionCount(), bean.getCollectionTime() });
+        }
+        return snapshot;
+    }
+
+    private static double toMb(long bytes) {
+        return bytes < 0 ? -1 : round(bytes / (1024.0 * 1024.0));
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+}
@@ -0,0 +1,124 @@
+package Apalabrazos.backend.simulation;
+
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Distribución del tiempo que tarda un bot en contestar una pregunta.
+ * <p>
+ * Se construye con las factorías o a partir de una especificación de texto
+ * (ver {@link #parse(String)}), de forma que la línea de comandos de la simulación
+ * pueda elegir el perfil de jugador sin recompilar:
+ * <pre>
+ * fixed:800          siempre 800 ms
+ * uniform:500-3000   uniforme entre 500 y 3000 ms
+ * exp:1500           exponencial de media 1500 ms
+ * normal:1500,400    normal de media 1500 ms y desviación 400 ms (recortada a 0)
+ * </pre>
+ */
+public final class ThinkTime {
+
+    private enum Kind { FIXED, UNIFORM, EXPONENTIAL, NORMAL }
+
+    private final Kind kind;
+    private final long a;
+    private final long b;
+
+    private ThinkTime(Kind kind, long a, long b) {
+        this.kind = kind;
+        this.a = a;
+        this.b = b;
+    }
+
+    public static ThinkTime fixed(long millis) {
+        return new ThinkTime(Kind.FIXED, requireNonNegative(millis), 0);
+    }
+
+    public static ThinkTime uniform(long minMillis, long maxMillis) {
+        if (maxMillis < minMillis) {
+            throw new IllegalArgumentException("max must be >= min");
+        }
+        return new ThinkTime(Kind.UNIFORM, requireNonNegative(minMillis), maxMillis);
+    }
+
+    public static ThinkTime exponential(long meanMillis) {
+        return new ThinkTime(Kind.EXPONENTIAL, requireNonNegative(meanMillis), 0);
+    }
+
+    public static ThinkTime normal(long meanMillis, long stdDevMillis) {
+        return new ThinkTime(Kind.NORMAL, requireNonNegative(meanMillis), requireNonNegative(stdDevMillis));
+    }
+
+    /**
+     * Interpretar una especificación del tipo {@code uniform:500-3000}.
+     *
+     * @throws IllegalArgumentException si la especificación no es válida
+     */
+    public static ThinkTime parse(String spec) {
+        if (spec == null || spec.isBlank()) {
+            throw new IllegalArgumentException("Empty think time spec");
+        }
+        String[] parts = spec.trim().toLowerCase(Locale.ROOT).split(":", 2);
+        String args = parts.length > 1 ? parts[1] : "";
+        try {
+            switch (parts[0]) {
+                case "fixed":
+                    return fixed(Long.parseLong(args));
+                case "uniform": {
+                    String[] range = args.split("-", 2);
+                    return uniform(Long.parseLong(range[0]), Long.parseLong(range[1]));
+                }
+                case "exp":
+                case "exponential":
+                    return exponential(Long.parseLong(args));
+                case "normal": {
+                    String[] params = args.split(",", 2);
+                    return normal(Long.parseLong(params[0]), Long.parseLong(params[1]));
+                }
+                default:
+                    throw new IllegalArgumentException("Unknown think time distribution: " + parts[0]);
+            }
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid think time spec: " + spec, e);
+        }
+    }
+
+    /**
+     * Siguiente tiempo de espera en milisegundos (nunca negativo).
+     */
+    public long nextMillis(Random random) {
+        switch (kind) {
+            case UNIFORM:
+                return a == b ? a : a + (long) (random.nextDouble() * (b - a + 1));
+            case EXPONENTIAL:
+                return Math.round(-a * Math.log(1.0 - random.nextDouble()));
+            case NORMAL:
+                return Math.max(0L, Math.round(a + random.nextGaussian() * b));
+            case FIXED:
+            default:
+                return a;
+        }
+    }
+
+    private static long requireNonNegative(long millis) {
+        if (millis < 0) {
+            throw new IllegalArgumentException("Think time must be >= 0");
+        }
+        return millis;
+    }
+
+    @Override
+    public String toString() {
+        switch (kind) {
+            case UNIFORM:
+                return "uniform:" + a + "-" + b;
+            case EXPONENTIAL:
+                return "exp:" + a;
+            case NORMAL:
+                return "normal:" + a + "," + b;
+            case FIXED:
+            default:
+                return "fixed:" + a;
+        }
+    }
+}
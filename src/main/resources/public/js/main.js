@@ -6,7 +6,7 @@ import { UIManager } from './ui/ui-manager.js';
 import { API_ENDPOINTS, WS_ENDPOINTS, buildApiUrl, buildWsUrl } from './config.js';
 import { GAME_OPTIONS } from './config/game-options.js';
 import { validate_game_creation } from './validation/game-validation.js';
-import { bindSocketMessageHandlers } from './network/message-handler.js';
+import { bindSocketMessageHandlers, getLobbySyncParams } from './network/message-handler.js';
 import { PhaserEventBus, clearAllStickyEvents } from './phaser_src/phaserEventBus.js';
 import { MatchAudio } from './audio/match-audio.js';
 
@@ -696,6 +696,7 @@ function registerSocketMessageHandlers() {
                 UIManager.switchView(id);
             },
             addLobbyMessage: (username, text, isOwn) => LobbyUI.addMessage(username, text, isOwn),
+            clearLobbyMessages: () => LobbyUI.clearMessages(),
         },
     });
 }
@@ -976,7 +977,7 @@ LoginUI.init(
             console.log("Connecting to WebSocket:", serverUrl);
 
             try {
-                await SocketClient.connect(serverUrl, token);
+                await SocketClient.connect(serverUrl, token, getLobbySyncParams());
             } catch (wsError) {
                 console.error("WebSocket connection error:", wsError);
                 LoginUI.showError("Error al conectar con el servidor WebSocket. Verifica que el servidor esté en línea.");
@@ -33,6 +33,26 @@ export function bindSocketMessageHandlers({ state, actions }) {
     });
 }
 
+// Last lobby version applied by this client (epoch identifies the server run).
+// Sent back on the next connect so the server can answer with a delta instead of a snapshot.
+const _lobbySync = { epoch: null, version: -1 };
+
+/**
+ * Query parameters describing the lobby state this client already has.
+ * Empty when no snapshot has been received yet.
+ */
+export function getLobbySyncParams() {
+    if (!_lobbySync.epoch || _lobbySync.version < 0) return {};
+    return { lobbyEpoch: _lobbySync.epoch, lobbyVersion: String(_lobbySync.version) };
+}
+
+function _trackLobbyVersion(version) {
+    const v = Number(version);
+    if (Number.isFinite(v) && v > _lobbySync.version) {
+        _lobbySync.version = v;
+    }
+}
+
 // ---------------------------------------------------------------------------
 // Helpers
 // ---------------------------------------------------------------------------
@@ -120,25 +140,52 @@ function _handleStandings(data, state) {
 }
 
 function _handleLobbyMatchesSnapshot(data, _state, actions) {
-    const matches = Array.isArray(data?.payload?.matches) ? data.payload.matches : [];
-    console.log(`[LOBBY] Snapshot received with ${matches.length} matches`);
+    const payload = data?.payload || {};
+    const matches = Array.isArray(payload.matches) ? payload.matches : [];
+    console.log(`[LOBBY] Snapshot received with ${matches.length} matches (version ${payload.version})`);
+    _lobbySync.epoch = payload.epoch || null;
+    _lobbySync.version = -1;
+    _trackLobbyVersion(payload.version);
     actions.renderLobbyMatchesSnapshot(matches);
 }
 
+function _handleLobbyMatchesDelta(data, state, actions) {
+    const payload = data?.payload || {};
+    const changes = Array.isArray(payload.changes) ? payload.changes : [];
+    // A batch already covered by a newer snapshot would roll cards back
+    if (payload.epoch === _lobbySync.epoch && Number(payload.version) <= _lobbySync.version && changes.length > 0) {
+        console.log(`[LOBBY] Ignoring stale delta (version ${payload.version})`);
+        return;
+    }
+    console.log(`[LOBBY] Delta received: ${changes.length} changes (${payload.fromVersion} -> ${payload.version})`);
+    changes.forEach(change => {
+        if (change?.op === 'REMOVE') {
+            _handleLobbyMatchRemoved({ payload: { roomId: change.roomId } }, state, actions);
+        } else if (change?.match) {
+            actions.addOnlineGameCard(change.match);
+        }
+    });
+    actions.syncAllJoinButtonsState();
+    _trackLobbyVersion(payload.version);
+}
+
 function _handleLobbyMatchCreated(data, _state, actions) {
     const payload = data?.payload || {};
     console.log('[LOBBY] Real-time match broadcast received:', payload);
+    _trackLobbyVersion(payload.lobbyVersion);
     actions.addOnlineGameCard(payload);
 }
 
 function _handleLobbyMatchUpdated(data, _state, actions) {
     const payload = data?.payload || {};
     console.log('[LOBBY] Match updated:', payload);
+    _trackLobbyVersion(payload.lobbyVersion);
     actions.addOnlineGameCard(payload);
 }
 
 function _handleLobbyMatchRemoved(data, state, actions) {
     const roomId = String(data?.payload?.roomId || '').trim();
+    _trackLobbyVersion(data?.payload?.lobbyVersion);
     console.log('[LOBBY] Match removed:', roomId);
 
     const wasActiveRoom = Boolean(roomId) && (
@@ -206,6 +253,32 @@ function _handleChatMessage(data, state, actions) {
     }
 }
 
+// Highest chat seq rendered; chat_history replaces the log, so batches that raced it are skipped.
+let _lastChatSeq = 0;
+
+function _renderChatMessages(messages, state, actions) {
+    for (const { seq, text, username_originator } of messages) {
+        if (!text || !username_originator) continue;
+        if (Number(seq) <= _lastChatSeq) continue;
+        _lastChatSeq = Number(seq) || _lastChatSeq;
+        actions.addLobbyMessage(username_originator, text, username_originator === state.currentUsername);
+    }
+}
+
+function _handleChatMessages(data, state, actions) {
+    _renderChatMessages((data.payload && data.payload.messages) || [], state, actions);
+}
+
+function _handleChatHistory(data, state, actions) {
+    actions.clearLobbyMessages();
+    _lastChatSeq = 0;
+    _renderChatMessages((data.payload && data.payload.messages) || [], state, actions);
+}
+
+function _handleChatThrottled(data, state, actions) {
+    actions.addLobbyMessage('Sistema', 'Estás enviando mensajes demasiado rápido; espera un momento.', false);
+}
+
 function _handleGameCreationRequestValid(data, state, actions) {
     if (state.createGamePendingTimeout) {
         clearTimeout(state.createGamePendingTimeout);
@@ -270,6 +343,20 @@ function _handleJoinMatchRequestInvalid(data, state, actions) {
     actions.showCreateGameErrors([cause]);
 }
 
+function _handleQuickMatchQueued(data) {
+    console.log('[QUICKMATCH] Waiting in queue:', data?.payload || {});
+}
+
+function _handleQuickMatchInvalid(data, _state, actions) {
+    const cause = data?.payload?.cause || 'Could not join the quick-match queue.';
+    console.warn('[QUICKMATCH] Request rejected:', cause);
+    actions.showCreateGameErrors([cause]);
+}
+
+function _handleQuickMatchCancelled(data) {
+    console.log('[QUICKMATCH] Left queue:', data?.payload?.cause || '');
+}
+
 function _handleLeaveMatchRequestValid(data, state, actions) {
     const roomId = String(data?.payload?.roomId || '').trim();
     state.pendingLeaveRoomIds.clear();
@@ -318,14 +405,21 @@ const _handlers = {
     [WS_MESSAGE_TYPE.LOBBY_MATCH_CREATED]:          _handleLobbyMatchCreated,
     [WS_MESSAGE_TYPE.LOBBY_MATCH_UPDATED]:          _handleLobbyMatchUpdated,
     [WS_MESSAGE_TYPE.LOBBY_MATCH_REMOVED]:          _handleLobbyMatchRemoved,
+    [WS_MESSAGE_TYPE.LOBBY_MATCHES_DELTA]:          _handleLobbyMatchesDelta,
     [WS_MESSAGE_TYPE.MATCH_CLOSED_BY_CREATOR]:      _handleMatchClosedByCreator,
     [WS_MESSAGE_TYPE.MATCH_STARTED]:                _handleMatchStarted,
     [WS_MESSAGE_TYPE.START_MATCH_REQUEST_INVALID]:  _handleStartMatchRequestInvalid,
     [WS_MESSAGE_TYPE.CHAT_MESSAGE]:                 _handleChatMessage,
+    [WS_MESSAGE_TYPE.CHAT_MESSAGES]:                _handleChatMessages,
+    [WS_MESSAGE_TYPE.CHAT_HISTORY]:                 _handleChatHistory,
+    [WS_MESSAGE_TYPE.CHAT_THROTTLED]:               _handleChatThrottled,
     [WS_MESSAGE_TYPE.GAME_CREATION_REQUEST_VALID]:  _handleGameCreationRequestValid,
     [WS_MESSAGE_TYPE.GAME_CREATION_REQUEST_INVALID]:_handleGameCreationRequestInvalid,
     [WS_MESSAGE_TYPE.JOIN_MATCH_REQUEST_VALID]:     _handleJoinMatchRequestValid,
     [WS_MESSAGE_TYPE.JOIN_MATCH_REQUEST_INVALID]:   _handleJoinMatchRequestInvalid,
+    [WS_MESSAGE_TYPE.QUICK_MATCH_QUEUED]:           _handleQuickMatchQueued,
+    [WS_MESSAGE_TYPE.QUICK_MATCH_INVALID]:          _handleQuickMatchInvalid,
+    [WS_MESSAGE_TYPE.QUICK_MATCH_CANCELLED]:        _handleQuickMatchCancelled,
     [WS_MESSAGE_TYPE.LEAVE_MATCH_REQUEST_VALID]:    _handleLeaveMatchRequestValid,
     [WS_MESSAGE_TYPE.LEAVE_MATCH_REQUEST_INVALID]:  _handleLeaveMatchRequestInvalid,
     [WS_MESSAGE_TYPE.GAME_FINISHED]:                _handleGameFinished,
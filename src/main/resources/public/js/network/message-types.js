@@ -22,9 +22,24 @@ export const WS_MESSAGE_TYPE = Object.freeze({
     /** Broadcast when a match is removed from the lobby. */
     LOBBY_MATCH_REMOVED:             'LobbyMatchRemoved',
 
+    /** Sent to a reconnecting player with only the lobby changes since its last known version. */
+    LOBBY_MATCHES_DELTA:             'LobbyMatchesDelta',
+
+    /** Sent to a player subscribed to a filtered lobby view when its current page changes. */
+    LOBBY_MATCHES_PAGE:              'LobbyMatchesPage',
+
     /** Broadcast chat message to all lobby players. */
     CHAT_MESSAGE:                    'chat_message',
 
+    /** Broadcast with every chat message accepted in one flush tick. */
+    CHAT_MESSAGES:                   'chat_messages',
+
+    /** Sent on joining the lobby with the most recent chat messages. */
+    CHAT_HISTORY:                    'chat_history',
+
+    /** Sent when a chat message was dropped because the send quota was exceeded. */
+    CHAT_THROTTLED:                  'chat_throttled',
+
     // ── Match lifecycle events ───────────────────────────────────────────────
 
     /** Sent to the creator when a game creation request is accepted. */
@@ -39,6 +54,15 @@ export const WS_MESSAGE_TYPE = Object.freeze({
     /** Sent to the joining player when a join-match request is rejected. */
     JOIN_MATCH_REQUEST_INVALID:      'JoinMatchRequestInvalid',
 
+    /** Sent when a quick-match request was accepted and the player is waiting in the queue. */
+    QUICK_MATCH_QUEUED:              'QuickMatchQueued',
+
+    /** Sent when a quick-match request was rejected. */
+    QUICK_MATCH_INVALID:             'QuickMatchInvalid',
+
+    /** Sent when the player left the quick-match queue without being placed in a match. */
+    QUICK_MATCH_CANCELLED:           'QuickMatchCancelled',
+
     /** Sent to the leaving player when a leave-match request is accepted. */
     LEAVE_MATCH_REQUEST_VALID:       'LeaveMatchRequestValid',
 
@@ -4,14 +4,17 @@ export const SocketClient = {
     socket: null,
     listeners: new Set(), // Allow multiple modules to listen to messages
 
-    connect(url, token = null) {
+    connect(url, token = null, extraParams = {}) {
         return new Promise((resolve, reject) => {
             try {
                 // Clean up any stale listeners from previous connections
                 this.listeners.clear();
 
-                // If there's a token, add it as query parameter
-                const wsUrl = token ? `${url}?token=${encodeURIComponent(token)}` : url;
+                // If there's a token, add it as query parameter (plus any extra ones, e.g. lobby version)
+                const params = new URLSearchParams(extraParams);
+                if (token) params.set('token', token);
+                const query = params.toString();
+                const wsUrl = query ? `${url}?${query}` : url;
                 console.log("WebSocket URL:", wsUrl);
                 this.socket = new WebSocket(wsUrl);
 
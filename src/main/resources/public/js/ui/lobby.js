@@ -50,5 +50,10 @@ export const LobbyUI = {
 
         // Scroll to bottom
         chatMessages.scrollTop = chatMessages.scrollHeight;
+    },
+
+    clearMessages() {
+        const chatMessages = document.getElementById('chat-messages');
+        if (chatMessages) chatMessages.replaceChildren();
     }
 };
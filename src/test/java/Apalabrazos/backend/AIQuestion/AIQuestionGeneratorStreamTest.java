@@ -0,0 +1,83 @@
+package Apalabrazos.backend.AIQuestion;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AIQuestionGeneratorStreamTest {
+
+    // Una pregunta completa y el principio de la siguiente; después el servidor deja de enviar
+    private static final String FIRST_CHUNK = "{\"message\":{\"content\":\"{\\\"questionList\\\":[{\\\"questionLetter\\\":\\\"a\\\"},"
+            + " {\\\"questionLetter\\\":\\\"b\\\"\"},\"done\":false}\n";
+
+    private HttpServer server;
+    private final CountDownLatch released = new CountDownLatch(1);
+
+    @BeforeEach
+    void startStallingServer() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/api/chat", exchange -> {
+            exchange.sendResponseHeaders(200, 0);
+            OutputStream body = exchange.getResponseBody();
+            body.write(FIRST_CHUNK.getBytes(StandardCharsets.UTF_8));
+            body.flush();
+            try {
+                released.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.close();
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        released.countDown();
+        server.stop(0);
+    }
+
+    @Test
+    void streamThatStallsMidResponseIsClosedWhenTheDeadlinePasses() throws Exception {
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        HttpRequest request = HttpRequest.newBuilder(
+                URI.create("http://localhost:" + server.getAddress().getPort() + "/api/chat")).build();
+        HttpResponse<Stream<String>> response = client.send(request, HttpResponse.BodyHandlers.ofLines());
+
+        AIQuestionGenerator generator = new AIQuestionGenerator();
+        List<String> questions = new ArrayList<>();
+        long startedNanos = System.nanoTime();
+        long deadline = startedNanos + TimeUnit.MILLISECONDS.toNanos(300);
+
+        try (Stream<String> lines = response.body()) {
+            assertThrows(HttpTimeoutException.class,
+                    () -> generator.readStreamedContent(lines, deadline, questions::add));
+        }
+
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedNanos);
+        assertTrue(elapsedMs < 5_000, "the stalled read should end at the deadline, took " + elapsedMs + " ms");
+        // Lo que llegó antes del corte ya se entregó
+        assertEquals(List.of("{\"questionLetter\":\"a\"}"), questions);
+    }
+}
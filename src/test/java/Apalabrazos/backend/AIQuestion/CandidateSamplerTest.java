@@ -0,0 +1,107 @@
+package Apalabrazos.backend.AIQuestion;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CandidateSamplerTest {
+
+    private final SplittableRandom random = new SplittableRandom(7);
+
+    @Test
+    void floydReturnsDistinctIndicesInRange() {
+        for (int round = 0; round < 1000; round++) {
+            int[] picked = CandidateSampler.floyd(10, 4, random);
+            Set<Integer> distinct = new HashSet<>();
+            for (int index : picked) {
+                assertTrue(index >= 0 && index < 10);
+                distinct.add(index);
+            }
+            assertEquals(4, distinct.size());
+        }
+        assertEquals(4, new HashSet<>(List.of(box(CandidateSampler.floyd(4, 4, random)))).size());
+    }
+
+    @Test
+    void floydCoversEveryIndexAndCorrectPositionIsSpread() {
+        CandidateSampler sampler = new CandidateSampler(0, 0);
+        List<String> words = words(20, 6);
+        int[] seen = new int[20];
+        int[] correctAt = new int[4];
+        for (int round = 0; round < 4000; round++) {
+            for (int index : CandidateSampler.floyd(20, 4, random)) {
+                seen[index]++;
+            }
+            correctAt[sampler.sample("a", words, 4, random).correctIndex()]++;
+        }
+        for (int count : seen) {
+            assertTrue(count > 500, "index sampled " + count + " times");
+        }
+        for (int count : correctAt) {
+            assertTrue(count > 800, "correct position used " + count + " times");
+        }
+    }
+
+    @Test
+    void sampleHasDistinctResponsesAndNullWhenTooFewWords() {
+        CandidateSampler sampler = new CandidateSampler(0, 0);
+
+        CandidateSampler.Sample sample = sampler.sample("a", words(50, 6), 4, random);
+        assertEquals(4, new HashSet<>(sample.responses()).size());
+        assertEquals(sample.responses().get(sample.correctIndex()), sample.correctWord());
+
+        assertNull(sampler.sample("b", words(3, 6), 4, random));
+    }
+
+    @Test
+    void recentCorrectWordsAreAvoided() {
+        CandidateSampler sampler = new CandidateSampler(4, 0);
+        List<String> words = words(8, 6);
+        Set<String> correct = new HashSet<>();
+        for (int round = 0; round < 4; round++) {
+            correct.add(sampler.sample("a", words, 4, random).correctWord());
+        }
+        // Con 8 palabras y 4 respuestas siempre queda una correcta sin usar
+        assertEquals(4, correct.size());
+        assertEquals(4, sampler.recentCount("a"));
+    }
+
+    @Test
+    void distractorsKeepASimilarLengthWhenAsked() {
+        CandidateSampler sampler = new CandidateSampler(0, 1);
+        List<String> words = new ArrayList<>(words(200, 5));
+        words.addAll(words(200, 11));
+
+        for (int round = 0; round < 200; round++) {
+            CandidateSampler.Sample sample = sampler.sample("a", words, 4, random);
+            int length = sample.correctWord().length();
+            long similar = sample.responses().stream().filter(w -> Math.abs(w.length() - length) <= 1).count();
+            assertTrue(similar >= 3, "responses " + sample.responses());
+        }
+    }
+
+    private static List<String> words(int count, int length) {
+        List<String> words = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String word = "a" + i + "x".repeat(length);
+            words.add(word.substring(0, length));
+        }
+        return words;
+    }
+
+    private static Integer[] box(int[] values) {
+        Integer[] boxed = new Integer[values.length];
+        for (int i = 0; i < values.length; i++) {
+            boxed[i] = values[i];
+        }
+        return boxed;
+    }
+}
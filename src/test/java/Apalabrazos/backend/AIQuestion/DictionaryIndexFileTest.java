@@ -0,0 +1,82 @@
+package Apalabrazos.backend.AIQuestion;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DictionaryIndexFileTest {
+
+    private Path dir;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dir = Files.createTempDirectory("dictionary-index");
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        try (var files = Files.list(dir)) {
+            for (Path file : files.toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.deleteIfExists(dir);
+    }
+
+    @Test
+    void writtenIndexIsReadBackFromTheMappedFile() throws Exception {
+        Path file = dir.resolve("dictionary.idx");
+        DictionaryIndexFile.write(sample(), file, 42L);
+
+        DictionaryIndex mapped = DictionaryIndexFile.open(file, 42L);
+
+        assertNotNull(mapped);
+        assertEquals(List.of("arbol", "árbitro"), mapped.words("a"));
+        assertEquals(List.of("caña", "niño"), mapped.words("ñ"));
+        assertEquals(List.of(), mapped.words("z"));
+        assertEquals(4, mapped.wordCount());
+        assertEquals(0, mapped.retainedBytes());
+        assertEquals(Files.size(file), mapped.mappedBytes());
+        assertThrows(IndexOutOfBoundsException.class, () -> mapped.words("a").get(2));
+    }
+
+    @Test
+    void indexOfAnotherSourceTextIsIgnored() throws Exception {
+        Path file = dir.resolve("dictionary.idx");
+        DictionaryIndexFile.write(sample(), file, 42L);
+
+        assertNull(DictionaryIndexFile.open(file, 43L));
+    }
+
+    @Test
+    void missingOrTruncatedFilesAreIgnored() throws Exception {
+        Path file = dir.resolve("dictionary.idx");
+        assertNull(DictionaryIndexFile.open(file, 42L));
+
+        DictionaryIndexFile.write(sample(), file, 42L);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, java.util.Arrays.copyOf(bytes, bytes.length - 3));
+        assertNull(DictionaryIndexFile.open(file, 42L));
+
+        Files.write(file, new byte[0]);
+        assertNull(DictionaryIndexFile.open(file, 42L));
+    }
+
+    private static DictionaryIndex sample() {
+        DictionaryIndex.Builder builder = DictionaryIndex.builder();
+        builder.add("a", "árbitro", "arbitro");
+        builder.add("a", "arbol", "arbol");
+        builder.add("ñ", "niño", "niño");
+        builder.add("ñ", "caña", "caña");
+        return builder.build();
+    }
+}
@@ -0,0 +1,59 @@
+package Apalabrazos.backend.AIQuestion;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DictionaryIndexTest {
+
+    @Test
+    void builderDeduplicatesByKeyAndSortsEachLetter() {
+        DictionaryIndex.Builder builder = DictionaryIndex.builder();
+        assertTrue(builder.add("c", "cosa", "cosa"));
+        assertTrue(builder.add("c", "casa", "casa"));
+        assertFalse(builder.add("c", "Casa", "casa"));
+        assertTrue(builder.add("ñ", "caña", "caña"));
+
+        DictionaryIndex index = builder.build();
+
+        assertEquals(List.of("casa", "cosa"), index.words("c"));
+        assertEquals(List.of("caña"), index.words("ñ"));
+        assertEquals(List.of(), index.words("z"));
+        assertEquals(3, index.wordCount());
+        assertTrue(index.retainedBytes() > 0);
+    }
+
+    @Test
+    void wordsAreReadOnly() {
+        DictionaryIndex.Builder builder = DictionaryIndex.builder();
+        builder.add("a", "arbol", "arbol");
+        DictionaryIndex index = builder.build();
+
+        assertThrows(UnsupportedOperationException.class, () -> index.words("a").set(0, "otra"));
+    }
+
+    @Test
+    void sharedIndexIsLoadedOncePerPath() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        DictionaryIndex.Loader loader = path -> {
+            loads.incrementAndGet();
+            DictionaryIndex.Builder builder = DictionaryIndex.builder();
+            builder.add("a", "arbol", "arbol");
+            return builder.build();
+        };
+        String path = "test-" + System.nanoTime() + ".txt";
+
+        DictionaryIndex first = DictionaryIndex.shared(path, loader);
+        DictionaryIndex second = DictionaryIndex.shared(path, loader);
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+    }
+}
@@ -0,0 +1,59 @@
+package Apalabrazos.backend.AIQuestion;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StreamingJsonObjectScannerTest {
+
+    private static final String RESPONSE = """
+            ```json
+            {
+              "questionList": [
+                {"questionLetter": "a", "questionText": "Con la A: Llave {de} [paso] \\"grande\\""},
+                {"questionLetter": "b", "questionText": "Con la B: Barco", "extra": {"n": [1, 2]}}
+              ]
+            }
+            ```""";
+
+    @Test
+    void questionObjectsAreEmittedAsSoonAsTheyClose() {
+        StreamingJsonObjectScanner scanner = new StreamingJsonObjectScanner();
+        int firstEnd = RESPONSE.indexOf("\"},") + 2;
+
+        List<String> first = scanner.feed(RESPONSE.substring(0, firstEnd));
+        assertEquals(1, first.size());
+        assertEquals("{\"questionLetter\": \"a\", \"questionText\": \"Con la A: Llave {de} [paso] \\\"grande\\\"\"}",
+                first.get(0));
+
+        List<String> rest = scanner.feed(RESPONSE.substring(firstEnd));
+        assertEquals(1, rest.size());
+        assertTrue(rest.get(0).endsWith("\"extra\": {\"n\": [1, 2]}}"), rest.get(0));
+    }
+
+    @Test
+    void resultDoesNotDependOnHowTheTextIsSplit() {
+        List<String> whole = new StreamingJsonObjectScanner().feed(RESPONSE);
+        assertEquals(2, whole.size());
+
+        StreamingJsonObjectScanner scanner = new StreamingJsonObjectScanner();
+        List<String> byChar = new ArrayList<>();
+        for (int i = 0; i < RESPONSE.length(); i++) {
+            byChar.addAll(scanner.feed(RESPONSE.substring(i, i + 1)));
+        }
+        assertEquals(whole, byChar);
+    }
+
+    @Test
+    void topLevelArrayElementsAreEmittedAndIncompleteOnesAreNot() {
+        StreamingJsonObjectScanner scanner = new StreamingJsonObjectScanner();
+
+        assertEquals(List.of("{\"questionLetter\":\"c\"}"),
+                scanner.feed("Aquí tienes: [{\"questionLetter\":\"c\"}, {\"questionLetter\":\"d\""));
+        assertEquals(List.of(), scanner.feed(", \"questionText\": \"sin cerrar"));
+    }
+}
@@ -0,0 +1,103 @@
+package Apalabrazos.backend.lobby;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LobbyChatTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void tickBroadcastsPendingMessagesInOneFrame() throws Exception {
+        LobbyChat chat = new LobbyChat(10, 100, 10, 1, clock::get);
+        assertNull(chat.drain());
+
+        chat.post("ana", "hola");
+        chat.post("luis", "buenas");
+        JsonNode node = mapper.readTree(chat.drain());
+
+        assertEquals("chat_messages", node.get("type").asText());
+        JsonNode messages = node.get("payload").get("messages");
+        assertEquals(2, messages.size());
+        assertEquals("ana", messages.get(0).get("username_originator").asText());
+        assertEquals("buenas", messages.get(1).get("text").asText());
+        assertTrue(messages.get(0).get("seq").asLong() < messages.get(1).get("seq").asLong());
+        assertNull(chat.drain());
+    }
+
+    @Test
+    void historyKeepsOnlyLatestMessagesAndIsEncodedOncePerTick() throws Exception {
+        LobbyChat chat = new LobbyChat(3, 100, 10, 1, clock::get);
+        for (int i = 1; i <= 5; i++) {
+            chat.post("ana", "m" + i);
+        }
+        chat.drain();
+
+        String first = chat.historyFrame();
+        assertSame(first, chat.historyFrame());
+        JsonNode messages = mapper.readTree(first).get("payload").get("messages");
+        assertEquals(3, messages.size());
+        assertEquals("m3", messages.get(0).get("text").asText());
+        assertEquals("m5", messages.get(2).get("text").asText());
+
+        chat.post("ana", "m6");
+        assertSame(first, chat.historyFrame());
+        chat.drain();
+        assertNotSame(first, chat.historyFrame());
+        assertEquals(3, chat.historySize());
+    }
+
+    @Test
+    void quotaAllowsBurstThenRefills() {
+        LobbyChat chat = new LobbyChat(10, 100, 2, 1, clock::get);
+
+        assertTrue(chat.post("ana", "1"));
+        assertTrue(chat.post("ana", "2"));
+        assertFalse(chat.post("ana", "3"));
+        assertTrue(chat.post("luis", "otro usuario, otro cupo"));
+
+        clock.addAndGet(SECOND);
+        assertTrue(chat.post("ana", "4"));
+        assertFalse(chat.post("ana", "5"));
+        assertEquals(4, chat.pendingSize());
+    }
+
+    @Test
+    void longMessagesAreTrimmedAndBlankOnesRejected() throws Exception {
+        LobbyChat chat = new LobbyChat(10, 5, 10, 1, clock::get);
+
+        assertFalse(chat.post("ana", "   "));
+        assertTrue(chat.post("ana", "demasiado largo"));
+        JsonNode messages = mapper.readTree(chat.drain()).get("payload").get("messages");
+        assertEquals("demas", messages.get(0).get("text").asText());
+    }
+
+    @Test
+    void fullQuotasArePruned() {
+        LobbyChat chat = new LobbyChat(10, 100, 2, 1, clock::get);
+        chat.post("ana", "hola");
+        chat.post("luis", "hola");
+        chat.post("luis", "otra vez");
+
+        clock.addAndGet(SECOND);
+        chat.pruneQuotas();
+        assertEquals(1, chat.quotaCount());
+
+        clock.addAndGet(SECOND);
+        chat.pruneQuotas();
+        assertEquals(0, chat.quotaCount());
+    }
+}
@@ -0,0 +1,192 @@
+package Apalabrazos.backend.lobby;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LobbyMatchesStateTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private static Map<String, Object> match(String roomId, int players) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("roomId", roomId);
+        summary.put("name", "Game " + roomId);
+        summary.put("players", players);
+        summary.put("maxPlayers", 2);
+        summary.put("difficulty", "MEDIUM");
+        return summary;
+    }
+
+    private static Map<String, Object> match(String roomId, int players, String difficulty) {
+        Map<String, Object> summary = match(roomId, players);
+        summary.put("difficulty", difficulty);
+        return summary;
+    }
+
+    @Test
+    void snapshotIsEncodedOncePerVersion() throws Exception {
+        LobbyMatchesState state = new LobbyMatchesState(16);
+        state.upsert(match("a", 1));
+
+        String first = state.snapshotFrame();
+        assertSame(first, state.snapshotFrame());
+
+        state.upsert(match("b", 1));
+        String second = state.snapshotFrame();
+        assertNotSame(first, second);
+
+        JsonNode node = mapper.readTree(second);
+        assertEquals("LobbyMatchesSnapshot", node.get("type").asText());
+        assertEquals(2, node.get("payload").get("version").asLong());
+        assertEquals(2, node.get("payload").get("matches").size());
+    }
+
+    @Test
+    void reconnectGetsOnlyLatestChangePerMatch() throws Exception {
+        LobbyMatchesState state = new LobbyMatchesState(16);
+        state.upsert(match("a", 1));
+        long known = state.upsert(match("b", 1));
+        state.upsert(match("a", 2));
+        state.upsert(match("c", 1));
+        state.upsert(match("a", 3));
+        state.remove("b");
+
+        JsonNode node = mapper.readTree(state.syncFrame(state.getEpoch(), known));
+        JsonNode payload = node.get("payload");
+        assertEquals("LobbyMatchesDelta", node.get("type").asText());
+        assertEquals(known, payload.get("fromVersion").asLong());
+        assertEquals(6, payload.get("version").asLong());
+
+        JsonNode changes = payload.get("changes");
+        assertEquals(3, changes.size());
+        assertEquals("c", changes.get(0).get("roomId").asText());
+        assertEquals("a", changes.get(1).get("roomId").asText());
+        assertEquals(3, changes.get(1).get("match").get("players").asInt());
+        assertEquals("REMOVE", changes.get(2).get("op").asText());
+        assertEquals("b", changes.get(2).get("roomId").asText());
+    }
+
+    @Test
+    void upToDateClientGetsEmptyDelta() throws Exception {
+        LobbyMatchesState state = new LobbyMatchesState(16);
+        long version = state.upsert(match("a", 1));
+
+        JsonNode node = mapper.readTree(state.syncFrame(state.getEpoch(), version));
+        assertEquals("LobbyMatchesDelta", node.get("type").asText());
+        assertEquals(0, node.get("payload").get("changes").size());
+    }
+
+    @Test
+    void unknownEpochOrTrimmedHistoryFallsBackToSnapshot() {
+        LobbyMatchesState state = new LobbyMatchesState(2);
+        state.upsert(match("a", 1));
+        state.upsert(match("b", 1));
+        state.upsert(match("c", 1));
+        state.upsert(match("d", 1));
+
+        assertSame(state.snapshotFrame(), state.syncFrame("other-run", 3));
+        assertSame(state.snapshotFrame(), state.syncFrame(state.getEpoch(), 1));
+        assertSame(state.snapshotFrame(), state.syncFrame(state.getEpoch(), 99));
+    }
+
+    @Test
+    void removingUnlistedMatchDoesNotBumpVersion() {
+        LobbyMatchesState state = new LobbyMatchesState(16);
+        state.upsert(match("a", 1));
+
+        assertEquals(-1, state.remove("missing"));
+        assertEquals(1, state.getVersion());
+        assertEquals(2, state.remove("a"));
+        assertEquals(0, state.size());
+    }
+
+    @Test
+    void broadcastBatchMergesWindowChangesPerRoom() throws Exception {
+        LobbyMatchesState state = new LobbyMatchesState(16);
+        assertNull(state.changesSince(0));
+
+        state.upsert(match("a", 1));
+        state.upsert(match("a", 2));
+        state.upsert(match("b", 1));
+        LobbyMatchesState.Batch batch = state.changesSince(0);
+
+        assertEquals(3, batch.version());
+        JsonNode changes = mapper.readTree(batch.frame()).get("payload").get("changes");
+        assertEquals(2, changes.size());
+        assertEquals(2, changes.get(0).get("match").get("players").asInt());
+        assertNull(state.changesSince(batch.version()));
+    }
+
+    @Test
+    void pageAppliesFilterAndPagination() throws Exception {
+        LobbyMatchesState state = new LobbyMatchesState(16);
+        state.upsert(match("a", 1, "EASY"));
+        state.upsert(match("b", 2, "EASY"));
+        state.upsert(match("c", 1, "HARD"));
+        state.upsert(match("d", 1, "easy"));
+        state.upsert(match("e", 1, "EASY"));
+
+        LobbyView view = new LobbyView("easy", null, null, 1, 1, 1);
+        LobbyMatchesState.Page page = state.page(view);
+        assertEquals(3, page.total());
+        assertEquals(1, page.matches().size());
+        assertEquals("d", page.matches().get(0).get("roomId"));
+
+        JsonNode payload = mapper.readTree(state.pageFrame(view, page)).get("payload");
+        assertEquals("EASY", payload.get("filter").get("difficulty").asText());
+        assertEquals(1, payload.get("matches").size());
+
+        assertEquals(0, state.page(new LobbyView(null, null, "game z", 0, 0, 10)).total());
+        assertEquals(0, state.page(new LobbyView(null, null, null, 0, 9, 10)).matches().size());
+    }
+
+    @Test
+    void pageChangesOnlyWhenItsMatchesChange() {
+        LobbyMatchesState state = new LobbyMatchesState(16);
+        state.upsert(match("a", 1, "EASY"));
+        state.upsert(match("b", 1, "HARD"));
+        LobbyView easy = new LobbyView("EASY", null, null, 0, 0, 10);
+        LobbyMatchesState.Page before = state.page(easy);
+
+        state.upsert(match("b", 2, "HARD"));
+        assertTrue(state.page(easy).sameContentAs(before));
+
+        state.upsert(match("a", 2, "EASY"));
+        assertFalse(state.page(easy).sameContentAs(before));
+    }
+
+    @Test
+    void changedSummariesIncludeWhatAMatchWasBeforeTheChange() {
+        LobbyMatchesState state = new LobbyMatchesState(2);
+        state.upsert(match("a", 1, "EASY"));
+        long known = state.upsert(match("b", 1, "HARD"));
+        LobbyView easy = new LobbyView("EASY", null, null, 0, 0, 10);
+
+        assertTrue(state.summariesChangedSince(known).isEmpty());
+
+        // Sale del filtro EASY: la vista tiene que recalcularse aunque el resumen nuevo no lo pase
+        state.upsert(match("a", 1, "HARD"));
+        List<Map<String, Object>> changed = state.summariesChangedSince(known);
+        assertEquals(2, changed.size());
+        assertTrue(changed.stream().anyMatch(easy::matches));
+
+        state.remove("b");
+        assertEquals(List.of("EASY", "HARD", "HARD"),
+                state.summariesChangedSince(known).stream().map(m -> m.get("difficulty")).toList());
+
+        // Historial recortado: no se puede saber qué vistas afecta
+        assertNull(state.summariesChangedSince(0));
+    }
+}
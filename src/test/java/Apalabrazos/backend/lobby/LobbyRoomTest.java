@@ -0,0 +1,127 @@
+package Apalabrazos.backend.lobby;
+
+import Apalabrazos.backend.model.Player;
+import Apalabrazos.backend.network.MessageSender;
+import Apalabrazos.backend.network.WsMessageType;
+import Apalabrazos.backend.service.ConnectionRegistry;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LobbyRoomTest {
+
+    private final ConnectionRegistry connectionRegistry = ConnectionRegistry.getInstance();
+    private final LobbyRoom lobby = LobbyRoom.getInstance();
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final List<Map<String, Object>> created = new ArrayList<>();
+    private final List<UUID> sessions = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        for (UUID sessionId : sessions) {
+            lobby.leave(sessionId);
+        }
+        for (Map<String, Object> summary : created) {
+            lobby.broadcastMatchRemovedIfListed(summary, null);
+        }
+        connectionRegistry.clearAllConnections();
+    }
+
+    @Test
+    void subscriberGetsOnePagePerChangeInVersionOrder() throws Exception {
+        // Prefijo propio para que las partidas de otros tests no entren en la vista
+        String prefix = "view-" + UUID.randomUUID().toString().substring(0, 8);
+        RecordingSender sender = joinLobby();
+        LobbyView view = new LobbyView(null, null, prefix, 0, 0, 10);
+
+        // Cambio aún sin difundir cuando llega la suscripción
+        announce(prefix + "-a");
+        lobby.subscribe(sender.sessionId, view);
+        List<JsonNode> pages = awaitPages(sender, 1);
+        assertEquals(1, pages.get(0).path("payload").path("total").asInt());
+
+        announce(prefix + "-b");
+        pages = awaitPages(sender, 2);
+        assertEquals(2, pages.get(1).path("payload").path("total").asInt());
+        assertTrue(pages.get(0).path("payload").path("version").asLong()
+                < pages.get(1).path("payload").path("version").asLong());
+    }
+
+    private RecordingSender joinLobby() {
+        RecordingSender sender = new RecordingSender(UUID.randomUUID());
+        connectionRegistry.registerConnection(new Player(sender.sessionId, "p", "id-" + sender.sessionId, sender));
+        lobby.join(sender.sessionId);
+        sessions.add(sender.sessionId);
+        return sender;
+    }
+
+    private void announce(String name) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("roomId", UUID.randomUUID().toString());
+        summary.put("name", name);
+        summary.put("players", 1);
+        summary.put("maxPlayers", 2);
+        created.add(summary);
+        lobby.broadcastMatchCreated(summary, null);
+    }
+
+    /**
+     * Espera a que lleguen {@code expected} páginas y, pasadas varias ventanas de difusión,
+     * comprueba que no llega ninguna más.
+     */
+    private List<JsonNode> awaitPages(RecordingSender sender, int expected) throws Exception {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (pages(sender).size() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        Thread.sleep(500);
+        List<JsonNode> pages = pages(sender);
+        assertEquals(expected, pages.size(), "pages received: " + pages);
+        return pages;
+    }
+
+    private List<JsonNode> pages(RecordingSender sender) throws Exception {
+        List<JsonNode> pages = new ArrayList<>();
+        for (Object message : sender.messages) {
+            JsonNode node = mapper.readTree(message.toString());
+            if (WsMessageType.LOBBY_MATCHES_PAGE.equals(node.path("type").asText())) {
+                pages.add(node);
+            }
+        }
+        return pages;
+    }
+
+    private static final class RecordingSender implements MessageSender {
+        private final UUID sessionId;
+        private final List<Object> messages = new CopyOnWriteArrayList<>();
+
+        private RecordingSender(UUID sessionId) {
+            this.sessionId = sessionId;
+        }
+
+        @Override
+        public void send(Object message) {
+            messages.add(message);
+        }
+
+        @Override
+        public boolean isConnected() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
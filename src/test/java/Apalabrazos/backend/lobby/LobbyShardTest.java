@@ -0,0 +1,102 @@
+package Apalabrazos.backend.lobby;
+
+import Apalabrazos.backend.model.Player;
+import Apalabrazos.backend.network.MessageSender;
+import Apalabrazos.backend.service.ConnectionRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LobbyShardTest {
+
+    private final ConnectionRegistry connectionRegistry = ConnectionRegistry.getInstance();
+
+    @AfterEach
+    void tearDown() {
+        connectionRegistry.clearAllConnections();
+    }
+
+    @Test
+    void broadcastReachesFilteredSessionsInOrder() throws Exception {
+        LobbyShard shard = new LobbyShard(0);
+        RecordingSender first = register(shard);
+        RecordingSender second = register(shard);
+        RecordingSender skipped = register(shard);
+        UUID skippedId = skipped.sessionId;
+
+        shard.broadcast("one", id -> !id.equals(skippedId), "TEST");
+        shard.broadcast("two", id -> !id.equals(skippedId), "TEST");
+        awaitIdle(shard);
+
+        assertEquals(List.of("one", "two"), first.messages);
+        assertEquals(List.of("one", "two"), second.messages);
+        assertTrue(skipped.messages.isEmpty());
+    }
+
+    @Test
+    void sendToTargetsOnlyGivenSessions() throws Exception {
+        LobbyShard shard = new LobbyShard(1);
+        RecordingSender target = register(shard);
+        RecordingSender other = register(shard);
+
+        shard.sendTo(List.of(target.sessionId), "page", "TEST");
+        awaitIdle(shard);
+
+        assertEquals(List.of("page"), target.messages);
+        assertTrue(other.messages.isEmpty());
+        assertEquals(2, shard.size());
+    }
+
+    private RecordingSender register(LobbyShard shard) {
+        RecordingSender sender = new RecordingSender(UUID.randomUUID());
+        connectionRegistry.registerConnection(new Player(sender.sessionId, "p", "id-" + sender.sessionId, sender));
+        shard.add(sender.sessionId);
+        return sender;
+    }
+
+    // El hilo del shard es FIFO: cuando corre esta tarea ya han terminado las anteriores
+    private static void awaitIdle(LobbyShard shard) throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        UUID marker = UUID.randomUUID();
+        shard.add(marker);
+        shard.broadcast("", id -> {
+            if (id.equals(marker)) {
+                done.countDown();
+            }
+            return false;
+        }, "TEST");
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        shard.remove(marker);
+    }
+
+    private static final class RecordingSender implements MessageSender {
+        private final UUID sessionId;
+        private final List<Object> messages = new CopyOnWriteArrayList<>();
+
+        private RecordingSender(UUID sessionId) {
+            this.sessionId = sessionId;
+        }
+
+        @Override
+        public void send(Object message) {
+            messages.add(message);
+        }
+
+        @Override
+        public boolean isConnected() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package Apalabrazos.backend.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TagSamplingTurboFilterTest {
+
+    private final LoggerContext context = new LoggerContext();
+    private final Logger logger = context.getLogger("sampling-test");
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    void rateRuleAllowsNPerSecondAndResetsOnTheNextSecond() {
+        TagSamplingTurboFilter filter = startFilter("WS-BUS=2/s");
+
+        assertEquals(FilterReply.NEUTRAL, decide(filter, Level.INFO, "[WS-BUS][FE->BE] a"));
+        assertEquals(FilterReply.NEUTRAL, decide(filter, Level.INFO, "[WS-BUS][FE->BE] b"));
+        assertEquals(FilterReply.DENY, decide(filter, Level.INFO, "[WS-BUS][FE->BE] c"));
+
+        now.set(1_000_000_000L);
+        assertEquals(FilterReply.NEUTRAL, decide(filter, Level.INFO, "[WS-BUS] d"));
+    }
+
+    @Test
+    void everyNthRuleKeepsOneOfN() {
+        TagSamplingTurboFilter filter = startFilter("QUESTION-PUBLISH=1/3");
+
+        int kept = 0;
+        for (int i = 0; i < 9; i++) {
+            if (decide(filter, Level.INFO, "[QUESTION-PUBLISH] playerId={}") == FilterReply.NEUTRAL) {
+                kept++;
+            }
+        }
+        assertEquals(3, kept);
+    }
+
+    @Test
+    void warningsOtherCategoriesAndDisabledLevelsAreNotSampled() {
+        TagSamplingTurboFilter filter = startFilter("ASYNC-BUS=0/s");
+        logger.setLevel(Level.INFO);
+
+        assertEquals(FilterReply.DENY, decide(filter, Level.INFO, "[ASYNC-BUS][SEND] x"));
+        assertEquals(FilterReply.NEUTRAL, decide(filter, Level.WARN, "[ASYNC-BUS][SEND] x"));
+        assertEquals(FilterReply.NEUTRAL, decide(filter, Level.ERROR, "[ASYNC-BUS] x"));
+        assertEquals(FilterReply.NEUTRAL, decide(filter, Level.DEBUG, "[ASYNC-BUS] x"));
+        assertEquals(FilterReply.NEUTRAL, decide(filter, Level.INFO, "[LOBBY] x"));
+        assertEquals(FilterReply.NEUTRAL, decide(filter, Level.INFO, "Processing answer"));
+    }
+
+    @Test
+    void invalidRulesAreSkipped() {
+        TagSamplingTurboFilter filter = startFilter("WS-BUS=fast, ASYNC-BUS=2/3, QUESTION-PUBLISH=0/s");
+
+        assertEquals(FilterReply.NEUTRAL, decide(filter, Level.INFO, "[WS-BUS] x"));
+        assertEquals(FilterReply.NEUTRAL, decide(filter, Level.INFO, "[ASYNC-BUS] x"));
+        assertEquals(FilterReply.DENY, decide(filter, Level.INFO, "[QUESTION-PUBLISH] x"));
+    }
+
+    private TagSamplingTurboFilter startFilter(String rules) {
+        TagSamplingTurboFilter filter = new TagSamplingTurboFilter();
+        filter.setContext(context);
+        filter.setRules(rules);
+        filter.setNanoClock(now::get);
+        filter.start();
+        return filter;
+    }
+
+    private FilterReply decide(TagSamplingTurboFilter filter, Level level, String format) {
+        return filter.decide(null, logger, level, format, null, null);
+    }
+}
@@ -0,0 +1,77 @@
+package Apalabrazos.backend.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+
+    @Test
+    void bucketsAreContiguousAndMonotonic() {
+        long previousUpper = -1;
+        for (int i = 0; i < 1024; i++) {
+            long upper = LatencyHistogram.bucketUpperBound(i);
+            assertTrue(upper > previousUpper);
+            assertEquals(i, LatencyHistogram.bucketIndex(upper));
+            assertEquals(i, LatencyHistogram.bucketIndex(previousUpper + 1));
+            previousUpper = upper;
+        }
+    }
+
+    @Test
+    void percentilesStayWithinThreePercent() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long v = 1; v <= 10_000; v++) {
+            histogram.recordMicros(v);
+        }
+
+        assertEquals(10_000, histogram.getCount());
+        assertEquals(5_000, histogram.percentileMicros(50), 5_000 * 0.03);
+        assertEquals(9_900, histogram.percentileMicros(99), 9_900 * 0.03);
+        assertEquals(10_000, histogram.percentileMicros(100));
+    }
+
+    @Test
+    void negativeValuesAffectMinButNotPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.recordMillis(-20);
+        histogram.recordMillis(40);
+
+        Map<String, Object> snapshot = histogram.snapshot();
+        assertEquals(-20.0, snapshot.get("minMs"));
+        assertEquals(10.0, snapshot.get("meanMs"));
+        assertEquals(0L, histogram.percentileMicros(50));
+    }
+
+    @Test
+    void answerStatsRecordEveryStage() {
+        AnswerLatencyStats stats = new AnswerLatencyStats();
+        TraceContext trace = TraceContext.start("AnswerSubmitted", "p1", "ws.received");
+        trace.setClientSentAtMillis(trace.getStartedAtMillis() - 50);
+        trace.span(AnswerLatencyStats.VALIDATED_HOP);
+        long validatedOffset = trace.spanOffsetNanos(AnswerLatencyStats.VALIDATED_HOP);
+
+        stats.recordAnswer(trace, trace.getStartNanos() + validatedOffset + 3_000_000L);
+
+        for (AnswerLatencyStats.Stage stage : AnswerLatencyStats.Stage.values()) {
+            assertEquals(1, stats.getHistogram(stage).getCount(), stage.getKey());
+        }
+        assertEquals(50_000, stats.getHistogram(AnswerLatencyStats.Stage.CLIENT_TO_SERVER).percentileMicros(100), 50_000 * 0.03);
+        assertEquals(3_000, stats.getHistogram(AnswerLatencyStats.Stage.VALIDATED_TO_NEXT_QUESTION).percentileMicros(100), 3_000 * 0.03);
+    }
+
+    @Test
+    void answerWithoutValidatedSpanOnlyRecordsTheTotal() {
+        AnswerLatencyStats stats = new AnswerLatencyStats();
+        TraceContext trace = TraceContext.start("AnswerSubmitted", "p1", "ws.received");
+
+        stats.recordAnswer(trace, trace.getStartNanos() + 4_000_000L);
+
+        assertEquals(0, stats.getHistogram(AnswerLatencyStats.Stage.CLIENT_TO_SERVER).getCount());
+        assertEquals(0, stats.getHistogram(AnswerLatencyStats.Stage.RECEIVE_TO_VALIDATED).getCount());
+        assertEquals(1, stats.getHistogram(AnswerLatencyStats.Stage.RECEIVE_TO_NEXT_QUESTION).getCount());
+    }
+}
@@ -0,0 +1,76 @@
+package Apalabrazos.backend.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MetricsRegistryTest {
+
+    @Test
+    void countersAndGaugesAreWrittenInPrometheusFormat() {
+        MetricsRegistry registry = new MetricsRegistry();
+        MetricsRegistry.Family<LongAdder> sent = registry.counterFamily("test_sent_total", "Sent messages", "type");
+        sent.labels("TimerTick").add(3);
+        sent.labels("GameFinished").increment();
+        registry.gauge("test_connections", "Open connections", () -> 7);
+
+        String text = registry.scrape();
+
+        assertTrue(text.contains("# HELP test_sent_total Sent messages\n"));
+        assertTrue(text.contains("# TYPE test_sent_total counter\n"));
+        assertTrue(text.contains("test_sent_total{type=\"TimerTick\"} 3\n"));
+        assertTrue(text.contains("test_sent_total{type=\"GameFinished\"} 1\n"));
+        assertTrue(text.contains("# TYPE test_connections gauge\ntest_connections 7\n"));
+    }
+
+    @Test
+    void histogramsAreExportedAsSummariesInSeconds() {
+        MetricsRegistry registry = new MetricsRegistry();
+        LatencyHistogram histogram = registry.histogramFamily("test_latency_seconds", "Latency", "stage")
+                .labels("total");
+        histogram.recordMillis(2);
+        histogram.recordMillis(2);
+
+        String text = registry.scrape();
+
+        assertTrue(text.contains("# TYPE test_latency_seconds summary\n"));
+        assertTrue(text.contains("test_latency_seconds{stage=\"total\",quantile=\"0.5\"} 0.002\n"));
+        assertTrue(text.contains("test_latency_seconds_sum{stage=\"total\"} 0.004\n"));
+        assertTrue(text.contains("test_latency_seconds_count{stage=\"total\"} 2\n"));
+    }
+
+    @Test
+    void sameNameReturnsSameFamilyAndRejectsOtherType() {
+        MetricsRegistry registry = new MetricsRegistry();
+        LongAdder first = registry.counter("test_total", "Test");
+        LongAdder second = registry.counter("test_total", "Test");
+
+        assertSame(first, second);
+        assertThrows(IllegalArgumentException.class, () -> registry.histogram("test_total", "Test"));
+    }
+
+    @Test
+    void labelValuesBeyondTheLimitFoldIntoOther() {
+        MetricsRegistry registry = new MetricsRegistry();
+        MetricsRegistry.Family<LongAdder> received = registry.counterFamily("test_received_total", "Received", "type");
+        for (int i = 0; i < MetricsRegistry.MAX_LABEL_VALUES + 10; i++) {
+            received.labels("type" + i).increment();
+        }
+
+        assertSame(received.labels(MetricsRegistry.OVERFLOW_LABEL_VALUE), received.labels("type" + 1000));
+        assertSame(received.labels(MetricsRegistry.OVERFLOW_LABEL_VALUE), received.labels(""));
+        assertTrue(registry.scrape().contains("test_received_total{type=\"other\"} 10\n"));
+    }
+
+    @Test
+    void labelValuesAreEscaped() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counterFamily("test_escaped_total", "Escaped", "type").labels("a\"b\\c").increment();
+
+        assertTrue(registry.scrape().contains("test_escaped_total{type=\"a\\\"b\\\\c\"} 1\n"));
+    }
+}
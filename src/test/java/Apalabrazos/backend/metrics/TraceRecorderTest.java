@@ -0,0 +1,71 @@
+package Apalabrazos.backend.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TraceRecorderTest {
+
+    @Test
+    void spansAreReportedInOrderWithDeltas() {
+        TraceRecorder recorder = new TraceRecorder(8);
+        TraceContext trace = TraceContext.start("AnswerSubmitted", "p1", "ws.received");
+        trace.setMatchId("m1");
+        trace.span("bus.delivered");
+        trace.span("question-changed.sent");
+        trace.finishInto(recorder);
+
+        Map<String, Object> summary = trace.toMap();
+        assertEquals("m1", summary.get("matchId"));
+        assertEquals("p1", summary.get("playerId"));
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> spans = (List<Map<String, Object>>) summary.get("spans");
+        assertEquals(3, spans.size());
+        assertEquals("ws.received", spans.get(0).get("hop"));
+        assertEquals("question-changed.sent", spans.get(2).get("hop"));
+        assertTrue(trace.getDurationNanos() >= 0);
+        assertEquals(1, recorder.getRecordedCount());
+    }
+
+    @Test
+    void finishIsRecordedOnceAndLateSpansAreIgnored() {
+        TraceRecorder recorder = new TraceRecorder(8);
+        TraceContext trace = TraceContext.start("AnswerSubmitted", "p1", "ws.received");
+        trace.finishInto(recorder);
+        trace.span("late");
+        trace.finishInto(recorder);
+
+        assertEquals(1, recorder.getRecordedCount());
+        assertEquals(1, ((List<?>) trace.toMap().get("spans")).size());
+    }
+
+    @Test
+    void openTraceHasNoTotal() {
+        TraceContext trace = TraceContext.start("AnswerSubmitted", "p1", "ws.received");
+        assertNull(trace.toMap().get("totalMs"));
+    }
+
+    @Test
+    void ringKeepsLatestTracesAndSortsBySlowest() throws InterruptedException {
+        TraceRecorder recorder = new TraceRecorder(2);
+        TraceContext first = TraceContext.start("A", "p1", "start");
+        first.finishInto(recorder);
+        TraceContext slow = TraceContext.start("B", "p2", "start");
+        Thread.sleep(5);
+        slow.finishInto(recorder);
+        TraceContext fast = TraceContext.start("C", "p3", "start");
+        fast.finishInto(recorder);
+
+        List<TraceContext> slowest = recorder.slowest(10);
+        assertEquals(2, slowest.size());
+        assertEquals("B", slowest.get(0).getName());
+        assertEquals("C", slowest.get(1).getName());
+        assertEquals(1, recorder.slowest(1).size());
+        assertEquals(3, recorder.getRecordedCount());
+    }
+}
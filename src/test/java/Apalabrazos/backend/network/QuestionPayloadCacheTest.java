@@ -0,0 +1,81 @@
+package Apalabrazos.backend.network;
+
+import Apalabrazos.backend.model.Question;
+import Apalabrazos.backend.model.QuestionLevel;
+import Apalabrazos.backend.model.QuestionList;
+import Apalabrazos.backend.model.QuestionStatus;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QuestionPayloadCacheTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Test
+    void buildsValidQuestionChangedMessageFromCachedFragment() throws Exception {
+        QuestionList list = new QuestionList();
+        list.addQuestion(question("Con A: \"árbol\" grande", "a"));
+        list.addQuestion(question("Con B: barco", "b"));
+        QuestionPayloadCache cache = QuestionPayloadCache.build("ROOM1234", list);
+
+        String message = cache.buildQuestionChangedMessage(1, QuestionStatus.INIT, list.getQuestionAt(1), 3, 2);
+        JsonNode root = MAPPER.readTree(message);
+
+        assertEquals(WsMessageType.QUESTION_CHANGED, root.path("type").asText());
+        JsonNode payload = root.path("payload");
+        assertEquals("ROOM1234", payload.path("roomId").asText());
+        assertEquals(1, payload.path("questionIndex").asInt());
+        assertEquals("INIT", payload.path("status").asText());
+        assertEquals(3, payload.path("totalCorrect").asInt());
+        assertEquals(2, payload.path("totalIncorrect").asInt());
+        assertEquals("Con B: barco", payload.path("nextQuestion").path("questionText").asText());
+        assertEquals(4, payload.path("nextQuestion").path("questionResponsesList").size());
+        assertFalse(payload.path("nextQuestion").has("correctQuestionIndex"));
+    }
+
+    @Test
+    void fragmentsAreEncodedOnceAndReused() throws Exception {
+        QuestionList list = new QuestionList();
+        list.addQuestion(question("Con A: \"árbol\" grande", "a"));
+        QuestionPayloadCache cache = QuestionPayloadCache.build("ROOM1234", list);
+
+        assertSame(cache.fragmentAt(0), cache.fragmentAt(0));
+        assertEquals("Con A: \"árbol\" grande", MAPPER.readTree(cache.fragmentAt(0)).path("questionText").asText());
+        assertNull(cache.fragmentAt(5));
+    }
+
+    @Test
+    void handlesMissingQuestionAndNullStatus() throws Exception {
+        QuestionPayloadCache cache = QuestionPayloadCache.build("ROOM1234", null);
+
+        JsonNode payload = MAPPER.readTree(cache.buildQuestionChangedMessage(7, null, null, 0, 0)).path("payload");
+
+        assertTrue(payload.path("nextQuestion").isNull());
+        assertTrue(payload.path("status").isNull());
+        assertEquals(7, payload.path("questionIndex").asInt());
+    }
+
+    @Test
+    void encodesQuestionsOutsideTheCacheOnTheFly() throws Exception {
+        QuestionPayloadCache cache = QuestionPayloadCache.build("ROOM1234", null);
+
+        String message = cache.buildQuestionChangedMessage(0, QuestionStatus.INIT, question("Con C: casa", "c"), 0, 0);
+
+        assertEquals("Con C: casa",
+                MAPPER.readTree(message).path("payload").path("nextQuestion").path("questionText").asText());
+    }
+
+    private static Question question(String text, String letter) {
+        return new Question(text, List.of("r1", "r2", "r3", "r4"), 0,
+                QuestionStatus.INIT, QuestionLevel.EASY, letter, QuestionStatus.INIT.getValue());
+    }
+}
@@ -0,0 +1,41 @@
+package Apalabrazos.backend.repository;
+
+import Apalabrazos.backend.model.User;
+import Apalabrazos.backend.tools.PasswordHasher;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InMemoryUserRepositoryTest {
+
+    @Test
+    void seededUsersCanBeFoundAndAuthenticated() {
+        InMemoryUserRepository repository = new InMemoryUserRepository();
+        repository.seed(3, "loadtest123");
+
+        assertEquals(3, repository.size());
+        List<User> candidates = repository.findByEmailCandidates("LoadTest2@loadtest.local");
+        assertEquals(1, candidates.size());
+
+        User user = candidates.get(0);
+        assertEquals("loadtest2", user.username);
+        assertNotNull(user.userId);
+        assertEquals(user.id, user.userId);
+        assertTrue(PasswordHasher.verifyPassword("loadtest123", user.password, user.salt));
+    }
+
+    @Test
+    void saveNormalizesEmailAndUnknownEmailsAreNotFound() {
+        InMemoryUserRepository repository = new InMemoryUserRepository();
+        repository.save(new User("Alice", " Alice@Example.com ", "hash", "salt"));
+
+        assertNotNull(repository.findByEmail("alice@example.com"));
+        assertNull(repository.findByEmail("bob@example.com"));
+        assertTrue(repository.findByEmailCandidates(null).isEmpty());
+    }
+}
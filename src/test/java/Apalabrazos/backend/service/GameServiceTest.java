@@ -14,6 +14,7 @@ import Apalabrazos.backend.events.QuestionLoadErrorEvent;
 import Apalabrazos.backend.events.StandingsEvent;
 import Apalabrazos.backend.events.TimerTickEvent;
 import Apalabrazos.backend.model.GameGlobal;
+import Apalabrazos.backend.model.GamePlayerConfig;
 import Apalabrazos.backend.model.GameInstance;
 import Apalabrazos.backend.model.Question;
 import Apalabrazos.backend.model.QuestionLevel;
@@ -28,11 +29,10 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.Delayed;
-import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -302,7 +302,7 @@ class GameServiceTest {
     }
 
     @Test
-    void loadQuestionsForAllPlayersWithTimeoutSuccessAssignsClonedListsAndStartsPlayers() throws Exception {
+    void assignQuestionsToPlayersAssignsClonedListsAndStartsPlayers() throws Exception {
         GameService service = new GameService();
         service.getGameInstance().setMaxPlayers(1);
         assertTrue(service.addPlayerToGame("p1"));
@@ -311,10 +311,7 @@ class GameServiceTest {
         loaded.addQuestion(createQuestion("a", QuestionStatus.INIT));
         loaded.addQuestion(createQuestion("b", QuestionStatus.INIT));
 
-        setField(service, "questionPreloadStarted", true);
-        setField(service, "questionLoadFuture", CompletableFuture.completedFuture(loaded));
-
-        invokeLoadQuestionsForAllPlayersWithTimeout(service);
+        invokeAssignQuestionsToPlayers(service, loaded);
 
         GameInstance instance = service.getGameInstance().getPlayerInstance("p1");
         assertNotNull(instance.getQuestionList());
@@ -324,56 +321,81 @@ class GameServiceTest {
     }
 
     @Test
-    void loadQuestionsForAllPlayersWithTimeoutTimeoutCancelsFuture() throws Exception {
-        GameService service = new GameService();
+    void initGameTimeoutCancelsPreloadFutureOnlyWhenTheDeadlinePasses() throws Exception {
+        VirtualMatchClock clock = new VirtualMatchClock();
+        GameService service = new GameService(new GamePlayerConfig(), clock);
         service.getGameInstance().setMaxPlayers(1);
         assertTrue(service.addPlayerToGame("p1"));
 
-        ImmediateTimeoutFuture future = new ImmediateTimeoutFuture();
+        CompletableFuture<QuestionList> neverCompletes = new CompletableFuture<>();
+        setField(service, "timeService", new FakeTimeService());
         setField(service, "questionPreloadStarted", true);
-        setField(service, "questionLoadFuture", future);
+        setField(service, "questionLoadFuture", neverCompletes);
+
+        List<GameEvent> events = registerEventCollector(service);
+        service.initGame();
+
+        clock.advance(59, TimeUnit.SECONDS);
+        assertNull(waitForEvent(events, QuestionLoadErrorEvent.class, 200));
+        assertFalse(neverCompletes.isCancelled());
 
-        TimeoutException ex = assertThrows(TimeoutException.class,
-                () -> invokeLoadQuestionsForAllPlayersWithTimeout(service));
-        assertEquals("forced-timeout", ex.getMessage());
-        assertTrue(future.isCancelled());
+        clock.advance(1, TimeUnit.SECONDS);
+        QuestionLoadErrorEvent error = waitForEvent(events, QuestionLoadErrorEvent.class, 1000);
+        assertNotNull(error);
+        assertEquals("TIMEOUT", error.getErrorReason());
+        assertTrue(neverCompletes.isCancelled());
+        // La cancelación de la precarga no produce un segundo error
+        Thread.sleep(100);
+        assertEquals(1, countEvents(events, QuestionLoadErrorEvent.class));
     }
 
     @Test
-    void loadQuestionsForAllPlayersWithTimeoutExecutionExceptionPropagatesCause() throws Exception {
+    void initGameLoadFailedReportsTheUnwrappedCause() throws Exception {
         GameService service = new GameService();
         service.getGameInstance().setMaxPlayers(1);
         assertTrue(service.addPlayerToGame("p1"));
 
         CompletableFuture<QuestionList> failed = new CompletableFuture<>();
-        failed.completeExceptionally(new IllegalStateException("boom"));
+        failed.completeExceptionally(new CompletionException(new IllegalStateException("boom")));
+        setField(service, "timeService", new FakeTimeService());
         setField(service, "questionPreloadStarted", true);
         setField(service, "questionLoadFuture", failed);
 
-        IllegalStateException ex = assertThrows(IllegalStateException.class,
-                () -> invokeLoadQuestionsForAllPlayersWithTimeout(service));
-        assertEquals("boom", ex.getMessage());
+        List<GameEvent> events = registerEventCollector(service);
+        service.initGame();
+
+        QuestionLoadErrorEvent error = waitForEvent(events, QuestionLoadErrorEvent.class, 1000);
+        assertNotNull(error);
+        assertEquals("LOAD_FAILED", error.getErrorReason());
+        assertEquals("boom", error.getErrorMessage());
     }
 
     @Test
-    void loadQuestionsForAllPlayersWithTimeoutInterruptedWrapsException() throws Exception {
+    void initGameDoesNotHoldTheMailboxWhileQuestionsLoad() throws Exception {
         GameService service = new GameService();
         service.getGameInstance().setMaxPlayers(1);
         assertTrue(service.addPlayerToGame("p1"));
 
-        CompletableFuture<QuestionList> neverCompletes = new CompletableFuture<>();
+        CompletableFuture<QuestionList> pending = new CompletableFuture<>();
+        setField(service, "timeService", new FakeTimeService());
         setField(service, "questionPreloadStarted", true);
-        setField(service, "questionLoadFuture", neverCompletes);
+        setField(service, "questionLoadFuture", pending);
 
-        Thread.currentThread().interrupt();
-        Exception ex;
-        try {
-            ex = assertThrows(Exception.class, () -> invokeLoadQuestionsForAllPlayersWithTimeout(service));
-        } finally {
-            Thread.interrupted();
-        }
+        List<GameEvent> events = registerEventCollector(service);
+        MatchMailbox mailbox = (MatchMailbox) getField(service, "mailbox");
+        mailbox.runAndWait(service::initGame);
+
+        // Con la carga pendiente el mailbox sigue atendiendo otras tareas
+        assertTrue(mailbox.call(() -> true).get(1, TimeUnit.SECONDS));
+        assertNull(waitForEvent(events, QuestionChangedEvent.class, 100));
+
+        QuestionList loaded = new QuestionList();
+        loaded.addQuestion(createQuestion("a", QuestionStatus.INIT));
+        pending.complete(loaded);
 
-        assertEquals("Question loading interrupted", ex.getMessage());
+        QuestionChangedEvent changed = waitForEvent(events, QuestionChangedEvent.class, 1000);
+        assertNotNull(changed);
+        assertEquals(0, changed.getQuestionIndex());
     }
 
     @Test
@@ -404,17 +426,19 @@ class GameServiceTest {
 
     @Test
     void initGameTimeoutPublishesTimeoutErrorAndStopsTimeService() throws Exception {
-        GameService service = new GameService();
+        VirtualMatchClock clock = new VirtualMatchClock();
+        GameService service = new GameService(new GamePlayerConfig(), clock);
         service.getGameInstance().setMaxPlayers(1);
         assertTrue(service.addPlayerToGame("p1"));
 
         FakeTimeService fakeTime = new FakeTimeService();
         setField(service, "timeService", fakeTime);
         setField(service, "questionPreloadStarted", true);
-        setField(service, "questionLoadFuture", new ImmediateTimeoutFuture());
+        setField(service, "questionLoadFuture", new CompletableFuture<QuestionList>());
 
         List<GameEvent> events = registerEventCollector(service);
         service.initGame();
+        clock.advance(60, TimeUnit.SECONDS);
 
         QuestionLoadErrorEvent error = waitForEvent(events, QuestionLoadErrorEvent.class, 1000);
         assertNotNull(error);
@@ -621,11 +645,11 @@ class GameServiceTest {
         }
     }
 
-    private static void invokeLoadQuestionsForAllPlayersWithTimeout(GameService service) throws Exception {
-        Method method = GameService.class.getDeclaredMethod("loadQuestionsForAllPlayersWithTimeout");
+    private static void invokeAssignQuestionsToPlayers(GameService service, QuestionList loaded) throws Exception {
+        Method method = GameService.class.getDeclaredMethod("assignQuestionsToPlayers", QuestionList.class);
         method.setAccessible(true);
         try {
-            method.invoke(service);
+            method.invoke(service, loaded);
         } catch (InvocationTargetException e) {
             throw unwrap(e);
         }
@@ -789,13 +813,6 @@ class GameServiceTest {
         }
     }
 
-    private static final class ImmediateTimeoutFuture extends CompletableFuture<QuestionList> {
-        @Override
-        public QuestionList get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
-            throw new TimeoutException("forced-timeout");
-        }
-    }
-
     private static final class ManualScheduledFuture implements ScheduledFuture<Object> {
         private boolean cancelCalled;
         private boolean done;
@@ -0,0 +1,87 @@
+package Apalabrazos.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MatchMailboxTest {
+
+    @Test
+    void submittedTasksRunInFifoOrder() throws Exception {
+        MatchMailbox mailbox = new MatchMailbox("test");
+        List<Integer> executed = Collections.synchronizedList(new ArrayList<>());
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            int value = i;
+            futures.add(mailbox.submit(() -> executed.add(value)));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, executed.get(i));
+        }
+    }
+
+    @Test
+    void tasksFromManyThreadsNeverOverlap() throws Exception {
+        MatchMailbox mailbox = new MatchMailbox("test");
+        AtomicInteger concurrent = new AtomicInteger();
+        AtomicInteger maxConcurrent = new AtomicInteger();
+        int[] counter = {0};
+
+        int threads = 8;
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            Thread.ofVirtual().start(() -> {
+                for (int i = 0; i < 200; i++) {
+                    mailbox.runAndWait(() -> {
+                        maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+                        counter[0]++;
+                        concurrent.decrementAndGet();
+                    });
+                }
+                done.countDown();
+            });
+        }
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(1, maxConcurrent.get());
+        assertEquals(threads * 200, counter[0]);
+    }
+
+    @Test
+    void runAndWaitInsideMailboxExecutesInline() {
+        MatchMailbox mailbox = new MatchMailbox("test");
+
+        int result = mailbox.callAndWait(() -> {
+            assertTrue(mailbox.isMailboxThread());
+            return mailbox.callAndWait(() -> 42);
+        });
+
+        assertEquals(42, result);
+        assertFalse(mailbox.isMailboxThread());
+    }
+
+    @Test
+    void callAndWaitPropagatesRuntimeExceptionsAndKeepsDraining() {
+        MatchMailbox mailbox = new MatchMailbox("test");
+
+        assertThrows(IllegalStateException.class, () -> mailbox.runAndWait(() -> {
+            throw new IllegalStateException("boom");
+        }));
+
+        assertEquals("ok", mailbox.callAndWait(() -> "ok"));
+    }
+}
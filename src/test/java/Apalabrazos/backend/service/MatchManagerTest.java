@@ -3,20 +3,25 @@ package Apalabrazos.backend.service;
 import Apalabrazos.backend.events.GameCreationRequestedEvent;
 import Apalabrazos.backend.events.GameStartedRequestEvent;
 import Apalabrazos.backend.events.PlayerJoinedEvent;
+import Apalabrazos.backend.lobby.LobbyMatchesState;
+import Apalabrazos.backend.lobby.LobbyRoom;
 import Apalabrazos.backend.model.GamePlayerConfig;
 import Apalabrazos.backend.model.GameType;
 import Apalabrazos.backend.model.Player;
 import Apalabrazos.backend.model.QuestionLevel;
+import Apalabrazos.backend.model.QuestionList;
 import Apalabrazos.backend.network.MessageSender;
 import Apalabrazos.backend.network.WsMessageType;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -193,6 +198,33 @@ class MatchManagerTest {
         assertFalse(second.getGameInstance().hasPlayer("joiner-id"));
     }
 
+    @Test
+    void membershipFollowsJoinLeaveAndMatchRemoval() {
+        GameService first = createMatchWithCreator("owner1", "owner1-id", "RoomFirst");
+        GameService second = createMatchWithCreator("owner2", "owner2-id", "RoomSecond");
+        String firstId = manager.addMatch(first);
+        String secondId = manager.addMatch(second);
+        Player joiner = connectedPlayer("joiner", "joiner-id", new TestMessageSender());
+
+        assertTrue(manager.isPlayerInMatch("owner1-id"));
+        assertFalse(manager.isPlayerInMatch("joiner-id"));
+
+        assertTrue(manager.joinPlayerToMatch(joiner, firstId));
+        assertTrue(manager.isPlayerInMatch("joiner-id"));
+
+        assertEquals(firstId, manager.leavePlayerFromCurrentMatch(joiner));
+        assertFalse(manager.isPlayerInMatch("joiner-id"));
+        assertTrue(manager.joinPlayerToMatch(joiner, secondId));
+
+        manager.removeMatchById(secondId);
+        // Las entradas del índice se borran, no solo se ignoran al consultarlas
+        assertNull(manager.peekJoinedMatchId("joiner-id"));
+        assertNull(manager.peekJoinedMatchId("owner2-id"));
+        assertFalse(manager.isPlayerInMatch("joiner-id"));
+        assertFalse(manager.isPlayerInMatch("owner2-id"));
+        assertTrue(manager.isPlayerInMatch("owner1-id"));
+    }
+
     @Test
     void startMatchRequestFailsWhenRequesterIsNotCreator() {
         TestMessageSender creatorSender = new TestMessageSender();
@@ -248,7 +280,7 @@ class MatchManagerTest {
     }
 
     @Test
-    void creatorLeavingRemovesMatchAndNotifiesOtherPlayers() {
+    void creatorLeavingRemovesMatchAndNotifiesOtherPlayers() throws Exception {
         TestMessageSender creatorSender = new TestMessageSender();
         Player creator = connectedPlayer("creator", "creator-id", creatorSender);
 
@@ -261,16 +293,54 @@ class MatchManagerTest {
         service.addPlayerToGame("creator-id", "creator");
         service.addPlayerToGame("joiner-id", "joiner");
         String matchId = manager.addMatch(service);
+        CompletableFuture<QuestionList> preload = pendingPreload(service);
 
         String leftMatch = manager.leavePlayerFromCurrentMatch(creator);
 
         assertEquals(matchId, leftMatch);
         assertEquals(0, manager.getActiveMatchCount());
+        assertTrue(preload.isCancelled());
         Map<String, Object> closed = joinerSender.firstMessageOfType(WsMessageType.MATCH_CLOSED_BY_CREATOR);
         assertNotNull(closed);
         assertEquals(matchId, payloadValue(closed, "roomId"));
     }
 
+    @Test
+    void lastPlayerLeavingOrRemovingTheMatchCancelsItsQuestionPreload() throws Exception {
+        GameService lonely = createMatchWithCreator("lonely", "lonely-id", "RoomLonely");
+        lonely.setCreatorPlayerId("someone-else");
+        manager.addMatch(lonely);
+        CompletableFuture<QuestionList> lonelyPreload = pendingPreload(lonely);
+
+        GameService removed = createMatchWithCreator("removed", "removed-id", "RoomRemoved");
+        String removedId = manager.addMatch(removed);
+        CompletableFuture<QuestionList> removedPreload = pendingPreload(removed);
+
+        manager.leavePlayerFromCurrentMatch(connectionRegistry.findConnectedPlayerByPlayerId("lonely-id"));
+        manager.removeMatchById(removedId);
+
+        assertEquals(0, manager.getActiveMatchCount());
+        assertTrue(lonelyPreload.isCancelled());
+        assertTrue(removedPreload.isCancelled());
+    }
+
+    @Test
+    void clearingAllMatchesCancelsTheirQuestionPreloads() throws Exception {
+        GameService first = createMatchWithCreator("first", "first-id", "RoomFirst");
+        manager.addMatch(first);
+        CompletableFuture<QuestionList> firstPreload = pendingPreload(first);
+
+        GameService second = createMatchWithCreator("second", "second-id", "RoomSecond");
+        manager.addMatch(second);
+        CompletableFuture<QuestionList> secondPreload = pendingPreload(second);
+
+        manager.clearAllMatches();
+
+        assertEquals(0, manager.getActiveMatchCount());
+        assertTrue(firstPreload.isCancelled());
+        assertTrue(secondPreload.isCancelled());
+    }
+
     @Test
     void normalPlayerLeavingKeepsMatchAliveAndUpdatesSummary() {
         TestMessageSender creatorSender = new TestMessageSender();
@@ -312,6 +382,53 @@ class MatchManagerTest {
         assertEquals(0, manager.getActiveMatchCount());
         assertNull(manager.getMatchById(matchId));
         assertTrue(manager.getMatchPlayerNames(matchId).isEmpty());
+        long deadline = System.currentTimeMillis() + 1_000;
+        while (service.getGameInstance().getPlayerCount() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, service.getGameInstance().getPlayerCount());
+    }
+
+    @Test
+    void quickMatchIsCreatedJoinedAndStartedInOneStep() {
+        TestMessageSender firstSender = new TestMessageSender();
+        TestMessageSender secondSender = new TestMessageSender();
+        Player first = connectedPlayer("first", "first-id", firstSender);
+        Player second = connectedPlayer("second", "second-id", secondSender);
+        LobbyMatchesState lobby = LobbyRoom.getInstance().getMatchesState();
+        long lobbyVersion = lobby.getVersion();
+
+        String matchId = manager.createQuickMatch(validConfig(first, 2, 60), List.of(first, second));
+
+        assertNotNull(matchId);
+        // El lobby la ve por primera vez ya con el grupo completo
+        List<Map<String, Object>> announced = lobby.summariesChangedSince(lobbyVersion);
+        assertEquals(matchId, announced.get(0).get("roomId"));
+        assertEquals(2, announced.get(0).get("players"));
+        assertEquals(1, manager.getActiveMatchCount());
+        assertTrue(manager.isPlayerInMatch("first-id"));
+        assertTrue(manager.isPlayerInMatch("second-id"));
+        for (TestMessageSender sender : List.of(firstSender, secondSender)) {
+            assertEquals(matchId, payloadValue(sender.firstMessageOfType(WsMessageType.JOIN_MATCH_REQUEST_VALID), "roomId"));
+            assertEquals(matchId, payloadValue(sender.firstMessageOfType(WsMessageType.MATCH_STARTED), "roomId"));
+        }
+    }
+
+    @Test
+    void quickMatchIsDiscardedWhenAPlayerIsAlreadyInAnotherMatch() {
+        GameService existing = createMatchWithCreator("busy", "busy-id", "RoomBusy");
+        manager.addMatch(existing);
+        Player busy = connectionRegistry.findConnectedPlayerByPlayerId("busy-id");
+        Player free = connectedPlayer("free", "free-id", new TestMessageSender());
+        long lobbyVersion = LobbyRoom.getInstance().getMatchesState().getVersion();
+
+        assertNull(manager.createQuickMatch(validConfig(free, 2, 60), List.of(free, busy)));
+
+        // Ni alta, ni actualización, ni baja de una partida que el lobby nunca vio
+        assertEquals(lobbyVersion, LobbyRoom.getInstance().getMatchesState().getVersion());
+        assertEquals(1, manager.getActiveMatchCount());
+        assertFalse(manager.isPlayerInMatch("free-id"));
+        assertTrue(manager.isPlayerInMatch("busy-id"));
     }
 
     private Player connectedPlayer(String name, String playerId, TestMessageSender sender) {
@@ -344,6 +461,17 @@ class MatchManagerTest {
         return payload.get(key);
     }
 
+    private static CompletableFuture<QuestionList> pendingPreload(GameService service) throws Exception {
+        CompletableFuture<QuestionList> preload = new CompletableFuture<>();
+        Field started = GameService.class.getDeclaredField("questionPreloadStarted");
+        started.setAccessible(true);
+        started.set(service, true);
+        Field future = GameService.class.getDeclaredField("questionLoadFuture");
+        future.setAccessible(true);
+        future.set(service, preload);
+        return preload;
+    }
+
     private static void invokeCleanupFinishedMatch(MatchManager manager, String matchId, GameService service)
             throws Exception {
         Method method = MatchManager.class.getDeclaredMethod("cleanupFinishedMatch", String.class, GameService.class);
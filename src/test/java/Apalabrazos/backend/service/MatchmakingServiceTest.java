@@ -0,0 +1,180 @@
+package Apalabrazos.backend.service;
+
+import Apalabrazos.backend.model.GamePlayerConfig;
+import Apalabrazos.backend.model.GameType;
+import Apalabrazos.backend.model.Player;
+import Apalabrazos.backend.model.QuestionLevel;
+import Apalabrazos.backend.network.MessageSender;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MatchmakingServiceTest {
+
+    private final RecordingStarter starter = new RecordingStarter();
+    private final MatchmakingService service = new MatchmakingService(starter);
+
+    @Test
+    void compatiblePlayersAreMatchedInArrivalOrder() {
+        Player a = player("a");
+        Player b = player("b");
+        Player c = player("c");
+        assertNull(service.enqueue(a, preferences(a, 2, QuestionLevel.EASY)));
+        assertNull(service.enqueue(b, preferences(b, 2, QuestionLevel.EASY)));
+        assertNull(service.enqueue(c, preferences(c, 2, QuestionLevel.EASY)));
+
+        assertEquals(1, service.tick());
+
+        assertEquals(1, starter.started.size());
+        assertEquals(List.of(a, b), starter.started.get(0));
+        assertEquals(1, service.getWaitingCount());
+        assertTrue(service.isQueued("c"));
+        assertFalse(service.isQueued("a"));
+    }
+
+    @Test
+    void differentPreferencesWaitInDifferentBuckets() {
+        Player a = player("a");
+        Player b = player("b");
+        service.enqueue(a, preferences(a, 2, QuestionLevel.EASY));
+        service.enqueue(b, preferences(b, 2, QuestionLevel.HARD));
+
+        assertEquals(0, service.tick());
+        assertEquals(2, service.getWaitingCount());
+    }
+
+    @Test
+    void cancelledAndDisconnectedPlayersAreSkipped() {
+        Player a = player("a");
+        Player gone = player("gone");
+        Player b = player("b");
+        Player c = player("c");
+        service.enqueue(a, preferences(a, 2, QuestionLevel.EASY));
+        service.enqueue(gone, preferences(gone, 2, QuestionLevel.EASY));
+        service.enqueue(b, preferences(b, 2, QuestionLevel.EASY));
+        service.enqueue(c, preferences(c, 2, QuestionLevel.EASY));
+
+        assertTrue(service.cancel("a"));
+        assertFalse(service.cancel("a"));
+        gone.disconnect();
+
+        assertEquals(1, service.tick());
+        assertEquals(List.of(b, c), starter.started.get(0));
+        assertEquals(0, service.getWaitingCount());
+        assertFalse(service.isQueued("gone"));
+    }
+
+    @Test
+    void ticketCancelledWhileTakenIsNotPutBackInTheQueue() {
+        Player a = player("a");
+        Player b = player("b");
+        Player c = player("c");
+        service.enqueue(a, preferences(a, 3, QuestionLevel.EASY));
+        service.enqueue(b, preferences(b, 3, QuestionLevel.EASY));
+        service.enqueue(c, preferences(c, 3, QuestionLevel.EASY));
+        // Mientras el tick tiene sacados a "a" y "b", "a" cancela y "c" resulta no elegible
+        starter.onInMatchCheck.put("c", () -> {
+            assertFalse(service.cancel("a"));
+            starter.inMatch.add("c");
+        });
+
+        assertEquals(0, service.tick());
+        assertFalse(service.isQueued("a"));
+        assertEquals(1, service.getWaitingCount());
+
+        Player d = player("d");
+        Player e = player("e");
+        service.enqueue(d, preferences(d, 3, QuestionLevel.EASY));
+        service.enqueue(e, preferences(e, 3, QuestionLevel.EASY));
+        assertEquals(1, service.tick());
+        assertEquals(List.of(b, d, e), starter.started.get(0));
+    }
+
+    @Test
+    void requeueingReplacesPreviousPreferences() {
+        Player a = player("a");
+        Player b = player("b");
+        service.enqueue(a, preferences(a, 2, QuestionLevel.HARD));
+        service.enqueue(a, preferences(a, 2, QuestionLevel.EASY));
+        service.enqueue(b, preferences(b, 2, QuestionLevel.EASY));
+
+        assertEquals(1, service.tick());
+        assertEquals(0, service.getWaitingCount());
+    }
+
+    @Test
+    void invalidPreferencesAndPlayersInAMatchAreRejected() {
+        Player a = player("a");
+        starter.inMatch.add("busy");
+        Player busy = player("busy");
+
+        assertNotNull(service.enqueue(a, preferences(a, 9, QuestionLevel.EASY)));
+        assertNotNull(service.enqueue(busy, preferences(busy, 2, QuestionLevel.EASY)));
+        assertEquals(0, service.getWaitingCount());
+    }
+
+    private static Player player(String playerId) {
+        Player player = new Player(UUID.randomUUID(), playerId, "cosmos-" + playerId, new ConnectedSender());
+        player.setPlayerID(playerId);
+        return player;
+    }
+
+    private static GamePlayerConfig preferences(Player player, int maxPlayers, QuestionLevel level) {
+        GamePlayerConfig config = new GamePlayerConfig(player, 60, level, maxPlayers, 27);
+        config.setGameType(GameType.HIGHER_POINTS_WINS);
+        return config;
+    }
+
+    private static final class RecordingStarter implements MatchmakingService.MatchStarter {
+        private final List<List<Player>> started = new ArrayList<>();
+        private final Set<String> inMatch = new HashSet<>();
+        private final Map<String, Runnable> onInMatchCheck = new HashMap<>();
+
+        @Override
+        public String validate(GamePlayerConfig preferences) {
+            return preferences.getMaxPlayers() >= 2 && preferences.getMaxPlayers() <= 8 ? null : "players";
+        }
+
+        @Override
+        public boolean isInMatch(String playerId) {
+            Runnable hook = onInMatchCheck.remove(playerId);
+            if (hook != null) {
+                hook.run();
+            }
+            return inMatch.contains(playerId);
+        }
+
+        @Override
+        public String start(GamePlayerConfig config, List<Player> players) {
+            started.add(players);
+            return "match-" + started.size();
+        }
+    }
+
+    private static final class ConnectedSender implements MessageSender {
+        @Override
+        public void send(Object message) {
+        }
+
+        @Override
+        public boolean isConnected() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package Apalabrazos.backend.service;
+
+import Apalabrazos.backend.model.Question;
+import Apalabrazos.backend.model.QuestionList;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class QuestionBatteryPoolTest {
+
+    private final List<Runnable> queued = new ArrayList<>();
+    private final AtomicInteger generated = new AtomicInteger();
+
+    private QuestionBatteryPool pool(int min, int max) {
+        return new QuestionBatteryPool(min, max, 1, queued::add, () -> {
+            generated.incrementAndGet();
+            return battery();
+        });
+    }
+
+    private void runQueued() {
+        List<Runnable> tasks = new ArrayList<>(queued);
+        queued.clear();
+        tasks.forEach(Runnable::run);
+    }
+
+    @Test
+    void fillOrdersUpToMaxOnceForAllLevels() {
+        QuestionBatteryPool pool = pool(2, 3);
+
+        pool.fill();
+        assertEquals(3, queued.size());
+        pool.fill();
+        assertEquals(3, queued.size());
+
+        runQueued();
+        assertEquals(3, pool.readyCount());
+        assertEquals(0, pool.inFlight());
+    }
+
+    @Test
+    void takeRefillsOnlyBelowTheLowWatermark() {
+        QuestionBatteryPool pool = pool(2, 3);
+        pool.fill();
+        runQueued();
+
+        assertNotNull(pool.take());
+        assertEquals(0, queued.size());
+
+        assertNotNull(pool.take());
+        assertEquals(2, queued.size());
+        assertEquals(2, pool.inFlight());
+
+        runQueued();
+        assertEquals(3, pool.readyCount());
+    }
+
+    @Test
+    void emptyPoolReturnsNullAndOrdersRefill() {
+        QuestionBatteryPool pool = pool(1, 2);
+
+        assertNull(pool.take());
+        assertEquals(2, queued.size());
+        runQueued();
+        assertNotNull(pool.take());
+        assertEquals(2, generated.get());
+    }
+
+    @Test
+    void failedRefillReleasesItsSlot() {
+        QuestionBatteryPool pool = new QuestionBatteryPool(1, 1, 1, queued::add, () -> {
+            throw new IllegalStateException("LLM down");
+        });
+
+        pool.take();
+        runQueued();
+        assertEquals(0, pool.inFlight());
+        assertEquals(0, pool.readyCount());
+
+        pool.take();
+        assertEquals(1, queued.size());
+    }
+
+    @Test
+    void zeroMaxDisablesThePool() {
+        QuestionBatteryPool pool = pool(2, 0);
+
+        pool.fill();
+        assertNull(pool.take());
+        assertEquals(0, queued.size());
+    }
+
+    private static QuestionList battery() {
+        List<Question> questions = new ArrayList<>();
+        questions.add(new Question());
+        return new QuestionList(questions, 27);
+    }
+}
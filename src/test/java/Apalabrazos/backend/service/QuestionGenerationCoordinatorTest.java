@@ -0,0 +1,159 @@
+package Apalabrazos.backend.service;
+
+import Apalabrazos.backend.model.Question;
+import Apalabrazos.backend.model.QuestionList;
+import Apalabrazos.backend.model.QuestionStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QuestionGenerationCoordinatorTest {
+
+    private final List<Runnable> queued = new ArrayList<>();
+    private final List<Integer> generated = new ArrayList<>();
+
+    private QuestionGenerationCoordinator coordinator(int maxWaiters) {
+        return new QuestionGenerationCoordinator(1, maxWaiters, queued::add, questions -> {
+            generated.add(questions);
+            return battery(questions);
+        });
+    }
+
+    private void runQueued() {
+        List<Runnable> tasks = new ArrayList<>(queued);
+        queued.clear();
+        tasks.forEach(Runnable::run);
+    }
+
+    @Test
+    void waitingRequestsShareOneGenerationSizedForTheLargest() throws Exception {
+        QuestionGenerationCoordinator coordinator = coordinator(8);
+
+        CompletableFuture<QuestionList> small = coordinator.request(10);
+        CompletableFuture<QuestionList> large = coordinator.request(27);
+        assertEquals(1, queued.size());
+
+        runQueued();
+        assertEquals(List.of(27), generated);
+        assertEquals(10, small.get().getCurrentLength());
+        assertEquals(27, large.get().getCurrentLength());
+    }
+
+    @Test
+    void everyWaiterGetsItsOwnQuestionInstances() throws Exception {
+        QuestionGenerationCoordinator coordinator = coordinator(8);
+        CompletableFuture<QuestionList> first = coordinator.request(27);
+        CompletableFuture<QuestionList> second = coordinator.request(27);
+        runQueued();
+
+        Question a = first.get().getQuestionAt(0);
+        Question b = second.get().getQuestionAt(0);
+        assertNotSame(a, b);
+        assertEquals(a.getQuestionText(), b.getQuestionText());
+
+        a.setQuestionStatus(QuestionStatus.RESPONDED_OK);
+        assertEquals(QuestionStatus.INIT, b.getQuestionStatus());
+    }
+
+    @Test
+    void fullFlightOrStartedGenerationOpensANewOne() {
+        QuestionGenerationCoordinator coordinator = coordinator(2);
+        coordinator.request(27);
+        coordinator.request(27);
+        coordinator.request(27);
+        assertEquals(2, queued.size());
+
+        runQueued();
+        coordinator.request(27);
+        assertEquals(1, queued.size());
+        runQueued();
+        assertEquals(3, generated.size());
+    }
+
+    @Test
+    void failedGenerationFailsEveryWaiter() {
+        QuestionGenerationCoordinator coordinator = new QuestionGenerationCoordinator(1, 8, queued::add, questions -> {
+            throw new IllegalStateException("LLM down");
+        });
+        CompletableFuture<QuestionList> first = coordinator.request(27);
+        CompletableFuture<QuestionList> second = coordinator.request(5);
+        runQueued();
+
+        assertThrows(ExecutionException.class, first::get);
+        assertTrue(second.isCompletedExceptionally());
+        assertEquals(0, coordinator.inFlight());
+    }
+
+    @Test
+    void shortBatteryOnlyFailsWaitersThatAskedForMore() throws Exception {
+        QuestionGenerationCoordinator coordinator = new QuestionGenerationCoordinator(1, 8, queued::add,
+                questions -> battery(12));
+        CompletableFuture<QuestionList> small = coordinator.request(10);
+        CompletableFuture<QuestionList> large = coordinator.request(27);
+        runQueued();
+
+        assertEquals(10, small.get().getCurrentLength());
+        assertTrue(large.isCompletedExceptionally());
+    }
+
+    @Test
+    void generationWithEveryWaiterCancelledIsSkipped() throws Exception {
+        QuestionGenerationCoordinator coordinator = coordinator(8);
+        coordinator.request(27).cancel(true);
+        CompletableFuture<QuestionList> next = coordinator.request(10);
+        assertEquals(2, queued.size());
+
+        runQueued();
+        assertEquals(List.of(10), generated);
+        assertEquals(10, next.get().getCurrentLength());
+    }
+
+    @Test
+    void runningGenerationIsInterruptedOnlyWhenItsLastWaiterCancels() {
+        List<CompletableFuture<QuestionList>> waiters = new ArrayList<>();
+        List<Boolean> interrupted = new ArrayList<>();
+        QuestionGenerationCoordinator coordinator = new QuestionGenerationCoordinator(1, 8, queued::add, questions -> {
+            waiters.get(0).cancel(true);
+            interrupted.add(Thread.currentThread().isInterrupted());
+            waiters.get(1).cancel(true);
+            interrupted.add(Thread.currentThread().isInterrupted());
+            throw new InterruptedException("cancelled");
+        });
+        waiters.add(coordinator.request(27));
+        waiters.add(coordinator.request(10));
+
+        runQueued();
+        assertEquals(List.of(false, true), interrupted);
+        // La interrupción no se queda en el hilo que ejecutó el vuelo
+        assertFalse(Thread.currentThread().isInterrupted());
+        assertEquals(0, coordinator.inFlight());
+    }
+
+    @Test
+    void withPermitRunsInsideTheLimit() throws Exception {
+        QuestionGenerationCoordinator coordinator = coordinator(8);
+
+        int seen = coordinator.withPermit(coordinator::inFlight);
+        assertEquals(1, seen);
+        assertEquals(0, coordinator.inFlight());
+    }
+
+    private static QuestionList battery(int size) {
+        List<Question> questions = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            Question question = new Question("Pista " + i, List.of("Uno", "Dos", "Tres", "Cuatro"), i % 4);
+            question.setQuestionLetter(String.valueOf((char) ('a' + i)));
+            questions.add(question);
+        }
+        return new QuestionList(questions, 27);
+    }
+}
@@ -0,0 +1,122 @@
+package Apalabrazos.backend.service;
+
+import Apalabrazos.backend.events.GameEvent;
+import Apalabrazos.backend.events.GameFinishedEvent;
+import Apalabrazos.backend.model.GameGlobal;
+import Apalabrazos.backend.model.GamePlayerConfig;
+import Apalabrazos.backend.model.Question;
+import Apalabrazos.backend.model.QuestionLevel;
+import Apalabrazos.backend.model.QuestionList;
+import Apalabrazos.backend.model.QuestionStatus;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VirtualMatchClockTest {
+
+    @Test
+    void tasksRunInDueOrderOnlyWhenTimeAdvances() {
+        VirtualMatchClock clock = new VirtualMatchClock(1_000L);
+        List<String> executed = new ArrayList<>();
+
+        clock.schedule(() -> executed.add("b"), 2, TimeUnit.SECONDS);
+        clock.schedule(() -> executed.add("a"), 1, TimeUnit.SECONDS);
+        clock.schedule(() -> executed.add("c"), 2, TimeUnit.SECONDS);
+
+        assertTrue(executed.isEmpty());
+        clock.advance(1500, TimeUnit.MILLISECONDS);
+        assertEquals(List.of("a"), executed);
+        assertEquals(2_500L, clock.currentTimeMillis());
+
+        clock.advance(1, TimeUnit.SECONDS);
+        assertEquals(List.of("a", "b", "c"), executed);
+        assertEquals(0, clock.pendingTasks());
+    }
+
+    @Test
+    void periodicTasksRepeatUntilCancelled() {
+        VirtualMatchClock clock = new VirtualMatchClock();
+        int[] ticks = {0};
+
+        ScheduledFuture<?> ticker = clock.scheduleAtFixedRate(() -> ticks[0]++, 1, 1, TimeUnit.SECONDS);
+        clock.advance(10, TimeUnit.MINUTES);
+        assertEquals(600, ticks[0]);
+
+        ticker.cancel(false);
+        clock.advance(1, TimeUnit.MINUTES);
+        assertEquals(600, ticks[0]);
+        assertTrue(ticker.isCancelled());
+        assertEquals(0, clock.pendingTasks());
+    }
+
+    @Test
+    void tasksScheduledByTasksRunWithinTheSameAdvance() {
+        VirtualMatchClock clock = new VirtualMatchClock();
+        List<Long> firedAt = new ArrayList<>();
+
+        clock.schedule(() -> {
+            firedAt.add(clock.nanoTime());
+            clock.schedule(() -> firedAt.add(clock.nanoTime()), 1, TimeUnit.SECONDS);
+        }, 1, TimeUnit.SECONDS);
+
+        clock.advance(5, TimeUnit.SECONDS);
+
+        assertEquals(List.of(TimeUnit.SECONDS.toNanos(1), TimeUnit.SECONDS.toNanos(2)), firedAt);
+    }
+
+    @Test
+    void fullMatchTimesOutInVirtualTime() throws Exception {
+        VirtualMatchClock clock = new VirtualMatchClock();
+        GamePlayerConfig config = new GamePlayerConfig();
+        config.setTimerSeconds(600);
+        config.setMaxPlayers(1);
+        config.setQuestionNumber(1);
+        GameService service = new GameService(config, clock);
+        assertTrue(service.addPlayerToGame("p1"));
+
+        QuestionList questions = new QuestionList();
+        questions.addQuestion(new Question("Con A", List.of("a", "b", "c", "d"), 0,
+                QuestionStatus.INIT, QuestionLevel.EASY, "a", QuestionStatus.INIT.getValue()));
+        setField(service, "questionPreloadStarted", true);
+        setField(service, "questionLoadFuture", CompletableFuture.completedFuture(questions));
+
+        List<GameEvent> events = Collections.synchronizedList(new ArrayList<>());
+        service.addListener(events::add);
+
+        long startNanos = System.nanoTime();
+        service.initGame();
+        clock.advance(10, TimeUnit.MINUTES);
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+
+        assertEquals(0, service.getRemainingSeconds());
+        assertEquals(GameGlobal.GameGlobalState.POST, service.getGameInstance().getState());
+        assertTrue(elapsedMs < 60_000, "10 simulated minutes should not take real minutes");
+
+        long deadline = System.currentTimeMillis() + 2_000;
+        while (System.currentTimeMillis() < deadline && !containsFinished(events)) {
+            Thread.sleep(10);
+        }
+        assertTrue(containsFinished(events));
+    }
+
+    private static boolean containsFinished(List<GameEvent> events) {
+        synchronized (events) {
+            return events.stream().anyMatch(GameFinishedEvent.class::isInstance);
+        }
+    }
+
+    private static void setField(Object target, String fieldName, Object value) throws Exception {
+        Field field = target.getClass().getDeclaredField(fieldName);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
@@ -0,0 +1,46 @@
+package Apalabrazos.backend.simulation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ThinkTimeTest {
+
+    @Test
+    void parsesEverySupportedDistribution() {
+        assertEquals("fixed:800", ThinkTime.parse("fixed:800").toString());
+        assertEquals("uniform:500-3000", ThinkTime.parse("uniform:500-3000").toString());
+        assertEquals("exp:1500", ThinkTime.parse("exponential:1500").toString());
+        assertEquals("normal:1500,400", ThinkTime.parse("NORMAL:1500,400").toString());
+    }
+
+    @Test
+    void rejectsInvalidSpecs() {
+        assertThrows(IllegalArgumentException.class, () -> ThinkTime.parse("gamma:3"));
+        assertThrows(IllegalArgumentException.class, () -> ThinkTime.parse("uniform:3000"));
+        assertThrows(IllegalArgumentException.class, () -> ThinkTime.parse("uniform:3000-500"));
+        assertThrows(IllegalArgumentException.class, () -> ThinkTime.parse(""));
+    }
+
+    @Test
+    void samplesStayWithinTheDistributionBounds() {
+        Random random = new Random(7);
+        ThinkTime uniform = ThinkTime.uniform(500, 3000);
+        ThinkTime normal = ThinkTime.normal(100, 500);
+        ThinkTime exponential = ThinkTime.exponential(1000);
+        long exponentialSum = 0;
+        for (int i = 0; i < 10_000; i++) {
+            long u = uniform.nextMillis(random);
+            assertTrue(u >= 500 && u <= 3000, "uniform sample out of range: " + u);
+            assertTrue(normal.nextMillis(random) >= 0);
+            exponentialSum += exponential.nextMillis(random);
+        }
+        double exponentialMean = exponentialSum / 10_000.0;
+        assertTrue(exponentialMean > 900 && exponentialMean < 1100, "exponential mean was " + exponentialMean);
+        assertEquals(800, ThinkTime.fixed(800).nextMillis(random));
+    }
+}